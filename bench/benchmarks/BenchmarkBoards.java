@@ -0,0 +1,101 @@
+package benchmarks;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import assets.Peashooter;
+import assets.PlantTypes;
+import assets.Regular_Zombie;
+import assets.Zombie;
+import assets.ZombieTypes;
+import engine.Board;
+import engine.Game;
+import levels.LevelInfo;
+
+/**
+ * Builds the boards and games used by the benchmarks.
+ *
+ * Row 0 is left empty so benchmarks can place, move and remove units there without the population
+ * getting in the way. The other rows have a Peashooter in column 0 and the zombies spread over the
+ * right half of the board.
+ */
+final class BenchmarkBoards {
+	//the row kept free for the benchmarked operations
+	static final int FREE_ROW = 0;
+	//the first row of the population
+	static final int POPULATED_ROW = 1;
+
+	private BenchmarkBoards() {}
+
+	/**
+	 * Parse a board size parameter
+	 * @param size the size as rows x columns, e.g. "50x50"
+	 * @return the rows and columns
+	 */
+	static int[] parseSize(String size) {
+		String[] parts = size.toLowerCase().split("x");
+		int rows = Integer.parseInt(parts[0].trim());
+		int cols = Integer.parseInt(parts[1].trim());
+		if (rows < 2 || cols < 2) {
+			throw new IllegalArgumentException("Benchmark boards need at least 2 rows and 2 columns: " + size);
+		}
+		return new int[] {rows, cols};
+	}
+
+	/**
+	 * Create a board with plants and zombies
+	 * @param size the size as rows x columns
+	 * @param zombies the number of zombies to place
+	 * @return the board
+	 */
+	static Board createBoard(String size, int zombies) {
+		int[] dims = parseSize(size);
+		Board board = new Board(dims[0], dims[1]);
+		populate(board, zombies);
+		return board;
+	}
+
+	/**
+	 * Create a game with plants and zombies on the board and more zombies waiting to spawn
+	 * @param size the size as rows x columns
+	 * @param zombies the number of zombies to place
+	 * @return the game
+	 */
+	static Game createGame(String size, int zombies) {
+		int[] dims = parseSize(size);
+		Map<ZombieTypes, Integer> queue = new HashMap<ZombieTypes, Integer>();
+		queue.put(ZombieTypes.REG_ZOMBIE, Math.max(zombies, 10));
+		Set<PlantTypes> plants = new HashSet<PlantTypes>();
+		plants.add(PlantTypes.PEASHOOTER);
+		LevelInfo lvl = new LevelInfo("Benchmark " + size, dims[1], dims[0], 25, Integer.MAX_VALUE / 2, queue, plants);
+
+		Game game = new Game(lvl);
+		populate(game.getBoard(), zombies);
+		return game;
+	}
+
+	/**
+	 * Place a Peashooter at the start of every populated row and spread the zombies over the right half
+	 */
+	private static void populate(Board board, int zombies) {
+		int rows = board.getRow();
+		int cols = board.getColumn();
+		for (int r = POPULATED_ROW; r < rows; r++) {
+			board.placePlant(new Peashooter(), r, 0);
+		}
+
+		int firstCol = cols / 2;
+		int cells = (rows - POPULATED_ROW) * (cols - firstCol);
+		for (int i = 0; i < zombies; i++) {
+			int cell = i % cells;
+			int r = POPULATED_ROW + cell / (cols - firstCol);
+			int c = firstCol + cell % (cols - firstCol);
+			Zombie zombie = new Regular_Zombie();
+			zombie.setListener(board);
+			board.placeZombie(zombie, r, c);
+		}
+		board.takeChanges();
+	}
+}
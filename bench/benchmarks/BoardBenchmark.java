@@ -0,0 +1,217 @@
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import assets.Flanking_Zombie;
+import assets.Peashooter;
+import assets.Plant;
+import assets.Regular_Zombie;
+import assets.TargetPolicy;
+import assets.Unit;
+import assets.Zombie;
+import engine.Board;
+import engine.TargetVisitor;
+
+/**
+ * Benchmarks for the Board operations used every turn.
+ *
+ * Each benchmark leaves the board as it found it, so the population stays the same for the whole run.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g"})
+public class BoardBenchmark {
+	@Param({"5x5", "50x50", "200x200", "1000x1000"})
+	public String size;
+
+	@Param({"10", "1000", "100000", "1000000"})
+	public int zombies;
+
+	private Board board;
+	private Plant plant;
+	private Zombie zombie;
+	private Zombie mover;
+	private int moverStart;
+	private Plant shooter;
+	//the visitor the forEach queries call, sums the hit points so the visits are not optimised away
+	private long visitedHp;
+	private final TargetVisitor<Unit> sumHp = (b, unit) -> visitedHp += unit.getHP();
+
+	@Setup
+	public void setUp() {
+		board = BenchmarkBoards.createBoard(size, zombies);
+		plant = new Peashooter();
+		zombie = new Regular_Zombie();
+		zombie.setListener(board);
+
+		//a lone zombie in the free row that walks towards the house
+		moverStart = board.getColumn() - 1;
+		mover = new Regular_Zombie();
+		mover.setListener(board);
+		board.placeZombie(mover, BenchmarkBoards.FREE_ROW, moverStart);
+
+		//fires air projectiles down the free row, which has no air zombies so they fly off the far end
+		board.setProjectiles(true);
+		shooter = new Peashooter();
+	}
+
+	/**
+	 * A board of the same size and population with a flanking zombie on it, so it has a flow field. 
+	 * Kept apart from the main board so the flanker is not in the way of the target queries.
+	 */
+	@State(Scope.Thread)
+	public static class FlankedBoard {
+		private Board board;
+		private Plant plant;
+
+		@Setup
+		public void setUp(BoardBenchmark benchmark) {
+			board = BenchmarkBoards.createBoard(benchmark.size, benchmark.zombies);
+			plant = new Peashooter();
+			Zombie flanker = new Flanking_Zombie();
+			flanker.setListener(board);
+			board.placeZombie(flanker, BenchmarkBoards.POPULATED_ROW, 0);
+			board.updateFlowField();
+		}
+	}
+
+	/**
+	 * Place and remove a plant in the middle of the free row and update the flow field each time, 
+	 * only the columns from the plant on are worked out again
+	 */
+	@Benchmark
+	public int updateFlowField(FlankedBoard flanked) {
+		Board board = flanked.board;
+		int middle = board.getColumn() / 2;
+		board.placePlant(flanked.plant, BenchmarkBoards.FREE_ROW, middle);
+		int updated = board.updateFlowField();
+		board.removePlant(BenchmarkBoards.FREE_ROW, middle);
+		return updated + board.updateFlowField();
+	}
+
+	@Benchmark
+	public Board placeRemovePlant() {
+		board.placePlant(plant, BenchmarkBoards.FREE_ROW, 0);
+		board.removePlant(BenchmarkBoards.FREE_ROW, 0);
+		return board;
+	}
+
+	@Benchmark
+	public Board placeRemoveZombie() {
+		board.placeZombie(zombie, BenchmarkBoards.FREE_ROW, 0);
+		board.removeZombie(BenchmarkBoards.FREE_ROW, 0);
+		return board;
+	}
+
+	/**
+	 * Move the lone zombie one step, then put it back where it started
+	 */
+	@Benchmark
+	public boolean onZombieMove() {
+		boolean moved = board.onZombieMove(mover);
+		board.removeZombie(mover.getRow(), mover.getCol());
+		board.placeZombie(mover, BenchmarkBoards.FREE_ROW, moverStart);
+		return moved;
+	}
+
+	/**
+	 * Fire a projectile and fly the projectiles a turn, the ring holds the projectiles fired over the turns a projectile
+	 * takes to cross the row
+	 */
+	@Benchmark
+	public int advanceProjectiles() {
+		board.fireProjectile(shooter, Plant.PROJECTILE_SPEED_SHOT, true);
+		return board.advanceProjectiles(1);
+	}
+
+	@Benchmark
+	public Zombie getSingleZombieTarget() {
+		return board.getSingleZombieTarget(BenchmarkBoards.POPULATED_ROW, 0);
+	}
+
+	/**
+	 * Find the weakest zombie of the populated row, from the row's heap built on the first query
+	 */
+	@Benchmark
+	public Zombie getLowestHPTarget() {
+		return board.getTarget(BenchmarkBoards.POPULATED_ROW, 0, TargetPolicy.LOWEST_HP, false);
+	}
+
+	@Benchmark
+	public Zombie getSingleAirTarget() {
+		return board.getSingleAirTarget(BenchmarkBoards.POPULATED_ROW, 0);
+	}
+
+	@Benchmark
+	public void getGridTargets(Blackhole bh) {
+		bh.consume(board.getGridTargets(BenchmarkBoards.POPULATED_ROW, 0));
+	}
+
+	@Benchmark
+	public void getRowTargets(Blackhole bh) {
+		bh.consume(board.getRowTargets(BenchmarkBoards.POPULATED_ROW, 0));
+	}
+
+	@Benchmark
+	public void getRowUnits(Blackhole bh) {
+		bh.consume(board.getRowUnits(BenchmarkBoards.POPULATED_ROW));
+	}
+
+	@Benchmark
+	public long forEachGridTarget() {
+		board.forEachGridTarget(BenchmarkBoards.POPULATED_ROW, 0, sumHp);
+		return visitedHp;
+	}
+
+	@Benchmark
+	public long forEachRowTarget() {
+		board.forEachRowTarget(BenchmarkBoards.POPULATED_ROW, 0, sumHp);
+		return visitedHp;
+	}
+
+	@Benchmark
+	public long forEachRowUnit() {
+		board.forEachRowUnit(BenchmarkBoards.POPULATED_ROW, sumHp);
+		return visitedHp;
+	}
+
+	/**
+	 * Count the zombies of a 3 by 3 area in the middle of the populated row, from the index built on the first query
+	 */
+	@Benchmark
+	public int countZombies() {
+		int middle = board.getColumn() / 2;
+		return board.countZombies(BenchmarkBoards.POPULATED_ROW - 1, middle - 1, BenchmarkBoards.POPULATED_ROW + 1, middle + 1);
+	}
+
+	/**
+	 * Visit the zombies of the populated row from the index, the way a Jalapeno does, skipping the empty grids
+	 */
+	@Benchmark
+	public long forEachZombieInArea() {
+		board.forEachZombieInArea(BenchmarkBoards.POPULATED_ROW, 0, BenchmarkBoards.POPULATED_ROW, board.getColumn() - 1, sumHp);
+		return visitedHp;
+	}
+
+	@Benchmark
+	@OutputTimeUnit(TimeUnit.MICROSECONDS)
+	public Board copyBoard() {
+		return new Board(board);
+	}
+}
@@ -0,0 +1,152 @@
+package benchmarks;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import assets.PlantTypes;
+import engine.Game;
+import engine.RealTimeEngine;
+
+/**
+ * Benchmarks for a whole turn and for the command history.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g"})
+public class GameBenchmark {
+
+	/**
+	 * A fresh game for every turn, since a turn changes the board for good
+	 */
+	@State(Scope.Thread)
+	public static class TurnState {
+		@Param({"5x5", "50x50", "200x200", "1000x1000"})
+		public String size;
+
+		@Param({"10", "1000", "100000", "1000000"})
+		public int zombies;
+
+		//threads of the pool the rows are resolved on, 0 to resolve the turn on the benchmark thread
+		@Param({"0"})
+		public int threads;
+
+		//true to move zombies through the free stretches of their rows without searching
+		@Param({"false"})
+		public boolean kinematic;
+
+		ForkJoinPool pool;
+		Game game;
+
+		@Setup(Level.Trial)
+		public void createPool() {
+			pool = threads > 0? new ForkJoinPool(threads) : null;
+		}
+
+		@Setup(Level.Invocation)
+		public void setUp() {
+			game = BenchmarkBoards.createGame(size, zombies);
+			game.setRowPool(pool);
+			game.getBoard().setKinematicZombies(kinematic);
+		}
+
+		@TearDown(Level.Trial)
+		public void shutdownPool() {
+			if (pool != null) {
+				pool.shutdown();
+			}
+		}
+	}
+
+	/**
+	 * A game with a turn and a plant placement in its history
+	 */
+	@State(Scope.Thread)
+	public static class HistoryState {
+		@Param({"5x5", "50x50", "200x200", "1000x1000"})
+		public String size;
+
+		@Param({"10", "1000", "100000", "1000000"})
+		public int zombies;
+
+		Game game;
+
+		@Setup
+		public void setUp() {
+			game = BenchmarkBoards.createGame(size, zombies);
+			game.doEndOfTurn();
+			game.placePlant(PlantTypes.PEASHOOTER, BenchmarkBoards.FREE_ROW, 0);
+		}
+	}
+
+	/**
+	 * A game played in real time, a new one for every iteration so the zombies do not reach the end of the board
+	 */
+	@State(Scope.Thread)
+	public static class RealTimeState {
+		@Param({"5x5", "50x50", "200x200", "1000x1000"})
+		public String size;
+
+		@Param({"10", "1000", "100000", "1000000"})
+		public int zombies;
+
+		RealTimeEngine engine;
+
+		@Setup(Level.Iteration)
+		public void setUp() {
+			engine = new RealTimeEngine(BenchmarkBoards.createGame(size, zombies));
+		}
+	}
+
+	@Benchmark
+	public Game doEndOfTurn(TurnState state) {
+		state.game.doEndOfTurn();
+		return state.game;
+	}
+
+	/**
+	 * A tick of the real time engine: the units due this tick act, a turn has 60 ticks
+	 */
+	@Benchmark
+	public RealTimeEngine tick(RealTimeState state) {
+		state.engine.tick();
+		return state.engine;
+	}
+
+	/**
+	 * Undo and redo the plant placement
+	 */
+	@Benchmark
+	public Game undoRedoPlace(HistoryState state) {
+		state.game.undo();
+		state.game.redo();
+		return state.game;
+	}
+
+	/**
+	 * Undo the plant placement and the turn, then redo both
+	 */
+	@Benchmark
+	public Game undoRedoEndTurn(HistoryState state) {
+		state.game.undo();
+		state.game.undo();
+		state.game.redo();
+		state.game.redo();
+		return state.game;
+	}
+}
@@ -0,0 +1,33 @@
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import ui.Images;
+
+/**
+ * Benchmark for loading the game images at start up.
+ *
+ * Images are only loaded once per JVM, so every measurement is a cold start in a new fork.
+ * Run from the project root so the images folder is found.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@Fork(value = 20, jvmArgsAppend = {"-Djava.awt.headless=true"})
+public class ImageBenchmark {
+
+	@Benchmark
+	public boolean preloadImages() {
+		Images.preloadImages();
+		return Images.awaitImages();
+	}
+}
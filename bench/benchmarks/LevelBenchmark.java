@@ -0,0 +1,125 @@
+package benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import assets.PlantTypes;
+import assets.ZombieTypes;
+import levels.LevelLoader;
+import levels.LevelLoader.LevelFactory;
+
+/**
+ * Benchmarks for loading and saving level files.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LevelBenchmark {
+
+	private static LevelFactory sampleLevel() {
+		return LevelLoader.getLevelFactory()
+							.setName("Benchmark")
+							.setGridSize(8, 8)
+							.setInitResources(200)
+							.setResPerTurn(25)
+							.addAllowedPlant(PlantTypes.PEASHOOTER)
+							.addAllowedPlant(PlantTypes.SUNFLOWER)
+							.addAllowedPlant(PlantTypes.WALLNUT)
+							.addZombies(ZombieTypes.REG_ZOMBIE, 30)
+							.addZombies(ZombieTypes.AIR_ZOMBIE, 5);
+	}
+
+	private static void deleteFolder(File folder) {
+		File[] files = folder.listFiles();
+		if (files != null) {
+			for (File file : files) {
+				file.delete();
+			}
+		}
+		folder.delete();
+	}
+
+	/**
+	 * A folder of level files
+	 */
+	@State(Scope.Benchmark)
+	public static class LevelFolder {
+		@Param({"10", "1000", "10000"})
+		public int levels;
+
+		File folder;
+
+		@Setup
+		public void setUp() throws IOException {
+			folder = Files.createTempDirectory("zav-levels").toFile();
+			File first = sampleLevel().toXML(folder);
+			for (int i = 1; i < levels; i++) {
+				Files.copy(first.toPath(), new File(folder, "Benchmark-" + i + ".xml").toPath());
+			}
+		}
+
+		@TearDown
+		public void tearDown() {
+			deleteFolder(folder);
+		}
+	}
+
+	/**
+	 * A folder to write levels to
+	 */
+	@State(Scope.Thread)
+	public static class OutputFolder {
+		LevelFactory factory;
+		File folder;
+
+		@Setup
+		public void setUp() throws IOException {
+			factory = sampleLevel();
+			folder = Files.createTempDirectory("zav-xml").toFile();
+		}
+
+		@TearDown(Level.Iteration)
+		public void clearLevels() {
+			File[] files = folder.listFiles();
+			if (files != null) {
+				for (File file : files) {
+					file.delete();
+				}
+			}
+		}
+
+		@TearDown
+		public void tearDown() {
+			deleteFolder(folder);
+		}
+	}
+
+	@Benchmark
+	public int init(LevelFolder state) {
+		LevelLoader.init(state.folder);
+		return LevelLoader.getNumLevels();
+	}
+
+	@Benchmark
+	public File toXML(OutputFolder state) {
+		return state.factory.toXML(state.folder);
+	}
+}
@@ -0,0 +1,251 @@
+package benchmarks;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.GridLayout;
+import java.awt.image.BufferedImage;
+import java.util.concurrent.TimeUnit;
+
+import javax.swing.JButton;
+import javax.swing.JComponent;
+import javax.swing.border.LineBorder;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import engine.ChangeSet;
+import engine.Game;
+import engine.Game.GameState;
+import ui.BoardCanvas;
+import ui.GridUI;
+import ui.Images;
+import ui.JImagePanel;
+import ui.ScaledImageCache;
+
+/**
+ * Benchmarks for drawing the board offscreen.
+ *
+ * GameUI is a JFrame and cannot be created without a display, so the board is built the way GameUI builds
+ * it (a GridUI per tile, or a BoardCanvas in canvas mode) and painted into a BufferedImage.
+ * Every benchmark is one frame: the update a GameListener call makes, then the layout and paint
+ * Swing would do before the next screen refresh.
+ *
+ * Run from the project root so the images folder is found.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Djava.awt.headless=true", "-Xmx4g"})
+public class RenderBenchmark {
+	private static final int CELL_SIZE = 100;
+	//turns replayed before the game is started over
+	private static final int SCRIPT_TURNS = 20;
+
+	@Param({"5x5", "8x8", "20x20", "40x40"})
+	public String size;
+
+	@Param({"10", "100", "1000"})
+	public int zombies;
+
+	@Param({"grid", "canvas"})
+	public String renderer;
+
+	Game game;
+	private JComponent board;
+	private GridUI[][] tiles;
+	private BoardCanvas canvas;
+	private BufferedImage frame;
+	private Graphics2D graphics;
+	private int nextCell;
+	int turnsPlayed;
+
+	/**
+	 * Counts of the work done while drawing, reported next to the times
+	 */
+	@AuxCounters(AuxCounters.Type.EVENTS)
+	@State(Scope.Thread)
+	public static class RenderCounters {
+		//frames drawn
+		public long frames;
+		//GridUI tiles (or the canvas) laid out again
+		public long layouts;
+		//sprites scaled because they were not in the ScaledImageCache
+		public long imagesScaled;
+
+		@Setup(Level.Iteration)
+		public void reset() {
+			frames = 0;
+			layouts = 0;
+			imagesScaled = 0;
+		}
+	}
+
+	/**
+	 * The changes of the next turn of a scripted game
+	 */
+	@State(Scope.Thread)
+	public static class ScriptedTurn {
+		ChangeSet changes;
+
+		@Setup(Level.Invocation)
+		public void playTurn(RenderBenchmark bench) {
+			if (bench.turnsPlayed == SCRIPT_TURNS || bench.game.getState() != GameState.PLAYING) {
+				bench.newGame();
+			}
+			changes = bench.game.computeEndOfTurn();
+			bench.turnsPlayed++;
+		}
+	}
+
+	@Setup
+	public void setUp() {
+		Images.preloadImages();
+		Images.awaitImages();
+		newGame();
+	}
+
+	@TearDown
+	public void tearDown() {
+		graphics.dispose();
+	}
+
+	/**
+	 * Start a new game and build and draw its board
+	 */
+	void newGame() {
+		game = BenchmarkBoards.createGame(size, zombies);
+		turnsPlayed = 0;
+		int rows = game.getBoard().getRow();
+		int cols = game.getBoard().getColumn();
+
+		if (renderer.equals("canvas")) {
+			canvas = new BoardCanvas(game);
+			tiles = null;
+			board = canvas;
+		} else {
+			//laid out like GameUI.initializeBoard
+			canvas = null;
+			tiles = new GridUI[rows][cols];
+			board = new JImagePanel(Images.getGrassTileImage(), new GridLayout(rows, cols + 1, 5, 0));
+			board.setBorder(new LineBorder(Color.BLACK));
+			for (int r = 0; r < rows; r++) {
+				board.add(new JButton("Mower"));
+				for (int c = 0; c < cols; c++) {
+					tiles[r][c] = new GridUI(game, r, c);
+					board.add(tiles[r][c]);
+				}
+			}
+		}
+
+		if (graphics != null) {
+			graphics.dispose();
+		}
+		frame = new BufferedImage((cols + 1) * CELL_SIZE, rows * CELL_SIZE, BufferedImage.TYPE_INT_ARGB);
+		graphics = frame.createGraphics();
+		board.setSize(frame.getWidth(), frame.getHeight());
+		//gives the board lightweight peers so validate() lays it out, there is no window so repaints are dropped
+		board.addNotify();
+		updateAll();
+		drawFrame(null);
+	}
+
+	/**
+	 * Update a tile the way GameUI.updateGrid does.
+	 * Off the event thread revalidate() only posts the invalidate to the event thread, so the tile is
+	 * invalidated here and drawFrame lays it out.
+	 */
+	private void update(int row, int col) {
+		if (canvas != null) {
+			canvas.updateCell(row, col);
+			return;
+		}
+		tiles[row][col].renderPlant();
+		tiles[row][col].renderZombies();
+		tiles[row][col].repaint();
+		tiles[row][col].invalidate();
+	}
+
+	/**
+	 * Update every tile the way GameUI.updateAllGrids does
+	 */
+	private void updateAll() {
+		if (canvas != null) {
+			canvas.updateAll();
+			return;
+		}
+		for (int r = 0; r < tiles.length; r++) {
+			for (int c = 0; c < tiles[r].length; c++) {
+				update(r, c);
+			}
+		}
+	}
+
+	/**
+	 * Lay out and paint the board into the offscreen image
+	 */
+	private BufferedImage drawFrame(RenderCounters counters) {
+		long scaled = ScaledImageCache.getMisses();
+		if (counters != null) {
+			counters.frames++;
+			if (tiles == null) {
+				counters.layouts += board.isValid() ? 0 : 1;
+			} else {
+				for (GridUI[] row : tiles) {
+					for (GridUI tile : row) {
+						counters.layouts += tile.isValid() ? 0 : 1;
+					}
+				}
+			}
+		}
+		board.validate();
+		board.paint(graphics);
+		if (counters != null) {
+			counters.imagesScaled += ScaledImageCache.getMisses() - scaled;
+		}
+		return frame;
+	}
+
+	@Benchmark
+	public BufferedImage updateAllGrids(RenderCounters counters) {
+		updateAll();
+		return drawFrame(counters);
+	}
+
+	/**
+	 * Update a single tile, a different one each frame
+	 */
+	@Benchmark
+	public BufferedImage updateGrid(RenderCounters counters) {
+		int cols = game.getBoard().getColumn();
+		int cell = nextCell++ % (game.getBoard().getRow() * cols);
+		update(cell / cols, cell % cols);
+		return drawFrame(counters);
+	}
+
+	/**
+	 * Draw the grids changed by a turn of the scripted game
+	 */
+	@Benchmark
+	public BufferedImage turn(ScriptedTurn turn, RenderCounters counters) {
+		if (turn.changes.isAllChanged()) {
+			updateAll();
+		} else {
+			turn.changes.forEachCell(this::update);
+		}
+		return drawFrame(counters);
+	}
+}
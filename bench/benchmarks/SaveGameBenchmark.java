@@ -0,0 +1,131 @@
+package benchmarks;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import assets.PlantTypes;
+import engine.Game;
+import util.GameSerializer;
+
+/**
+ * Benchmarks for saving and loading games.
+ *
+ * The game is played for a number of turns and then given a history of plant placements and dig ups,
+ * since every turn and command is kept for undo and saved with the game.
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SaveGameBenchmark {
+	@Param({"1", "10", "100"})
+	public int turns;
+
+	@Param({"0", "100", "1000"})
+	public int history;
+
+	private Game game;
+	private byte[] saved;
+	private ByteArrayOutputStream buffer;
+	private File saveFolder;
+	private File loadFolder;
+
+	@Setup
+	public void setUp() throws IOException {
+		game = BenchmarkBoards.createGame("8x8", 40);
+		for (int i = 0; i < turns; i++) {
+			game.doEndOfTurn();
+		}
+		for (int i = 0; i < history; i++) {
+			if (i % 2 == 0) {
+				game.placePlant(PlantTypes.PEASHOOTER, BenchmarkBoards.FREE_ROW, 0);
+			} else {
+				game.removePlant(BenchmarkBoards.FREE_ROW, 0);
+			}
+		}
+
+		buffer = new ByteArrayOutputStream();
+		GameSerializer.writeGame(game, buffer);
+		saved = buffer.toByteArray();
+
+		saveFolder = Files.createTempDirectory("zav-save").toFile();
+		loadFolder = Files.createTempDirectory("zav-load").toFile();
+		GameSerializer.serialize(game, loadFolder);
+		GameSerializer.savedGames.clear();
+	}
+
+	/**
+	 * Remove the games saved during the iteration
+	 */
+	@TearDown(Level.Iteration)
+	public void clearSaves() {
+		deleteFiles(saveFolder);
+		GameSerializer.savedGames.clear();
+	}
+
+	@TearDown
+	public void tearDown() {
+		deleteFiles(saveFolder);
+		deleteFiles(loadFolder);
+		saveFolder.delete();
+		loadFolder.delete();
+	}
+
+	private static void deleteFiles(File folder) {
+		File[] files = folder.listFiles();
+		if (files != null) {
+			for (File file : files) {
+				file.delete();
+			}
+		}
+	}
+
+	/**
+	 * Serialization alone, without the disk
+	 */
+	@Benchmark
+	public int writeGame() throws IOException {
+		buffer.reset();
+		GameSerializer.writeGame(game, buffer);
+		return buffer.size();
+	}
+
+	/**
+	 * Deserialization alone, without the disk
+	 */
+	@Benchmark
+	public Game readGame() throws IOException, ClassNotFoundException {
+		return GameSerializer.readGame(new ByteArrayInputStream(saved));
+	}
+
+	@Benchmark
+	public boolean serialize() {
+		return GameSerializer.serialize(game, saveFolder);
+	}
+
+	@Benchmark
+	public List<Game> deserialize() {
+		return GameSerializer.deserialize(loadFolder);
+	}
+}
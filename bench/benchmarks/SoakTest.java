@@ -0,0 +1,393 @@
+package benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.ToLongFunction;
+
+import javax.management.MBeanServer;
+import javax.management.Notification;
+import javax.management.NotificationEmitter;
+import javax.management.ObjectName;
+import javax.management.openmbean.CompositeData;
+
+import com.sun.management.GarbageCollectionNotificationInfo;
+
+import assets.Plant;
+import assets.PlantTypes;
+import assets.Zombie;
+import assets.ZombieTypes;
+import engine.Game;
+import engine.Game.GameState;
+import levels.LevelInfo;
+import util.GameSerializer;
+
+/**
+ * Soak test for memory retention in long sessions.
+ *
+ * Plays random but legal games back to back across a set of generated levels: plants are placed
+ * and dug up, moves are undone and redone and the game is saved now and then, the way a player would
+ * over a long session. Every sample the heap is collected and the harness records the heap used
+ * after GC, the live Zombie and Plant instances (from a class histogram) and the GC pauses since the
+ * last sample. At the end the growth per 1000 turns is fitted with least squares; a heap that keeps
+ * growing after the first games means something is holding on to old games.
+ *
+ * This is not a JMH benchmark, run it with java:
+ * <pre>
+ * java -Xmx512m -cp ... benchmarks.SoakTest --turns 1000000 --csv soak.csv
+ * </pre>
+ * It exits with 1 if the heap grows faster than --max-slope bytes per 1000 turns.
+ */
+public class SoakTest {
+	private static final String USAGE = "Usage: SoakTest [--turns N] [--sample-every N] [--levels N] [--seed N]"
+			+ " [--save-every N] [--max-game-turns N] [--max-slope BYTES] [--csv FILE]";
+	//samples left out of the fit while the JIT, class loading and caches settle
+	private static final int WARMUP_SAMPLES = 2;
+
+	private long turns = 1000000;
+	private long sampleEvery = 20000;
+	private int levels = 20;
+	private long seed = 3110;
+	private long saveEvery = 5000;
+	private int maxGameTurns = 1000;
+	private double maxSlope = 16 * 1024;
+	private File csv;
+
+	private Random random;
+	private List<LevelInfo> levelTemplates;
+	private File saveFolder;
+
+	private final List<Sample> samples = new ArrayList<Sample>();
+	private final AtomicLong gcPauses = new AtomicLong();
+	private final AtomicLong gcPauseMillis = new AtomicLong();
+	private final AtomicLong gcMaxPauseMillis = new AtomicLong();
+
+	/**
+	 * The state of the heap at one point of the run
+	 */
+	private static class Sample {
+		long turns;
+		long games;
+		long heapAfterGc;
+		long zombies;
+		long plants;
+		long gcPauses;
+		long gcPauseMillis;
+		long gcMaxPauseMillis;
+
+		String toCsv() {
+			return turns + "," + games + "," + heapAfterGc + "," + zombies + "," + plants + ","
+					+ gcPauses + "," + gcPauseMillis + "," + gcMaxPauseMillis;
+		}
+	}
+
+	public static void main(String[] args) throws Exception {
+		SoakTest soak = new SoakTest();
+		try {
+			soak.parseArgs(args);
+		} catch (IllegalArgumentException e) {
+			System.err.println(e.getMessage());
+			System.err.println(USAGE);
+			System.exit(2);
+		}
+		System.exit(soak.run()? 0 : 1);
+	}
+
+	private void parseArgs(String[] args) {
+		for (int i = 0; i < args.length; i++) {
+			if (i + 1 == args.length) {
+				throw new IllegalArgumentException("Missing value for " + args[i]);
+			}
+			String value = args[++i];
+			switch (args[i - 1]) {
+				case "--turns":
+					turns = Long.parseLong(value);
+					break;
+				case "--sample-every":
+					sampleEvery = Long.parseLong(value);
+					break;
+				case "--levels":
+					levels = Integer.parseInt(value);
+					break;
+				case "--seed":
+					seed = Long.parseLong(value);
+					break;
+				case "--save-every":
+					saveEvery = Long.parseLong(value);
+					break;
+				case "--max-game-turns":
+					maxGameTurns = Integer.parseInt(value);
+					break;
+				case "--max-slope":
+					maxSlope = Double.parseDouble(value);
+					break;
+				case "--csv":
+					csv = new File(value);
+					break;
+				default:
+					throw new IllegalArgumentException("Unknown option " + args[i - 1]);
+			}
+		}
+	}
+
+	/**
+	 * Play the games and report the growth
+	 * @return true if the heap growth is within --max-slope
+	 */
+	boolean run() throws IOException {
+		random = new Random(seed);
+		levelTemplates = createLevels();
+		saveFolder = Files.createTempDirectory("zav-soak").toFile();
+		listenForGcPauses();
+
+		try (PrintStream out = csv == null? null : new PrintStream(csv)) {
+			String header = "turns,games,heap_after_gc_bytes,zombies,plants,gc_pauses,gc_pause_ms,gc_max_pause_ms";
+			System.out.println(header);
+			if (out != null) {
+				out.println(header);
+			}
+
+			long played = 0;
+			long games = 0;
+			while (played < turns) {
+				LevelInfo template = levelTemplates.get((int) (games % levelTemplates.size()));
+				Game game = new Game(copyLevel(template), random.nextLong());
+				games++;
+				for (int gameTurns = 0; gameTurns < maxGameTurns && game.getState() == GameState.PLAYING && played < turns; gameTurns++) {
+					playTurn(game);
+					played++;
+					if (played % saveEvery == 0) {
+						GameSerializer.serialize(game, saveFolder);
+					}
+					if (played % sampleEvery == 0) {
+						Sample sample = sample(played, games);
+						System.out.println(sample.toCsv());
+						if (out != null) {
+							out.println(sample.toCsv());
+						}
+					}
+				}
+			}
+		} finally {
+			deleteFolder(saveFolder);
+		}
+		return report();
+	}
+
+	/**
+	 * Make some random legal moves then end the turn
+	 */
+	private void playTurn(Game game) {
+		int rows = game.getBoard().getRow();
+		int cols = game.getBoard().getColumn();
+		List<PlantTypes> allowed = new ArrayList<PlantTypes>(game.getLevelInfo().getAllowedPlants());
+
+		int moves = random.nextInt(3);
+		for (int i = 0; i < moves; i++) {
+			int row = random.nextInt(rows);
+			int col = random.nextInt(cols);
+			int move = random.nextInt(100);
+			if (move < 70) {
+				PlantTypes type = allowed.get(random.nextInt(allowed.size()));
+				if (game.getBoard().getPlant(row, col) == null && game.getPurse().canSpend(PlantTypes.toPlant(type).getCost())) {
+					game.placePlant(type, row, col);
+				}
+			} else if (move < 80) {
+				if (game.getBoard().getPlant(row, col) != null) {
+					game.removePlant(row, col);
+				}
+			} else if (move < 92) {
+				game.undo();
+			} else {
+				game.redo();
+			}
+		}
+		game.doEndOfTurn();
+	}
+
+	/**
+	 * Generate the levels played, with a random size, plants and zombies
+	 */
+	private List<LevelInfo> createLevels() {
+		List<LevelInfo> created = new ArrayList<LevelInfo>();
+		PlantTypes[] plantTypes = PlantTypes.values();
+		ZombieTypes[] zombieTypes = ZombieTypes.values();
+		for (int i = 0; i < levels; i++) {
+			Set<PlantTypes> plants = EnumSet.noneOf(PlantTypes.class);
+			plants.add(PlantTypes.PEASHOOTER);
+			plants.add(PlantTypes.SUNFLOWER);
+			for (int p = 0; p < 4; p++) {
+				plants.add(plantTypes[random.nextInt(plantTypes.length)]);
+			}
+			Map<ZombieTypes, Integer> zombies = new HashMap<ZombieTypes, Integer>();
+			zombies.put(ZombieTypes.REG_ZOMBIE, 10 + random.nextInt(40));
+			for (int z = 0; z < 3; z++) {
+				zombies.merge(zombieTypes[random.nextInt(zombieTypes.length)], 1 + random.nextInt(10), Integer::sum);
+			}
+			int rows = 3 + random.nextInt(6);
+			int cols = 6 + random.nextInt(7);
+			created.add(new LevelInfo("Soak " + i, cols, rows, 25 + random.nextInt(50), 100 + random.nextInt(300), zombies, plants));
+		}
+		return created;
+	}
+
+	/**
+	 * A Game takes the zombies left to spawn from its level, so every game gets its own copy
+	 */
+	private static LevelInfo copyLevel(LevelInfo lvl) {
+		return new LevelInfo(lvl.getName(), lvl.getColumns(), lvl.getRows(), lvl.getResPerTurn(), lvl.getInitResources(),
+				new HashMap<ZombieTypes, Integer>(lvl.getZombies()), lvl.getAllowedPlants());
+	}
+
+	/**
+	 * Record the length of every collection the harness did not ask for
+	 */
+	private void listenForGcPauses() {
+		for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+			if (!(gc instanceof NotificationEmitter)) {
+				continue;
+			}
+			((NotificationEmitter) gc).addNotificationListener((Notification notification, Object handback) -> {
+				if (!notification.getType().equals(GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION)) {
+					return;
+				}
+				GarbageCollectionNotificationInfo info = GarbageCollectionNotificationInfo.from((CompositeData) notification.getUserData());
+				if (info.getGcCause().equals("System.gc()") || info.getGcCause().contains("Heap Inspection")) {
+					return;
+				}
+				long millis = info.getGcInfo().getDuration();
+				gcPauses.incrementAndGet();
+				gcPauseMillis.addAndGet(millis);
+				gcMaxPauseMillis.accumulateAndGet(millis, Math::max);
+			}, null, null);
+		}
+	}
+
+	private Sample sample(long played, long games) {
+		Sample sample = new Sample();
+		sample.turns = played;
+		sample.games = games;
+
+		System.gc();
+		sample.heapAfterGc = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+		countInstances(sample);
+
+		sample.gcPauses = gcPauses.getAndSet(0);
+		sample.gcPauseMillis = gcPauseMillis.getAndSet(0);
+		sample.gcMaxPauseMillis = gcMaxPauseMillis.getAndSet(0);
+		samples.add(sample);
+		return sample;
+	}
+
+	/**
+	 * Count the live Zombie and Plant instances with a class histogram of the heap
+	 */
+	private static void countInstances(Sample sample) {
+		String histogram;
+		try {
+			MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+			histogram = (String) server.invoke(new ObjectName("com.sun.management:type=DiagnosticCommand"),
+					"gcClassHistogram", new Object[] {null}, new String[] {String[].class.getName()});
+		} catch (Exception e) {
+			sample.zombies = -1;
+			sample.plants = -1;
+			return;
+		}
+
+		//lines look like "   1:    1200    38400  assets.Regular_Zombie"
+		for (String line : histogram.split("\n")) {
+			String[] columns = line.trim().split("\\s+");
+			if (columns.length < 4 || !columns[3].startsWith("assets.")) {
+				continue;
+			}
+			Class<?> type;
+			try {
+				type = Class.forName(columns[3], false, SoakTest.class.getClassLoader());
+			} catch (ClassNotFoundException e) {
+				continue;
+			}
+			long instances = Long.parseLong(columns[1]);
+			if (Zombie.class.isAssignableFrom(type)) {
+				sample.zombies += instances;
+			} else if (Plant.class.isAssignableFrom(type)) {
+				sample.plants += instances;
+			}
+		}
+	}
+
+	/**
+	 * Least squares slope of a value against the turns played, per 1000 turns
+	 */
+	private double slope(List<Sample> fitted, ToLongFunction<Sample> value) {
+		int n = fitted.size();
+		double meanX = 0;
+		double meanY = 0;
+		for (Sample s : fitted) {
+			meanX += s.turns;
+			meanY += value.applyAsLong(s);
+		}
+		meanX /= n;
+		meanY /= n;
+		double covariance = 0;
+		double variance = 0;
+		for (Sample s : fitted) {
+			covariance += (s.turns - meanX) * (value.applyAsLong(s) - meanY);
+			variance += (s.turns - meanX) * (s.turns - meanX);
+		}
+		return variance == 0? 0 : covariance / variance * 1000;
+	}
+
+	/**
+	 * Print the growth of the heap and the instance counts
+	 * @return true if the heap growth is within --max-slope
+	 */
+	private boolean report() {
+		if (samples.size() < WARMUP_SAMPLES + 2) {
+			System.out.println("Not enough samples to fit a slope, play more turns or sample more often");
+			return true;
+		}
+		List<Sample> fitted = samples.subList(WARMUP_SAMPLES, samples.size());
+		double heapSlope = slope(fitted, s -> s.heapAfterGc);
+		long maxPause = 0;
+		long pauses = 0;
+		for (Sample s : samples) {
+			maxPause = Math.max(maxPause, s.gcMaxPauseMillis);
+			pauses += s.gcPauses;
+		}
+
+		System.out.println();
+		System.out.printf("Turns: %d, games: %d, saved games held: %d%n", samples.get(samples.size() - 1).turns,
+				samples.get(samples.size() - 1).games, GameSerializer.savedGames.size());
+		System.out.printf("Heap after GC: %.0f bytes per 1000 turns%n", heapSlope);
+		System.out.printf("Live zombies: %.2f per 1000 turns%n", slope(fitted, s -> s.zombies));
+		System.out.printf("Live plants: %.2f per 1000 turns%n", slope(fitted, s -> s.plants));
+		System.out.printf("GC pauses: %d, longest %d ms%n", pauses, maxPause);
+
+		if (heapSlope > maxSlope) {
+			System.out.printf("FAILED: the heap grows by more than %.0f bytes per 1000 turns%n", maxSlope);
+			return false;
+		}
+		return true;
+	}
+
+	private static void deleteFolder(File folder) {
+		File[] files = folder.listFiles();
+		if (files != null) {
+			for (File file : files) {
+				file.delete();
+			}
+		}
+		folder.delete();
+	}
+}
@@ -0,0 +1,81 @@
+package benchmarks;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import engine.TimingWheel;
+
+/**
+ * Benchmarks for the timing wheel the status effects are scheduled on.
+ *
+ * The wheel holds a steady number of active effects: every effect that ends is applied again, the way a plant keeps
+ * slowing the zombies in its row, so each turn costs the effects that end plus the ones moved down a level.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g"})
+public class TimingWheelBenchmark {
+	@Param({"1000", "100000", "1000000"})
+	public int effects;
+
+	//the longest effect in turns, 3 is a snowshooter's slow down, longer ones move down the levels
+	@Param({"3", "1000"})
+	public int maxTurns;
+
+	private TimingWheel wheel;
+	private Effect effect;
+
+	/**
+	 * An effect that is applied again when it ends
+	 */
+	private final class Effect extends TimingWheel.Timeout {
+		private static final long serialVersionUID = 1L;
+		private final int turns;
+
+		Effect(int turns) {
+			this.turns = turns;
+		}
+
+		@Override
+		protected void expire() {
+			wheel.schedule(this, turns);
+		}
+	}
+
+	@Setup
+	public void setUp() {
+		wheel = new TimingWheel();
+		Random random = new Random(44);
+		for (int i = 0; i < effects; i++) {
+			wheel.schedule(new Effect(1 + random.nextInt(maxTurns)), 1 + random.nextInt(maxTurns));
+		}
+		effect = new Effect(maxTurns);
+	}
+
+	@Benchmark
+	public int advance() {
+		return wheel.advance();
+	}
+
+	@Benchmark
+	public TimingWheel scheduleCancel() {
+		wheel.schedule(effect, maxTurns);
+		wheel.cancel(effect);
+		return wheel;
+	}
+}
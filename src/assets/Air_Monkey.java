@@ -39,16 +39,14 @@ public class Air_Monkey extends Plant implements Serializable {
 		int row = getRow();
 		int column = getCol();
 		
-		Zombie zombieTarget = board.getSingleAirTarget(row, column);
+		Zombie zombieTarget = board.getTarget(row, column, getTargetPolicy(), true);
 		
 		if(zombieTarget != null)
 		{
-			LOG.debug(String.format("Air monkey at : (%d, %d) attacking Zombie at: (%d, %d)", 
-					row, column, zombieTarget.getRow(), zombieTarget.getCol()));
+			LOG.debug("Air monkey at : ({}, {}) attacking Zombie at: ({}, {})", 
+					row, column, zombieTarget.getRow(), zombieTarget.getCol());
 			
-			zombieTarget.takeDamage(getPower());
-			
-			removeZombie(zombieTarget, board);
+			shoot(board, zombieTarget, PROJECTILE_SPEED_SHOT);
 		}
 	}			
 }
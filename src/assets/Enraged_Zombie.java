@@ -10,6 +10,7 @@ import engine.Board;
  *
  */
 public class Enraged_Zombie extends Zombie implements Serializable{
+	private static final long serialVersionUID = -5445599918502510735L;
 	private static final int DEFAULT_SPEED = SPEED_LOW;
 	private static final int DEFAULT_POWER = ATTACK_LOW;
 	private static final int DEFAULT_HP = HEALTH_MEDIUM;
@@ -36,6 +37,14 @@ public class Enraged_Zombie extends Zombie implements Serializable{
 	public int getDefaultSpeed() {
 		return DEFAULT_SPEED;
 	}
+	
+	/**
+	 * An enraged zombie spawns a zombie when it is killed, so it does not stack
+	 */
+	@Override
+	public boolean isStackable() {
+		return false;
+	}
 		
 	/**
 	 * method to spawn zombie once enraged zombie is killed
@@ -12,6 +12,7 @@ import engine.Board;
  *
  */
 public class Exploding_Zombie extends Zombie implements Serializable {
+	private static final long serialVersionUID = -4832696163834913492L;
 
 	private static final int DEFAULT_SPEED = SPEED_LOW;
 	private static final int DEFAULT_POWER = ATTACK_INSTANT; //this value is irrelevant. The zombie will instantly kill plant
@@ -37,6 +38,14 @@ public class Exploding_Zombie extends Zombie implements Serializable {
 		return DEFAULT_SPEED;
 	} 
 	
+	/**
+	 * An exploding zombie destroys a single plant and is removed, so it does not stack
+	 */
+	@Override
+	public boolean isStackable() {
+		return false;
+	}
+	
 	/**
 	 * Zombie attack method.
 	 */
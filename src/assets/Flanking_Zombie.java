@@ -0,0 +1,33 @@
+package assets;
+
+import java.io.Serializable;
+
+/**
+ * Class for Flanking Zombie type. Changes rows like a Juking Zombie,
+ * but steps into the row next to it with the cheapest way to the house,
+ * going around the plants that are hard to eat through or shoot the hardest.
+ *
+ * The board finds the row on the flow field shared by all Flanking Zombies.
+ */
+public class Flanking_Zombie extends Juking_Zombie implements Serializable {
+
+	private static final ZombieTypes ZOMBIE_TYPE = ZombieTypes.FLANK_ZOMBIE;
+
+	public Flanking_Zombie() {
+		super();
+	}
+
+	/**
+	 * returns the name of flanking type zombie
+	 */
+	@Override
+	public String toString() {
+
+		return ZOMBIE_TYPE.toString();
+	}
+
+	@Override
+	public ZombieTypes getZombieType() {
+		return ZOMBIE_TYPE;
+	}
+}
@@ -1,7 +1,6 @@
 package assets;
 
 import java.io.Serializable;
-import java.util.ArrayList;
 
 import engine.Board;
 import util.Logger;
@@ -44,22 +43,12 @@ public class Jalapeno extends Plant implements Serializable{
 	}
 
 	/**
-	 * attack method kills all zombies of a row
+	 * attack method kills all zombies of a row, 
+	 * only the grids with zombies are looked at
 	 */
 	@Override
 	public void attack(Board board) {
-		int row = getRow();
-		int column = getCol();
-		
-		ArrayList<Zombie> zombieInRow = new ArrayList<>();
-		zombieInRow = (ArrayList<Zombie>) board.getRowTargets(row, column);
-		
-		if(zombieInRow!=null) {
-			for(Zombie z : zombieInRow) {
-				z.takeDamage(this.getPower());
-				removeZombie(z, board);
-			}
-		}
+		board.forEachZombieInArea(getRow(), getCol(), getRow(), board.getColumn() - 1, this);
 		discharged = true;
 	}
 	
@@ -10,6 +10,7 @@ import java.io.Serializable;
  *
  */
 public class Juking_Zombie extends Zombie implements Serializable {
+	private static final long serialVersionUID = 3220641295799430684L;
 	
 	private static final int DEFAULT_SPEED = SPEED_LOW;
 	private static final int DEFAULT_POWER = ATTACK_LOW;
@@ -65,5 +66,13 @@ public class Juking_Zombie extends Zombie implements Serializable {
 	public int getDefaultSpeed() {
 		return DEFAULT_SPEED;
 	} 
+	
+	/**
+	 * A juking zombie picks its row on its own, so it does not stack
+	 */
+	@Override
+	public boolean isStackable() {
+		return false;
+	}
 
 }
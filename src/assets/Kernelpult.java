@@ -4,7 +4,6 @@ import engine.Board;
 import util.Logger;
 
 import java.io.Serializable;
-import java.util.Random;
 
 /**
  * Class for the plant type "Kernelpult" which catapults corn.
@@ -14,6 +13,7 @@ import java.util.Random;
  *
  */
 public class Kernelpult extends Plant implements Serializable {
+	private static final long serialVersionUID = 5620904331026911969L;
 
 	private static Logger LOG = new Logger("Kernelpult");
 	
@@ -47,27 +47,31 @@ public class Kernelpult extends Plant implements Serializable {
 		int row = getRow();
 		int column = getCol();
 		
-		Zombie zombieTarget = board.getSingleZombieTarget(row, column);
+		Zombie zombieTarget = board.getTarget(row, column, getTargetPolicy(), false);
 		
 		if (zombieTarget != null) {
-			LOG.debug(String.format("Kernelpult at : (%d, %d) attacking Zombie at: (%d, %d)", 
-					row, column, zombieTarget.getRow(), zombieTarget.getCol()));
+			LOG.debug("Kernelpult at : ({}, {}) attacking Zombie at: ({}, {})", 
+					row, column, zombieTarget.getRow(), zombieTarget.getCol());
 			
-			zombieTarget.takeDamage(getPower());
-			
-			if (!zombieTarget.isAlive()) {
-				removeZombie(zombieTarget, board);
-			}
-			else {
-				// if the zombie didn't die, there is a chance for immobilization
-				// use a random number generator to check if the next attack
-				// can immobilize the zombie target
-				Random random = new Random();
-				
-				if (random.nextInt(IMMOBILIZE_ROLL_RANGE) + 1 > THRESHHOLD_FOR_IMMOBILIZATION) {
-					zombieTarget.immobilize();
-					LOG.debug(String.format("Zombie target at : (%d, %d)", zombieTarget.getRow(), zombieTarget.getCol()));
-				}
+			shoot(board, zombieTarget, PROJECTILE_SPEED_LOBBED);
+		}
+	}
+	
+	@Override
+	public void hit(Board board, Zombie target) {
+		target = board.splitZombie(target); //only one zombie of a stack is immobilized
+		target.takeDamage(getPower());
+		
+		if (!target.isAlive()) {
+			removeZombie(target, board);
+		}
+		else {
+			// if the zombie didn't die, there is a chance for immobilization
+			// use the game's random number generator to check if the next attack
+			// can immobilize the zombie target
+			if (board.getRandom(getRow()).nextInt(IMMOBILIZE_ROLL_RANGE) + 1 > THRESHHOLD_FOR_IMMOBILIZATION) {
+				target.immobilize();
+				LOG.debug("Zombie target at : ({}, {})", target.getRow(), target.getCol());
 			}
 		}
 	}	
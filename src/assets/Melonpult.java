@@ -1,7 +1,6 @@
 package assets;
 
 import java.io.Serializable;
-import java.util.List;
 import engine.Board;
 import util.Logger;
 
@@ -13,6 +12,7 @@ import util.Logger;
  *
  */
 public class Melonpult extends Plant implements Serializable {
+	private static final long serialVersionUID = -8461949424148780686L;
 	private static Logger LOG = new Logger("Melonpult");
 
 	
@@ -40,21 +40,29 @@ public class Melonpult extends Plant implements Serializable {
 	@Override
 	public void attack(Board board) {
 		
-		int row = getRow();
-		int column = getCol();
-		
-		List<Zombie> zombieTargets = board.getGridTargets(row, column);
-		
-		if (zombieTargets != null) {
-			
-			LOG.debug(String.format("Melonpult at : (%d, %d) attacking Zombies at: (%d, %d)", 
-					row, column, row, zombieTargets.get(0).getCol()));
-			
-			for (Zombie zombie : zombieTargets) {
-				zombie.takeDamage(getPower());
-				
-				removeZombie(zombie, board);
+		if (board.isProjectiles() || getTargetPolicy() != TargetPolicy.NEAREST) { //lob the melon at the zombie picked
+			Zombie target = board.getTarget(getRow(), getCol(), getTargetPolicy(), false);
+			if (target != null) {
+				shoot(board, target, PROJECTILE_SPEED_LOBBED);
 			}
+		} else {
+			board.forEachGridTarget(getRow(), getCol(), this);
 		}
 	}
+	
+	/**
+	 * The melon splashes all the ground zombies in the grid it lands on
+	 */
+	@Override
+	public void hit(Board board, Zombie target) {
+		
+		board.forEachGridTarget(target.getRow(), target.getCol(), this);
+	}
+	
+	@Override
+	public void visit(Board board, Zombie target) {
+		LOG.debug("Melonpult at : ({}, {}) attacking Zombie at: ({}, {})", 
+				getRow(), getCol(), target.getRow(), target.getCol());
+		super.visit(board, target);
+	}
 }
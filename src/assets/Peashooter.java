@@ -40,14 +40,13 @@ public class Peashooter extends Plant implements Serializable {
 		int row = getRow();
 		int column = getCol();
 		
-		Zombie zombieTarget = board.getSingleZombieTarget(row, column);
+		Zombie zombieTarget = board.getTarget(row, column, getTargetPolicy(), false);
 		
 		if (zombieTarget != null) {
-			LOG.debug(String.format("Peashooter at : (%d, %d) attacking Zombie at: (%d, %d)", 
-					row, column, zombieTarget.getRow(), zombieTarget.getCol()));
+			LOG.debug("Peashooter at : ({}, {}) attacking Zombie at: ({}, {})", 
+					row, column, zombieTarget.getRow(), zombieTarget.getCol());
 			
-			zombieTarget.takeDamage(getPower());
-			removeZombie(zombieTarget, board);
+			shoot(board, zombieTarget, PROJECTILE_SPEED_SHOT);
 		}
 	}		
 }
@@ -3,6 +3,7 @@ package assets;
 import java.io.Serializable;
 
 import engine.Board;
+import engine.TargetVisitor;
 
 /**
  * The Plant class initializes a set of variables and implements associated setters and getters
@@ -12,9 +13,10 @@ import engine.Board;
  *@author Tanisha 
  */
 
+import util.EngineMetrics;
 import util.Logger;
 
-public abstract class Plant implements Unit, Serializable {
+public abstract class Plant implements Unit, TargetVisitor<Zombie>, Serializable {
 	private static final long serialVersionUID = 7848098105682762919L;
 	public static final int ATTACK_NONE = 0;
 	public static final int ATTACK_LOW = 1;
@@ -30,17 +32,23 @@ public abstract class Plant implements Unit, Serializable {
 	public static final int HEALTH_TANK = 12;
 	public static final int HEALTH_SUPER_TANK = 16;
 	
+	//cells per turn the projectiles fly when the board has projectiles, see Board.setProjectiles
+	public static final float PROJECTILE_SPEED_SHOT = 4;
+	public static final float PROJECTILE_SPEED_LOBBED = 3;
+	
 	private static Logger LOG = new Logger("Plant");
 	private int hitPoints;	//life left of a plant
 	private int power;		//power of a plant to damage a zombie	
 	private int row;
 	private int column;
 	private int cost;	
+	private TargetPolicy targetPolicy = TargetPolicy.NEAREST;	//how the plant picks the zombie it attacks
 	
 	public Plant(int hp, int pwr, int cost){
 		this.hitPoints = hp;
 		this.power = pwr;
 		this.cost = cost;
+		EngineMetrics.PLANTS_CREATED.increment();
 	}
 
 	/**
@@ -120,6 +128,22 @@ public abstract class Plant implements Unit, Serializable {
 		this.column = column;
 	}
 	
+	/**
+	 * Get how the plant picks the zombie it attacks
+	 * @return the targeting policy, NEAREST unless set
+	 */
+	public TargetPolicy getTargetPolicy() {
+		return targetPolicy == null? TargetPolicy.NEAREST : targetPolicy; //plants saved before there were policies
+	}
+	
+	/**
+	 * Set how the plant picks the zombie it attacks, used by the plants that attack a single zombie
+	 * @param targetPolicy
+	 */
+	public void setTargetPolicy(TargetPolicy targetPolicy) {
+		this.targetPolicy = targetPolicy;
+	}
+	
 	/**
 	 * Get the plant type of this plant
 	 * @return the plant type
@@ -131,6 +155,42 @@ public abstract class Plant implements Unit, Serializable {
 	 */
 	public abstract void attack(Board board);
 	
+	/**
+	 * Hits one of the targets of an attack on several zombies, e.g. board.forEachRowTarget(row, col, this)
+	 * @param board
+	 * @param target
+	 */
+	@Override
+	public void visit(Board board, Zombie target) {
+		target.takeDamage(getPower());
+		removeZombie(target, board);
+	}
+	
+	/**
+	 * Hits the target of an attack: instantly, or when the projectile fired at it reaches a zombie. 
+	 * Plants whose hits do more than damage one zombie override this. 
+	 * A single zombie is split off a stack to take the hit, the plants visiting every zombie of an area hit whole stacks.
+	 * @param board
+	 * @param target
+	 */
+	public void hit(Board board, Zombie target) {
+		visit(board, board.splitZombie(target));
+	}
+	
+	/**
+	 * Attack a target found by a search of the row: hit it now, or fire a projectile if the board has projectiles
+	 * @param board
+	 * @param target
+	 * @param speed the cells per turn the projectile flies
+	 */
+	protected void shoot(Board board, Zombie target, float speed) {
+		if (board.isProjectiles()) {
+			board.fireProjectile(this, speed, target instanceof Air_Zombie);
+		} else {
+			hit(board, target);
+		}
+	}
+	
 	/**
 	 * Used to remove a zombie from the board as a result of a plant attack
 	 * @param zombieTarget
@@ -139,9 +199,9 @@ public abstract class Plant implements Unit, Serializable {
 	 */
 	protected void removeZombie(Zombie zombieTarget, Board board) {
 		if (!zombieTarget.isAlive()) {
-			board.removeZombie(zombieTarget.getRow(), zombieTarget.getCol());
-			LOG.debug(String.format("Peashooter at : (%d, %d) defeated Zombie at: (%d, %d)", 
-					row, column, zombieTarget.getRow(), zombieTarget.getCol()));
+			board.removeZombie(zombieTarget);
+			LOG.debug("Peashooter at : ({}, {}) defeated Zombie at: ({}, {})", 
+					row, column, zombieTarget.getRow(), zombieTarget.getCol());
 			
 			if (zombieTarget instanceof Enraged_Zombie) {
 				((Enraged_Zombie)zombieTarget).spawnZombie(board);
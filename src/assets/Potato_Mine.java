@@ -1,10 +1,8 @@
 package assets;
 
 import java.io.Serializable;
-import java.util.ArrayList;
 
 import engine.Board;
-import engine.Grid;
 
 /**
  * Class for Potato Mine type. Kills all zombies
@@ -14,6 +12,7 @@ import engine.Grid;
  *
  */
 public class Potato_Mine extends Plant implements Serializable {
+	private static final long serialVersionUID = -6926675267097829126L;
 	private static final int DEFAULT_HP = HEALTH_LOW;
 	private static final int DEFAULT_POWER = ATTACK_INSTANT;  //This is irrelevant, it kills the target instantly
 	private static final int COST = 50;
@@ -35,24 +34,22 @@ public class Potato_Mine extends Plant implements Serializable {
 
 	@Override
 	public void attack(Board board) {
-		ArrayList<Zombie> removeBin = new ArrayList<Zombie>(); //To track zombies that die (needed due to ConcurrentModificationException)
-		Grid grid = board.getGrid(this.getRow(), this.getCol());
-		
-		if(grid.getNumberOfZombies() > 0) //if a zombie is within melee range
+		//the zombies are gathered before they are visited, so they can be removed from the grid while visiting
+		if(board.forEachZombie(this.getRow(), this.getCol(), this) > 0) //if a zombie is within melee range
 		{
-			for(Zombie zom : grid.getZombies())  
-			{
-				zom.takeDamage(zom.getHP());    //instantly kill all the zombies within the grid
-				removeBin.add(zom);
-			}
-			for(Zombie zom : removeBin) 
-			{
-				board.removeZombie(zom.getRow(), zom.getCol());
-			}
 			discharged = true; // Game must check if this needs to be removed (due to ConcurrentModificationException)
 		}
 	}
 	
+	/**
+	 * Instantly kill a zombie within the grid
+	 */
+	@Override
+	public void visit(Board board, Zombie target) {
+		target.takeDamage(target.getHP());
+		board.removeZombie(target.getRow(), target.getCol());
+	}
+	
 	/**
 	 * Returns if the mine has already discharged
 	 * @return
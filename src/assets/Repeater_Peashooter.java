@@ -1,12 +1,12 @@
 package assets;
 
 import java.io.Serializable;
-import java.util.ArrayList;
 
 import engine.Board;
 import util.Logger;
 
 public class Repeater_Peashooter extends Plant implements Serializable{
+	private static final long serialVersionUID = 1124384069828809649L;
 private static Logger LOG = new Logger("Repeated Peashooter");
 	
 	private static final int DEFAULT_HP = HEALTH_MEDIUM;
@@ -34,20 +34,13 @@ private static Logger LOG = new Logger("Repeated Peashooter");
 	
 	@Override
 	public void attack(Board board) {
-		int row = getRow();
-		int column = getCol();
-		
-		ArrayList<Zombie> zombieInRow = new ArrayList<>();
-		zombieInRow = (ArrayList<Zombie>) board.getRowTargets(row, column);
-		
-		if(zombieInRow!=null) {
-			for(Zombie z : zombieInRow) {
-				LOG.debug(String.format("Repeater Peashooter at : (%d, %d) attacking Zombie at: (%d, %d)", 
-						row, column, z.getRow(), z.getCol()));
-				z.takeDamage(getPower()); // attacking all zombies in a row
-				removeZombie(z, board);
-			}
-		}
-		
+		board.forEachRowTarget(getRow(), getCol(), this); // attacking all zombies in a row
+	}
+	
+	@Override
+	public void visit(Board board, Zombie target) {
+		LOG.debug("Repeater Peashooter at : ({}, {}) attacking Zombie at: ({}, {})", 
+				getRow(), getCol(), target.getRow(), target.getCol());
+		super.visit(board, target);
 	}		
 }
@@ -13,6 +13,7 @@ import util.Logger;
  *
  */
 public class Snowshooter extends Plant implements Serializable {
+	private static final long serialVersionUID = 8154280582156877397L;
 	
 	private static final Logger LOG = new Logger("Snowshooter");
 
@@ -45,16 +46,22 @@ public class Snowshooter extends Plant implements Serializable {
 		int row = getRow();
 		int column = getCol();
 		
-		Zombie zombieTarget = board.getSingleZombieTarget(row, column);
+		Zombie zombieTarget = board.getTarget(row, column, getTargetPolicy(), false);
 		
 		if (zombieTarget != null) {
-			LOG.debug(String.format("Snowshooter at : (%d, %d) attacking Zombies at: (%d, %d)", 
-					row, column, row, zombieTarget.getCol()));	
+			LOG.debug("Snowshooter at : ({}, {}) attacking Zombies at: ({}, {})", 
+					row, column, row, zombieTarget.getCol());	
 			
-			zombieTarget.takeDamage(getPower());
-			zombieTarget.speedDebuff(ATTACK_SPEED_REDUCTION, SPEED_REDUCTION_DURATION);
-
-			removeZombie(zombieTarget, board);
+			shoot(board, zombieTarget, PROJECTILE_SPEED_SHOT);
 		}
 	}
+	
+	@Override
+	public void hit(Board board, Zombie target) {
+		target = board.splitZombie(target); //only one zombie of a stack is slowed
+		target.takeDamage(getPower());
+		target.speedDebuff(ATTACK_SPEED_REDUCTION, SPEED_REDUCTION_DURATION);
+
+		removeZombie(target, board);
+	}
 }
@@ -0,0 +1,21 @@
+package assets;
+
+/**
+ * This is the listing of the ways a plant picks the zombie it attacks
+ * out of the zombies ahead of it in its row
+ */
+public enum TargetPolicy {
+	NEAREST,		//the first zombie in the lane, the zombie closest to the plant
+	LOWEST_HP,		//the zombie that is closest to dying
+	HIGHEST_HP,		//the zombie that is hardest to kill
+	FASTEST,		//the zombie that gets to the house soonest
+	AIR_FIRST;		//the nearest air zombie before the nearest of the zombies the plant hits otherwise
+
+	/**
+	 * Check if the policy picks the zombie from the ones kept in order for it, instead of searching the lane
+	 * @return true for the policies ranking the zombies by their hit points or speed
+	 */
+	public boolean isRanked() {
+		return this == LOWEST_HP || this == HIGHEST_HP || this == FASTEST;
+	}
+}
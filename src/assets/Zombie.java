@@ -1,8 +1,13 @@
 package assets;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.io.Serializable;
+import java.util.Arrays;
 
 import engine.Board;
+import engine.TimingWheel;
+import util.EngineMetrics;
 import util.Logger;
 
 /**
@@ -13,6 +18,8 @@ import util.Logger;
  *@author Tanisha 
  */
 public abstract class Zombie implements Unit, Serializable {
+	private static final long serialVersionUID = 758136288846626439L;
+	
 	public static final int ATTACK_LOW = 1;
 	public static final int ATTACK_MEDIUM = 2;
 	public static final int ATTACK_HIGH = 3;
@@ -29,20 +36,41 @@ public abstract class Zombie implements Unit, Serializable {
 	public static final int SPEED_HIGH = 3;
 	
 	private static Logger LOG = new Logger("Zombie");
+	
+	//turns an immobilized zombie stays in place
+	private static final int IMMOBILIZED_TURNS = 1;
+	
 	private int speed; 		 //speed of a zombie
 	private int power; 		// power of a zombie 
 	private int hitPoints;  // life of a zombie
+	private int fullHitPoints;	// life of a zombie that has not been hit
+	private int stackSize = 1;	// identical zombies this zombie stands for, see isStackable
 	private int row;
 	private int column;
 	private Board listener;
 	
-	private int slowedTurnsLeft;
-	private boolean immobilized;
+	//status effects, active while they are scheduled to end on the board's timing wheel
+	private Slowed slowed = new Slowed(this);
+	private Immobilized immobilization = new Immobilized();
+	
+	//the status effects of a zombie saved before they were scheduled, see scheduleLoadedEffects
+	private transient int loadedSlowedTurns;
+	private transient boolean loadedImmobilized;
+	
+	//the plant free stretch of the row ahead of the zombie, kept by the board when zombies move kinematically
+	private transient int stretchFirst;
+	private transient int stretchLast;
+	private transient int stretchVersion;
+	
+	//the position of the zombie in each of the board's target heaps of its row, see Board.getTarget
+	private transient int[] heapIndexes;
 	
 	public Zombie(int speed, int pwr, int hp) {
 		this.speed = speed;
 		this.power = pwr;
 		this.hitPoints = hp;
+		this.fullHitPoints = hp;
+		EngineMetrics.ZOMBIES_CREATED.increment();
 	}
 	
 	/**
@@ -59,6 +87,9 @@ public abstract class Zombie implements Unit, Serializable {
 	 */
 	public void setSpeed(int speed) {
 		this.speed = speed;
+		if (listener != null) {
+			listener.onZombieChanged(this);
+		}
 	}
 
 	/**
@@ -94,7 +125,11 @@ public abstract class Zombie implements Unit, Serializable {
 	 */
 	@Override
 	public void setHp(int hp) {
+		int before = hitPoints;
 		this.hitPoints = hp;
+		if (listener != null) {
+			listener.onZombieHPChanged(this, before);
+		}
 	}
 	
 	/**
@@ -130,12 +165,17 @@ public abstract class Zombie implements Unit, Serializable {
 	}
 
 	/**
-	 * calculates the hit-points(life left) of a zombie after taking damage from a plant
+	 * calculates the hit-points(life left) of a zombie after taking damage from a plant. 
+	 * Every zombie of a stack takes the damage, a plant that hits a single zombie splits it off first, see Board.splitZombie
 	 * @param dmg the hit points to be reduced
 	 */
 	@Override
 	public void takeDamage(int dmg) {
+		int before = hitPoints;
 		this.hitPoints -= dmg;
+		if (listener != null) {
+			listener.onZombieHPChanged(this, before);
+		}
 	}
 
 	/**
@@ -160,6 +200,123 @@ public abstract class Zombie implements Unit, Serializable {
 		this.listener = board;
 	}
 	
+	/**
+	 * Remember a stretch of the zombie's row that has no plant in it
+	 * @param first the first column of the stretch
+	 * @param last the last column of the stretch
+	 * @param laneVersion the version of the row's plants the stretch was found at, greater than 0
+	 */
+	public void setFreeStretch(int first, int last, int laneVersion) {
+		this.stretchFirst = first;
+		this.stretchLast = last;
+		this.stretchVersion = laneVersion;
+	}
+	
+	/**
+	 * Check if a move stays inside the zombie's free stretch
+	 * @param from the column the move starts at
+	 * @param to the column the move ends at
+	 * @param laneVersion the current version of the row's plants
+	 * @return true if no plant can stop the move, false if the row has to be searched
+	 */
+	public boolean isInFreeStretch(int from, int to, int laneVersion) {
+		return stretchVersion == laneVersion && to >= stretchFirst && from <= stretchLast;
+	}
+	
+	/**
+	 * Get the position of the zombie in a target heap of the board
+	 * @param heap the heap
+	 * @return the position, -1 if the zombie is not in the heap
+	 */
+	public int getHeapIndex(int heap) {
+		return heapIndexes == null || heap >= heapIndexes.length? -1 : heapIndexes[heap];
+	}
+	
+	/**
+	 * Remember the position of the zombie in a target heap of the board, kept by the heap
+	 * @param heap the heap
+	 * @param index the position, -1 when the zombie leaves the heap
+	 */
+	public void setHeapIndex(int heap, int index) {
+		if (heapIndexes == null || heap >= heapIndexes.length) {
+			int[] grown = new int[heap + 1];
+			Arrays.fill(grown, -1);
+			if (heapIndexes != null) {
+				System.arraycopy(heapIndexes, 0, grown, 0, heapIndexes.length);
+			}
+			heapIndexes = grown;
+		}
+		heapIndexes[heap] = index;
+	}
+	
+	/**
+	 * Check if identical zombies of this type can be kept as one stack. 
+	 * The zombies of a stack move, attack and take damage together, so only zombies without 
+	 * behaviour of their own, e.g. exploding or spawning when they die, can be stacked.
+	 * 
+	 * @return true if the zombie can stand for a stack of zombies
+	 */
+	public boolean isStackable() {
+		return true;
+	}
+	
+	/**
+	 * Check if a new zombie of a type could join this zombie's stack instead of being made, 
+	 * which it can while this zombie is as it was made
+	 * 
+	 * @param type the type of the new zombie
+	 * @return true if the new zombie would be identical to the ones in the stack
+	 */
+	public boolean canStack(ZombieTypes type) {
+		return type == getZombieType() && isStackable() && hitPoints == fullHitPoints 
+				&& speed == getDefaultSpeed() && !hasEffects();
+	}
+	
+	/**
+	 * Get the number of identical zombies this zombie stands for
+	 * @return the zombies in the stack, 1 for a zombie on its own
+	 */
+	public int getStackSize() {
+		return stackSize;
+	}
+	
+	/**
+	 * Set the number of identical zombies this zombie stands for. 
+	 * The board keeps the count of the zombies of its grids, so a zombie on the board is stacked through the board.
+	 * 
+	 * @param stackSize at least 1
+	 */
+	public void setStackSize(int stackSize) {
+		this.stackSize = stackSize;
+	}
+	
+	/**
+	 * Take one zombie out of the stack, e.g. to hit it alone
+	 * 
+	 * @return a new zombie like the ones in the stack, on its own
+	 */
+	public Zombie splitOne() {
+		Zombie member = ZombieTypes.toZombie(getZombieType());
+		member.hitPoints = hitPoints;
+		member.speed = speed;
+		member.power = power;
+		member.listener = listener;
+		if (hasEffects()) {
+			//the member stays slowed or immobilized for the turns the stack has left
+			TimingWheel effects = listener.getEffects(row);
+			copyEffect(slowed, member.slowed, effects);
+			copyEffect(immobilization, member.immobilization, effects);
+		}
+		stackSize--;
+		return member;
+	}
+	
+	private static void copyEffect(TimingWheel.Timeout effect, TimingWheel.Timeout copy, TimingWheel effects) {
+		if (effect.isScheduled()) {
+			effects.schedule(copy, (int) (effect.getDeadline() - effects.now()));
+		}
+	}
+	
 	/**
 	 * Notify listener that this zombie is moving and check for movement
 	 * debuffs on zombie. 
@@ -168,13 +325,8 @@ public abstract class Zombie implements Unit, Serializable {
 	 */
 	public boolean move() {
 
-		if (immobilized) {
-			immobilized = false;
+		if (immobilization.isScheduled()) {
 			return true;
-		} else if (slowedTurnsLeft > 0) {
-			if (slowedTurnsLeft-- == 0) {
-				restoreSpeed();
-			}
 		}
 		
 		return listener.onZombieMove(this);
@@ -193,7 +345,8 @@ public abstract class Zombie implements Unit, Serializable {
 	public void attack(Board board) {
 		Plant plantTarget = board.getPlant(getRow(), getCol());
 		
-		plantTarget.takeDamage(getPower());
+		plantTarget.takeDamage(getPower() * stackSize); //every zombie of the stack bites
+		board.markChanged(getRow(), getCol());
 		
 		if (!plantTarget.isAlive()) {
 			board.removePlant(getRow(), getCol());
@@ -205,7 +358,7 @@ public abstract class Zombie implements Unit, Serializable {
 	 */
 	public void restoreSpeed() {
 		
-		this.speed = getDefaultSpeed();
+		setSpeed(getDefaultSpeed());
 	}
 	
 	/**
@@ -225,8 +378,8 @@ public abstract class Zombie implements Unit, Serializable {
 	public void speedDebuff(int speedReduction, int duration) {
 		
 		// only slow down the zombie if the zombie is currently not slowed
-		if (slowedTurnsLeft <= 0) {
-			slowedTurnsLeft = duration;
+		if (!slowed.isScheduled()) {
+			listener.getEffects(row).schedule(slowed, duration);
 			
 			// only reduce the speed of zombie if the
 			// speed reduction does not immobilize the zombie
@@ -237,10 +390,114 @@ public abstract class Zombie implements Unit, Serializable {
 	}
 	
 	/**
-	 * Set flag indicating that this zombie cannot move. 
+	 * Stop this zombie from moving for a turn. 
 	 */
 	public void immobilize() {
 		
-		immobilized = true;
+		listener.getEffects(row).schedule(immobilization, IMMOBILIZED_TURNS);
+	}
+	
+	/**
+	 * Check if the zombie is slowed down
+	 * @return true if a speed debuff is active, false otherwise
+	 */
+	public boolean isSlowed() {
+		return slowed.isScheduled();
+	}
+	
+	/**
+	 * Check if the zombie cannot move
+	 * @return true if the zombie is immobilized, false otherwise
+	 */
+	public boolean isImmobilized() {
+		return immobilization.isScheduled();
+	}
+	
+	/**
+	 * Check if the zombie has status effects waiting to end
+	 * @return true if the zombie is slowed or immobilized, false otherwise
+	 */
+	public boolean hasEffects() {
+		return slowed.isScheduled() || immobilization.isScheduled();
+	}
+	
+	/**
+	 * Move the zombie's status effects to another timing wheel, used when the zombie changes rows
+	 * @param effects the wheel of the zombie's new row
+	 */
+	public void transferEffects(TimingWheel effects) {
+		effects.transfer(slowed);
+		effects.transfer(immobilization);
+	}
+	
+	/**
+	 * Schedule the status effects of a zombie read from a save made before status effects were scheduled, 
+	 * called once the zombie is back on the board
+	 */
+	public void scheduleLoadedEffects() {
+		if (listener == null) {
+			return;
+		}
+		if (loadedSlowedTurns > 0) {
+			listener.getEffects(row).schedule(slowed, loadedSlowedTurns);
+		}
+		if (loadedImmobilized) {
+			listener.getEffects(row).schedule(immobilization, IMMOBILIZED_TURNS);
+		}
+		loadedSlowedTurns = 0;
+		loadedImmobilized = false;
+	}
+	
+	/**
+	 * Read a zombie, including one saved before zombies were stacked or their status effects were scheduled
+	 */
+	private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+		ObjectInputStream.GetField fields = in.readFields();
+		speed = fields.get("speed", 0);
+		power = fields.get("power", 0);
+		hitPoints = fields.get("hitPoints", 0);
+		fullHitPoints = fields.get("fullHitPoints", -1); //a zombie saved before stacking is never stacked
+		stackSize = fields.get("stackSize", 1);
+		row = fields.get("row", 0);
+		column = fields.get("column", 0);
+		listener = (Board) fields.get("listener", null);
+		slowed = (Slowed) fields.get("slowed", null);
+		immobilization = (Immobilized) fields.get("immobilization", null);
+		if (slowed == null) {
+			slowed = new Slowed(this);
+			immobilization = new Immobilized();
+			if (fields.getObjectStreamClass().getField("slowedTurnsLeft") != null) {
+				loadedSlowedTurns = fields.get("slowedTurnsLeft", 0);
+				loadedImmobilized = fields.get("immobilized", false);
+			}
+		}
+	}
+	
+	/**
+	 * Ends the speed debuff of a zombie
+	 */
+	private static final class Slowed extends TimingWheel.Timeout {
+		private static final long serialVersionUID = 1L;
+		private final Zombie zombie;
+		
+		private Slowed(Zombie zombie) {
+			this.zombie = zombie;
+		}
+		
+		@Override
+		protected void expire() {
+			zombie.restoreSpeed();
+		}
+	}
+	
+	/**
+	 * Ends the immobilization of a zombie, the zombie checks if it is still scheduled before moving
+	 */
+	private static final class Immobilized extends TimingWheel.Timeout {
+		private static final long serialVersionUID = 1L;
+		
+		@Override
+		protected void expire() {
+		}
 	}
 }
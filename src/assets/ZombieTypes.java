@@ -16,7 +16,8 @@ public enum ZombieTypes {
 	RUSH_ZOMBIE,
 	SPRINT_ZOMBIE,
 	TANK_ZOMBIE,
-	YETI_ZOMBIE;
+	YETI_ZOMBIE,
+	FLANK_ZOMBIE;
 
 	/**
 	 * Translates a ZombieTypes Enumeration into a Zombie Object
@@ -44,6 +45,8 @@ public enum ZombieTypes {
 				return new YetiZombie();
 			case ENRAGED_ZOMBIE:
 				return new Enraged_Zombie();
+			case FLANK_ZOMBIE:
+				return new Flanking_Zombie();
 			default: 
 				return null;
 		}
@@ -69,6 +72,8 @@ public enum ZombieTypes {
 				return "Yeti Zombie";
 			case ENRAGED_ZOMBIE:
 				return "Enraged Zombie";
+			case FLANK_ZOMBIE:
+				return "Flanking Zombie";
 			default: 
 				return null;
 		}
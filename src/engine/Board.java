@@ -1,17 +1,26 @@
 package engine;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.io.Serializable;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Queue;
+import java.util.Random;
 
 import assets.Air_Zombie;
 import assets.EconomyPlant;
 import assets.Plant;
+import assets.TargetPolicy;
 import assets.Unit;
 import assets.Zombie;
+import assets.Flanking_Zombie;
 import assets.Juking_Zombie;
+import util.EngineMetrics;
 import util.Logger;
 import engine.Grid;
  
@@ -67,6 +76,100 @@ public class Board implements ZombieMoveListener, Serializable {
 	 */
 	private List<EconomyPlant> economyPlantsInGame;
 	
+	/**
+	 * Random numbers for the game, seeded to replay a game
+	 */
+	private Random random;
+	
+	/**
+	 * The cells and lawn mowers that changed since the changes were last taken
+	 */
+	private transient ChangeSet changes;
+	
+	/**
+	 * Random numbers for each row, so rows resolved on different threads draw the same numbers as on one
+	 */
+	private Random[] rowRandoms;
+	
+	/**
+	 * Status effects and other timeouts of the units in each row. 
+	 * A unit's timeouts are kept in the wheel of its row, so rows resolved on different threads do not share a wheel.
+	 */
+	private TimingWheel[] rowEffects;
+	
+	/**
+	 * The number of times the effects were advanced, the turn new wheels start at
+	 */
+	private long effectsTurn;
+	
+	/**
+	 * The working state of the searches in each row
+	 */
+	private transient RowState[] rowStates;
+	
+	/**
+	 * Buffers the changes to the unit lists while the rows of a turn are resolved on several threads, null otherwise
+	 */
+	private transient RowPartition partition;
+	
+	/**
+	 * True to move zombies through the plant free stretch ahead of them without searching the row, see setKinematicZombies
+	 */
+	private transient boolean kinematicZombies;
+	
+	/**
+	 * Counts the plants placed and removed in each row, a zombie's free stretch is only valid for the version it was found at
+	 */
+	private transient int[] laneVersions;
+	
+	/**
+	 * The projectiles flying down each row, null unless the plants fire projectiles, see setProjectiles
+	 */
+	private transient ProjectileRing[] projectiles;
+	
+	/**
+	 * The next column with a ground or an air zombie from each column of the row whose projectiles are moving
+	 */
+	private transient int[] nextGroundZombie;
+	private transient int[] nextAirZombie;
+	
+	/**
+	 * Counts the zombies and their hit points on each grid for the area queries, null until an area is queried
+	 */
+	private transient ZombieIndex zombieIndex;
+	
+	/**
+	 * The cost of walking from each grid to the house for the Flanking_Zombies, null until one is on the board
+	 */
+	private transient FlowField flowField;
+	
+	/**
+	 * The number of Flanking_Zombies in each row, so the flow field is not looked for while there are none. 
+	 * Kept per row so rows resolved on different threads do not share a count
+	 */
+	private transient int[] flankingZombies;
+	
+	/**
+	 * The zombies of each row ranked for each ranked TargetPolicy, air and ground zombies apart, 
+	 * null until a plant targets the row with the policy
+	 */
+	private transient TargetHeap[][] targetHeaps;
+	
+	/**
+	 * Working state of the searches in a row, kept per row so different rows can be searched on different threads
+	 */
+	private static final class RowState {
+		//number of grids searched for targets or moves, for profiling
+		long cellsScanned;
+		
+		//lists reused by the target queries to gather targets before visiting them.
+		//a list is taken for each query, so a visitor can run another query
+		final ArrayDeque<ArrayList<Unit>> scratch = new ArrayDeque<ArrayList<Unit>>();
+		
+		//array the zombies of a grid are copied to, iterating the grid's queue would allocate an iterator
+		Zombie[] zombies = new Zombie[16];
+	}
+	
 	/**
 	 * Creates a new instance of Board.
 	 * 
@@ -83,11 +186,16 @@ public class Board implements ZombieMoveListener, Serializable {
 		this.economyPlantsInGame = new LinkedList<EconomyPlant>();
 		this.mowersAvaliable = new boolean[row];
 		this.zombieReachedEnd = new boolean[row];
+		this.random = new Random();
+		createRowRandoms();
+		this.rowEffects = new TimingWheel[row];
+		this.flankingZombies = new int[row];
 		
 		//initialize board and add set all the avaliable lawn mowers
 		gameBoard = new Grid[row][col];
 		for (int r = 0; r < row; r++) {
 			mowersAvaliable[r] = true;
+			rowEffects[r] = new TimingWheel();
 			for (int c = 0; c < col; c++) {
 				gameBoard[r][c] = new Grid(r, c);
 			}
@@ -104,6 +212,8 @@ public class Board implements ZombieMoveListener, Serializable {
 		this.row = other.row;
 		this.col = other.col;
 		this.zombieReachedEnd = other.zombieReachedEnd;
+		this.random = other.random;
+		this.rowRandoms = other.rowRandoms;
 		
 		this.zombiesInGame = new LinkedList<Zombie>();
 		LOG.debug("Made a Clone of Board");
@@ -112,6 +222,7 @@ public class Board implements ZombieMoveListener, Serializable {
 		this.zombiesInGame.addAll(other.zombiesInGame);
 		this.plantsInGame.addAll(other.plantsInGame);
 		this.economyPlantsInGame.addAll(other.economyPlantsInGame);
+		this.flankingZombies = other.flankingZombies.clone();
 		
 		//initialize board
 		gameBoard = new Grid[row][col];
@@ -120,6 +231,13 @@ public class Board implements ZombieMoveListener, Serializable {
 				gameBoard[r][c] = new Grid(other.gameBoard[r][c]);
 			}
 		}
+		
+		if (other.projectiles != null) { //the projectiles in flight are undone with the turn
+			this.projectiles = new ProjectileRing[row];
+			for (int r = 0; r < row; r++) {
+				this.projectiles[r] = new ProjectileRing(other.projectiles[r]);
+			}
+		}
 	}
 	
 	/**
@@ -131,6 +249,49 @@ public class Board implements ZombieMoveListener, Serializable {
 		return gameBoard;
 	}
 	
+	/**
+	 * Get the random number generator used by the game
+	 * 
+	 * @return the random number generator
+	 */
+	public Random getRandom() {
+		if (random == null) { //games saved before the generator was kept with the board
+			random = new Random();
+		}
+		return random;
+	}
+	
+	/**
+	 * Seed the random number generator, so the same moves play out the same way
+	 * 
+	 * @param seed
+	 */
+	public void setSeed(long seed) {
+		getRandom().setSeed(seed);
+		createRowRandoms();
+	}
+	
+	/**
+	 * Get the random number generator for the units of a row. 
+	 * Rows draw from their own generator so the numbers drawn do not depend on the order the rows are resolved in.
+	 * 
+	 * @param row
+	 * @return the random number generator of the row
+	 */
+	public Random getRandom(int row) {
+		if (rowRandoms == null) { //games saved before each row had its own generator
+			createRowRandoms();
+		}
+		return rowRandoms[row];
+	}
+	
+	private void createRowRandoms() {
+		rowRandoms = new Random[row];
+		for (int r = 0; r < row; r++) {
+			rowRandoms[r] = new Random(getRandom().nextLong());
+		}
+	}
+	
 	/**
 	 * Return the row size of this board
 	 * 
@@ -162,6 +323,392 @@ public class Board implements ZombieMoveListener, Serializable {
 		return gameBoard[row][col];
 	}
 	
+	/**
+	 * Get the number of grids searched for targets or zombie moves since this board was created.
+	 * Used for profiling.
+	 * 
+	 * @return the number of grids scanned
+	 */
+	public long getCellsScanned() {
+		long scanned = 0;
+		for (int r = 0; r < row; r++) {
+			scanned += getCellsScanned(r);
+		}
+		return scanned;
+	}
+	
+	/**
+	 * Get the number of grids searched for targets or zombie moves in a row since this board was created.
+	 * 
+	 * @param row
+	 * @return the number of grids scanned in the row
+	 */
+	public long getCellsScanned(int row) {
+		return rowStates == null || rowStates[row] == null? 0 : rowStates[row].cellsScanned;
+	}
+	
+	private RowState rowState(int x) {
+		if (rowStates == null) {
+			rowStates = new RowState[row];
+		}
+		RowState state = rowStates[x];
+		if (state == null) {
+			state = new RowState();
+			rowStates[x] = state;
+		}
+		return state;
+	}
+	
+	/**
+	 * Get the timing wheel for the status effects of the units in a row. 
+	 * Units must move their timeouts to the wheel of the row they move to.
+	 * 
+	 * @param row
+	 * @return the wheel of the row
+	 */
+	public TimingWheel getEffects(int row) {
+		if (rowEffects == null) { //games saved before effects were scheduled
+			rowEffects = new TimingWheel[this.row];
+		}
+		TimingWheel effects = rowEffects[row];
+		if (effects == null) {
+			effects = new TimingWheel(effectsTurn);
+			rowEffects[row] = effects;
+		}
+		return effects;
+	}
+	
+	/**
+	 * Move the status effects of a zombie to the wheel of the row it is in
+	 */
+	private void moveEffects(Zombie zombie) {
+		if (zombie.hasEffects()) {
+			zombie.transferEffects(getEffects(zombie.getRow()));
+		}
+	}
+	
+	/**
+	 * Advance the status effects by a turn, ending the effects that expire
+	 * @return the number of effects that ended
+	 */
+	public int advanceEffects() {
+		effectsTurn++;
+		if (rowEffects == null) {
+			return 0;
+		}
+		int expired = 0;
+		for (int r = 0; r < row; r++) {
+			if (rowEffects[r] != null) {
+				expired += rowEffects[r].advance();
+			}
+		}
+		return expired;
+	}
+	
+	/**
+	 * Set if zombies move kinematically. 
+	 * When a zombie moves the plant free stretch of the row ahead of it is found once, after that the zombie 
+	 * walks through the stretch without searching the row or checking for plants until it reaches the end of the stretch 
+	 * or a plant is placed or removed in its row. Zombies end up in the same place either way. 
+	 * Juking zombies change rows, so they always search.
+	 * 
+	 * @param kinematic true to move zombies kinematically, false to search the row on every move
+	 */
+	public void setKinematicZombies(boolean kinematic) {
+		this.kinematicZombies = kinematic;
+		laneVersion(0);
+	}
+	
+	/**
+	 * Check if zombies move kinematically
+	 * @return true if zombies move through free stretches without searching the row
+	 */
+	public boolean isKinematicZombies() {
+		return kinematicZombies;
+	}
+	
+	private int laneVersion(int x) {
+		if (laneVersions == null) {
+			laneVersions = new int[row];
+			Arrays.fill(laneVersions, 1); //zombies without a free stretch have version 0
+		}
+		return laneVersions[x];
+	}
+	
+	/**
+	 * A plant was placed or removed, the free stretches found in its row and the flow field behind it are no longer valid
+	 */
+	private void laneChanged(int x, int y) {
+		if (laneVersions != null) {
+			laneVersions[x]++;
+		}
+		if (flowField != null) {
+			flowField.plantChanged(x, y);
+		}
+	}
+	
+	/**
+	 * Bring the flow field the Flanking_Zombies walk on up to date with the plants placed and removed since the last update. 
+	 * The field is kept as it is while the zombies of a turn move, so every zombie of the turn walks on the same field 
+	 * whatever order the rows are resolved in. The field is made for the first Flanking_Zombie on the board.
+	 * 
+	 * @return the number of grids worked out
+	 */
+	public int updateFlowField() {
+		if (flowField == null) {
+			for (int x = 0; x < row; x++) {
+				if (flankingZombies[x] > 0) {
+					flowField = new FlowField(gameBoard);
+					return row * col;
+				}
+			}
+			return 0;
+		}
+		return flowField.update(gameBoard);
+	}
+	
+	/**
+	 * Count a Flanking_Zombie arriving in a row or leaving it
+	 */
+	private void countFlanker(Zombie zombie, int x, int delta) {
+		if (zombie instanceof Flanking_Zombie) {
+			flankingZombies[x] += delta;
+		}
+	}
+	
+	private FlowField flowField() {
+		if (flowField == null) {
+			flowField = new FlowField(gameBoard);
+		}
+		return flowField;
+	}
+	
+	/**
+	 * Get the cost of the cheapest walk from a grid to the house on the flow field, 
+	 * made of the steps, the hit points of the plants to eat and the attack of the plants shooting along the way
+	 * 
+	 * @param x the row
+	 * @param y the column
+	 * @return the cost as of the last update of the field
+	 */
+	public int getFlowCost(int x, int y) {
+		return flowField().getCost(x, y);
+	}
+	
+	/**
+	 * Find the plant free stretch of the row from the zombie's grid back to the next plant or the end of the board
+	 */
+	private void findFreeStretch(Zombie zombie) {
+		int x = zombie.getRow();
+		int y = zombie.getCol();
+		RowState state = rowState(x);
+		int first = y;
+		while (first >= 0 && !gameBoard[x][first].isOccupied()) {
+			state.cellsScanned++;
+			first--;
+		}
+		if (first < y) {
+			zombie.setFreeStretch(first + 1, y, laneVersion(x));
+		}
+	}
+	
+	/**
+	 * Set if plants that shoot fire projectiles. 
+	 * Projectiles fly down the row a few cells per turn, see advanceProjectiles, and hit the first zombie they reach: 
+	 * ground zombies for projectiles fired at ground zombies, air zombies for those fired at air zombies. 
+	 * Otherwise a plant hits its target as soon as it attacks.
+	 * 
+	 * @param enabled true to fire projectiles, false to hit instantly
+	 */
+	public void setProjectiles(boolean enabled) {
+		if (!enabled) {
+			projectiles = null;
+		} else if (projectiles == null) {
+			projectiles = new ProjectileRing[row];
+			for (int r = 0; r < row; r++) {
+				projectiles[r] = new ProjectileRing();
+			}
+			nextGroundZombie = new int[col + 1];
+			nextAirZombie = new int[col + 1];
+		}
+	}
+	
+	/**
+	 * Check if plants fire projectiles
+	 * @return true if plants fire projectiles, false if they hit instantly
+	 */
+	public boolean isProjectiles() {
+		return projectiles != null;
+	}
+	
+	/**
+	 * Fire a projectile from a plant's grid down its row
+	 * @param shooter the plant firing, it is hit with the zombie the projectile reaches
+	 * @param speed the cells per turn the projectile flies
+	 * @param air true to hit air zombies, false to hit ground zombies
+	 */
+	public void fireProjectile(Plant shooter, float speed, boolean air) {
+		projectiles[shooter.getRow()].add(shooter, speed, air);
+	}
+	
+	/**
+	 * Get the number of projectiles flying down a row
+	 * @param x the row
+	 * @return the projectiles in flight, 0 if plants do not fire projectiles
+	 */
+	public int getProjectileCount(int x) {
+		return projectiles == null? 0 : projectiles[x].size();
+	}
+	
+	/**
+	 * Move the projectiles and hit the zombies they reach. 
+	 * A projectile hits the first zombie in the cells it flies over, from the cell it was in, 
+	 * and leaves the board when it flies past the last column.
+	 * 
+	 * @param turns the part of a turn the projectiles fly for, 1 for a whole turn
+	 * @return the number of zombies hit
+	 */
+	public int advanceProjectiles(float turns) {
+		if (projectiles == null) {
+			return 0;
+		}
+		int hits = 0;
+		for (int x = 0; x < row; x++) {
+			ProjectileRing ring = projectiles[x];
+			if (ring.size() == 0) {
+				continue;
+			}
+			findNextZombies(x);
+			for (int i = ring.first(); i != ring.end(); i++) {
+				Plant shooter = ring.getShooter(i);
+				if (shooter == null) {
+					continue;
+				}
+				float front = ring.getFront(i);
+				float reached = front + ring.getSpeed(i) * turns;
+				Zombie target = findProjectileTarget(x, (int) Math.ceil(front), (int) Math.min(Math.ceil(reached), col), ring.isAir(i));
+				if (target != null) {
+					ring.remove(i);
+					shooter.hit(this, target);
+					hits++;
+				} else if (reached >= col) {
+					ring.remove(i);
+				} else {
+					ring.setFront(i, reached);
+				}
+			}
+		}
+		return hits;
+	}
+	
+	/**
+	 * Find the next column with a ground zombie and with an air zombie from each column of a row, in one pass from the end
+	 */
+	private void findNextZombies(int x) {
+		RowState state = rowState(x);
+		int nextGround = col;
+		int nextAir = col;
+		nextGroundZombie[col] = col;
+		nextAirZombie[col] = col;
+		for (int y = col - 1; y >= 0; y--) {
+			state.cellsScanned++;
+			Queue<Zombie> zombies = gameBoard[x][y].getZombies();
+			int size = zombies.size();
+			if (size > 0) {
+				if (state.zombies.length < size) {
+					state.zombies = new Zombie[size];
+				}
+				Zombie[] copy = state.zombies;
+				zombies.toArray(copy);
+				for (int i = 0; i < size; i++) {
+					if (copy[i] instanceof Air_Zombie) {
+						nextAir = y;
+					} else {
+						nextGround = y;
+					}
+				}
+				Arrays.fill(copy, 0, size, null);
+			}
+			nextGroundZombie[y] = nextGround;
+			nextAirZombie[y] = nextAir;
+		}
+	}
+	
+	/**
+	 * Find the zombie a projectile hits in the columns it flies over
+	 * @param from the first column flown over
+	 * @param to the column after the last one flown over
+	 * @return the first zombie of the first grid with a target, null if none
+	 */
+	private Zombie findProjectileTarget(int x, int from, int to, boolean air) {
+		int[] next = air? nextAirZombie : nextGroundZombie;
+		RowState state = rowState(x);
+		for (int y = from < col? next[from] : col; y < to; y = next[y + 1]) {
+			Zombie target = firstZombie(state, x, y, air);
+			if (target != null) {
+				return target;
+			}
+			next[y] = next[y + 1]; //the zombies of the grid were killed by an earlier hit
+		}
+		return null;
+	}
+	
+	/**
+	 * Get the first air or ground zombie of a grid, without allocating once the row's array is big enough
+	 */
+	private Zombie firstZombie(RowState state, int x, int y, boolean air) {
+		Queue<Zombie> zombies = gameBoard[x][y].getZombies();
+		int size = zombies.size();
+		if (size == 0) {
+			return null;
+		}
+		if (state.zombies.length < size) {
+			state.zombies = new Zombie[size];
+		}
+		Zombie[] copy = state.zombies;
+		zombies.toArray(copy);
+		Zombie first = null;
+		for (int i = 0; i < size && first == null; i++) {
+			if ((copy[i] instanceof Air_Zombie) == air) {
+				first = copy[i];
+			}
+		}
+		Arrays.fill(copy, 0, size, null); //do not keep dead zombies alive
+		return first;
+	}
+	
+	/**
+	 * Start resolving the rows of a turn on several threads. 
+	 * Until endRowPartition the unit lists are not changed, the changes are buffered in the partition instead. 
+	 * Each row must only be changed by the thread resolving the partition range that holds it.
+	 * 
+	 * @param partition the ranges of rows being resolved
+	 */
+	void beginRowPartition(RowPartition partition) {
+		//create the shared state up front, the threads only touch the parts of their own rows
+		getChanges();
+		getRandom(0);
+		laneVersion(0);
+		if (rowEffects == null) {
+			rowEffects = new TimingWheel[row];
+		}
+		for (int r = 0; r < row; r++) {
+			rowState(r);
+		}
+		zombieIndex();
+		targetHeaps();
+		this.partition = partition;
+	}
+	
+	/**
+	 * Apply the changes buffered while the rows were resolved to the unit lists
+	 */
+	void endRowPartition() {
+		RowPartition resolved = partition;
+		partition = null;
+		resolved.applyTo(zombiesInGame, plantsInGame, economyPlantsInGame);
+	}
+	
 	/**
 	 * Get the number of zombies currently in game.
 	 * 
@@ -208,7 +755,9 @@ public class Board implements ZombieMoveListener, Serializable {
 		if (gameBoard[x][y].setPlant(plant)) {
 			this.plantsInGame.add(plant);
 			plant.setCoordinates(x, y);
-			LOG.debug(String.format("Placed plant at location: (%d, %d)", x, y));
+			laneChanged(x, y);
+			markChanged(x, y);
+			LOG.debug("Placed plant at location: ({}, {})", x, y);
 			return true;
 		}
 		
@@ -225,11 +774,21 @@ public class Board implements ZombieMoveListener, Serializable {
 	 */
 	public void removePlant(int x, int y) {
 		Plant toRemoveP = gameBoard[x][y].getPlant();
-		if(toRemoveP instanceof EconomyPlant) {
-			this.economyPlantsInGame.remove(toRemoveP);
+		if (partition != null) {
+			if (toRemoveP != null) {
+				partition.unitRemoved(x, toRemoveP);
+			}
+		} else {
+			if(toRemoveP instanceof EconomyPlant) {
+				this.economyPlantsInGame.remove(toRemoveP);
+			}
+			this.plantsInGame.remove(toRemoveP);
 		}
-		this.plantsInGame.remove(toRemoveP);
 		gameBoard[x][y].removePlant();
+		if (toRemoveP != null) {
+			laneChanged(x, y);
+			markChanged(x, y);
+		}
 	}
 	
 	/**
@@ -245,8 +804,17 @@ public class Board implements ZombieMoveListener, Serializable {
 		if (gameBoard[x][y].addZombie(zombie)) {
 			zombie.setRow(x);
 			zombie.setColumn(y);
-			this.zombiesInGame.add(zombie);
-			LOG.debug(String.format("Placed zombie at location: (%d, %d)", x, y));
+			moveEffects(zombie);
+			targetAdded(zombie);
+			indexZombie(x, y, zombie, 1);
+			countFlanker(zombie, x, 1);
+			if (partition != null) {
+				partition.zombieAdded(x, zombie);
+			} else {
+				this.zombiesInGame.add(zombie);
+			}
+			markChanged(x, y);
+			LOG.debug("Placed zombie at location: ({}, {})", x, y);
 			return true;
 		}
 		
@@ -262,7 +830,119 @@ public class Board implements ZombieMoveListener, Serializable {
 	 */
 	public void removeZombie(int x, int y) {
 		Zombie zombieRemoved = gameBoard[x][y].removeZombie();
-		this.zombiesInGame.remove(zombieRemoved);
+		if (zombieRemoved != null) {
+			targetRemoved(zombieRemoved, x);
+			indexZombie(x, y, zombieRemoved, -1);
+			countFlanker(zombieRemoved, x, -1);
+			if (partition != null) {
+				partition.unitRemoved(x, zombieRemoved);
+			} else {
+				this.zombiesInGame.remove(zombieRemoved);
+			}
+			markChanged(x, y);
+		}
+	}
+	
+	/**
+	 * Remove a particular Zombie from the grid it is on, which need not be the first zombie of the grid.
+	 * Used when Player's plant kills a Zombie it picked out of the grid.
+	 * 
+	 * @param zombie the zombie to remove
+	 */
+	public void removeZombie(Zombie zombie) {
+		int x = zombie.getRow();
+		int y = zombie.getCol();
+		if (gameBoard[x][y].removeZombie(zombie)) {
+			targetRemoved(zombie, x);
+			indexZombie(x, y, zombie, -1);
+			countFlanker(zombie, x, -1);
+			if (partition != null) {
+				partition.unitRemoved(x, zombie);
+			} else {
+				this.zombiesInGame.remove(zombie);
+			}
+			markChanged(x, y);
+		}
+	}
+	
+	/**
+	 * Take a zombie out of a stack to be hit on its own, for the plants that hit a single zombie. 
+	 * The zombie is placed ahead of the stack on its grid, so the plants that attack the first zombie of a grid keep hitting it.
+	 * 
+	 * @param stack the zombie picked by a plant
+	 * @return the zombie to hit, the picked zombie itself if it does not stand for a stack
+	 */
+	public Zombie splitZombie(Zombie stack) {
+		if (stack.getStackSize() == 1) {
+			return stack;
+		}
+		int x = stack.getRow();
+		int y = stack.getCol();
+		Grid grid = gameBoard[x][y];
+		Zombie member = stack.splitOne();
+		grid.addToZombieTypeCount(stack.getZombieType(), -1);
+		grid.addZombieFirst(member);
+		member.setRow(x);
+		member.setColumn(y);
+		targetAdded(member);
+		if (partition != null) {
+			partition.zombieAdded(x, member);
+		} else {
+			this.zombiesInGame.add(member);
+		}
+		markChanged(x, y);
+		return member;
+	}
+	
+	/**
+	 * Add identical zombies to a zombie on the board instead of placing them, see Zombie.canStack
+	 * 
+	 * @param stack the zombie on the board
+	 * @param members the number of zombies to add to it
+	 */
+	public void stackZombies(Zombie stack, int members) {
+		int x = stack.getRow();
+		int y = stack.getCol();
+		stack.setStackSize(stack.getStackSize() + members);
+		gameBoard[x][y].addToZombieTypeCount(stack.getZombieType(), members);
+		if (zombieIndex != null && zombieIndex.isBuilt(x)) {
+			zombieIndex.add(x, y, members, (long) Math.max(stack.getHP(), 0) * members);
+		}
+		markChanged(x, y);
+	}
+	
+	/**
+	 * Mark a grid as changed without changing the board. 
+	 * Used when the HP of a unit on the grid changed.
+	 * 
+	 * @param x coordinate of the grid
+	 * @param y coordinate of the grid
+	 */
+	public void markChanged(int x, int y) {
+		getChanges().markCell(x, y);
+	}
+	
+	/**
+	 * Get the cells and lawn mowers that changed since the changes were last taken.
+	 * 
+	 * @return the current change set
+	 */
+	public ChangeSet getChanges() {
+		if (changes == null) {
+			changes = new ChangeSet(row, col);
+		}
+		return changes;
+	}
+	
+	/**
+	 * Take the changes made to the board so far and start a new change set.
+	 * 
+	 * @return the changes made since the last call
+	 */
+	public ChangeSet takeChanges() {
+		ChangeSet taken = getChanges();
+		changes = new ChangeSet(row, col);
+		return taken;
 	}
 	
 	/**
@@ -350,20 +1030,44 @@ public class Board implements ZombieMoveListener, Serializable {
 	}
 
 	/**
-	 * Sets the state of this board to another's state
+	 * Sets the state of this board to another's state.
+	 * Only grids that differ from the other board are reset, so only those are marked as changed.
+	 * The grids are emptied before any is refilled, as a stack placed back takes its old size, which the grid it is 
+	 * still on must not see.
 	 * @param other
 	 */
 	public void setBoard(Board other) {
 		this.plantsInGame = other.plantsInGame;
+		if (projectiles != null) {
+			for (int r = 0; r < row; r++) {
+				if (other.projectiles != null) {
+					projectiles[r].copyFrom(other.projectiles[r]);
+				} else {
+					projectiles[r].clear();
+				}
+			}
+		}
 
+		boolean[][] reset = new boolean[row][col];
     	for (int i = 0; i < gameBoard.length; i++) {
     		for (int j = 0; j < gameBoard[i].length; j++) {
+    			if (isSameGrid(gameBoard[i][j], other.gameBoard[i][j])) {
+    				continue;
+    			}
+    			reset[i][j] = true;
     			this.removePlant(i, j);
     			while(!this.getAllZombies(i, j).isEmpty()) {
         			this.removeZombie(i,j);	
     			}
-    			LOG.debug("Reset Grid ("+i+","+j+")");
-    			
+    			LOG.debug("Reset Grid ({},{})", i, j);
+    		}
+    	}
+    	
+    	for (int i = 0; i < gameBoard.length; i++) {
+    		for (int j = 0; j < gameBoard[i].length; j++) {
+    			if (!reset[i][j]) {
+    				continue;
+    			}
     			if (other.getPlant(i,j) != null) {
     				this.placePlant(other.getPlant(i, j), i, j);
         			LOG.debug("Planting from other board");
@@ -371,7 +1075,9 @@ public class Board implements ZombieMoveListener, Serializable {
         			LOG.debug("No Plants on Grid");
     			}
     			
+    			int k = 0;
     			for(Zombie z : other.getAllZombies(i, j)) {
+    				z.setStackSize(other.gameBoard[i][j].getStackSize(z, k++));
         			this.placeZombie(z, i, j);
         			LOG.debug("Placing Zombie from other board");
     			}
@@ -379,6 +1085,24 @@ public class Board implements ZombieMoveListener, Serializable {
     	}
 	}
 	
+	/**
+	 * Check if two grids hold the same plant and the same zombies in the same order, stacked alike
+	 */
+	private static boolean isSameGrid(Grid grid, Grid other) {
+		if (grid.getPlant() != other.getPlant() || grid.getNumberOfZombies() != other.getNumberOfZombies()) {
+			return false;
+		}
+		Iterator<Zombie> it = other.getZombies().iterator();
+		int i = 0;
+		for (Zombie z : grid.getZombies()) {
+			if (z != it.next() || grid.getStackSize(z, i) != other.getStackSize(z, i)) {
+				return false;
+			}
+			i++;
+		}
+		return true;
+	}
+	
 	/**
 	 * Returns the first zombie that the plant can attack. Null if no zombies can be attacked.
 	 * Only return non-air zombies.
@@ -388,14 +1112,11 @@ public class Board implements ZombieMoveListener, Serializable {
 	 * @return the found non-air zombie target
 	 */
 	public Zombie getSingleZombieTarget(int x, int y) {
+		RowState state = rowState(x);
 		for (int col = y; col < gameBoard[x].length; col++) {
+			state.cellsScanned++;
 			if (gameBoard[x][col].getFirstZombie() != null) {
-				for (Zombie zombie : gameBoard[x][col].getZombies()) {
-					if (!(zombie instanceof Air_Zombie)) {
-						return zombie;
-					}
-				}
-				break;
+				return firstZombie(state, x, col, false);
 			}
 		}
 		return null;
@@ -409,18 +1130,183 @@ public class Board implements ZombieMoveListener, Serializable {
 	 * @return the found air zombie target
 	 */
 	public Zombie getSingleAirTarget(int x, int y) {
+		RowState state = rowState(x);
 		for (int col = y; col < gameBoard[x].length; col++) {
+			state.cellsScanned++;
 			if (gameBoard[x][col].getFirstZombie() != null) {
-				for (Zombie zombie : gameBoard[x][col].getZombies()) {
-					if (zombie instanceof Air_Zombie) {
-						return zombie;
-					}
+				Zombie zombie = firstZombie(state, x, col, true);
+				if (zombie != null) {
+					return zombie;
 				}
 			}
 		}
 		return null;
 	}
 	
+	/**
+	 * Find the zombie a plant attacks with a targeting policy, out of the zombies from its grid to the end of its row. 
+	 * The nearest zombies are found by searching the lane as getSingleZombieTarget and getSingleAirTarget do, 
+	 * the ranked policies take the best zombie from a heap of the row's zombies kept up to date as they move and change, 
+	 * in O(log n) instead of a search of the lane.
+	 * 
+	 * @param x The row of the plant
+	 * @param y The column of the plant
+	 * @param policy how the plant picks the zombie
+	 * @param air true for a plant that hits air zombies, false for one that hits ground zombies
+	 * @return the zombie, null if there is none
+	 */
+	public Zombie getTarget(int x, int y, TargetPolicy policy, boolean air) {
+		switch (policy) {
+			case NEAREST:
+				return air? getSingleAirTarget(x, y) : getSingleZombieTarget(x, y);
+			case AIR_FIRST:
+				Zombie target = getSingleAirTarget(x, y);
+				return target != null || air? target : getSingleZombieTarget(x, y);
+			default:
+				return targetHeap(x, policy, air).best(y);
+		}
+	}
+	
+	private static int heapId(TargetPolicy policy, boolean air) {
+		int id;
+		switch (policy) {
+			case LOWEST_HP:
+				id = 0;
+				break;
+			case HIGHEST_HP:
+				id = 1;
+				break;
+			default: //FASTEST
+				id = 2;
+				break;
+		}
+		return 2 * id + (air? 1 : 0);
+	}
+	
+	/**
+	 * Get the heap of a row for a policy, the heap is filled with the row's zombies the first time
+	 */
+	private TargetHeap targetHeap(int x, TargetPolicy policy, boolean air) {
+		int id = heapId(policy, air);
+		TargetHeap[] heaps = targetHeaps()[x];
+		TargetHeap heap = heaps[id];
+		if (heap == null) {
+			heap = new TargetHeap(id, policy);
+			RowState state = rowState(x);
+			for (int y = 0; y < col; y++) {
+				state.cellsScanned++;
+				Queue<Zombie> zombies = gameBoard[x][y].getZombies();
+				int size = zombies.size();
+				if (size == 0) {
+					continue;
+				}
+				if (state.zombies.length < size) {
+					state.zombies = new Zombie[size];
+				}
+				Zombie[] copy = state.zombies;
+				zombies.toArray(copy);
+				for (int i = 0; i < size; i++) {
+					if ((copy[i] instanceof Air_Zombie) == air) {
+						heap.add(copy[i]);
+					}
+				}
+				Arrays.fill(copy, 0, size, null);
+			}
+			heaps[id] = heap;
+		}
+		return heap;
+	}
+	
+	/**
+	 * Get the heaps of every row, a row's heaps are made when a plant of the row first targets by their policy
+	 */
+	private TargetHeap[][] targetHeaps() {
+		if (targetHeaps == null) {
+			TargetHeap[][] heaps = new TargetHeap[row][];
+			for (int r = 0; r < row; r++) {
+				heaps[r] = new TargetHeap[6]; //a ground and an air heap for each ranked policy
+			}
+			targetHeaps = heaps;
+		}
+		return targetHeaps;
+	}
+	
+	/**
+	 * A zombie was placed on the board, add it to the heaps of its row
+	 */
+	private void targetAdded(Zombie zombie) {
+		TargetHeap[] heaps = targetHeaps == null? null : targetHeaps[zombie.getRow()];
+		if (heaps != null) {
+			boolean air = zombie instanceof Air_Zombie;
+			for (int id = 0; id < heaps.length; id++) {
+				if (heaps[id] != null && (id % 2 == 1) == air) {
+					heaps[id].add(zombie);
+				}
+			}
+		}
+	}
+	
+	/**
+	 * A zombie left a row, take it out of the row's heaps
+	 */
+	private void targetRemoved(Zombie zombie, int x) {
+		TargetHeap[] heaps = targetHeaps == null? null : targetHeaps[x];
+		if (heaps != null) {
+			for (int id = 0; id < heaps.length; id++) {
+				if (heaps[id] != null && heaps[id].contains(zombie)) {
+					heaps[id].remove(zombie);
+				}
+			}
+		}
+	}
+	
+	/**
+	 * A zombie moved, from the row it was in
+	 */
+	private void targetMoved(Zombie zombie, int fromRow) {
+		if (zombie.getRow() != fromRow) {
+			targetRemoved(zombie, fromRow);
+			targetAdded(zombie);
+			countFlanker(zombie, fromRow, -1);
+			countFlanker(zombie, zombie.getRow(), 1);
+		} else {
+			onZombieChanged(zombie);
+		}
+	}
+	
+	/**
+	 * Invoked when a zombie on the board takes damage or its hit points are set
+	 * 
+	 * @param zombie
+	 * @param hpBefore the hit points it had before
+	 */
+	public void onZombieHPChanged(Zombie zombie, int hpBefore) {
+		int x = zombie.getRow();
+		int y = zombie.getCol();
+		if (zombieIndex != null && zombieIndex.isBuilt(x)) {
+			zombieIndex.add(x, y, 0, indexedHP(zombie, zombie.getHP()) - indexedHP(zombie, hpBefore));
+		}
+		markChanged(x, y);
+		onZombieChanged(zombie);
+	}
+	
+	/**
+	 * Invoked whenever the hit points or the speed of a zombie on the board change, 
+	 * so the plants that rank zombies by them see the change
+	 * 
+	 * @param zombie
+	 */
+	public void onZombieChanged(Zombie zombie) {
+		TargetHeap[] heaps = targetHeaps == null? null : targetHeaps[zombie.getRow()];
+		if (heaps != null) {
+			for (int id = 0; id < heaps.length; id++) {
+				if (heaps[id] != null && heaps[id].contains(zombie)) {
+					heaps[id].update(zombie);
+				}
+			}
+		}
+	}
+	
 	/**
 	 * Returns a list of all zombies that the plant can attack IF the plant can attack all zombies in a grid. Null if no zombies can be attacked
 	 * @param x
@@ -428,18 +1314,46 @@ public class Board implements ZombieMoveListener, Serializable {
 	 * @return
 	 */
 	public List<Zombie> getGridTargets(int x, int y) {
+		ArrayList<Zombie> targets = new ArrayList<Zombie>();
+		forEachGridTarget(x, y, (board, zombie) -> targets.add(zombie));
+		return targets.isEmpty()? null : targets;
+	}
+	
+	/**
+	 * Visits all zombies that the plant can attack IF the plant can attack all zombies in a grid, without building a list.
+	 * These are the ground zombies of the first grid with ground zombies, starting from (x, y); grids holding only air zombies are passed over.
+	 * @param x
+	 * @param y
+	 * @param visitor called for each target
+	 * @return the number of targets visited
+	 */
+	public int forEachGridTarget(int x, int y, TargetVisitor<? super Zombie> visitor) {
+		RowState state = rowState(x);
+		ArrayList<Unit> targets = takeScratch(state);
 		for (int col = y; col < gameBoard[x].length; col++) {
+			state.cellsScanned++;
 			if (!gameBoard[x][col].getZombies().isEmpty()) {
-				ArrayList<Zombie> gridTargets = new ArrayList<Zombie>();
-				for (Zombie zombie : gameBoard[x][col].getZombies()) {
-					if (!(zombie instanceof Air_Zombie)) {
-						gridTargets.add(zombie);
-					}
+				addZombies(state, targets, x, col, true);
+				if (!targets.isEmpty()) {
+					break;
 				}
-				return gridTargets;
 			}
 		}
-		return null;
+		return visit(state, targets, visitor);
+	}
+	
+	/**
+	 * Visits all zombies on a grid, without building a list
+	 * @param x
+	 * @param y
+	 * @param visitor called for each zombie, in the order they arrived on the grid
+	 * @return the number of zombies visited
+	 */
+	public int forEachZombie(int x, int y, TargetVisitor<? super Zombie> visitor) {
+		RowState state = rowState(x);
+		ArrayList<Unit> targets = takeScratch(state);
+		addZombies(state, targets, x, y, false);
+		return visit(state, targets, visitor);
 	}
 	
 	/**
@@ -449,13 +1363,26 @@ public class Board implements ZombieMoveListener, Serializable {
 	 * @return
 	 */
 	public List<Zombie> getRowTargets(int x, int y) {
-		ArrayList<Zombie> targets = new ArrayList<>();
+		ArrayList<Zombie> targets = new ArrayList<Zombie>();
+		forEachRowTarget(x, y, (board, zombie) -> targets.add(zombie));
+		return targets.isEmpty()? null : targets;
+	}
+	
+	/**
+	 * Visits all zombies that the plant can attack IF the plant can attack all zombies in a row, without building a list
+	 * @param x
+	 * @param y
+	 * @param visitor called for each target
+	 * @return the number of targets visited
+	 */
+	public int forEachRowTarget(int x, int y, TargetVisitor<? super Zombie> visitor) {
+		RowState state = rowState(x);
+		ArrayList<Unit> targets = takeScratch(state);
 		for (int col = y; col < gameBoard[x].length; col++) {
-			if (!gameBoard[x][col].getZombies().isEmpty()) {
-				targets.addAll(gameBoard[x][col].getZombies());
-			}
+			state.cellsScanned++;
+			addZombies(state, targets, x, col, false);
 		}
-		return targets.isEmpty()? null : targets;
+		return visit(state, targets, visitor);
 	}
 	
 	/**
@@ -465,16 +1392,228 @@ public class Board implements ZombieMoveListener, Serializable {
 	 */
 	public List<Unit> getRowUnits(int x)
 	{
-		ArrayList<Unit> targets = new ArrayList<>();
+		ArrayList<Unit> targets = new ArrayList<Unit>();
+		forEachRowUnit(x, (board, unit) -> targets.add(unit));
+		return targets.isEmpty()? null : targets;
+	}
+	
+	/**
+	 * Visits all the units in the row, without building a list
+	 * @param x - the row that is to be checked for units
+	 * @param visitor - called for each unit, the zombies of a grid before its plant
+	 * @return - the number of units visited
+	 */
+	public int forEachRowUnit(int x, TargetVisitor<? super Unit> visitor)
+	{
+		RowState state = rowState(x);
+		ArrayList<Unit> targets = takeScratch(state);
 		for (int col = 0; col < gameBoard[x].length; col++) {
-			if (!gameBoard[x][col].getZombies().isEmpty()) {
-				targets.addAll(gameBoard[x][col].getZombies());
-			}
+			state.cellsScanned++;
+			addZombies(state, targets, x, col, false);
 			if (gameBoard[x][col].getPlant() != null) {
 				targets.add(gameBoard[x][col].getPlant());
 			}
 		}
-		return targets.isEmpty()? null : targets;
+		return visit(state, targets, visitor);
+	}
+	
+	/**
+	 * Count the zombies in an area of the board, in O(rows of the area * log columns)
+	 * @param x1 the first row
+	 * @param y1 the first column
+	 * @param x2 the last row
+	 * @param y2 the last column
+	 * @return the number of zombies in the area counting every zombie of a stack, the parts of the area off the board are left out
+	 */
+	public int countZombies(int x1, int y1, int x2, int y2) {
+		int count = 0;
+		for (int x = Math.max(x1, 0), last = Math.min(x2, row - 1); x <= last; x++) {
+			int from = Math.max(y1, 0);
+			int to = Math.min(y2, col - 1);
+			if (from <= to) {
+				count += indexRow(x).count(x, from, to);
+			}
+		}
+		return count;
+	}
+	
+	/**
+	 * Sum the hit points of the zombies in an area of the board, in O(rows of the area * log columns).
+	 * The hit points follow the damage the zombies take while the board is their listener.
+	 * @param x1 the first row
+	 * @param y1 the first column
+	 * @param x2 the last row
+	 * @param y2 the last column
+	 * @return the hit points of the living zombies in the area
+	 */
+	public long getZombieHP(int x1, int y1, int x2, int y2) {
+		long hp = 0;
+		for (int x = Math.max(x1, 0), last = Math.min(x2, row - 1); x <= last; x++) {
+			int from = Math.max(y1, 0);
+			int to = Math.min(y2, col - 1);
+			if (from <= to) {
+				hp += indexRow(x).hp(x, from, to);
+			}
+		}
+		return hp;
+	}
+	
+	/**
+	 * Visits all zombies in an area of the board, without building a list. 
+	 * Only the grids with zombies are looked at, so the cost follows the rows of the area and the zombies found 
+	 * rather than the grids the area covers.
+	 * @param x1 the first row
+	 * @param y1 the first column
+	 * @param x2 the last row
+	 * @param y2 the last column
+	 * @param visitor called for each zombie, row by row and column by column, in the order they arrived on a grid
+	 * @return the number of zombies visited
+	 */
+	public int forEachZombieInArea(int x1, int y1, int x2, int y2, TargetVisitor<? super Zombie> visitor) {
+		int first = Math.max(x1, 0);
+		int last = Math.min(x2, row - 1);
+		int from = Math.max(y1, 0);
+		int to = Math.min(y2, col - 1);
+		if (first > last || from > to) {
+			return 0;
+		}
+		RowState state = rowState(first);
+		ArrayList<Unit> targets = takeScratch(state);
+		for (int x = first; x <= last; x++) {
+			ZombieIndex index = indexRow(x);
+			RowState rowState = rowState(x);
+			for (int y = index.next(x, from); y <= to; y = index.next(x, y + 1)) {
+				rowState.cellsScanned++;
+				addZombies(rowState, targets, x, y, false);
+			}
+		}
+		return visit(state, targets, visitor);
+	}
+	
+	/**
+	 * Visits all zombies in the square of grids around a grid, e.g. the 3 by 3 grids of an explosion for a radius of 1
+	 * @param x the row of the center
+	 * @param y the column of the center
+	 * @param radius the grids from the center to the edge of the square
+	 * @param visitor called for each zombie
+	 * @return the number of zombies visited
+	 */
+	public int forEachZombieInRadius(int x, int y, int radius, TargetVisitor<? super Zombie> visitor) {
+		return forEachZombieInArea(x - radius, y - radius, x + radius, y + radius, visitor);
+	}
+	
+	private ZombieIndex zombieIndex() {
+		if (zombieIndex == null) {
+			zombieIndex = new ZombieIndex(row, col);
+		}
+		return zombieIndex;
+	}
+	
+	/**
+	 * Get the index with a row built, the row is built from its grids the first time it is queried
+	 */
+	private ZombieIndex indexRow(int x) {
+		ZombieIndex index = zombieIndex();
+		if (!index.isBuilt(x)) {
+			RowState state = rowState(x);
+			index.startBuild(x);
+			for (int y = 0; y < col; y++) {
+				state.cellsScanned++;
+				Queue<Zombie> zombies = gameBoard[x][y].getZombies();
+				if (!zombies.isEmpty()) {
+					index.set(x, y, gameBoard[x][y].getHordeSize(), sumHP(state, zombies));
+				}
+			}
+			index.build(x);
+		}
+		return index;
+	}
+	
+	/**
+	 * Add the zombies of a stack to the index of a grid, or take them out, in O(log columns)
+	 * @param sign 1 when the zombie arrives on the grid, -1 when it leaves
+	 */
+	private void indexZombie(int x, int y, Zombie zombie, int sign) {
+		if (zombieIndex != null && zombieIndex.isBuilt(x)) {
+			zombieIndex.add(x, y, sign * zombie.getStackSize(), sign * indexedHP(zombie, zombie.getHP()));
+		}
+	}
+	
+	/**
+	 * The hit points a zombie counts for in the index, every zombie of its stack counted
+	 */
+	private static long indexedHP(Zombie zombie, int hp) {
+		return (long) Math.max(hp, 0) * zombie.getStackSize();
+	}
+	
+	/**
+	 * Sum the hit points of the living zombies of a grid, every zombie of a stack counted, 
+	 * without allocating once the row's array is big enough
+	 */
+	private long sumHP(RowState state, Queue<Zombie> zombies) {
+		int size = zombies.size();
+		if (size == 0) {
+			return 0;
+		}
+		if (state.zombies.length < size) {
+			state.zombies = new Zombie[size];
+		}
+		Zombie[] copy = state.zombies;
+		zombies.toArray(copy);
+		long hp = 0;
+		for (int i = 0; i < size; i++) {
+			hp += (long) Math.max(copy[i].getHP(), 0) * copy[i].getStackSize();
+		}
+		Arrays.fill(copy, 0, size, null);
+		return hp;
+	}
+	
+	/**
+	 * Add the zombies of a grid to the targets, without allocating once the row's array is big enough
+	 * @param groundOnly leave out the air zombies
+	 */
+	private void addZombies(RowState state, ArrayList<Unit> targets, int x, int y, boolean groundOnly) {
+		Queue<Zombie> zombies = gameBoard[x][y].getZombies();
+		int size = zombies.size();
+		if (size == 0) {
+			return;
+		}
+		if (state.zombies.length < size) {
+			state.zombies = new Zombie[size];
+		}
+		Zombie[] copy = state.zombies;
+		zombies.toArray(copy);
+		for (int i = 0; i < size; i++) {
+			if (!groundOnly || !(copy[i] instanceof Air_Zombie)) {
+				targets.add(copy[i]);
+			}
+		}
+		Arrays.fill(copy, 0, size, null); //do not keep dead zombies alive
+	}
+	
+	/**
+	 * Take an empty list to gather targets in
+	 */
+	private ArrayList<Unit> takeScratch(RowState state) {
+		ArrayList<Unit> targets = state.scratch.poll();
+		return targets == null? new ArrayList<Unit>() : targets;
+	}
+	
+	/**
+	 * Visit the gathered targets, then give the list back for the next query
+	 */
+	@SuppressWarnings("unchecked")
+	private <U extends Unit> int visit(RowState state, ArrayList<Unit> targets, TargetVisitor<? super U> visitor) {
+		int visited = targets.size();
+		try {
+			for (int i = 0; i < visited; i++) {
+				visitor.visit(this, (U) targets.get(i));
+			}
+		} finally {
+			targets.clear();
+			state.scratch.push(targets);
+		}
+		return visited;
 	}
 	
 	/**
@@ -486,6 +1625,10 @@ public class Board implements ZombieMoveListener, Serializable {
 	{
 		List<Unit> unitRemoveBin = getRowUnits(row);
 		List<Zombie> zomRemoveBin = new LinkedList<Zombie>();
+		getChanges().markMower(row);
+		if (unitRemoveBin == null) {
+			return zomRemoveBin;
+		}
 			
 		for(Unit u : unitRemoveBin)
 		{
@@ -493,12 +1636,12 @@ public class Board implements ZombieMoveListener, Serializable {
 			{
 				removeZombie(u.getRow(),u.getCol());
 				zomRemoveBin.add((Zombie) u);
-				LOG.debug("Lawnmower kills Zombie " + u.getRow() + " " + u.getCol());
+				LOG.debug("Lawnmower kills Zombie {} {}", u.getRow(), u.getCol());
 			}
 			else if(u instanceof Plant)
 			{
 				removePlant(u.getRow(),u.getCol());
-				LOG.debug("Lawnmower kills Plant " + u.getRow() + " " + u.getCol());
+				LOG.debug("Lawnmower kills Plant {} {}", u.getRow(), u.getCol());
 			}
 		}
 		
@@ -539,6 +1682,7 @@ public class Board implements ZombieMoveListener, Serializable {
 	public void removeMower(int row)
 	{
 		mowersAvaliable[row] = false;
+		getChanges().markMower(row);
 	}
 	/**
 	 * Sets the available lawn mower row to true
@@ -547,6 +1691,7 @@ public class Board implements ZombieMoveListener, Serializable {
 	public void setMoverAvaliable(int row)
 	{
 		mowersAvaliable[row] = true;
+		getChanges().markMower(row);
 	}
 	/**
 	 * Checks if the mower is avaliable for the given row
@@ -555,13 +1700,14 @@ public class Board implements ZombieMoveListener, Serializable {
 	 */
 	public boolean isMowerAvaliable(int row)
 	{
-		LOG.debug("Checking if lawn mower " + row + " is available and it returns " + mowersAvaliable[row]);
+		LOG.debug("Checking if lawn mower {} is available and it returns {}", row, mowersAvaliable[row]);
 		return mowersAvaliable[row];
 	}
 	
 
 	@Override
 	public boolean onZombieMove(Zombie zombie) {
+		EngineMetrics.ZOMBIE_MOVES.increment();
 		
 		int currentZombieRow = zombie.getRow();
 		int currentZombieCol = zombie.getCol();
@@ -572,25 +1718,31 @@ public class Board implements ZombieMoveListener, Serializable {
 			return false;
 		} 
 		
-		Queue<Zombie> zombiesOnGrid = gameBoard[currentZombieRow][currentZombieCol].getZombies();
-		
 		// remove the zombie from the grid
-		for (Zombie z : zombiesOnGrid) {
-			if (zombie == z) {
-				zombiesOnGrid.remove(z);
-				gameBoard[currentZombieRow][currentZombieCol].updateZombieTypeCount();
-				break;
-			}
+		if (gameBoard[currentZombieRow][currentZombieCol].removeZombie(zombie)) {
+			indexZombie(currentZombieRow, currentZombieCol, zombie, -1);
+			markChanged(currentZombieRow, currentZombieCol);
 		}
 		
 		int speed = zombie.getSpeed();
 		
+		// nothing can stop the zombie inside its free stretch, move it without searching the row
+		if (kinematicZombies && zombie.isInFreeStretch(currentZombieCol, currentZombieCol - speed, laneVersion(currentZombieRow))) {
+			zombie.setColumn(currentZombieCol - speed);
+			gameBoard[currentZombieRow][currentZombieCol - speed].addZombie(zombie);
+			indexZombie(currentZombieRow, currentZombieCol - speed, zombie, 1);
+			markChanged(currentZombieRow, currentZombieCol - speed);
+			targetMoved(zombie, currentZombieRow);
+			return true;
+		}
+		
 		// keep track of the number movements the zombie is able to make 
 		int modifier = 0;
 		
 		// move the zombie based on speed
 		for (int i = 1; i <= speed; i++) {
 			modifier = i;
+			rowState(currentZombieRow).cellsScanned++;
 			
 			// can move zombie until it reaches end of grid or reaches a plant
 			if (!(currentZombieCol - i < 0)) {
@@ -605,19 +1757,32 @@ public class Board implements ZombieMoveListener, Serializable {
 			zombie.setColumn(0);
 			// update the board with new position
 			gameBoard[zombie.getRow()][zombie.getCol()].addZombie(zombie);
+			indexZombie(zombie.getRow(), zombie.getCol(), zombie, 1);
+			markChanged(zombie.getRow(), zombie.getCol());
 			setZombieReachedEnd(currentZombieRow);
+			targetMoved(zombie, currentZombieRow);
 			
 			return true;
 		}
 		else
 		{
-			int[] coord = getNewZomPosition(currentZombieRow, currentZombieCol, modifier, zombie, getRow()).getCoordinates();
-			zombie.setRow(coord[0]);
-			zombie.setColumn(coord[1]);
+			Grid newPosition = getNewZomPosition(currentZombieRow, currentZombieCol, modifier, zombie, getRow());
+			zombie.setRow(newPosition.getRow());
+			zombie.setColumn(newPosition.getCol());
+			if (newPosition.getRow() != currentZombieRow) {
+				moveEffects(zombie);
+			}
 		}
 		
 		// update the board with new position
 		gameBoard[zombie.getRow()][zombie.getCol()].addZombie(zombie);
+		indexZombie(zombie.getRow(), zombie.getCol(), zombie, 1);
+		markChanged(zombie.getRow(), zombie.getCol());
+		targetMoved(zombie, currentZombieRow);
+		
+		if (kinematicZombies && !(zombie instanceof Juking_Zombie)) {
+			findFreeStretch(zombie);
+		}
 		
 		return true;
 	}
@@ -634,10 +1799,21 @@ public class Board implements ZombieMoveListener, Serializable {
 	 */
 	public Grid getNewZomPosition(int currentZombieRow, int currentZombieCol, int modifer, Zombie zombie, int maxRow)
 	{
+		if(zombie instanceof Flanking_Zombie){
+			return gameBoard[flowField().next(currentZombieRow, currentZombieCol)][currentZombieCol - modifer];
+		}
 		if(zombie instanceof Juking_Zombie){
 			Juking_Zombie jukZombie = (Juking_Zombie) zombie;
 			return gameBoard[jukZombie.getPath(maxRow)][currentZombieCol - modifer];
 		}
 		return gameBoard[currentZombieRow][currentZombieCol - modifer];
 	}
+	
+	private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+		in.defaultReadObject();
+		flankingZombies = new int[row];
+		for (Zombie zombie : zombiesInGame) {
+			countFlanker(zombie, zombie.getRow(), 1);
+		}
+	}
 } 
\ No newline at end of file
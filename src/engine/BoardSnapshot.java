@@ -0,0 +1,251 @@
+package engine;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+
+import assets.Plant;
+import assets.PlantTypes;
+import assets.Zombie;
+import assets.ZombieTypes;
+
+/**
+ * An immutable copy of the game state at a turn boundary.
+ *
+ * The engine publishes a new snapshot after every change to the game. Renderers and other readers
+ * use the latest snapshot without locking while the engine keeps changing the live board.
+ * A new snapshot shares every row that did not change with the snapshot before it and only
+ * copies the rows in the change set.
+ */
+public final class BoardSnapshot {
+
+	/**
+	 * An immutable copy of a single grid
+	 */
+	public static final class Cell {
+		private static final Cell EMPTY = new Cell(null, null, 0, Collections.<ZombieTypes, Integer>emptyMap(), 0, 0);
+
+		private final PlantTypes plantType;
+		private final String plantName;
+		private final int plantHP;
+		private final Map<ZombieTypes, Integer> zombieTypeCount;
+		private final int numberOfZombies;
+		private final int zombieHP;
+
+		private Cell(PlantTypes plantType, String plantName, int plantHP, Map<ZombieTypes, Integer> zombieTypeCount, int numberOfZombies, int zombieHP) {
+			this.plantType = plantType;
+			this.plantName = plantName;
+			this.plantHP = plantHP;
+			this.zombieTypeCount = zombieTypeCount;
+			this.numberOfZombies = numberOfZombies;
+			this.zombieHP = zombieHP;
+		}
+
+		/**
+		 * Copy the state of a grid
+		 */
+		private static Cell of(Grid grid) {
+			Plant plant = grid.getPlant();
+			if (plant == null && grid.getNumberOfZombies() == 0) {
+				return EMPTY;
+			}
+
+			Map<ZombieTypes, Integer> counts = Collections.<ZombieTypes, Integer>emptyMap();
+			int zombieHP = 0;
+			if (grid.getNumberOfZombies() > 0) {
+				EnumMap<ZombieTypes, Integer> typeCount = new EnumMap<ZombieTypes, Integer>(ZombieTypes.class);
+				for (Zombie zombie : grid.getZombies()) {
+					typeCount.merge(zombie.getZombieType(), zombie.getStackSize(), Integer::sum);
+					zombieHP += zombie.getHP() * zombie.getStackSize();
+				}
+				counts = Collections.unmodifiableMap(typeCount);
+			}
+
+			return new Cell(plant == null? null : plant.getPlantType(), plant == null? null : plant.toString(),
+					plant == null? 0 : plant.getHP(), counts, grid.getHordeSize(), zombieHP);
+		}
+
+		/**
+		 * @return the type of the plant on the grid, null if there is no plant
+		 */
+		public PlantTypes getPlantType() {
+			return plantType;
+		}
+
+		/**
+		 * @return the name of the plant on the grid, null if there is no plant
+		 */
+		public String getPlantName() {
+			return plantName;
+		}
+
+		/**
+		 * @return the hit points of the plant on the grid, 0 if there is no plant
+		 */
+		public int getPlantHP() {
+			return plantHP;
+		}
+
+		/**
+		 * @return true if a plant is on the grid, false otherwise
+		 */
+		public boolean isOccupied() {
+			return plantType != null;
+		}
+
+		/**
+		 * @return the number of zombies of each type on the grid. The map cannot be modified.
+		 */
+		public Map<ZombieTypes, Integer> getZombieTypeCount() {
+			return zombieTypeCount;
+		}
+
+		/**
+		 * @return the number of zombies on the grid
+		 */
+		public int getNumberOfZombies() {
+			return numberOfZombies;
+		}
+
+		/**
+		 * @return the total hit points of the zombies on the grid
+		 */
+		public int getZombieHP() {
+			return zombieHP;
+		}
+	}
+
+	private final int rows;
+	private final int cols;
+	private final Cell[][] cells;
+	private final boolean[] mowersAvailable;
+	private final int points;
+	private final int turns;
+	private final Game.GameState state;
+	private final long version;
+
+	private BoardSnapshot(Cell[][] cells, boolean[] mowersAvailable, int points, int turns, Game.GameState state, long version) {
+		this.rows = cells.length;
+		this.cols = rows == 0? 0 : cells[0].length;
+		this.cells = cells;
+		this.mowersAvailable = mowersAvailable;
+		this.points = points;
+		this.turns = turns;
+		this.state = state;
+		this.version = version;
+	}
+
+	/**
+	 * Copy the whole state of a game
+	 *
+	 * @param game the game to copy
+	 * @return a snapshot of the game
+	 */
+	static BoardSnapshot of(Game game) {
+		Board board = game.getBoard();
+		Cell[][] cells = new Cell[board.getRow()][];
+		for (int r = 0; r < cells.length; r++) {
+			cells[r] = copyRow(board, r);
+		}
+		return new BoardSnapshot(cells, copyMowers(board), game.getPurse().getPoints(), game.getTurns(), game.getState(), 0);
+	}
+
+	/**
+	 * Create the next snapshot of a game. Only the rows in the change set are copied from the board,
+	 * the other rows are shared with this snapshot.
+	 *
+	 * @param game the game to copy
+	 * @param changes the grids that changed since this snapshot was taken
+	 * @return the next snapshot of the game
+	 */
+	BoardSnapshot update(Game game, ChangeSet changes) {
+		Board board = game.getBoard();
+		Cell[][] next = cells.clone();
+		for (int r = 0; r < rows; r++) {
+			if (!changes.isRowChanged(r)) {
+				continue;
+			}
+			Cell[] row = cells[r].clone();
+			for (int c = 0; c < cols; c++) {
+				if (changes.isCellChanged(r, c)) {
+					row[c] = Cell.of(board.getGrid(r, c));
+				}
+			}
+			next[r] = row;
+		}
+		return new BoardSnapshot(next, copyMowers(board), game.getPurse().getPoints(), game.getTurns(), game.getState(), version + 1);
+	}
+
+	private static Cell[] copyRow(Board board, int r) {
+		Cell[] row = new Cell[board.getColumn()];
+		for (int c = 0; c < row.length; c++) {
+			row[c] = Cell.of(board.getGrid(r, c));
+		}
+		return row;
+	}
+
+	private static boolean[] copyMowers(Board board) {
+		boolean[] mowers = new boolean[board.getRow()];
+		for (int r = 0; r < mowers.length; r++) {
+			mowers[r] = board.isMowerAvaliable(r);
+		}
+		return mowers;
+	}
+
+	/**
+	 * Get the copy of a grid
+	 *
+	 * @param row
+	 * @param col
+	 * @return the grid at the location
+	 */
+	public Cell getCell(int row, int col) {
+		return cells[row][col];
+	}
+
+	/**
+	 * Check if a lawn mower is available
+	 *
+	 * @param row the row of the lawn mower
+	 * @return true if the lawn mower is available, false otherwise
+	 */
+	public boolean isMowerAvailable(int row) {
+		return mowersAvailable[row];
+	}
+
+	public int getRows() {
+		return rows;
+	}
+
+	public int getColumns() {
+		return cols;
+	}
+
+	/**
+	 * @return the player's points when the snapshot was taken
+	 */
+	public int getPoints() {
+		return points;
+	}
+
+	/**
+	 * @return the number of turns elapsed when the snapshot was taken
+	 */
+	public int getTurns() {
+		return turns;
+	}
+
+	/**
+	 * @return the state of the game when the snapshot was taken
+	 */
+	public Game.GameState getState() {
+		return state;
+	}
+
+	/**
+	 * @return the number of snapshots published before this one
+	 */
+	public long getVersion() {
+		return version;
+	}
+}
@@ -0,0 +1,169 @@
+package engine;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * The set of board cells and lawn mower rows that changed since the change set was started.
+ * A cell is changed when its plant, its zombies or the HP of a unit on it changed.
+ *
+ * Cells are tracked in a bit set per row so that marking a cell never allocates, and different rows
+ * can be marked from different threads.
+ * Only the engine can mark changes; listeners get a read only view.
+ */
+public class ChangeSet {
+
+	/**
+	 * Visits the changed cells of a change set
+	 */
+	public interface CellVisitor {
+		/**
+		 * Called once for each changed cell
+		 * @param row
+		 * @param col
+		 */
+		public void visit(int row, int col);
+	}
+
+	private final int rows;
+	private final int cols;
+
+	//changed columns of each row
+	private final BitSet[] cells;
+
+	//rows where the lawn mower was used or restored
+	private final boolean[] mowerRows;
+
+	public ChangeSet(int rows, int cols) {
+		this.rows = rows;
+		this.cols = cols;
+		this.cells = new BitSet[rows];
+		for (int r = 0; r < rows; r++) {
+			cells[r] = new BitSet(cols);
+		}
+		this.mowerRows = new boolean[rows];
+	}
+
+	/**
+	 * Mark a cell as changed
+	 * @param row
+	 * @param col
+	 */
+	void markCell(int row, int col) {
+		cells[row].set(col);
+	}
+
+	/**
+	 * Mark every cell of the board as changed
+	 */
+	void markAll() {
+		for (int r = 0; r < rows; r++) {
+			cells[r].set(0, cols);
+		}
+	}
+
+	/**
+	 * Mark the lawn mower of a row as changed
+	 * @param row
+	 */
+	void markMower(int row) {
+		mowerRows[row] = true;
+	}
+
+	/**
+	 * Forget all changes
+	 */
+	void clear() {
+		for (int r = 0; r < rows; r++) {
+			cells[r].clear();
+		}
+		Arrays.fill(mowerRows, false);
+	}
+
+	/**
+	 * Check if a cell changed
+	 * @param row
+	 * @param col
+	 * @return true if the cell changed, false otherwise
+	 */
+	public boolean isCellChanged(int row, int col) {
+		return cells[row].get(col);
+	}
+
+	/**
+	 * Check if any cell of a row changed
+	 * @param row
+	 * @return true if a cell in the row changed, false otherwise
+	 */
+	public boolean isRowChanged(int row) {
+		return !cells[row].isEmpty();
+	}
+
+	/**
+	 * Check if the lawn mower of a row changed
+	 * @param row
+	 * @return true if the lawn mower was used or restored, false otherwise
+	 */
+	public boolean isMowerChanged(int row) {
+		return mowerRows[row];
+	}
+
+	/**
+	 * Call the visitor for every changed cell, row by row
+	 * @param visitor
+	 */
+	public void forEachCell(CellVisitor visitor) {
+		for (int r = 0; r < rows; r++) {
+			BitSet row = cells[r];
+			for (int c = row.nextSetBit(0); c >= 0; c = row.nextSetBit(c + 1)) {
+				visitor.visit(r, c);
+			}
+		}
+	}
+
+	/**
+	 * Get the number of changed cells
+	 * @return the number of changed cells
+	 */
+	public int size() {
+		int size = 0;
+		for (int r = 0; r < rows; r++) {
+			size += cells[r].cardinality();
+		}
+		return size;
+	}
+
+	/**
+	 * Check if nothing changed
+	 * @return true if no cell or lawn mower changed, false otherwise
+	 */
+	public boolean isEmpty() {
+		for (int r = 0; r < rows; r++) {
+			if (!cells[r].isEmpty() || mowerRows[r]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Check if every cell of the board changed
+	 * @return true if every cell changed, false otherwise
+	 */
+	public boolean isAllChanged() {
+		return size() == rows * cols;
+	}
+
+	public int getRows() {
+		return rows;
+	}
+
+	public int getColumns() {
+		return cols;
+	}
+
+	@Override
+	public String toString() {
+		return "ChangeSet[" + size() + " cells, mowers " + Arrays.toString(mowerRows) + "]";
+	}
+}
@@ -2,13 +2,14 @@ package engine;
 
 import java.io.Serializable;
 import java.util.LinkedList;
-import java.util.List;
 
 import assets.PlantTypes;
 import commands.Command;
 import commands.DigCommand;
 import commands.EndTurnCommand;
 import commands.PlaceCommand;
+import util.EngineEvents;
+import util.EngineMetrics;
 import util.Logger;
 
 /**
@@ -18,16 +19,14 @@ import util.Logger;
 public class CommandQueue implements Serializable {
 	private static final long serialVersionUID = 1L;
 	
-	private transient List<GameListener> listeners; 
 	private static Logger LOG = new Logger("Command Queue");
 	private Game game;
 	private LinkedList<Command> undoQueue;
 	private LinkedList<Command> redoQueue;
 	private EndTurnCommand currentEndTurn;
 	
-	public CommandQueue(Game game, List<GameListener> listeners) {
+	public CommandQueue(Game game) {
 		this.game = game;
-		this.listeners = listeners;
 		this.currentEndTurn = null;
 		undoQueue = new LinkedList<Command>();
 		redoQueue = new LinkedList<Command>();
@@ -42,6 +41,7 @@ public class CommandQueue implements Serializable {
 	public void registerPlace(PlantTypes type, int x, int y) {
 		redoQueue.clear(); //a new command prevents redo-ing old commands
 		undoQueue.addFirst(new PlaceCommand(type, x, y));
+		updateDepth();
 		LOG.debug("registered place command");
 	}
 
@@ -54,6 +54,7 @@ public class CommandQueue implements Serializable {
 	public void registerDig(PlantTypes type, int x, int y) {
 		redoQueue.clear(); //a new command prevents redo-ing old commands
 		undoQueue.addFirst(new DigCommand(type, x, y));
+		updateDepth();
 		LOG.debug("registered dig command");
 	}
 
@@ -74,18 +75,11 @@ public class CommandQueue implements Serializable {
 		redoQueue.clear(); //a new command prevents redo-ing old commands 
 		currentEndTurn = new EndTurnCommand(board, game.getPurse());
 		undoQueue.addFirst(currentEndTurn);
+		updateDepth();
 		 
 		LOG.debug("registered end turn command");
 	}
 	
-	/**
-	 * Set the listeners of the command queue
-	 */
-	public void setGameListeners(List<GameListener> listeners) {
-		
-		this.listeners = listeners;
-	}
-	
 	
 	/**
 	 * Undos the most recent command
@@ -98,23 +92,24 @@ public class CommandQueue implements Serializable {
 		}
 		
 		Command c = undoQueue.removeFirst();
+		ChangeSet changes;
+		EngineEvents.UndoRedo event = new EngineEvents.UndoRedo();
+		event.begin();
 		switch (c.getCommand()){
 			case DIGUP:
 				redoQueue.addFirst(c);
 				game.getBoard().placePlant(PlantTypes.toPlant(((DigCommand)c).getType()), ((DigCommand)c).getLocX(), ((DigCommand)c).getLocY()); //re-place the plant
-				for (GameListener gl : listeners) {
-					gl.updateGrid(((DigCommand)c).getLocX(),((DigCommand)c).getLocY());
-				}
+				game.updateSnapshot();
+				game.getEvents().publishGrid(((DigCommand)c).getLocX(),((DigCommand)c).getLocY());
 				LOG.debug("undo dig command");
 				break;
 			case PLACE:
 				redoQueue.addFirst(c);
 				game.getBoard().removePlant(((PlaceCommand)c).getLocX(), ((PlaceCommand)c).getLocY()); //remove the plant
 				game.getPurse().addPoints(PlantTypes.toPlant(((PlaceCommand)c).getType()).getCost()); //refund the plant
-				for (GameListener gl : listeners) {
-					gl.updateGrid(((PlaceCommand)c).getLocX(),((PlaceCommand)c).getLocY());
-					gl.updatePurse();
-				}
+				game.updateSnapshot();
+				game.getEvents().publishGrid(((PlaceCommand)c).getLocX(),((PlaceCommand)c).getLocY());
+				game.getEvents().publishPurse();
 				LOG.debug("undo place command");
 				break;
 			case ENDTURN:
@@ -122,30 +117,22 @@ public class CommandQueue implements Serializable {
 				redoQueue.addFirst(currentEndTurn);
 				currentEndTurn.setMowerList(((EndTurnCommand)c).getMowerList()); //keep track of the mowers used for redo functionality
 				
+				game.updateSnapshot();
 				game.getBoard().setBoard(((EndTurnCommand)c).getBoard());
 				game.getPurse().setPoints(((EndTurnCommand)c).getResources());
 				game.decrementTurns();
-				
-				if(!((EndTurnCommand)c).getMowerList().isEmpty()) //if a lawnmower was used
+				for(Integer m : ((EndTurnCommand)c).getMowerList()) //if a lawnmower was used, give it back
 				{
-					for (GameListener gl : listeners) {
-						gl.updateAllGrids();
-						gl.updatePurse();
-						gl.updateTurnNumber();
-						
-						for(Integer m : ((EndTurnCommand)c).getMowerList())
-						{
-							gl.updateMower(m, game.getBoard().isMowerAvaliable(m)); // update the lawn mower image
-							game.getBoard().setMoverAvaliable(m);
-						}
-					}
-					break;
+					game.getBoard().setMoverAvaliable(m);
 				}
+				changes = game.updateSnapshot();
 				
-				for (GameListener gl : listeners) {
-					gl.updateAllGrids();
-					gl.updatePurse();
-					gl.updateTurnNumber();
+				game.getEvents().publishChangedGrids(changes);
+				game.getEvents().publishPurse();
+				game.getEvents().publishTurnNumber();
+				for(Integer m : ((EndTurnCommand)c).getMowerList())
+				{
+					game.getEvents().publishMower(m, false); // update the lawn mower image
 				}
 				
 				LOG.debug("undo end turn command");
@@ -153,6 +140,9 @@ public class CommandQueue implements Serializable {
 			default:
 				break;
 		}
+		event.command = c.getCommand().toString();
+		event.end(game, 0);
+		updateDepth();
 		return true;
 	}
 	
@@ -167,43 +157,38 @@ public class CommandQueue implements Serializable {
 		}
 		
 		Command c = redoQueue.removeFirst();
+		ChangeSet changes;
+		EngineEvents.UndoRedo event = new EngineEvents.UndoRedo();
+		event.begin();
+		event.redo = true;
 		switch (c.getCommand()){
 			case DIGUP: //redo a digup command
 				undoQueue.addFirst(c); //allow us to undo redo
 				game.getBoard().removePlant(((DigCommand)c).getLocX(), ((DigCommand)c).getLocY()); //re-place the plant
-				for (GameListener gl : listeners) {
-					gl.updateGrid(((DigCommand)c).getLocX(),((DigCommand)c).getLocY());
-				}
+				game.updateSnapshot();
+				game.getEvents().publishGrid(((DigCommand)c).getLocX(),((DigCommand)c).getLocY());
 				LOG.debug("redo dig command");
 				break;
 			case ENDTURN: //redo an end turn command
 				currentEndTurn = new EndTurnCommand(game.getBoard(), game.getPurse()); 
 				currentEndTurn.setMowerList(((EndTurnCommand)c).getMowerList()); //keep track of the lawn mower list (for undo functionality)
 				undoQueue.addFirst(currentEndTurn);
+				game.updateSnapshot();
 				game.getBoard().setBoard(((EndTurnCommand)c).getBoard());
 				game.getPurse().setPoints(((EndTurnCommand)c).getResources());
 				game.incrementTurns();
-				
-				if(!((EndTurnCommand)c).getMowerList().isEmpty()) //if a lawnmower was used
+				for(Integer m : ((EndTurnCommand)c).getMowerList()) //if a lawnmower was used, use it again
 				{
-					for (GameListener gl : listeners) {
-						gl.updateAllGrids();
-						gl.updatePurse();
-						gl.updateTurnNumber();
-						
-						for(Integer m : ((EndTurnCommand)c).getMowerList())
-						{
-							gl.updateMower(m, game.getBoard().isMowerAvaliable(m)); //update lawnmower image
-							game.getBoard().removeMower(m);
-						}
-					}
-					break;
+					game.getBoard().removeMower(m);
 				}
+				changes = game.updateSnapshot();
 				
-				for (GameListener gl : listeners) {
-					gl.updateAllGrids();
-					gl.updatePurse();
-					gl.updateTurnNumber();
+				game.getEvents().publishChangedGrids(changes);
+				game.getEvents().publishPurse();
+				game.getEvents().publishTurnNumber();
+				for(Integer m : ((EndTurnCommand)c).getMowerList())
+				{
+					game.getEvents().publishMower(m, true); //update lawnmower image
 				}
 				LOG.debug("redo end turn command");
 				break;
@@ -211,16 +196,26 @@ public class CommandQueue implements Serializable {
 				undoQueue.addFirst(c);
 				game.getBoard().placePlant(PlantTypes.toPlant(((PlaceCommand)c).getType()), ((PlaceCommand)c).getLocX(), ((PlaceCommand)c).getLocY()); //place the plant
 				game.getPurse().spendPoints(PlantTypes.toPlant(((PlaceCommand)c).getType()).getCost()); //re-spend the plant cost
+				game.updateSnapshot();
 				
-				for (GameListener gl : listeners) {
-					gl.updateGrid(((PlaceCommand)c).getLocX(),((PlaceCommand)c).getLocY());
-					gl.updatePurse();
-				}
+				game.getEvents().publishGrid(((PlaceCommand)c).getLocX(),((PlaceCommand)c).getLocY());
+				game.getEvents().publishPurse();
 				LOG.debug("redo place command");
 				break;
 			default:
 				break;
 		}
+		event.command = c.getCommand().toString();
+		event.end(game, 0);
+		updateDepth();
 		return true;
 	}
+	
+	/**
+	 * Update the undo and redo depth metrics
+	 */
+	private void updateDepth() {
+		EngineMetrics.UNDO_DEPTH.set(undoQueue.size());
+		EngineMetrics.REDO_DEPTH.set(redoQueue.size());
+	}
 }
@@ -0,0 +1,41 @@
+package engine;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+
+/**
+ * The thread the game engine computes turns on, so long turns never run on the Swing event dispatch thread.
+ * Work is run one task at a time in the order it was submitted.
+ */
+public class EngineThread {
+	private static final String THREAD_NAME = "Game Engine";
+
+	private static final ExecutorService executor = Executors.newSingleThreadExecutor(r -> {
+		Thread t = new Thread(r, THREAD_NAME);
+		t.setDaemon(true);
+		return t;
+	});
+
+	private EngineThread() {}
+
+	/**
+	 * Run work on the engine thread
+	 *
+	 * @param work the work to run
+	 * @return a future completed with the result of the work
+	 */
+	public static <T> CompletableFuture<T> submit(Supplier<T> work) {
+		return CompletableFuture.supplyAsync(work, executor);
+	}
+
+	/**
+	 * Check if the caller is running on the engine thread
+	 *
+	 * @return true if called from the engine thread, false otherwise
+	 */
+	public static boolean isEngineThread() {
+		return THREAD_NAME.equals(Thread.currentThread().getName());
+	}
+}
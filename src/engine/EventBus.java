@@ -0,0 +1,252 @@
+package engine;
+
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+import util.Logger;
+
+/**
+ * Delivers game events from the engine to any number of consumers (UI, logging, metrics, ...).
+ *
+ * Events are written into a preallocated ring buffer, so publishing never allocates and never waits
+ * on a consumer. Each subscription keeps its own cursor into the buffer and is drained on its own
+ * executor. A consumer that falls more than a buffer behind does not hold up the engine or the
+ * other consumers; it skips the events it missed and is told to resync instead.
+ */
+public class EventBus {
+	private static Logger LOG = new Logger("EventBus");
+
+	public static final int DEFAULT_CAPACITY = 1024;
+
+	/**
+	 * Runs the drain on the publishing thread, so events are handled before publish returns
+	 */
+	public static final Executor DIRECT = Runnable::run;
+
+	/**
+	 * Consumer of game events
+	 */
+	public interface EventHandler {
+		/**
+		 * Handle an event. The event is reused after this returns.
+		 * @param event
+		 */
+		public void onEvent(GameEvent event);
+
+		/**
+		 * Called when the consumer fell too far behind and events were lost.
+		 * The consumer should rebuild its state from the game.
+		 */
+		public void onOverrun();
+	}
+
+	private final GameEvent[] slots;
+	private final int mask;
+
+	//sequence of the last published event
+	private volatile long cursor = -1;
+
+	//held from claiming a slot until the event in it is published
+	private final ReentrantLock lock = new ReentrantLock();
+
+	private final CopyOnWriteArrayList<Subscription> subscriptions = new CopyOnWriteArrayList<Subscription>();
+
+	public EventBus() {
+		this(DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * Creates an event bus
+	 * @param capacity the number of events held by the ring buffer, rounded up to a power of two
+	 */
+	public EventBus(int capacity) {
+		int size = Integer.highestOneBit(Math.max(2, capacity) - 1) << 1;
+		this.slots = new GameEvent[size];
+		for (int i = 0; i < size; i++) {
+			slots[i] = new GameEvent();
+		}
+		this.mask = size - 1;
+	}
+
+	/**
+	 * Subscribe a consumer to the events published from now on
+	 *
+	 * @param handler the consumer
+	 * @param executor the executor the consumer is called on
+	 * @return the subscription
+	 */
+	public Subscription subscribe(EventHandler handler, Executor executor) {
+		Subscription subscription = new Subscription(handler, executor, cursor + 1);
+		subscriptions.add(subscription);
+		return subscription;
+	}
+
+	/**
+	 * Get the number of events the ring buffer holds
+	 * @return the capacity
+	 */
+	public int getCapacity() {
+		return slots.length;
+	}
+
+	/**
+	 * Get the sequence of the last published event
+	 * @return the cursor, -1 if nothing was published
+	 */
+	public long getCursor() {
+		return cursor;
+	}
+
+	public void publishGrid(int row, int col) {
+		GameEvent event = claim(GameEvent.Type.GRID);
+		event.setLocation(row, col);
+		publish(event);
+	}
+
+	public void publishAllGrids() {
+		publish(claim(GameEvent.Type.ALL_GRIDS));
+	}
+
+	public void publishChangedGrids(ChangeSet changes) {
+		GameEvent event = claim(GameEvent.Type.CHANGED_GRIDS);
+		event.setChanges(changes);
+		publish(event);
+	}
+
+	public void publishPurse() {
+		publish(claim(GameEvent.Type.PURSE));
+	}
+
+	public void publishTurnNumber() {
+		publish(claim(GameEvent.Type.TURN_NUMBER));
+	}
+
+	public void publishEndTurn() {
+		publish(claim(GameEvent.Type.END_TURN));
+	}
+
+	public void publishMessage(String title, String message) {
+		GameEvent event = claim(GameEvent.Type.MESSAGE);
+		event.setMessage(title, message);
+		publish(event);
+	}
+
+	/**
+	 * @param row the row of the lawn mower
+	 * @param used true if the lawn mower was used, false if it was given back
+	 */
+	public void publishMower(int row, boolean used) {
+		GameEvent event = claim(GameEvent.Type.MOWER);
+		event.setLocation(row, -1);
+		event.setFlag(used);
+		publish(event);
+	}
+
+	/**
+	 * Claim the next slot of the ring buffer. The bus stays locked until the event is published,
+	 * which is uncontended as long as a single thread changes the game.
+	 */
+	private GameEvent claim(GameEvent.Type type) {
+		lock.lock();
+		GameEvent event = slots[(int) ((cursor + 1) & mask)];
+		event.setSequence(-1); //readers of the old event see that it was overwritten
+		event.reset(type);
+		return event;
+	}
+
+	private void publish(GameEvent event) {
+		long next = cursor + 1;
+		event.setSequence(next);
+		cursor = next;
+		lock.unlock();
+
+		for (Subscription subscription : subscriptions) {
+			subscription.schedule();
+		}
+	}
+
+	/**
+	 * A consumer's position in the ring buffer
+	 */
+	public class Subscription {
+		private final EventHandler handler;
+		private final Executor executor;
+		private final AtomicBoolean scheduled = new AtomicBoolean();
+		//drains are never run concurrently, so the cursor is only touched by one thread at a time
+		private volatile long next;
+		private volatile boolean closed;
+		private long overruns;
+		private final Runnable drainTask = this::drain;
+
+		private Subscription(EventHandler handler, Executor executor, long next) {
+			this.handler = handler;
+			this.executor = executor;
+			this.next = next;
+		}
+
+		private void schedule() {
+			if (!closed && scheduled.compareAndSet(false, true)) {
+				executor.execute(drainTask);
+			}
+		}
+
+		private void drain() {
+			do {
+				long available = cursor;
+				while (next <= available && !closed) {
+					if (available - next >= slots.length) {
+						overrun(available);
+						continue;
+					}
+					GameEvent event = slots[(int) (next & mask)];
+					if (event.getSequence() != next) {
+						overrun(cursor);
+						available = next - 1;
+						continue;
+					}
+					handler.onEvent(event);
+					if (event.getSequence() != next) { //overwritten while it was being handled
+						overrun(cursor);
+						available = next - 1;
+						continue;
+					}
+					next++;
+				}
+				scheduled.set(false);
+			} while (!closed && next <= cursor && scheduled.compareAndSet(false, true));
+		}
+
+		private void overrun(long published) {
+			overruns++;
+			LOG.warn("Consumer fell {} events behind, resyncing", published - next + 1);
+			next = published + 1;
+			handler.onOverrun();
+		}
+
+		/**
+		 * Get the number of published events this consumer has not handled yet
+		 * @return the lag of the consumer
+		 */
+		public long getLag() {
+			return cursor - next + 1;
+		}
+
+		/**
+		 * Get the number of times this consumer fell too far behind and had to resync
+		 * @return the number of overruns
+		 */
+		public long getOverruns() {
+			return overruns;
+		}
+
+		/**
+		 * Stop delivering events to this consumer
+		 */
+		public void close() {
+			closed = true;
+			subscriptions.remove(this);
+		}
+	}
+}
@@ -0,0 +1,154 @@
+package engine;
+
+import java.util.Arrays;
+
+import assets.Plant;
+
+/**
+ * The cost of walking from each grid of the board to the house, shared by the zombies that pick their row.
+ *
+ * A zombie moves a column towards the house at a time and can step to the row above or below as it does, so the cost
+ * of a grid is its own cost plus the cheapest of the three grids ahead of it, and the costs of a column only depend on
+ * the column before it. The cost of a grid is a step, the hit points of a plant on it that has to be eaten, and the
+ * attack of the plants behind it in its row that shoot at a zombie standing there.
+ *
+ * Placing or removing a plant only changes the costs from its column on, so only those columns are worked out again,
+ * and the work stops at the first column whose costs did not change once the plant's own grids are passed. The hit
+ * points of a plant are taken when its column is worked out, not every time a zombie bites it. A zombie
+ * picks its next row by comparing three costs, however many zombies share the field.
+ */
+final class FlowField {
+	//the cost of walking onto a grid
+	private static final int STEP = 1;
+	//the most attack a plant adds to the grids ahead of it, plants that kill instantly count as the strongest attack
+	private static final int MAX_THREAT = Plant.ATTACK_VERY_HIGH;
+
+	private final int row;
+	private final int col;
+
+	//the attack of the plants in a row at or behind each grid, row by row
+	private final int[] threats;
+	//the cost of the cheapest walk from each grid to the house, row by row
+	private final int[] costs;
+
+	//the first and last columns of each row with plants placed or removed since the last update
+	private final int[] dirtyFrom;
+	private final int[] dirtyTo;
+
+	/**
+	 * Create a field and work out the costs of a board
+	 * @param gameBoard the grids of the board
+	 */
+	FlowField(Grid[][] gameBoard) {
+		this.row = gameBoard.length;
+		this.col = gameBoard[0].length;
+		this.threats = new int[row * col];
+		this.costs = new int[row * col];
+		this.dirtyFrom = new int[row];
+		this.dirtyTo = new int[row];
+		Arrays.fill(dirtyTo, col - 1); //everything is worked out the first time
+		update(gameBoard);
+	}
+
+	/**
+	 * A plant was placed or removed, its costs are worked out at the next update
+	 * @param x the row
+	 * @param y the column
+	 */
+	void plantChanged(int x, int y) {
+		dirtyFrom[x] = Math.min(dirtyFrom[x], y);
+		dirtyTo[x] = Math.max(dirtyTo[x], y);
+	}
+
+	/**
+	 * Work out the costs changed by the plants placed and removed since the last update
+	 * @param gameBoard the grids of the board
+	 * @return the number of grids worked out
+	 */
+	int update(Grid[][] gameBoard) {
+		int from = col;
+		int changedTo = -1;
+		for (int x = 0; x < row; x++) {
+			if (dirtyFrom[x] < col) {
+				from = Math.min(from, dirtyFrom[x]);
+				changedTo = Math.max(changedTo, Math.max(dirtyTo[x], updateThreats(gameBoard, x)));
+				dirtyFrom[x] = col;
+				dirtyTo[x] = -1;
+			}
+		}
+
+		int updated = 0;
+		for (int y = from; y < col; y++) {
+			boolean changed = false;
+			for (int x = 0; x < row; x++) {
+				int cost = STEP + threats[x * col + y];
+				Plant plant = gameBoard[x][y].getPlant();
+				if (plant != null) {
+					cost += Math.max(plant.getHP(), 0);
+				}
+				if (y > 0) {
+					cost += costs[next(x, y) * col + y - 1];
+				}
+				if (costs[x * col + y] != cost) {
+					costs[x * col + y] = cost;
+					changed = true;
+				}
+				updated++;
+			}
+			if (!changed && y >= changedTo) { //the columns after this one see the same costs as before
+				break;
+			}
+		}
+		return updated;
+	}
+
+	/**
+	 * Work out the attack on the grids of a row
+	 * @return the last column whose attack changed, -1 if none did
+	 */
+	private int updateThreats(Grid[][] gameBoard, int x) {
+		int lastChanged = -1;
+		int threat = dirtyFrom[x] == 0? 0 : threats[x * col + dirtyFrom[x] - 1];
+		for (int y = dirtyFrom[x]; y < col; y++) {
+			Plant plant = gameBoard[x][y].getPlant();
+			if (plant != null && plant.getPower() > 0) {
+				threat += Math.min(plant.getPower(), MAX_THREAT);
+			}
+			if (threats[x * col + y] != threat) {
+				threats[x * col + y] = threat;
+				lastChanged = y;
+			}
+		}
+		return lastChanged;
+	}
+
+	/**
+	 * Find the column before a grid to walk on, the grid's own row unless one next to it is cheaper.
+	 * O(1) for any number of zombies.
+	 * @param x the row
+	 * @param y the column, greater than 0
+	 * @return the row in column y - 1 with the cheapest walk to the house
+	 */
+	int next(int x, int y) {
+		int best = x;
+		int bestCost = costs[x * col + y - 1];
+		if (x > 0 && costs[(x - 1) * col + y - 1] < bestCost) {
+			best = x - 1;
+			bestCost = costs[best * col + y - 1];
+		}
+		if (x < row - 1 && costs[(x + 1) * col + y - 1] < bestCost) {
+			best = x + 1;
+		}
+		return best;
+	}
+
+	/**
+	 * Get the cost of the cheapest walk from a grid to the house
+	 * @param x the row
+	 * @param y the column
+	 * @return the cost, as of the last update
+	 */
+	int getCost(int x, int y) {
+		return costs[x * col + y];
+	}
+}
@@ -2,22 +2,26 @@ package engine;
 
 import java.io.Serializable;
 
-import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.Iterator;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Random;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
 import assets.Potato_Mine;
 import assets.Jalapeno;
+import assets.Juking_Zombie;
 import assets.EconomyPlant;
 import assets.Plant;
 import assets.PlantTypes;
 import assets.Zombie;
 import assets.ZombieTypes;
 import levels.LevelInfo;
+import util.EngineEvents;
+import util.EngineMetrics;
 import util.Logger;
+import util.Metrics;
 
 /**
  * The Primary Game Loop. Instance per level
@@ -34,6 +38,12 @@ public class Game implements Serializable {
 	
 	private static Logger LOG = new Logger("Game");
 	
+	//The order zombie types are picked from when spawning, values() makes a new array on every call
+	private static final ZombieTypes[] SPAWN_TYPES = ZombieTypes.values();
+	
+	//The fewest row ranges a fork/join task resolves, splitting further costs more than it saves
+	private static final int RANGES_PER_TASK = 8;
+	
 	//The Level this game is playing
 	private LevelInfo levelInfo;
 	
@@ -52,14 +62,21 @@ public class Game implements Serializable {
 	//The number of turns elapsed
 	private int numTurns;
 	
-	//The zombies that are to be removed
-	private List<Zombie> zomRemoveBin;
-
 	private GameState gamestate;
 
 	private CommandQueue cQ;
 	
-	private transient List<GameListener> listeners;
+	//Delivers the game events to the listeners
+	private transient EventBus events;
+	
+	//The latest published copy of the game state, read by the UI without locking
+	private transient volatile BoardSnapshot snapshot;
+	
+	//Resolves the rows of a turn in parallel, null to resolve the turn on the calling thread
+	private transient ForkJoinPool rowPool;
+	
+	//Reused every turn to split the units of a phase into ranges of rows
+	private transient RowPartition partition;
 	
 	/**
 	 * Initializes a Game for a given Level
@@ -70,50 +87,110 @@ public class Game implements Serializable {
 		board = new Board(lvl.getRows(), lvl.getColumns());
 		levelInfo = lvl;
 		
-		zomRemoveBin = new LinkedList<Zombie>();
 		zombieQueue = (HashMap<ZombieTypes, Integer>) lvl.getZombies();
 		numZombies = zombieQueue.values().stream().mapToInt(Integer::intValue).sum();
-		LOG.debug("Level has " + numZombies + " zombies");
+		LOG.debug("Level has {} zombies", numZombies);
 		userResources = new Purse(levelInfo.getInitResources());
 		gamestate = GameState.PLAYING;
 		numTurns = 0;
-		listeners = new ArrayList<>();
-		cQ = new CommandQueue(this, listeners);
+		events = new EventBus();
+		cQ = new CommandQueue(this);
+		snapshot = BoardSnapshot.of(this);
+	}
+	
+	/**
+	 * Initializes a Game for a given Level with seeded random numbers. 
+	 * Games with the same level, seed and moves play out the same way.
+	 * @param lvl the LevelInfo for the given Level
+	 * @param seed the seed for the random numbers
+	 */
+	public Game(LevelInfo lvl, long seed) {
+		this(lvl);
+		board.setSeed(seed);
 	}
 	
+	/**
+	 * Set the pool the rows of a turn are resolved on. 
+	 * Rows are resolved independently and the results applied in the sequential order, so a game plays out 
+	 * the same with or without a pool. A turn a zombie could win is always resolved on the calling thread.
+	 * @param pool the pool, null to resolve the turn on the calling thread
+	 */
+	public void setRowPool(ForkJoinPool pool) {
+		this.rowPool = pool;
+	}
+	
+	/**
+	 * Get the pool the rows of a turn are resolved on
+	 * @return the pool, null if the turn is resolved on the calling thread
+	 */
+	public ForkJoinPool getRowPool() {
+		return rowPool;
+	}
+	
+	/**
+	 * Add a listener that is told about game events on the thread that changes the game
+	 * @param gl the listener
+	 */
 	public void addListener(GameListener gl) {
-		listeners.add(gl);
-		cQ.setGameListeners(listeners);
+		addListener(gl, EventBus.DIRECT);
+	}
+	
+	/**
+	 * Add a listener that is told about game events on an executor. 
+	 * A slow listener only holds up itself, not the engine or the other listeners.
+	 * @param gl the listener
+	 * @param executor the executor the listener is called on
+	 * @return the subscription of the listener to the game events
+	 */
+	public EventBus.Subscription addListener(GameListener gl, Executor executor) {
+		return events.subscribe(new ListenerEventHandler(gl, this), executor);
+	}
+	
+	/**
+	 * Get the bus the game events are published on
+	 * @return the event bus
+	 */
+	public EventBus getEvents() {
+		return events;
 	}
 	
 	/**
 	 * Processes a Player's Turn
 	 */
 	public void playerTurn() {
+		EngineEvents.PlayerTurn event = new EngineEvents.PlayerTurn();
+		event.begin();
+		long start = System.nanoTime();
+		long allocated = Metrics.allocatedBytes();
+		long cellsScanned = board.getCellsScanned();
+		
 		//plants action
 		List<Plant> plantsInGame = board.getPlantsInGame();
-		List<Plant> plantsToRemove = new ArrayList<>(); //holds the plants to that should be removed (mines and jalapenos)
 		LOG.debug("Doing Plant Attack Calculations");
 		
-		for (Plant plant : plantsInGame) {
-			LOG.debug("Plant at (" + plant.getRow() + "," + plant.getCol() + ")");
-			plant.attack(board);
-			
-			if (plant.getPlantType() == PlantTypes.POTATOMINE) {
-				if (((Potato_Mine)plant).getDischarged()) {
-					plantsToRemove.add(plant);
-				}
-			}
-			else if(plant.getPlantType() == PlantTypes.JALAPENO){ //else if plant is jalapeno
-				if(((Jalapeno)plant).getDischarged()){
-					plantsToRemove.add(plant);
-				}
-			}
+		RowPartition ranges = getPartition();
+		if (rowPool != null) {
+			ranges.byRow(board.getRow(), plantsInGame);
+			resolveInParallel(ranges, true);
+		} else {
+			ranges.single(board.getRow(), plantsInGame);
+			resolvePlants(ranges.get(0));
 		}
 		
-		for (Plant plant : plantsToRemove) {
-			board.removePlant(plant.getRow(), plant.getCol());
+		for (int r = 0; r < ranges.size(); r++) { //remove the mines and jalapenos that went off
+			List<Plant> discharged = ranges.get(r).discharged;
+			for (int i = 0; i < discharged.size(); i++) {
+				board.removePlant(discharged.get(i).getRow(), discharged.get(i).getCol());
+			}
 		}
+		board.advanceProjectiles(1); //the projectiles fired this turn and before fly for a turn
+		
+		long scanned = board.getCellsScanned() - cellsScanned;
+		EngineMetrics.PLAYER_TURN.recordSince(start);
+		EngineMetrics.PLAYER_TURN_ALLOCATED.add(Metrics.allocatedBytes() - allocated);
+		EngineMetrics.CELLS_SCANNED.add(scanned);
+		event.plants = plantsInGame.size();
+		event.end(this, scanned);
 	}
 	
 	/**
@@ -122,76 +199,91 @@ public class Game implements Serializable {
 	 */
 	private void zombieTurn() {
 		LOG.debug("It is the zombie's turn.");
+		EngineEvents.ZombieTurn event = new EngineEvents.ZombieTurn();
+		event.begin();
+		long start = System.nanoTime();
+		long allocated = Metrics.allocatedBytes();
+		long cellsScanned = board.getCellsScanned();
 		
-		//create a new collection to prevent concurrent modification of Board zombies attribute
-		List<Zombie> zombiesInGame = new LinkedList<Zombie>(board.getZombiesInGame());
-		List<Zombie> zombiesToRemove = new ArrayList<>();
+		board.updateFlowField(); //the flanking zombies of the turn all walk on the field of the plants at its start
 		
-		Iterator<Zombie> iterator = zombiesInGame.iterator();
-		
-		while (iterator.hasNext()) {
-			Zombie nextZombie = iterator.next();
-			if(!getZomRemoveBin().contains(nextZombie))
-			{
-				//if a zombie has failed to move, it means it is being blocked by a Plant
-				if (!nextZombie.move()) {
-					nextZombie.attack(board);
-					if(nextZombie.getZombieType() == ZombieTypes.EXP_ZOMBIE){ //if a exploding zombie attacks, it instantly dies
-						zombiesToRemove.add(nextZombie);
-					}
-				}
-				int row = nextZombie.getRow();
-				if(board.hasReachedEnd(row) && board.isMowerAvaliable(row))
-				{
-					cQ.registerMow(row); // Keep track of the lawn mowers used
-					setZomRemoveBin(board.useLawnMower(row)); //use lawnmower
-					for(GameListener g : listeners)
-					{
-						g.updateMower(row, board.isMowerAvaliable(row)); //update lawn mower image
-					}
-					board.removeMower(row); 
-					board.resetZombieReachedEnd(row);
-				}
-				else if(board.hasReachedEnd(row) && !board.isMowerAvaliable(row)) {
-					// a zombie has reached the end of the board and a lawnmower is not available. player loses
-					endGame(false);
-					break;
-				}
-			}
+		//the ranges hold a copy of the zombies, so the board's list can change while they move
+		RowPartition ranges = getPartition();
+		if (rowPool != null && !isLossPossible()) {
+			ranges.byLane(board.getRow(), board.getZombiesInGame());
+			resolveInParallel(ranges, false);
+		} else {
+			ranges.single(board.getRow(), board.getZombiesInGame());
+			resolveZombies(ranges.get(0));
 		}
 		
-		zomRemoveBin.clear(); //clearing the zombie remove bin (not needed anymore)
+		int[] mowersUsed = ranges.getMowersUsed();
+		for (int i = 0; i < mowersUsed.length; i++) {
+			cQ.registerMow(mowersUsed[i]); // Keep track of the lawn mowers used
+		}
 		
-		for (Zombie z : zombiesToRemove) { //remove all exploding zombies that attacked
-			board.removeZombie(z.getRow(), z.getCol());
+		boolean lost = false;
+		for (int r = 0; r < ranges.size(); r++) {
+			RowPartition.Range range = ranges.get(r);
+			lost |= range.lost;
+			for (int i = 0; i < range.exploded.size(); i++) { //remove all exploding zombies that attacked
+				Zombie z = range.exploded.get(i);
+				board.removeZombie(z.getRow(), z.getCol());
+			}
+		}
+		if (lost) {
+			// a zombie has reached the end of the board and a lawnmower is not available. player loses
+			endGame(false);
 		}
 		
-		//spawn new zombies
+		long scanned = board.getCellsScanned() - cellsScanned;
+		EngineMetrics.ZOMBIE_TURN.recordSince(start);
+		EngineMetrics.ZOMBIE_TURN_ALLOCATED.add(Metrics.allocatedBytes() - allocated);
+		EngineMetrics.CELLS_SCANNED.add(scanned);
+		event.end(this, scanned);
+		
+		spawnZombies();
+	}
+	
+	/**
+	 * Spawn a random number of the zombies left in the queue at the end of their rows
+	 */
+	void spawnZombies() {
+		EngineEvents.Spawn spawnEvent = new EngineEvents.Spawn();
+		spawnEvent.begin();
+		long spawnStart = System.nanoTime();
+		long spawnAllocated = Metrics.allocatedBytes();
 		if (!zombieQueue.isEmpty()) { //there must be zombies to spawn
-			Random rand = new Random();
+			Random rand = board.getRandom();
 			int zombiesToSpawn = rand.nextInt(numZombies/4 == 0? 2: numZombies/4); //if there aren't enough zombies then spawn up to 1
 			
-			if (zombiesToSpawn > zombieQueue.values().stream().mapToInt(Integer::intValue).sum()) { 
+			int zombiesLeft = getZombiesLeftToSpawn();
+			if (zombiesToSpawn > zombiesLeft) { 
 				//if the random number is larger than the reamining zombies then spawn all remaining zombies
-				zombiesToSpawn = zombieQueue.values().stream().mapToInt(Integer::intValue).sum();
+				zombiesToSpawn = zombiesLeft;
 			}
 			
-			LOG.debug("Spawning " + zombiesToSpawn + " zombies");
+			LOG.debug("Spawning {} zombies", zombiesToSpawn);
+			spawnEvent.zombiesSpawned = zombiesToSpawn;
 			
 			for(int i = 0; i < zombiesToSpawn; i++)  //spawn zombies
 			{
 				//determine type of zombie spawn
-				List<ZombieTypes> keys = new ArrayList<ZombieTypes>(zombieQueue.keySet());
-				ZombieTypes type = keys.get(rand.nextInt(keys.size()));
+				ZombieTypes type = getSpawnType(rand.nextInt(zombieQueue.size()));
 
-				LOG.debug("Spawning a " + type.toString());
+				LOG.debug("Spawning a {}", type);
 				
 				int rowNumber = rand.nextInt(levelInfo.getRows()); //determines which row the zombie will go down
-				Zombie zombie = ZombieTypes.toZombie(type);
-				zombie.setListener(board);
-				board.placeZombie(zombie, rowNumber, levelInfo.getColumns() - 1); //spawn the zombie
-				zombie.setRow(rowNumber);
-				zombie.setColumn(levelInfo.getColumns() - 1);
+				Zombie last = board.getGrid(rowNumber, levelInfo.getColumns() - 1).getLastZombie();
+				if (last != null && last.canStack(type)) {
+					board.stackZombies(last, 1); //the zombie joins the identical zombie spawned before it
+				} else {
+					Zombie zombie = ZombieTypes.toZombie(type);
+					zombie.setListener(board);
+					board.placeZombie(zombie, rowNumber, levelInfo.getColumns() - 1); //spawn the zombie
+					zombie.setRow(rowNumber);
+					zombie.setColumn(levelInfo.getColumns() - 1);
+				}
 				
 				//removes the spawned zombie from the Queue
 				int x = zombieQueue.get(type) - 1;
@@ -204,40 +296,291 @@ public class Game implements Serializable {
 		} else {
 			LOG.debug("No More Zombies to Spawn");
 		}
+		EngineMetrics.SPAWN.recordSince(spawnStart);
+		EngineMetrics.SPAWN_ALLOCATED.add(Metrics.allocatedBytes() - spawnAllocated);
+		spawnEvent.end(this, 0);
+	}
+	
+	/**
+	 * Get the number of zombies in the queue
+	 * @return the zombies left to spawn
+	 */
+	private int getZombiesLeftToSpawn() {
+		int left = 0;
+		for (int count : zombieQueue.values()) {
+			left += count;
+		}
+		return left;
+	}
+	
+	private RowPartition getPartition() {
+		if (partition == null) {
+			partition = new RowPartition();
+		}
+		return partition;
+	}
+	
+	/**
+	 * Attack with the plants of a range, in order
+	 * @param range
+	 */
+	private void resolvePlants(RowPartition.Range range) {
+		for (int i = 0; i < range.units.size(); i++) {
+			Plant plant = (Plant) range.units.get(i);
+			range.cursor = range.order(i);
+			if (attackWith(plant)) {
+				range.discharged.add(plant);
+			}
+		}
+	}
+	
+	/**
+	 * Attack with a plant
+	 * @param plant
+	 * @return true if the plant went off and has to be removed (mines and jalapenos), false otherwise
+	 */
+	boolean attackWith(Plant plant) {
+		LOG.debug("Plant at ({},{})", plant.getRow(), plant.getCol());
+		plant.attack(board);
+		
+		if (plant.getPlantType() == PlantTypes.POTATOMINE) {
+			return ((Potato_Mine)plant).getDischarged();
+		}
+		else if(plant.getPlantType() == PlantTypes.JALAPENO){ //else if plant is jalapeno
+			return ((Jalapeno)plant).getDischarged();
+		}
+		return false;
+	}
+	
+	/**
+	 * Move the zombies of a range, in order. Stops at the first zombie that wins the game.
+	 * @param range
+	 */
+	private void resolveZombies(RowPartition.Range range) {
+		for (int i = 0; i < range.units.size(); i++) {
+			Zombie nextZombie = (Zombie) range.units.get(i);
+			range.cursor = range.order(i);
+			if(!range.mowed.contains(nextZombie) && !moveZombie(nextZombie, range))
+			{
+				range.lost = true;
+				break;
+			}
+		}
+	}
+	
+	/**
+	 * Move a zombie, or attack with it if a plant blocks it. A zombie that reaches the end of its row sets off the lawn mower.
+	 * The exploding zombies that attacked, the zombies mowed and the lawn mowers used are recorded in the range.
+	 * @param zombie
+	 * @param range the range of the zombie's row
+	 * @return false if the zombie reached the end of a row without a lawn mower, true otherwise
+	 */
+	boolean moveZombie(Zombie zombie, RowPartition.Range range) {
+		//if a zombie has failed to move, it means it is being blocked by a Plant
+		if (!zombie.move()) {
+			zombie.attack(board);
+			if(zombie.getZombieType() == ZombieTypes.EXP_ZOMBIE){ //if a exploding zombie attacks, it instantly dies
+				range.exploded.add(zombie);
+			}
+		}
+		int row = zombie.getRow();
+		if(board.hasReachedEnd(row) && board.isMowerAvaliable(row))
+		{
+			EngineEvents.LawnMower mowerEvent = new EngineEvents.LawnMower();
+			mowerEvent.begin();
+			long mowerStart = System.nanoTime();
+			long mowerCellsScanned = board.getCellsScanned(row);
+			
+			range.mowerUsed(row);
+			List<Zombie> mowed = board.useLawnMower(row);
+			range.mowed.addAll(mowed); //use lawnmower, the listeners are told when the turn is published
+			board.removeMower(row); 
+			board.resetZombieReachedEnd(row);
+			
+			EngineMetrics.LAWN_MOWER.recordSince(mowerStart);
+			mowerEvent.row = row;
+			for (int i = 0; i < mowed.size(); i++) {
+				mowerEvent.zombiesKilled += mowed.get(i).getStackSize();
+			}
+			mowerEvent.end(this, board.getCellsScanned(row) - mowerCellsScanned);
+		}
+		else if(board.hasReachedEnd(row) && !board.isMowerAvaliable(row)) {
+			return false;
+		}
+		return true;
+	}
+	
+	/**
+	 * Resolve the ranges of a phase on the row pool, then apply the changes they made to the unit lists
+	 * @param ranges
+	 * @param plants true to attack with plants, false to move zombies
+	 */
+	private void resolveInParallel(RowPartition ranges, boolean plants) {
+		board.beginRowPartition(ranges);
+		try {
+			rowPool.invoke(new RowTask(ranges, 0, ranges.size(), plants));
+		} finally {
+			board.endRowPartition();
+		}
+	}
+	
+	/**
+	 * Check if a zombie could win the game this turn. 
+	 * The sequential engine stops moving zombies at the first one that wins, which ranges resolved in parallel cannot do, 
+	 * so these turns are resolved on the calling thread.
+	 * @return true if a row could be reached by more zombies than it has lawn mowers
+	 */
+	private boolean isLossPossible() {
+		int rows = board.getRow();
+		int[] reaching = new int[rows];
+		for (Zombie zombie : board.getZombiesInGame()) {
+			if (zombie.getCol() < Math.max(zombie.getSpeed(), zombie.getDefaultSpeed())) {
+				int row = zombie.getRow();
+				boolean juking = zombie instanceof Juking_Zombie;
+				for (int r = juking? Math.max(row - 1, 0) : row; r <= (juking? Math.min(row + 1, rows - 1) : row); r++) {
+					reaching[r]++;
+				}
+			}
+		}
+		for (int row = 0; row < rows; row++) {
+			int mowers = board.isMowerAvaliable(row)? 1 : 0;
+			if (reaching[row] > mowers || (board.hasReachedEnd(row) && mowers == 0)) {
+				return true;
+			}
+		}
+		return false;
+	}
+	
+	/**
+	 * Resolves a slice of the ranges of a phase, splitting it between the pool's threads
+	 */
+	private final class RowTask extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+		
+		private final RowPartition ranges;
+		private final int from;
+		private final int to;
+		private final boolean plants;
+		
+		private RowTask(RowPartition ranges, int from, int to, boolean plants) {
+			this.ranges = ranges;
+			this.from = from;
+			this.to = to;
+			this.plants = plants;
+		}
+		
+		@Override
+		protected void compute() {
+			if (to - from > RANGES_PER_TASK) {
+				int middle = (from + to) >>> 1;
+				invokeAll(new RowTask(ranges, from, middle, plants), new RowTask(ranges, middle, to, plants));
+				return;
+			}
+			for (int r = from; r < to; r++) {
+				if (plants) {
+					resolvePlants(ranges.get(r));
+				} else {
+					resolveZombies(ranges.get(r));
+				}
+			}
+		}
+	}
+	
+	/**
+	 * Get a zombie type that is left to spawn. 
+	 * Types are counted in declaration order so a seeded game spawns the same zombies every time.
+	 * @param index which of the remaining types to get, less than the number of remaining types
+	 * @return the zombie type
+	 */
+	private ZombieTypes getSpawnType(int index) {
+		for (ZombieTypes type : SPAWN_TYPES) {
+			if (zombieQueue.containsKey(type) && index-- == 0) {
+				return type;
+			}
+		}
+		throw new IllegalStateException("No zombie type left to spawn");
 	}
 	
 	/**
 	 * Tells Combat Engine to handle attack and damage calculations. Adds Resources to Player Purse. Checks if the pLayer has won
 	 */
 	public void doEndOfTurn() {
+		publishEndOfTurn(computeEndOfTurn());
+	}
+	
+	/**
+	 * Computes the end of turn without telling the listeners. 
+	 * Can be run off the Swing thread as long as nothing else uses the game until the turn is published.
+	 * @return the grids and lawn mowers that changed during the turn
+	 */
+	public ChangeSet computeEndOfTurn() {
+		long start = System.nanoTime();
+		long allocated = Metrics.allocatedBytes();
 		cQ.registerEndTurn(board);
+		updateSnapshot(); //changes before this turn were already sent to the listeners
 		playerTurn(); //player plants attack
 		numTurns++;
 		//do the zombie Turn
 		zombieTurn();
+		board.advanceEffects(); //end the status effects that ran out this turn
+		collectResources();
+		checkForWin();
 		
-		//economy calculations
+		ChangeSet changes = updateSnapshot();
+		EngineMetrics.END_OF_TURN.recordSince(start);
+		EngineMetrics.END_OF_TURN_ALLOCATED.add(Metrics.allocatedBytes() - allocated);
+		if (LOG.isDebugEnabled()) { //the size is counted row by row
+			LOG.debug("Turn changed {} grids", changes.size());
+		}
+		return changes;
+	}
+	
+	/**
+	 * Add the resources of a turn to the purse
+	 */
+	void collectResources() {
 		userResources.addPoints(levelInfo.getResPerTurn()); //do default sunshine gain
 		for(EconomyPlant p : board.getEconomyPlantsInGame()){ //do economy plants sunshine gain
 			userResources.addPoints(p.getPoints());
 		}
-		
-		//did player win?
-		if (zombieQueue.values().stream().mapToInt(Integer::intValue).sum() == 0 && board.getNumberOfZombies() == 0) {
+	}
+	
+	/**
+	 * End the game if the player won: every zombie was spawned and killed
+	 */
+	void checkForWin() {
+		if (getZombiesLeftToSpawn() == 0 && board.getNumberOfZombies() == 0) {
 			endGame(true);
 		}
-		
-		for (GameListener gl : listeners) {
-			gl.updateAllGrids();
-			gl.updateEndTurn();
+	}
+	
+	/**
+	 * Tells the listeners about a computed end of turn
+	 * @param changes the grids and lawn mowers that changed during the turn
+	 */
+	public void publishEndOfTurn(ChangeSet changes) {
+		publishChanges(changes);
+		events.publishEndTurn();
+	}
+	
+	/**
+	 * Tells the listeners about the grids and lawn mowers that changed
+	 * @param changes
+	 */
+	void publishChanges(ChangeSet changes) {
+		for (int row = 0; row < changes.getRows(); row++) {
+			if (changes.isMowerChanged(row)) {
+				events.publishMower(row, true); //the lawn mower was used, update lawn mower image
+			}
 		}
+		events.publishChangedGrids(changes);
 	}
 	
 	/**
 	 * Ends the Game
 	 * @param playerWin True if the player won, false otherwise
 	 */
-	private void endGame(boolean playerWin) {
+	void endGame(boolean playerWin) {
 		if(playerWin) {
 			LOG.debug("Player has Won");
 			gamestate = GameState.WON;
@@ -247,23 +590,6 @@ public class Game implements Serializable {
 		}
 	}
 	
-	/**
-	 * Sets the zombie remove bin.All the zombies within this list
-	 * will be removed from the board
-	 * @param zom - a list of zombies to be removed from the board
-	 */
-	public void setZomRemoveBin(List<Zombie> zom)
-	{
-		zomRemoveBin.addAll(zom);
-	}
-	/**
-	 * Retreives the zombie remove bin
-	 * @return - a list of zombies 
-	 */
-	public List<Zombie> getZomRemoveBin()
-	{
-		return zomRemoveBin;
-	}
 	 
 	 /**
 	  * Get the LevelInfo 
@@ -346,16 +672,13 @@ public class Game implements Serializable {
 			if (board.placePlant(selectedPlant, x, y)) {
 				cQ.registerPlace(type,x,y);
 				userResources.spendPoints(selectedPlant.getCost());
+				updateSnapshot();
 				
-				for (GameListener gl : listeners) {
-					gl.updateGrid(x, y);
-					gl.updatePurse();
-				}
+				events.publishGrid(x, y);
+				events.publishPurse();
 			}
 		} else {
-			for (GameListener gl : listeners) {
-				gl.updateMessage("Not Enough Points", "You do not have enough funds for: " + selectedPlant.toString());
-			}
+			events.publishMessage("Not Enough Points", "You do not have enough funds for: " + selectedPlant.toString());
 		}
 	}
 	
@@ -367,19 +690,44 @@ public class Game implements Serializable {
 	public void removePlant(int x, int y) {
 		cQ.registerDig(board.getPlant(x, y).getPlantType(),x,y);
 		board.removePlant(x, y);
-		for (GameListener gl : listeners) {
-			gl.updateGrid(x, y);
-		}
+		updateSnapshot();
+		events.publishGrid(x, y);
 	}
 
+	/**
+	 * Get the latest published copy of the game state. 
+	 * Safe to call from any thread while the engine changes the game.
+	 * 
+	 * @return the latest snapshot
+	 */
+	public BoardSnapshot getSnapshot() {
+		BoardSnapshot current = snapshot;
+		if (current == null) { //loaded games do not have a snapshot yet
+			current = BoardSnapshot.of(this);
+			snapshot = current;
+		}
+		return current;
+	}
+	
+	/**
+	 * Publish a new snapshot with the changes made to the board since the last one.
+	 * Must be called by the thread changing the game, before the listeners are told about the changes.
+	 * 
+	 * @return the changes included in the new snapshot
+	 */
+	ChangeSet updateSnapshot() {
+		ChangeSet changes = board.takeChanges();
+		BoardSnapshot current = snapshot;
+		snapshot = current == null? BoardSnapshot.of(this) : current.update(this, changes);
+		return changes;
+	}
+	
 	/**
 	 * Undos the last move
 	 */
 	public void undo() {
 		if (!cQ.undo()) {
-			for (GameListener gl : listeners) {
-				gl.updateMessage("Cannot Undo", "No more moves to Undo");
-			}
+			events.publishMessage("Cannot Undo", "No more moves to Undo");
 		}
 	}
 	
@@ -388,9 +736,7 @@ public class Game implements Serializable {
 	 */
 	public void redo() {
 		if (!cQ.redo()) {
-			for (GameListener gl : listeners) {
-				gl.updateMessage("Cannot Redo", "No more moves to Redo");
-			}
+			events.publishMessage("Cannot Redo", "No more moves to Redo");
 		}
 	}
 	
@@ -399,6 +745,10 @@ public class Game implements Serializable {
 	 */
 	public void reImplementTransientFields() {
 		
-		this.listeners = new ArrayList<GameListener>();
+		this.events = new EventBus();
+		for (Zombie zombie : board.getZombiesInGame()) {
+			zombie.scheduleLoadedEffects();
+		}
+		this.snapshot = BoardSnapshot.of(this);
 	}
 }
@@ -0,0 +1,127 @@
+package engine;
+
+/**
+ * An event published by the game engine on the EventBus.
+ *
+ * Events are slots in a preallocated ring buffer that are reused once the buffer wraps around,
+ * so handlers must copy anything they want to keep after handling the event.
+ */
+public final class GameEvent {
+
+	public enum Type {
+		GRID,
+		ALL_GRIDS,
+		CHANGED_GRIDS,
+		PURSE,
+		TURN_NUMBER,
+		END_TURN,
+		MESSAGE,
+		MOWER
+	}
+
+	//sequence of the event held by this slot, -1 while the slot is being written
+	private volatile long sequence = -1;
+
+	private Type type;
+	private int row;
+	private int col;
+	private boolean flag;
+	private String title;
+	private String message;
+	private ChangeSet changes;
+
+	GameEvent() {}
+
+	/**
+	 * Clear the slot before it is filled with a new event
+	 */
+	void reset(Type type) {
+		this.type = type;
+		this.row = -1;
+		this.col = -1;
+		this.flag = false;
+		this.title = null;
+		this.message = null;
+		this.changes = null;
+	}
+
+	void setSequence(long sequence) {
+		this.sequence = sequence;
+	}
+
+	void setLocation(int row, int col) {
+		this.row = row;
+		this.col = col;
+	}
+
+	void setFlag(boolean flag) {
+		this.flag = flag;
+	}
+
+	void setMessage(String title, String message) {
+		this.title = title;
+		this.message = message;
+	}
+
+	void setChanges(ChangeSet changes) {
+		this.changes = changes;
+	}
+
+	/**
+	 * @return the sequence number of this event on the bus
+	 */
+	public long getSequence() {
+		return sequence;
+	}
+
+	public Type getType() {
+		return type;
+	}
+
+	/**
+	 * @return the row of a GRID or MOWER event
+	 */
+	public int getRow() {
+		return row;
+	}
+
+	/**
+	 * @return the column of a GRID event
+	 */
+	public int getCol() {
+		return col;
+	}
+
+	/**
+	 * @return for a MOWER event, true if the lawn mower was used and false if it was given back
+	 */
+	public boolean getFlag() {
+		return flag;
+	}
+
+	/**
+	 * @return the title of a MESSAGE event
+	 */
+	public String getTitle() {
+		return title;
+	}
+
+	/**
+	 * @return the contents of a MESSAGE event
+	 */
+	public String getMessage() {
+		return message;
+	}
+
+	/**
+	 * @return the changed grids of a CHANGED_GRIDS event
+	 */
+	public ChangeSet getChanges() {
+		return changes;
+	}
+
+	@Override
+	public String toString() {
+		return "GameEvent[" + sequence + " " + type + "]";
+	}
+}
@@ -16,6 +16,14 @@ public interface GameListener {
 	 * Tells the game listener that all the grids have changed
 	 */
 	public void updateAllGrids();
+	/**
+	 * Tells the game listener that the grids in the change set have changed.
+	 * Listeners that cannot redraw single grids update all of them.
+	 * @param changes - the grids and lawn mowers that changed
+	 */
+	public default void updateChangedGrids(ChangeSet changes) {
+		updateAllGrids();
+	}
 	/**
 	 * Tells the game listener that the purse has changed
 	 */
@@ -1,8 +1,12 @@
 package engine;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.io.Serializable;
-import java.util.HashMap;
-import java.util.LinkedList;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.Map;
 import java.util.Queue;
 import assets.Plant;
 import assets.Zombie;
@@ -26,15 +30,23 @@ public class Grid implements Serializable {
  	// used to determine which zombie arrived on the grid first and to attack first by plant
 	private Queue<Zombie> zombies;
 	
-	// used to keep track of the zombie types and the number of zombies present in grid
-	private HashMap<ZombieTypes, Integer> zombieTypeCount;
+	// used to keep track of the zombie types and the number of zombies present in grid, rebuilt from the zombies when loaded
+	private transient EnumMap<ZombieTypes, Integer> zombieTypeCount;
+	
+	// the number of zombies counting every zombie of a stack, rebuilt with the type count
+	private transient int hordeSize;
+	
+	// the stack size of each zombie when this grid was copied, UNSTACKED if every zombie was alone, null for a grid on the board
+	private int[] stackSizes;
+	private static final int[] UNSTACKED = new int[0];
 	
 	public Grid(int row, int col) {
 		this.row = row;
 		this.col = col;
 		
-		zombies = new LinkedList<Zombie>();
-		zombieTypeCount = new HashMap<ZombieTypes, Integer>();
+		//zombies moving through the grid reuse the slots of the queue and the type count, so a move does not allocate
+		zombies = new ArrayDeque<Zombie>(2);
+		zombieTypeCount = new EnumMap<ZombieTypes, Integer>(ZombieTypes.class);
 	}
 	
 	/**
@@ -46,10 +58,20 @@ public class Grid implements Serializable {
 		this.row = grid.row;
 		this.col = grid.col;
 		this.plant = grid.plant;
-		this.zombies = new LinkedList<Zombie>();
-		this.zombies.addAll(grid.zombies);
-		this.zombieTypeCount = new HashMap<ZombieTypes, Integer>();
-		this.zombieTypeCount.putAll(grid.zombieTypeCount);
+		this.zombies = new ArrayDeque<Zombie>(grid.zombies);
+		this.zombieTypeCount = new EnumMap<ZombieTypes, Integer>(grid.zombieTypeCount);
+		this.hordeSize = grid.hordeSize;
+		
+		//a stack keeps splitting after the copy, so the copy keeps the sizes it had
+		this.stackSizes = UNSTACKED;
+		if (hordeSize != zombies.size()) {
+			this.stackSizes = new int[zombies.size()];
+			int i = 0;
+			for (Zombie zombie : zombies) {
+				stackSizes[i] = grid.getStackSize(zombie, i);
+				i++;
+			}
+		}
 	}
 
 	/**
@@ -106,7 +128,7 @@ public class Grid implements Serializable {
 	public boolean addZombie(Zombie zombie) {
 		if (zombies.add(zombie)) {
 		
-			zombieTypeCount.put(zombie.getZombieType(), zombieTypeCount.getOrDefault(zombie.getZombieType(), 0) + 1);
+			addToZombieTypeCount(zombie.getZombieType(), zombie.getStackSize());
 			
 			return true;
 		}
@@ -114,6 +136,16 @@ public class Grid implements Serializable {
 		return false;
 	}
 	
+	/**
+	 * Add a zombie to this grid ahead of the zombies already on it, so it is the first to be attacked
+	 * 
+	 * @param zombie
+	 */
+	public void addZombieFirst(Zombie zombie) {
+		((Deque<Zombie>) zombies).addFirst(zombie);
+		addToZombieTypeCount(zombie.getZombieType(), zombie.getStackSize());
+	}
+	
 	
 	/**
 	 * Get the first zombie that arrived on this grid
@@ -125,6 +157,16 @@ public class Grid implements Serializable {
 		return zombies.peek();
 	}
 	
+	/**
+	 * Get the last zombie that arrived on this grid
+	 * 
+	 * @return the last zombie on this grid, null if no zombies present
+	 */
+	public Zombie getLastZombie() {
+		
+		return ((Deque<Zombie>) zombies).peekLast();
+	}
+	
 	/**
 	 * Remove the first zombie on this grid
 	 * Likely used when a zombie was killed
@@ -136,15 +178,46 @@ public class Grid implements Serializable {
 			
 			Zombie zombieToRemove = zombies.peek();
 			
-			if (zombieTypeCount.get(zombieToRemove.getZombieType()) - 1 == 0) {
-				zombieTypeCount.remove(zombieToRemove.getZombieType());
-			}
+			addToZombieTypeCount(zombieToRemove.getZombieType(), -zombieToRemove.getStackSize());
 			
 			return zombies.poll();
 		}
 		return null;
 	}
 	
+	/**
+	 * Remove a zombie from this grid, wherever it is in the queue
+	 * Likely used when a zombie moves off this grid
+	 * 
+	 * @param zombie
+	 * @return true if the zombie was on this grid, false otherwise
+	 */
+	public boolean removeZombie(Zombie zombie) {
+		if (zombies.remove(zombie)) {
+			
+			addToZombieTypeCount(zombie.getZombieType(), -zombie.getStackSize());
+			
+			return true;
+		}
+		return false;
+	}
+	
+	/**
+	 * Count zombies that joined or left a stack on this grid
+	 * 
+	 * @param type the type of the zombies
+	 * @param delta the number of zombies added, negative if removed
+	 */
+	void addToZombieTypeCount(ZombieTypes type, int delta) {
+		hordeSize += delta;
+		int count = zombieTypeCount.getOrDefault(type, 0) + delta;
+		if (count <= 0) {
+			zombieTypeCount.remove(type);
+		} else {
+			zombieTypeCount.put(type, count);
+		}
+	}
+	
 	
 	/**
 	 * Get the number of zombies in the current grid.
@@ -156,6 +229,30 @@ public class Grid implements Serializable {
 		return zombies.size();
 	}
 	
+	/**
+	 * Get the number of zombies in the current grid, counting every zombie of a stack.
+	 * 
+	 * @return number of zombies the zombies on the grid stand for
+	 */
+	public int getHordeSize() {
+		
+		return hordeSize;
+	}
+	
+	/**
+	 * Get the stack size a zombie had on this grid, which is kept by the grid for a copy
+	 * 
+	 * @param zombie a zombie on this grid
+	 * @param i the position of the zombie in the queue
+	 * @return the number of zombies it stands for
+	 */
+	int getStackSize(Zombie zombie, int i) {
+		if (stackSizes == null) {
+			return zombie.getStackSize();
+		}
+		return stackSizes.length == 0? 1 : stackSizes[i];
+	}
+	
 	/**
 	 * Get the queue of zombies placed on this grid.
 	 * 
@@ -172,16 +269,18 @@ public class Grid implements Serializable {
 	 * 
 	 * @return zombie type and count 
 	 */
-	public HashMap<ZombieTypes, Integer> getZombieTypeCount() {
+	public Map<ZombieTypes, Integer> getZombieTypeCount() {
 		
 		return zombieTypeCount;
 	}
 	
 	
 	public void updateZombieTypeCount() {
-		zombieTypeCount = new HashMap<ZombieTypes, Integer>();
+		zombieTypeCount = new EnumMap<ZombieTypes, Integer>(ZombieTypes.class);
+		hordeSize = 0;
+		int i = 0;
 		for (Zombie zombie : zombies) {
-			zombieTypeCount.put(zombie.getZombieType(), zombieTypeCount.getOrDefault(zombie.getZombieType(), 0) + 1);
+			addToZombieTypeCount(zombie.getZombieType(), getStackSize(zombie, i++));
 		} 
 	}
 	
@@ -212,4 +311,9 @@ public class Grid implements Serializable {
 		int[] coord = {row,col};
 		return coord;
 	}
+	
+	private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+		in.defaultReadObject();
+		updateZombieTypeCount();
+	}
 }
\ No newline at end of file
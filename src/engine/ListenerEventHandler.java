@@ -0,0 +1,58 @@
+package engine;
+
+/**
+ * Delivers the events of the EventBus to a GameListener
+ */
+class ListenerEventHandler implements EventBus.EventHandler {
+	private final GameListener listener;
+	//the game whose latest snapshot a listener that fell behind is brought up to date with
+	private final Game game;
+
+	ListenerEventHandler(GameListener listener, Game game) {
+		this.listener = listener;
+		this.game = game;
+	}
+
+	@Override
+	public void onEvent(GameEvent event) {
+		switch (event.getType()) {
+			case GRID:
+				listener.updateGrid(event.getRow(), event.getCol());
+				break;
+			case ALL_GRIDS:
+				listener.updateAllGrids();
+				break;
+			case CHANGED_GRIDS:
+				listener.updateChangedGrids(event.getChanges());
+				break;
+			case PURSE:
+				listener.updatePurse();
+				break;
+			case TURN_NUMBER:
+				listener.updateTurnNumber();
+				break;
+			case END_TURN:
+				listener.updateEndTurn();
+				break;
+			case MESSAGE:
+				listener.updateMessage(event.getTitle(), event.getMessage());
+				break;
+			case MOWER:
+				listener.updateMower(event.getRow(), event.getFlag());
+				break;
+			default:
+				break;
+		}
+	}
+
+	@Override
+	public void onOverrun() {
+		listener.updateAllGrids();
+		listener.updatePurse();
+		listener.updateTurnNumber();
+		BoardSnapshot snapshot = game.getSnapshot();
+		for (int row = 0; row < snapshot.getRows(); row++) {
+			listener.updateMower(row, snapshot.isMowerAvailable(row));
+		}
+	}
+}
@@ -0,0 +1,194 @@
+package engine;
+
+import java.util.Arrays;
+
+import assets.Plant;
+
+/**
+ * The projectiles flying down a row, in the order they were fired.
+ *
+ * Projectiles are kept as parallel arrays in a ring rather than as objects: firing writes the next slot and a projectile
+ * that hits or leaves the board frees its slot, so firing and hitting do not allocate once the ring is big enough for
+ * the row. Projectiles leave mostly in the order they were fired, the slots freed in between are skipped and reclaimed
+ * when the ring is full.
+ */
+final class ProjectileRing {
+	private static final int INITIAL_CAPACITY = 16;
+
+	//the plant that fired each projectile, null for a free slot
+	private Plant[] shooters;
+	//the columns before this one have been passed
+	private float[] fronts;
+	//cells travelled per turn
+	private float[] speeds;
+	//true for projectiles that hit air zombies instead of ground zombies
+	private boolean[] air;
+
+	//slots in use are head to tail - 1, wrapped by the mask
+	private int head;
+	private int tail;
+	private int mask;
+	private int size;
+
+	ProjectileRing() {
+		allocate(INITIAL_CAPACITY);
+	}
+
+	/**
+	 * Create a copy of another ring
+	 * @param other
+	 */
+	ProjectileRing(ProjectileRing other) {
+		copyFrom(other);
+	}
+
+	private void allocate(int capacity) {
+		shooters = new Plant[capacity];
+		fronts = new float[capacity];
+		speeds = new float[capacity];
+		air = new boolean[capacity];
+		mask = capacity - 1;
+	}
+
+	/**
+	 * Get the number of projectiles flying
+	 */
+	int size() {
+		return size;
+	}
+
+	/**
+	 * Fire a projectile
+	 * @param shooter the plant firing, the projectile starts at its grid
+	 * @param speed the cells travelled per turn
+	 * @param hitsAir true to hit air zombies, false to hit ground zombies
+	 */
+	void add(Plant shooter, float speed, boolean hitsAir) {
+		if (tail - head == shooters.length) {
+			reclaim();
+		}
+		int slot = tail & mask;
+		shooters[slot] = shooter;
+		fronts[slot] = shooter.getCol();
+		speeds[slot] = speed;
+		air[slot] = hitsAir;
+		tail++;
+		size++;
+	}
+
+	/**
+	 * Move the free slots out of the ring, doubling it if there were none
+	 */
+	private void reclaim() {
+		if (size == shooters.length) {
+			Plant[] oldShooters = shooters;
+			float[] oldFronts = fronts;
+			float[] oldSpeeds = speeds;
+			boolean[] oldAir = air;
+			int oldMask = mask;
+			allocate(oldShooters.length * 2);
+			for (int i = 0; i < size; i++) {
+				int slot = (head + i) & oldMask;
+				shooters[i] = oldShooters[slot];
+				fronts[i] = oldFronts[slot];
+				speeds[i] = oldSpeeds[slot];
+				air[i] = oldAir[slot];
+			}
+			head = 0;
+			tail = size;
+			return;
+		}
+		//slide the projectiles towards the head, a slot is only written after it was read
+		int to = head;
+		for (int i = head; i != tail; i++) {
+			int from = i & mask;
+			if (shooters[from] != null) {
+				int slot = to & mask;
+				if (slot != from) {
+					shooters[slot] = shooters[from];
+					fronts[slot] = fronts[from];
+					speeds[slot] = speeds[from];
+					air[slot] = air[from];
+					shooters[from] = null;
+				}
+				to++;
+			}
+		}
+		tail = to;
+	}
+
+	/**
+	 * Get the first slot in use, iterate with "for (int i = first(); i != end(); i++)"
+	 */
+	int first() {
+		return head;
+	}
+
+	int end() {
+		return tail;
+	}
+
+	/**
+	 * Get the plant that fired the projectile at a position
+	 * @param i a position from first() to end()
+	 * @return the plant, null if the projectile is gone
+	 */
+	Plant getShooter(int i) {
+		return shooters[i & mask];
+	}
+
+	float getFront(int i) {
+		return fronts[i & mask];
+	}
+
+	float getSpeed(int i) {
+		return speeds[i & mask];
+	}
+
+	boolean isAir(int i) {
+		return air[i & mask];
+	}
+
+	void setFront(int i, float front) {
+		fronts[i & mask] = front;
+	}
+
+	/**
+	 * Free the slot of a projectile that hit or left the board
+	 * @param i a position from first() to end()
+	 */
+	void remove(int i) {
+		shooters[i & mask] = null;
+		size--;
+		while (head != tail && shooters[head & mask] == null) {
+			head++;
+		}
+	}
+
+	/**
+	 * Remove all the projectiles
+	 */
+	void clear() {
+		Arrays.fill(shooters, null);
+		head = 0;
+		tail = 0;
+		size = 0;
+	}
+
+	/**
+	 * Set the projectiles to those of another ring
+	 * @param other
+	 */
+	void copyFrom(ProjectileRing other) {
+		if (shooters == null || shooters.length != other.shooters.length) {
+			allocate(other.shooters.length);
+		}
+		System.arraycopy(other.shooters, 0, shooters, 0, shooters.length);
+		System.arraycopy(other.fronts, 0, fronts, 0, fronts.length);
+		System.arraycopy(other.speeds, 0, speeds, 0, speeds.length);
+		System.arraycopy(other.air, 0, air, 0, air.length);
+		head = other.head;
+		tail = other.tail;
+		size = other.size;
+	}
+}
@@ -0,0 +1,387 @@
+package engine;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import assets.Plant;
+import assets.PlantTypes;
+import assets.Unit;
+import assets.Zombie;
+import util.EngineMetrics;
+import util.Logger;
+import util.Metrics;
+
+/**
+ * Plays a game in real time instead of turn by turn.
+ *
+ * The engine runs fixed time step ticks on its own thread. A turn lasts ticksPerTurn ticks: each zombie moves or attacks
+ * once per turn and each plant attacks at its fire rate, with the units spread evenly over the ticks of the turn so a tick
+ * only does the work of the units that are due. Units are scheduled on a TimingWheel and reuse their timeouts, so a tick
+ * does not allocate once the units are known. Spawning, resources, status effects and the win check happen once per turn
+ * as in the turn based game, while projectiles fly a part of a turn every tick. Real time games cannot be undone.
+ *
+ * The state is published to the listeners at most once per tick. The views can interpolate a zombie between the grids
+ * it moves across with getStepProgress.
+ *
+ * Player actions must be submitted to the engine thread with submit, everything else only reads the snapshot.
+ */
+public class RealTimeEngine {
+	private static Logger LOG = new Logger("Real Time Engine");
+
+	public static final int DEFAULT_TICK_RATE = 60;
+	public static final int DEFAULT_TICKS_PER_TURN = 60;
+	private static final String THREAD_NAME = "Real Time Engine";
+	//the most ticks run back to back to catch up, older ones are dropped
+	private static final int MAX_CATCH_UP = 5;
+
+	private final Game game;
+	private final Board board;
+	private final int ticksPerTurn;
+	private final long tickNanos;
+
+	private final TimingWheel schedule = new TimingWheel();
+	private final IdentityHashMap<Unit, Actor> actors = new IdentityHashMap<Unit, Actor>();
+	private int nextPhase;
+	private final int[] fireRates = new int[PlantTypes.values().length];
+
+	//results of the zombie being moved, the engine resolves one zombie at a time
+	private final RowPartition.Range results;
+
+	//the tick each grid was last stepped into by a zombie, read by the views
+	private final int[] stepTicks;
+	private volatile int tick;
+	private volatile long tickStartNanos;
+
+	private final Queue<Runnable> commands = new ConcurrentLinkedQueue<Runnable>();
+	private boolean turnEnded;
+	private volatile Thread thread;
+
+	/**
+	 * A unit and its timeout for its next action
+	 */
+	private final class Actor extends TimingWheel.Timeout {
+		private static final long serialVersionUID = 1L;
+
+		private final Unit unit;
+
+		private Actor(Unit unit) {
+			this.unit = unit;
+		}
+
+		@Override
+		protected void expire() {
+			if (game.getState() != Game.GameState.PLAYING) {
+				return;
+			}
+			if (unit instanceof Plant) {
+				Plant plant = (Plant) unit;
+				if (board.getPlant(plant.getRow(), plant.getCol()) != plant) { //dug up or eaten
+					actors.remove(unit);
+					return;
+				}
+				if (game.attackWith(plant)) {
+					board.removePlant(plant.getRow(), plant.getCol());
+					actors.remove(unit);
+					return;
+				}
+				schedule.schedule(this, getPeriod(plant));
+			} else {
+				Zombie zombie = (Zombie) unit;
+				if (!isOnBoard(zombie)) { //killed or mowed
+					actors.remove(unit);
+					return;
+				}
+				if (moveZombie(zombie)) {
+					schedule.schedule(this, ticksPerTurn);
+				} else {
+					actors.remove(unit);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Create a real time engine running a game at 60 ticks per second, with a turn per second
+	 * @param game
+	 */
+	public RealTimeEngine(Game game) {
+		this(game, DEFAULT_TICK_RATE, DEFAULT_TICKS_PER_TURN);
+	}
+
+	/**
+	 * Create a real time engine
+	 * @param game
+	 * @param ticksPerSecond the tick rate
+	 * @param ticksPerTurn the ticks a zombie takes to move and a plant takes to attack at a fire rate of 1
+	 */
+	public RealTimeEngine(Game game, int ticksPerSecond, int ticksPerTurn) {
+		if (ticksPerSecond < 1 || ticksPerTurn < 1) {
+			throw new IllegalArgumentException("The tick rate and ticks per turn must be at least 1");
+		}
+		this.game = game;
+		this.board = game.getBoard();
+		this.ticksPerTurn = ticksPerTurn;
+		this.tickNanos = TimeUnit.SECONDS.toNanos(1) / ticksPerSecond;
+		this.stepTicks = new int[board.getRow() * board.getColumn()];
+		Arrays.fill(stepTicks, Integer.MIN_VALUE / 2);
+		Arrays.fill(fireRates, 1);
+
+		RowPartition resultsPartition = new RowPartition();
+		resultsPartition.single(board.getRow(), Collections.<Unit>emptyList());
+		this.results = resultsPartition.get(0);
+		addActors();
+	}
+
+	/**
+	 * Set how often a type of plant attacks
+	 * @param type
+	 * @param attacksPerTurn the attacks per turn, at least 1 and at most the ticks per turn
+	 */
+	public void setFireRate(PlantTypes type, int attacksPerTurn) {
+		if (attacksPerTurn < 1 || attacksPerTurn > ticksPerTurn) {
+			throw new IllegalArgumentException("A plant attacks 1 to " + ticksPerTurn + " times per turn: " + attacksPerTurn);
+		}
+		fireRates[type.ordinal()] = attacksPerTurn;
+	}
+
+	private int getPeriod(Plant plant) {
+		return ticksPerTurn / fireRates[plant.getPlantType().ordinal()];
+	}
+
+	/**
+	 * Start running ticks on the engine thread. The engine stops by itself when the game ends.
+	 */
+	public synchronized void start() {
+		if (thread != null) {
+			return;
+		}
+		thread = new Thread(this::run, THREAD_NAME);
+		thread.setDaemon(true);
+		thread.start();
+	}
+
+	/**
+	 * Stop the engine thread and wait for it to finish its tick
+	 */
+	public void stop() {
+		Thread running;
+		synchronized (this) {
+			running = thread;
+			thread = null;
+		}
+		if (running != null && running != Thread.currentThread()) {
+			LockSupport.unpark(running);
+			try {
+				running.join();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
+
+	/**
+	 * Check if the engine thread is running
+	 * @return true if started and not stopped, false otherwise
+	 */
+	public boolean isRunning() {
+		return thread != null;
+	}
+
+	/**
+	 * Run a player action on the engine thread before the next tick, e.g. placing a plant
+	 * @param command
+	 */
+	public void submit(Runnable command) {
+		commands.add(command);
+	}
+
+	private void run() {
+		LOG.debug("Running {} ticks per turn", ticksPerTurn);
+		Thread current = Thread.currentThread();
+		long next = System.nanoTime();
+		while (thread == current && game.getState() == Game.GameState.PLAYING) {
+			int ticks = 0;
+			while (System.nanoTime() - next >= 0 && game.getState() == Game.GameState.PLAYING) {
+				if (ticks == MAX_CATCH_UP) { //fell too far behind, drop the ticks instead of running faster than real time
+					long behind = (System.nanoTime() - next) / tickNanos + 1;
+					EngineMetrics.TICKS_DROPPED.add(behind);
+					next += behind * tickNanos;
+					break;
+				}
+				tick();
+				ticks++;
+				next += tickNanos;
+			}
+			publish();
+			LockSupport.parkNanos(next - System.nanoTime());
+		}
+		synchronized (this) {
+			if (thread == current) { //the game ended
+				thread = null;
+			}
+		}
+		LOG.debug("Stopped at turn {}", game.getTurns());
+	}
+
+	/**
+	 * Run the player actions submitted since the last tick
+	 */
+	private void runCommands() {
+		Runnable command;
+		boolean commandsRun = false;
+		while ((command = commands.poll()) != null) {
+			try {
+				command.run();
+			} catch (RuntimeException e) {
+				LOG.error("Command failed: {}", e);
+			}
+			commandsRun = true;
+		}
+		if (commandsRun) {
+			addActors(); //plants placed by the player
+		}
+	}
+
+	/**
+	 * Run the submitted player actions and advance the game by a tick. 
+	 * Called by the engine thread, or directly when the engine is not started.
+	 */
+	public void tick() {
+		long start = System.nanoTime();
+		long allocated = Metrics.allocatedBytes();
+		tickStartNanos = start;
+		runCommands();
+		int now = tick + 1;
+		tick = now;
+
+		if (now % ticksPerTurn == 0 && game.getState() == Game.GameState.PLAYING) {
+			game.incrementTurns();
+			game.spawnZombies();
+			addActors();
+			board.updateFlowField();
+			board.advanceEffects();
+			game.collectResources();
+			game.checkForWin();
+			turnEnded = true;
+		}
+		schedule.advance();
+		board.advanceProjectiles(1f / ticksPerTurn);
+
+		long took = System.nanoTime() - start;
+		EngineMetrics.TICK.record(took);
+		if (took > tickNanos) {
+			EngineMetrics.TICK_OVERRUNS.increment();
+		}
+		EngineMetrics.TICK_ALLOCATED.add(Metrics.allocatedBytes() - allocated);
+	}
+
+	/**
+	 * Tell the listeners about the changes made by the ticks since the last publish.
+	 * Called by the engine thread after its ticks, or directly when the engine is not started.
+	 */
+	public void publish() {
+		if (!board.getChanges().isEmpty()) {
+			game.publishChanges(game.updateSnapshot());
+		}
+		if (turnEnded || game.getState() != Game.GameState.PLAYING) {
+			game.getEvents().publishEndTurn();
+		}
+		turnEnded = false;
+	}
+
+	/**
+	 * Schedule the units on the board that do not act yet.
+	 * Their first actions are spread over the ticks of a turn, so the units share the ticks evenly.
+	 */
+	private void addActors() {
+		addActors(board.getPlantsInGame());
+		addActors(board.getZombiesInGame());
+	}
+
+	private void addActors(List<? extends Unit> units) {
+		for (int i = 0, n = units.size(); i < n; i++) {
+			Unit unit = units.get(i);
+			if (!actors.containsKey(unit)) {
+				Actor actor = new Actor(unit);
+				actors.put(unit, actor);
+				schedule.schedule(actor, 1 + nextPhase);
+				nextPhase = (nextPhase + 1) % ticksPerTurn;
+			}
+		}
+	}
+
+	private boolean isOnBoard(Zombie zombie) {
+		return board.getGrid(zombie.getRow(), zombie.getCol()).getZombies().contains(zombie);
+	}
+
+	/**
+	 * Move or attack with a zombie and apply what happened
+	 * @return true if the zombie is still on the board
+	 */
+	private boolean moveZombie(Zombie zombie) {
+		int row = zombie.getRow();
+		int col = zombie.getCol();
+		boolean onBoard = true;
+		if (!game.moveZombie(zombie, results)) {
+			// a zombie has reached the end of the board and a lawnmower is not available. player loses
+			game.endGame(false);
+		}
+		for (int i = 0; i < results.exploded.size(); i++) { //an exploding zombie that attacked dies
+			Zombie exploded = results.exploded.get(i);
+			board.removeZombie(exploded.getRow(), exploded.getCol());
+			onBoard = false;
+		}
+		if (!results.mowed.isEmpty()) {
+			onBoard = false;
+		}
+		results.clearResults();
+
+		if (onBoard && (zombie.getRow() != row || zombie.getCol() != col)) {
+			stepTicks[zombie.getRow() * board.getColumn() + zombie.getCol()] = tick;
+		}
+		return onBoard;
+	}
+
+	/**
+	 * Get the ticks run so far
+	 * @return the current tick
+	 */
+	public int getTick() {
+		return tick;
+	}
+
+	/**
+	 * Get the ticks in a turn
+	 * @return the ticks a zombie takes to move
+	 */
+	public int getTicksPerTurn() {
+		return ticksPerTurn;
+	}
+
+	/**
+	 * Get the number of units scheduled to act
+	 * @return the plants and zombies the engine knows
+	 */
+	public int getActors() {
+		return actors.size();
+	}
+
+	/**
+	 * Get how far the zombies that last stepped into a grid are on their way to the next grid.
+	 * Safe to call from any thread, the time since the current tick started is included so the position moves smoothly.
+	 * @param row
+	 * @param col
+	 * @return 0 right after a zombie stepped into the grid up to 1 when it is due to move again
+	 */
+	public float getStepProgress(int row, int col) {
+		long sinceTick = Math.min(Math.max(System.nanoTime() - tickStartNanos, 0), tickNanos);
+		float ticks = tick - stepTicks[row * board.getColumn() + col] + (float) sinceTick / tickNanos;
+		return Math.min(Math.max(ticks / ticksPerTurn, 0f), 1f);
+	}
+}
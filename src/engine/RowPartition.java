@@ -0,0 +1,332 @@
+package engine;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+
+import assets.EconomyPlant;
+import assets.Juking_Zombie;
+import assets.Plant;
+import assets.Unit;
+import assets.Zombie;
+
+/**
+ * Splits the units of a turn into ranges of rows that can be resolved independently.
+ *
+ * A plant only reaches its own row and a zombie only its own row, except for a Juking_Zombie which can move
+ * to the rows next to it, so those rows are kept in one range. Each range keeps its units in the order the
+ * sequential engine resolves them. Changes to the board's unit lists made while the ranges are resolved are
+ * buffered in the range and applied in that order when the ranges are joined, so a turn resolved range by range
+ * on many threads ends the same way as a turn resolved on one.
+ */
+final class RowPartition {
+	private static final int[] NO_ROWS = new int[0];
+
+	/**
+	 * A range of rows and the units in it
+	 */
+	static final class Range {
+		int firstRow;
+		int lastRow;
+
+		//units to resolve and their index in the sequential order
+		final ArrayList<Unit> units = new ArrayList<Unit>();
+		private int[] order = new int[16];
+
+		//the index in the sequential order of the unit being resolved
+		int cursor;
+
+		//zombies placed and units removed while resolving
+		private final ArrayList<Zombie> added = new ArrayList<Zombie>();
+		private int[] addedOrder = new int[4];
+		private final ArrayList<Unit> removed = new ArrayList<Unit>();
+
+		//results of the turn, read by Game after the join
+		final ArrayList<Plant> discharged = new ArrayList<Plant>();
+		final ArrayList<Zombie> mowed = new ArrayList<Zombie>();
+		final ArrayList<Zombie> exploded = new ArrayList<Zombie>();
+		private int[] mowerOrder = new int[4];
+		private int[] mowerRows = new int[4];
+		private int mowers;
+		boolean lost;
+
+		private void reset(int firstRow) {
+			this.firstRow = firstRow;
+			this.lastRow = firstRow;
+			units.clear();
+			cursor = 0;
+			added.clear();
+			removed.clear();
+			discharged.clear();
+			mowed.clear();
+			exploded.clear();
+			mowers = 0;
+			lost = false;
+		}
+
+		/**
+		 * Forget the results of the units resolved so far, keeping the units
+		 */
+		void clearResults() {
+			discharged.clear();
+			mowed.clear();
+			exploded.clear();
+			mowers = 0;
+			lost = false;
+		}
+
+		private void add(Unit unit, int index) {
+			if (units.size() == order.length) {
+				order = Arrays.copyOf(order, order.length * 2);
+			}
+			order[units.size()] = index;
+			units.add(unit);
+		}
+
+		/**
+		 * Get the index in the sequential order of a unit of this range
+		 * @param i the position of the unit in this range
+		 */
+		int order(int i) {
+			return order[i];
+		}
+
+		/**
+		 * Record a lawn mower used while resolving the unit at cursor
+		 * @param row
+		 */
+		void mowerUsed(int row) {
+			if (mowers == mowerRows.length) {
+				mowerRows = Arrays.copyOf(mowerRows, mowers * 2);
+				mowerOrder = Arrays.copyOf(mowerOrder, mowers * 2);
+			}
+			mowerRows[mowers] = row;
+			mowerOrder[mowers] = cursor;
+			mowers++;
+		}
+
+		private void zombieAdded(Zombie zombie) {
+			if (added.size() == addedOrder.length) {
+				addedOrder = Arrays.copyOf(addedOrder, addedOrder.length * 2);
+			}
+			addedOrder[added.size()] = cursor;
+			added.add(zombie);
+		}
+	}
+
+	private final ArrayList<Range> ranges = new ArrayList<Range>();
+	private int size;
+	private int[] rangeOfRow = new int[0];
+	//rows that have to be in the same range as the next row
+	private boolean[] joinNext = new boolean[0];
+
+	/**
+	 * Get the number of ranges
+	 */
+	int size() {
+		return size;
+	}
+
+	/**
+	 * Get a range
+	 * @param i the range, from 0 to size() - 1
+	 */
+	Range get(int i) {
+		return ranges.get(i);
+	}
+
+	/**
+	 * Get the range that holds a row
+	 * @param row
+	 * @return the range, null if no unit of the turn is in the row
+	 */
+	Range getRange(int row) {
+		int i = rangeOfRow[row];
+		return i < 0? null : ranges.get(i);
+	}
+
+	/**
+	 * Put all the units in one range, as the sequential engine resolves them
+	 * @param rows the number of rows on the board
+	 * @param units the units in the order they are resolved
+	 */
+	void single(int rows, List<? extends Unit> units) {
+		prepare(rows);
+		Range range = newRange(0);
+		range.lastRow = rows - 1;
+		Arrays.fill(rangeOfRow, 0);
+		int i = 0;
+		for (Unit unit : units) {
+			range.add(unit, i++);
+		}
+	}
+
+	/**
+	 * Split the units by row, each row is a range
+	 * @param rows the number of rows on the board
+	 * @param units the units in the order they are resolved
+	 */
+	void byRow(int rows, List<? extends Unit> units) {
+		prepare(rows);
+		split(units);
+	}
+
+	/**
+	 * Split the units by row, keeping the rows a Juking_Zombie can move between in one range
+	 * @param rows the number of rows on the board
+	 * @param zombies the zombies in the order they are resolved
+	 */
+	void byLane(int rows, List<Zombie> zombies) {
+		prepare(rows);
+		for (Zombie zombie : zombies) {
+			if (zombie instanceof Juking_Zombie) {
+				int row = zombie.getRow();
+				if (row > 0) {
+					joinNext[row - 1] = true;
+				}
+				if (row < rows - 1) {
+					joinNext[row] = true;
+				}
+			}
+		}
+		split(zombies);
+	}
+
+	private void prepare(int rows) {
+		if (rangeOfRow.length != rows) {
+			rangeOfRow = new int[rows];
+			joinNext = new boolean[rows];
+		}
+		Arrays.fill(rangeOfRow, -1);
+		Arrays.fill(joinNext, false);
+		size = 0;
+	}
+
+	private void split(List<? extends Unit> units) {
+		//create a range for every row with units, joined with the rows next to it when needed
+		for (Unit unit : units) {
+			int row = unit.getRow();
+			if (rangeOfRow[row] >= 0) {
+				continue;
+			}
+			int first = row;
+			while (first > 0 && joinNext[first - 1]) {
+				first--;
+			}
+			int last = row;
+			while (last < rangeOfRow.length - 1 && joinNext[last]) {
+				last++;
+			}
+			Range range = newRange(first);
+			range.lastRow = last;
+			Arrays.fill(rangeOfRow, first, last + 1, size - 1);
+		}
+
+		int i = 0;
+		for (Unit unit : units) {
+			ranges.get(rangeOfRow[unit.getRow()]).add(unit, i++);
+		}
+	}
+
+	private Range newRange(int firstRow) {
+		if (size == ranges.size()) {
+			ranges.add(new Range());
+		}
+		Range range = ranges.get(size++);
+		range.reset(firstRow);
+		return range;
+	}
+
+	/**
+	 * Record a zombie placed on the board while the ranges are resolved
+	 * @param row the row the zombie was placed in
+	 * @param zombie
+	 */
+	void zombieAdded(int row, Zombie zombie) {
+		getRange(row).zombieAdded(zombie);
+	}
+
+	/**
+	 * Record a unit removed from the board while the ranges are resolved
+	 * @param row the row the unit was removed from
+	 * @param unit
+	 */
+	void unitRemoved(int row, Unit unit) {
+		getRange(row).removed.add(unit);
+	}
+
+	/**
+	 * Apply the buffered changes to the board's unit lists, in the order the sequential engine would have made them
+	 * @param zombies the zombies in game
+	 * @param plants the plants in game
+	 * @param economyPlants the economy plants in game
+	 */
+	void applyTo(List<Zombie> zombies, List<Plant> plants, List<EconomyPlant> economyPlants) {
+		//zombies are only placed by the units that spawn them, merge by the unit that placed them
+		int[] next = new int[size];
+		while (size > 1) {
+			Range first = null;
+			int firstIndex = -1;
+			for (int r = 0; r < size; r++) {
+				Range range = ranges.get(r);
+				if (next[r] < range.added.size() && (first == null || range.addedOrder[next[r]] < first.addedOrder[next[firstIndex]])) {
+					first = range;
+					firstIndex = r;
+				}
+			}
+			if (first == null) {
+				break;
+			}
+			zombies.add(first.added.get(next[firstIndex]++));
+		}
+		if (size == 1) {
+			zombies.addAll(ranges.get(0).added);
+		}
+
+		Set<Unit> removed = null;
+		for (int r = 0; r < size; r++) {
+			if (!ranges.get(r).removed.isEmpty()) {
+				if (removed == null) {
+					removed = Collections.newSetFromMap(new IdentityHashMap<Unit, Boolean>());
+				}
+				removed.addAll(ranges.get(r).removed);
+			}
+		}
+		if (removed != null) {
+			zombies.removeIf(removed::contains);
+			plants.removeIf(removed::contains);
+			economyPlants.removeIf(removed::contains);
+		}
+	}
+
+	/**
+	 * Get the lawn mowers used by the ranges, in the order the sequential engine would have used them
+	 * @return the rows of the lawn mowers used
+	 */
+	int[] getMowersUsed() {
+		int count = 0;
+		for (int r = 0; r < size; r++) {
+			count += ranges.get(r).mowers;
+		}
+		if (count == 0) {
+			return NO_ROWS;
+		}
+		long[] sorted = new long[count];
+		int i = 0;
+		for (int r = 0; r < size; r++) {
+			Range range = ranges.get(r);
+			for (int m = 0; m < range.mowers; m++) {
+				sorted[i++] = ((long) range.mowerOrder[m] << 32) | range.mowerRows[m];
+			}
+		}
+		Arrays.sort(sorted);
+		int[] rows = new int[count];
+		for (i = 0; i < count; i++) {
+			rows[i] = (int) sorted[i];
+		}
+		return rows;
+	}
+}
@@ -0,0 +1,204 @@
+package engine;
+
+import java.util.Arrays;
+
+import assets.TargetPolicy;
+import assets.Zombie;
+
+/**
+ * The air or the ground zombies of a row, ordered by a ranked TargetPolicy.
+ *
+ * A binary heap whose zombies remember their position in it, so a zombie is moved, updated or removed in O(log n)
+ * when it changes without searching the heap for it. The best zombie ahead of a plant is found by visiting the heap
+ * best first from the root and skipping the zombies behind the plant, which is the root alone in the usual case of a
+ * plant at the front of its row.
+ *
+ * Ties are broken by the column, the zombie nearest the house first.
+ */
+final class TargetHeap {
+	private static final int INITIAL_CAPACITY = 16;
+
+	//the heap's number, the position kept by the zombies
+	private final int id;
+	private final TargetPolicy policy;
+
+	private Zombie[] heap = new Zombie[INITIAL_CAPACITY];
+	private int size;
+
+	//heap positions still to visit when searching for the best zombie ahead of a plant, a heap of its own
+	private int[] frontier = new int[INITIAL_CAPACITY];
+
+	/**
+	 * Create an empty heap
+	 * @param id a number unique among the heaps a zombie can be in at once
+	 * @param policy a ranked policy
+	 */
+	TargetHeap(int id, TargetPolicy policy) {
+		this.id = id;
+		this.policy = policy;
+	}
+
+	int size() {
+		return size;
+	}
+
+	/**
+	 * Check if a zombie is in the heap
+	 */
+	boolean contains(Zombie zombie) {
+		int i = zombie.getHeapIndex(id);
+		return i >= 0 && i < size && heap[i] == zombie;
+	}
+
+	void add(Zombie zombie) {
+		if (size == heap.length) {
+			heap = Arrays.copyOf(heap, size * 2);
+		}
+		set(size++, zombie);
+		siftUp(size - 1);
+	}
+
+	void remove(Zombie zombie) {
+		int i = zombie.getHeapIndex(id);
+		zombie.setHeapIndex(id, -1);
+		Zombie last = heap[--size];
+		heap[size] = null;
+		if (i < size) {
+			set(i, last);
+			update(i);
+		}
+	}
+
+	/**
+	 * Restore the order after the hit points, speed or column of a zombie in the heap changed
+	 */
+	void update(Zombie zombie) {
+		update(zombie.getHeapIndex(id));
+	}
+
+	private void update(int i) {
+		if (i > 0 && before(heap[i], heap[(i - 1) / 2])) {
+			siftUp(i);
+		} else {
+			siftDown(i);
+		}
+	}
+
+	/**
+	 * Find the best zombie at or after a column
+	 * @param fromCol the plant's column
+	 * @return the zombie, null if there is none
+	 */
+	Zombie best(int fromCol) {
+		if (size == 0) {
+			return null;
+		}
+		if (heap[0].getCol() >= fromCol) {
+			return heap[0];
+		}
+		if (frontier.length < size) {
+			frontier = new int[heap.length];
+		}
+		int queued = 0;
+		frontier[queued++] = 0;
+		while (queued > 0) {
+			int i = frontier[0];
+			frontier[0] = frontier[--queued];
+			siftDownFrontier(queued);
+			if (heap[i].getCol() >= fromCol) {
+				return heap[i];
+			}
+			for (int child = 2 * i + 1; child <= 2 * i + 2 && child < size; child++) {
+				frontier[queued++] = child;
+				siftUpFrontier(queued - 1);
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Check if a zombie is a better target than another
+	 */
+	private boolean before(Zombie a, Zombie b) {
+		int order;
+		switch (policy) {
+			case LOWEST_HP:
+				order = Integer.compare(a.getHP(), b.getHP());
+				break;
+			case HIGHEST_HP:
+				order = Integer.compare(b.getHP(), a.getHP());
+				break;
+			default: //FASTEST
+				order = Integer.compare(b.getSpeed(), a.getSpeed());
+				break;
+		}
+		return order < 0 || (order == 0 && a.getCol() < b.getCol());
+	}
+
+	private void set(int i, Zombie zombie) {
+		heap[i] = zombie;
+		zombie.setHeapIndex(id, i);
+	}
+
+	private void siftUp(int i) {
+		Zombie zombie = heap[i];
+		while (i > 0) {
+			int parent = (i - 1) / 2;
+			if (!before(zombie, heap[parent])) {
+				break;
+			}
+			set(i, heap[parent]);
+			i = parent;
+		}
+		set(i, zombie);
+	}
+
+	private void siftDown(int i) {
+		Zombie zombie = heap[i];
+		while (2 * i + 1 < size) {
+			int child = 2 * i + 1;
+			if (child + 1 < size && before(heap[child + 1], heap[child])) {
+				child++;
+			}
+			if (!before(heap[child], zombie)) {
+				break;
+			}
+			set(i, heap[child]);
+			i = child;
+		}
+		set(i, zombie);
+	}
+
+	private void siftUpFrontier(int i) {
+		int queued = frontier[i];
+		while (i > 0) {
+			int parent = (i - 1) / 2;
+			if (!before(heap[queued], heap[frontier[parent]])) {
+				break;
+			}
+			frontier[i] = frontier[parent];
+			i = parent;
+		}
+		frontier[i] = queued;
+	}
+
+	private void siftDownFrontier(int queued) {
+		if (queued == 0) {
+			return;
+		}
+		int i = 0;
+		int top = frontier[0];
+		while (2 * i + 1 < queued) {
+			int child = 2 * i + 1;
+			if (child + 1 < queued && before(heap[frontier[child + 1]], heap[frontier[child]])) {
+				child++;
+			}
+			if (!before(heap[frontier[child]], heap[top])) {
+				break;
+			}
+			frontier[i] = frontier[child];
+			i = child;
+		}
+		frontier[i] = top;
+	}
+}
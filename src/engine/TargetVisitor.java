@@ -0,0 +1,20 @@
+package engine;
+
+import assets.Unit;
+
+/**
+ * Visits the units found by a Board target query, so the caller does not need a list of them.
+ * The targets are gathered before the first visit, so the visitor may remove units from the board.
+ *
+ * @param <U> the type of unit visited
+ */
+public interface TargetVisitor<U extends Unit> {
+
+	/**
+	 * Invoked for every target found, in the order the query would list them
+	 *
+	 * @param board the board that was searched
+	 * @param target
+	 */
+	public void visit(Board board, U target);
+}
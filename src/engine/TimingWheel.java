@@ -0,0 +1,274 @@
+package engine;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+
+/**
+ * A hierarchical timing wheel that expires timeouts after a number of turns.
+ *
+ * Level 0 has a slot for each of the next 64 turns and each level above covers 64 times the turns of the one below.
+ * A timeout waits in the slot of its deadline on the lowest level that reaches it and moves down a level when the wheel
+ * turns into its slot, so scheduling and cancelling are O(1) and a turn only touches the timeouts that expire or move down.
+ * Timeouts are linked into their slots, so a unit can keep its timeouts and reuse them without allocating.
+ *
+ * Timeouts with the same deadline expire in the order they were scheduled.
+ */
+public class TimingWheel implements Serializable {
+	private static final long serialVersionUID = 1L;
+
+	private static final int SLOT_BITS = 6;
+	private static final int SLOTS = 1 << SLOT_BITS;
+	private static final int SLOT_MASK = SLOTS - 1;
+	private static final int LEVELS = 4;
+
+	/**
+	 * Something that happens when a number of turns have passed, e.g. the end of a status effect
+	 */
+	public abstract static class Timeout implements Serializable {
+		private static final long serialVersionUID = 1L;
+
+		private long deadline;
+
+		//the wheel and slot the timeout is linked into, the links are rebuilt when the wheel is read back
+		private transient TimingWheel wheel;
+		private transient int slot;
+		private transient Timeout prev;
+		private transient Timeout next;
+
+		/**
+		 * Called by the wheel when the deadline is reached. The timeout is no longer scheduled and may be scheduled again.
+		 */
+		protected abstract void expire();
+
+		/**
+		 * Check if the timeout is waiting to expire
+		 * @return true if the timeout is scheduled on a wheel, false otherwise
+		 */
+		public boolean isScheduled() {
+			return wheel != null;
+		}
+
+		/**
+		 * Get the turn the timeout expires at
+		 * @return the turn of the wheel the timeout expires at
+		 */
+		public long getDeadline() {
+			return deadline;
+		}
+	}
+
+	private long now;
+	private int size;
+
+	//first timeout of each slot, level by level. The list of a slot is circular: first.prev is the last timeout
+	private transient Timeout[] slots = new Timeout[LEVELS * SLOTS];
+
+	/**
+	 * Create a wheel starting at turn 0
+	 */
+	public TimingWheel() {
+		this(0);
+	}
+
+	/**
+	 * Create a wheel starting at a turn
+	 * @param now the current turn
+	 */
+	public TimingWheel(long now) {
+		this.now = now;
+	}
+
+	/**
+	 * Get the current turn of the wheel
+	 * @return the number of turns advanced
+	 */
+	public long now() {
+		return now;
+	}
+
+	/**
+	 * Get the number of timeouts waiting to expire
+	 * @return the number of scheduled timeouts
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Schedule a timeout to expire after a number of turns.
+	 * A timeout that is already scheduled, on this or another wheel, is moved to the new deadline.
+	 * @param timeout
+	 * @param turns the turns from now the timeout expires after, at least 1
+	 */
+	public void schedule(Timeout timeout, int turns) {
+		if (turns < 1) {
+			throw new IllegalArgumentException("A timeout expires at least 1 turn from now: " + turns);
+		}
+		scheduleAt(timeout, now + turns);
+	}
+
+	/**
+	 * Move a scheduled timeout from its wheel to this one, keeping its deadline.
+	 * Both wheels must be at the same turn.
+	 * @param timeout
+	 */
+	public void transfer(Timeout timeout) {
+		if (timeout.wheel != null && timeout.wheel != this) {
+			scheduleAt(timeout, timeout.deadline);
+		}
+	}
+
+	private void scheduleAt(Timeout timeout, long deadline) {
+		if (timeout.wheel != null) {
+			timeout.wheel.cancel(timeout);
+		}
+		timeout.deadline = deadline;
+		link(timeout);
+	}
+
+	/**
+	 * Remove a timeout from the wheel without expiring it
+	 * @param timeout
+	 * @return true if the timeout was scheduled on this wheel, false otherwise
+	 */
+	public boolean cancel(Timeout timeout) {
+		if (timeout.wheel != this) {
+			return false;
+		}
+		unlink(timeout);
+		return true;
+	}
+
+	/**
+	 * Advance the wheel by a turn and expire the timeouts that reached their deadline
+	 * @return the number of timeouts expired
+	 */
+	public int advance() {
+		now++;
+		if (size == 0) {
+			return 0;
+		}
+
+		//move the timeouts of the slots the higher levels turned into down, from the top
+		for (int level = LEVELS - 1; level > 0; level--) {
+			int shift = level * SLOT_BITS;
+			if ((now & ((1L << shift) - 1)) == 0) {
+				cascade(level * SLOTS + (int) ((now >>> shift) & SLOT_MASK));
+			}
+		}
+
+		//detach the due slot first, an expiring timeout may schedule timeouts for this turn of the next cycle
+		int due = (int) (now & SLOT_MASK);
+		Timeout first = slots[due];
+		if (first == null) {
+			return 0;
+		}
+		slots[due] = null;
+		first.prev.next = null;
+		int expired = 0;
+		for (Timeout timeout = first; timeout != null; ) {
+			Timeout next = timeout.next;
+			timeout.wheel = null;
+			timeout.prev = null;
+			timeout.next = null;
+			size--;
+			expired++;
+			timeout.expire();
+			timeout = next;
+		}
+		return expired;
+	}
+
+	private void cascade(int slot) {
+		Timeout first = slots[slot];
+		if (first == null) {
+			return;
+		}
+		slots[slot] = null;
+		first.prev.next = null;
+		for (Timeout timeout = first; timeout != null; ) {
+			Timeout next = timeout.next;
+			timeout.prev = null;
+			timeout.next = null;
+			size--;
+			link(timeout);
+			timeout = next;
+		}
+	}
+
+	/**
+	 * Get the slot of a deadline: the lowest level whose slots reach it.
+	 * Deadlines beyond the top level wait in its last slot and are placed again when it comes around.
+	 */
+	private int slotOf(long deadline) {
+		long turns = deadline - now;
+		for (int level = 0; level < LEVELS; level++) {
+			int shift = level * SLOT_BITS;
+			if (turns < (1L << (shift + SLOT_BITS))) {
+				return level * SLOTS + (int) ((deadline >>> shift) & SLOT_MASK);
+			}
+		}
+		int shift = (LEVELS - 1) * SLOT_BITS;
+		return (LEVELS - 1) * SLOTS + (int) (((now >>> shift) + SLOT_MASK) & SLOT_MASK);
+	}
+
+	private void link(Timeout timeout) {
+		int slot = slotOf(timeout.deadline);
+		Timeout first = slots[slot];
+		if (first == null) {
+			timeout.prev = timeout;
+			slots[slot] = timeout;
+		} else {
+			timeout.prev = first.prev;
+			first.prev.next = timeout;
+			first.prev = timeout;
+		}
+		timeout.next = null;
+		timeout.slot = slot;
+		timeout.wheel = this;
+		size++;
+	}
+
+	private void unlink(Timeout timeout) {
+		Timeout first = slots[timeout.slot];
+		if (timeout == first) {
+			slots[timeout.slot] = timeout.next;
+			if (timeout.next != null) {
+				timeout.next.prev = timeout.prev;
+			}
+		} else {
+			timeout.prev.next = timeout.next;
+			if (timeout.next != null) {
+				timeout.next.prev = timeout.prev;
+			} else {
+				first.prev = timeout.prev;
+			}
+		}
+		timeout.wheel = null;
+		timeout.prev = null;
+		timeout.next = null;
+		size--;
+	}
+
+	//the slot lists are written flat, a long list written through its links would overflow the stack
+	private void writeObject(ObjectOutputStream out) throws IOException {
+		out.defaultWriteObject();
+		for (int slot = 0; slot < slots.length; slot++) {
+			for (Timeout timeout = slots[slot]; timeout != null; timeout = timeout.next) {
+				out.writeObject(timeout);
+			}
+		}
+	}
+
+	private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+		in.defaultReadObject();
+		slots = new Timeout[LEVELS * SLOTS];
+		int count = size;
+		size = 0;
+		for (int i = 0; i < count; i++) {
+			link((Timeout) in.readObject());
+		}
+	}
+}
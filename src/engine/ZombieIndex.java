@@ -0,0 +1,154 @@
+package engine;
+
+/**
+ * The number of zombies and their hit points on each grid of the board, for the plants that hit an area.
+ *
+ * Each row keeps a Fenwick tree of the zombies on its grids and another of their hit points, so the zombies in a
+ * stretch of a row are counted in O(log columns) and the next grid with zombies is found without looking at the empty
+ * grids in between. An area is a stretch in each of its rows, so a query costs O(rows of the area * log columns) plus
+ * the zombies it finds, however many empty grids it covers. A row's trees are only built once the row is queried, and
+ * rows are kept apart so rows resolved on different threads do not share a tree.
+ */
+final class ZombieIndex {
+	private final int col;
+
+	//1 based Fenwick trees of each row, index y + 1 holds the grid in column y, null until the row is built
+	private final int[][] counts;
+	private final long[][] hitPoints;
+
+	/**
+	 * Create an index without any rows built
+	 * @param row the rows of the board
+	 * @param col the columns of the board
+	 */
+	ZombieIndex(int row, int col) {
+		this.col = col;
+		this.counts = new int[row][];
+		this.hitPoints = new long[row][];
+	}
+
+	/**
+	 * Check if a row is indexed
+	 * @param x the row
+	 * @return true if the row was built and is kept up to date, false otherwise
+	 */
+	boolean isBuilt(int x) {
+		return counts[x] != null;
+	}
+
+	/**
+	 * Start building a row, its grids are then set with set and the row finished with build
+	 * @param x the row
+	 */
+	void startBuild(int x) {
+		counts[x] = new int[col + 1];
+		hitPoints[x] = new long[col + 1];
+	}
+
+	/**
+	 * Set the zombies of a grid of a row being built
+	 * @param x the row
+	 * @param y the column
+	 * @param count the number of zombies on the grid
+	 * @param hp the hit points of the zombies on the grid
+	 */
+	void set(int x, int y, int count, long hp) {
+		counts[x][y + 1] = count;
+		hitPoints[x][y + 1] = hp;
+	}
+
+	/**
+	 * Turn the grids set in a row into its trees, in O(columns)
+	 * @param x the row
+	 */
+	void build(int x) {
+		int[] count = counts[x];
+		long[] hp = hitPoints[x];
+		for (int i = 1; i <= col; i++) {
+			int parent = i + (i & -i);
+			if (parent <= col) {
+				count[parent] += count[i];
+				hp[parent] += hp[i];
+			}
+		}
+	}
+
+	/**
+	 * Change the zombies of a grid
+	 * @param x the row
+	 * @param y the column
+	 * @param countDelta the change in the number of zombies
+	 * @param hpDelta the change in their hit points
+	 */
+	void add(int x, int y, int countDelta, long hpDelta) {
+		int[] count = counts[x];
+		long[] hp = hitPoints[x];
+		for (int i = y + 1; i <= col; i += i & -i) {
+			count[i] += countDelta;
+			hp[i] += hpDelta;
+		}
+	}
+
+	/**
+	 * Count the zombies in the columns before a column
+	 */
+	private int countBefore(int x, int y) {
+		int[] count = counts[x];
+		int sum = 0;
+		for (int i = y; i > 0; i -= i & -i) {
+			sum += count[i];
+		}
+		return sum;
+	}
+
+	private long hpBefore(int x, int y) {
+		long[] hp = hitPoints[x];
+		long sum = 0;
+		for (int i = y; i > 0; i -= i & -i) {
+			sum += hp[i];
+		}
+		return sum;
+	}
+
+	/**
+	 * Count the zombies in a stretch of a row
+	 * @param x the row
+	 * @param from the first column
+	 * @param to the last column
+	 * @return the number of zombies from the first to the last column
+	 */
+	int count(int x, int from, int to) {
+		return countBefore(x, to + 1) - countBefore(x, from);
+	}
+
+	/**
+	 * Sum the hit points of the zombies in a stretch of a row
+	 * @param x the row
+	 * @param from the first column
+	 * @param to the last column
+	 * @return the hit points of the zombies from the first to the last column
+	 */
+	long hp(int x, int from, int to) {
+		return hpBefore(x, to + 1) - hpBefore(x, from);
+	}
+
+	/**
+	 * Find the first grid with zombies from a column, in O(log columns)
+	 * @param x the row
+	 * @param y the column to start from
+	 * @return the column of the grid, the number of columns if no grid from y has zombies
+	 */
+	int next(int x, int y) {
+		//the first column whose prefix count passes the zombies before y
+		int target = countBefore(x, y);
+		int[] count = counts[x];
+		int i = 0;
+		for (int step = Integer.highestOneBit(col); step > 0; step >>= 1) {
+			if (i + step <= col && count[i + step] <= target) {
+				i += step;
+				target -= count[i];
+			}
+		}
+		return i; //the 1 based index i + 1 is the grid in column i
+	}
+}
@@ -5,17 +5,27 @@ import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import java.awt.event.MouseEvent;
 import java.awt.event.MouseListener;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
 
 import assets.PlantTypes;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
+
 import javax.swing.BorderFactory;
+import javax.swing.JOptionPane;
 import javax.swing.JPanel;
+import javax.swing.SwingUtilities;
 
+import engine.EngineThread;
 import engine.Game;
+import engine.RealTimeEngine;
 import ui.Card;
 import ui.GameUI;
 import ui.GridUI;
 import ui.ZombiePanel;
+import util.GameSerializer;
 import util.Logger;
 
 /**
@@ -39,11 +49,19 @@ public class GameController {
 	// Selected to remove a plant
 	private boolean removingPlant; 
 	
+	// The end of turn being computed on the engine thread, or the save being written there
+	private CompletableFuture<Void> pendingTurn;
+	
+	// Plays the game in real time instead of turn by turn, null in turn based games
+	private RealTimeEngine realTime;
+	private static boolean realTimeMode = false;
+	
 	public GameController(GameUI ui, Game game) {
 		this.game = game;
 		this.ui = ui;
 		this.selectedCard = null;
 		this.removingPlant = false;
+		this.pendingTurn = CompletableFuture.completedFuture(null);
 		
 
 		gridListener = new GridListener();
@@ -56,6 +74,53 @@ public class GameController {
 		this.ui.addUnitSelectionListeners(unitSelectListener);
 		this.ui.addGameButtonListeners(gameButtonListener);
 		this.ui.addShowFullListPanelListeners(showFullZombieListListener);
+		this.ui.addSaveListener(e -> save());
+		
+		if (realTimeMode) {
+			startRealTime();
+		}
+	}
+	
+	/**
+	 * Play the game in real time: the turns end by themselves and the player's actions run on the real time engine thread. 
+	 * The engine stops when the game window is closed, or when the player goes back to the menus.
+	 */
+	private void startRealTime() {
+		realTime = new RealTimeEngine(game);
+		if (ui.getBoardCanvas() != null) {
+			ui.getBoardCanvas().setRealTimeEngine(realTime);
+		}
+		ui.addWindowListener(new WindowAdapter() {
+			@Override
+			public void windowClosed(WindowEvent e) {
+				realTime.stop();
+			}
+		});
+		realTime.start();
+	}
+	
+	/**
+	 * Play the games of GameControllers created afterwards in real time
+	 */
+	public static void setRealTimeMode() {
+		realTimeMode = true;
+	}
+	
+	/**
+	 * Play the games of GameControllers created afterwards turn by turn. This is the default.
+	 */
+	public static void clearRealTimeMode() {
+		realTimeMode = false;
+	}
+	
+	/**
+	 * Get the engine playing the game in real time
+	 * 
+	 * @return the real time engine, null if the game is played turn by turn
+	 */
+	public RealTimeEngine getRealTimeEngine() {
+		
+		return realTime;
 	}
 	
 	/**
@@ -85,16 +150,80 @@ public class GameController {
 					}
 					break;
 				case UNDO:
-					game.undo();
+					if (!isTurnInProgress() && realTime == null) {
+						game.undo();
+					}
 					break;
 				case REDO:
-					game.redo();
+					if (!isTurnInProgress() && realTime == null) {
+						game.redo();
+					}
 					break;
 				case END_TURN: //@author David Wang
 					LOG.debug("Ending Turn");
-					game.doEndOfTurn();
+					endTurn();
+			}
+		}
+	}
+	
+	/**
+	 * Computes the end of turn on the engine thread and publishes it back on the Swing thread.
+	 * The game buttons show as busy until the turn is published. 
+	 */
+	private void endTurn() {
+		if (realTime != null) {
+			LOG.debug("Turns end by themselves in real time");
+			return;
+		}
+		if (isTurnInProgress()) {
+			LOG.debug("Turn is already being computed");
+			return;
+		}
+		
+		ui.setBusy(true);
+		pendingTurn = EngineThread.submit(game::computeEndOfTurn).handleAsync((changes, error) -> {
+			ui.setBusy(false);
+			if (error != null) {
+				LOG.error("End of turn failed: {}", error);
+			} else {
+				game.publishEndOfTurn(changes);
 			}
+			return null;
+		}, SwingUtilities::invokeLater);
+	}
+	
+	/**
+	 * Saves the game on the engine thread, or the real time engine's thread, and tells the player once it is saved. 
+	 * The player's actions wait for the save like they wait for the end of a turn, so the game does not change while it is written.
+	 */
+	private void save() {
+		if (realTime != null && realTime.isRunning()) {
+			//the real time engine changes the board every tick, so the game is saved between two of its ticks
+			realTime.submit(() -> {
+				boolean saved = GameSerializer.serialize(game);
+				SwingUtilities.invokeLater(() -> {
+					if (saved) {
+						JOptionPane.showMessageDialog(null, "Game successfuly saved", "Save", JOptionPane.PLAIN_MESSAGE);
+					}
+				});
+			});
+			return;
 		}
+		if (isTurnInProgress()) {
+			LOG.debug("Turn is being computed, not saving");
+			return;
+		}
+		
+		ui.setBusy(true);
+		pendingTurn = EngineThread.submit(() -> GameSerializer.serialize(game)).handleAsync((saved, error) -> {
+			ui.setBusy(false);
+			if (error != null) {
+				LOG.error("Save failed: {}", error);
+			} else if (saved) {
+				JOptionPane.showMessageDialog(null, "Game successfuly saved", "Save", JOptionPane.PLAIN_MESSAGE);
+			}
+			return null;
+		}, SwingUtilities::invokeLater);
 	}
 	
 	/**
@@ -112,15 +241,28 @@ public class GameController {
 			final int sourceRow = source.getRow();
 			final int sourceCol = source.getCol();
 
+			if (isTurnInProgress()) {
+				LOG.debug("Ignoring grid click during the zombie turn");
+				return;
+			}
+
 			if (selectedCard != null) {
 				LOG.debug("Planting in Grid");
 				PlantTypes selectedPlantType = selectedCard.getPlantType();
-				game.placePlant(selectedPlantType, sourceRow, sourceCol);
+				if (realTime != null) {
+					realTime.submit(() -> game.placePlant(selectedPlantType, sourceRow, sourceCol));
+				} else {
+					game.placePlant(selectedPlantType, sourceRow, sourceCol);
+				}
 				
 				ui.revertHighlight(selectedCard);
 				selectedCard = null;
 			} else if (removingPlant) {
-				game.removePlant(sourceRow, sourceCol);
+				if (realTime != null) {
+					realTime.submit(() -> game.removePlant(sourceRow, sourceCol));
+				} else {
+					game.removePlant(sourceRow, sourceCol);
+				}
 				removingPlant = false;
 				LOG.debug("Removed Plant");
 			}
@@ -284,6 +426,26 @@ public class GameController {
 		return removingPlant;
 	}
 	
+	/**
+	 * Indicate whether an end of turn is being computed or has not been published yet, or the game is being saved
+	 * 
+	 * @return true while the end of turn is in progress, false otherwise
+	 */
+	public boolean isTurnInProgress() {
+		
+		return !pendingTurn.isDone();
+	}
+	
+	/**
+	 * Get the most recent end of turn. It completes once the turn has been published on the Swing thread.
+	 * 
+	 * @return the most recent end of turn
+	 */
+	public Future<Void> getPendingTurn() {
+		
+		return pendingTurn;
+	}
+	
 	/**
 	 * Create a copy of the selected card and return the card
 	 * 
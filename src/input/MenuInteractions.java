@@ -6,7 +6,6 @@ import java.util.Enumeration;
 import javax.swing.AbstractButton;
 import javax.swing.ButtonGroup;
 import javax.swing.JFrame;
-import javax.swing.JOptionPane;
 
 import engine.Game;
 import levels.LevelInfo;
@@ -39,16 +38,6 @@ public class MenuInteractions {
 		};
 	}
 
-	public static ActionListener getSaveHandler (Game game) {
-		return new ActionListener() {
-			public void actionPerformed(ActionEvent e) {
-				if (GameSerializer.serialize(game)) {
-					JOptionPane.showMessageDialog(null, "Game successfuly saved", "Save", JOptionPane.PLAIN_MESSAGE);
-				};
-			}
-		};
-	}
-
 	public static ActionListener getLoadHandler (JFrame frame) {
 		return new ActionListener() {
 			@Override
@@ -17,6 +17,7 @@ import javax.xml.bind.Unmarshaller;
 
 import assets.PlantTypes;
 import assets.ZombieTypes;
+import util.EngineEvents;
 import util.Logger;
 
 /**
@@ -28,6 +29,9 @@ import util.Logger;
 public class LevelLoader {
 	private static Logger LOG = new Logger("LevelLoader");
 	
+	//The folder levels are saved in
+	public static final File LEVEL_FOLDER = new File("levels/");
+	
 	//The list of levels loaded into the game
 	private static List<LevelInfo> levels;
 	
@@ -41,9 +45,9 @@ public class LevelLoader {
 	
 	/**
 	 * Generates sample levels and adds them to the list.
-	 * @param levels
+	 * @param folder the folder to save the sample levels in
 	 */
-	private static void sampleLevels() {
+	private static void sampleLevels(File folder) {
 		HashMap<ZombieTypes, Integer> sampleZombies = new HashMap<>();
 		sampleZombies.put(ZombieTypes.JUK_ZOMBIE, 5);
 		sampleZombies.put(ZombieTypes.AIR_ZOMBIE, 5);
@@ -77,19 +81,19 @@ public class LevelLoader {
 										.addAllAllowedPlants(samplePlants)
 										.addAllZombies(sampleZombies);
 		levels.add(f.toLevelInfo());
-		f.toXML();
+		f.toXML(folder);
 		LOG.debug("Added Sample Level");
 	}
 	
 	/**
-	 * Deserializes all LevelInfo from SER files in the levels directory into the game.
+	 * Deserializes all LevelInfo from SER files in a directory into the game.
+	 * @param folder the levels directory
 	 */
-	private static void deserializeLevels () {
+	private static void deserializeLevels (File folder) {
 		try {
 			JAXBContext jc = JAXBContext.newInstance(LevelInfo.class); //uses JaxB
 			Unmarshaller unM = jc.createUnmarshaller();
 			
-			File folder = new File("levels/");
 			File[] listOfFiles = folder.listFiles();
 
 			if (listOfFiles == null) {
@@ -99,10 +103,20 @@ public class LevelLoader {
 			} else {
 				for (int i = 0; i < listOfFiles.length; i++) {
 					if (listOfFiles[i].isFile()) {
-						LOG.debug("Attempting to Deserialize LevelInfo from " + listOfFiles[i].getName());
+						LOG.debug("Attempting to Deserialize LevelInfo from {}", listOfFiles[i].getName());
+						EngineEvents.LevelParse event = new EngineEvents.LevelParse();
+						event.begin();
 
 						LevelInfo lvl = (LevelInfo) unM.unmarshal(listOfFiles[i]);
 						levels.add(lvl);
+						
+						event.end();
+						if (event.shouldCommit()) {
+							event.file = listOfFiles[i].getName();
+							event.levelName = lvl.getName();
+							event.bytes = listOfFiles[i].length();
+							event.commit();
+						}
 					}
 				}
 				LOG.debug("Finished Deserialization");
@@ -119,14 +133,22 @@ public class LevelLoader {
 	 * Must be called before this class is used
 	 */
 	public static void init() {
+		init(LEVEL_FOLDER);
+	}
+	
+	/**
+	 * Load the levels from a directory instead of the levels directory
+	 * @param folder the directory to load levels from
+	 */
+	public static void init(File folder) {
 		levels = new ArrayList<>();
 		currentLevel = 0;
 
 		//DeSerialize all Level Info into Level Info
-		deserializeLevels();
+		deserializeLevels(folder);
 		//Generate a Sample level if no serialized level was found
 		if(levels.size()==0) {
-			sampleLevels();
+			sampleLevels(folder);
 		}
 	}
 	
@@ -305,8 +327,17 @@ public class LevelLoader {
 		 * Saves the constructed levelInfo object as an xml file
 		 */
 		public void toXML() {
-			File fOut = new File("levels/" + this.name +  "-" + System.currentTimeMillis() + ".xml");
-			fOut.getParentFile().mkdirs();
+			toXML(LEVEL_FOLDER);
+		}
+		
+		/**
+		 * Saves the constructed levelInfo object as an xml file in a directory
+		 * @param folder the directory to save the level in
+		 * @return the file written
+		 */
+		public File toXML(File folder) {
+			File fOut = new File(folder, this.name +  "-" + System.currentTimeMillis() + ".xml");
+			fOut.getAbsoluteFile().getParentFile().mkdirs();
 			try (FileOutputStream fileOut = new FileOutputStream(fOut)) {
 
 		        JAXBContext jc = JAXBContext.newInstance(LevelInfo.class);
@@ -323,6 +354,7 @@ public class LevelLoader {
 				LOG.error("Failed to Serialize Level - JaxB Exception");
 				e.printStackTrace();
 			}
+			return fOut;
 		}
 	}
 	
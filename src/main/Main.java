@@ -1,8 +1,11 @@
 package main;
 
+import input.GameController;
 import levels.LevelLoader;
+import ui.GameUI;
 import ui.Images;
 import ui.MainMenu;
+import util.EngineMetrics;
 import util.GameSerializer;
 import util.Logger;
 
@@ -14,12 +17,23 @@ public class Main {
 	
 	/**
 	 * Program Entry Point
-	 * @param args
+	 * @param args --canvas to paint the board on a single canvas instead of a GridUI per tile, 
+	 * --realtime to play in real time instead of turn by turn
 	 * @author David Wang
 	 */
 	public static void main (String[] args) {
 		//Log init
 		//Logger.setDebug(); //change to clearDebug to get rid of debug messages
+		for (String arg : args) {
+			if (arg.equals("--canvas")) {
+				GameUI.setCanvasMode();
+			} else if (arg.equals("--realtime")) {
+				GameController.setRealTimeMode();
+			} else {
+				LOG.warn("Unknown option {}", arg);
+			}
+		}
+		EngineMetrics.start(); //JMX and a metrics file for monitoring
 		LevelLoader.init();
 		GameSerializer.init();
 		if(!Images.preloadImages()) {
@@ -0,0 +1,405 @@
+package ui;
+
+import java.awt.Color;
+import java.awt.Dimension;
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.Image;
+import java.awt.Rectangle;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.awt.event.MouseListener;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import javax.swing.JComponent;
+import javax.swing.Timer;
+
+import assets.ZombieTypes;
+import engine.BoardSnapshot;
+import engine.Game;
+import engine.RealTimeEngine;
+import util.EngineMetrics;
+
+/**
+ * Alternative board view that paints the whole lawn in a single component.
+ *
+ * Cells are rendered into a retained back buffer. Updating a cell only re-renders that cell
+ * and repaints its rectangle, so the cost of an update is constant per dirty cell regardless
+ * of the board size. Cells are drawn from the latest snapshot of the game. Clicks are hit-tested to a cell and forwarded to the grid listeners
+ * with a GridUI handle as the event source, so the GameController works unchanged.
+ * When the game is played in real time the zombies walk across their cells between moves:
+ * the cells with walking zombies are re-rendered every frame.
+ */
+public class BoardCanvas extends JComponent {
+	private static final long serialVersionUID = 3206431962254893530L;
+
+	private static final Color LAWN_COLOR = new Color(70, 140, 50);
+	private static final Color HOVER_COLOR = Color.BLACK;
+	private static final Font COUNT_FONT = new Font(Font.MONOSPACED, Font.BOLD, 14);
+	private static final String SHOW_MORE = "Show More";
+
+	private static final int PREFERRED_CELL_SIZE = 100;
+	private static final double PLANT_SIZE = 0.6;
+	private static final double ZOMBIE_SIZE = 0.45;
+	private static final int FRAME_MILLIS = 16;
+
+	private final Game game;
+	private final int rows;
+	private final int cols;
+
+	//retained image of the lawn, only dirty cells are re-rendered into it
+	private BufferedImage backBuffer;
+	private boolean fullRedraw = true;
+	private final boolean[] dirty;
+	private final int[] dirtyCells;
+	private int dirtyCount = 0;
+
+	//the engine the zombie positions are interpolated with, null when played turn by turn
+	private RealTimeEngine realTime;
+	private Timer frameTimer;
+	private final boolean[] walking;
+
+	private int hoverRow = -1;
+	private int hoverCol = -1;
+
+	//lightweight GridUI instances used as event sources for the grid listeners
+	private final GridUI[][] handles;
+	private final List<MouseListener> gridListeners = new ArrayList<MouseListener>();
+
+	public BoardCanvas(Game game) {
+		this.game = game;
+		this.rows = game.getBoard().getRow();
+		this.cols = game.getBoard().getColumn();
+		this.dirty = new boolean[rows * cols];
+		this.dirtyCells = new int[rows * cols];
+		this.walking = new boolean[rows * cols];
+		this.handles = new GridUI[rows][];
+
+		setOpaque(true);
+		setPreferredSize(new Dimension(cols * PREFERRED_CELL_SIZE, rows * PREFERRED_CELL_SIZE));
+
+		CanvasMouseHandler handler = new CanvasMouseHandler();
+		addMouseListener(handler);
+		addMouseMotionListener(handler);
+	}
+
+	/**
+	 * Mark a single cell as changed and repaint it
+	 *
+	 * @param row
+	 * @param col
+	 */
+	public void updateCell(int row, int col) {
+		int index = row * cols + col;
+		if (!dirty[index]) {
+			dirty[index] = true;
+			dirtyCells[dirtyCount++] = index;
+		}
+		repaint(getCellBounds(row, col));
+	}
+
+	/**
+	 * Mark every cell as changed and repaint the whole board
+	 */
+	public void updateAll() {
+		fullRedraw = true;
+		repaint();
+	}
+
+	/**
+	 * Draw the zombies of a game played in real time part way to their next cell, repainting the cells with walking zombies every frame
+	 *
+	 * @param engine the engine playing the game
+	 */
+	public void setRealTimeEngine(RealTimeEngine engine) {
+		this.realTime = engine;
+		if (frameTimer == null) {
+			frameTimer = new Timer(FRAME_MILLIS, e -> updateWalkingCells());
+			frameTimer.start();
+		}
+	}
+
+	/**
+	 * Mark the cells whose zombies are walking, and the ones whose zombies just stopped, as changed
+	 */
+	private void updateWalkingCells() {
+		if (!realTime.isRunning() || !isDisplayable()) { //the game ended or its window was closed
+			frameTimer.stop();
+			return;
+		}
+		BoardSnapshot snapshot = game.getSnapshot();
+		for (int r = 0; r < rows; r++) {
+			for (int c = 0; c < cols; c++) {
+				int index = r * cols + c;
+				boolean walks = realTime.getStepProgress(r, c) < 1 && !snapshot.getCell(r, c).getZombieTypeCount().isEmpty();
+				if (walks || walking[index]) {
+					updateCell(r, c);
+				}
+				walking[index] = walks;
+			}
+		}
+	}
+
+	/**
+	 * Register a listener for clicks and hovers on cells. The event source is the GridUI handle of the cell.
+	 *
+	 * @param listener
+	 */
+	public void addGridListener(MouseListener listener) {
+		gridListeners.add(listener);
+	}
+
+	/**
+	 * Get the cell at a point on the canvas
+	 *
+	 * @param x
+	 * @param y
+	 * @return {row, col} of the cell, null if the point is not on a cell
+	 */
+	public int[] getCellAt(int x, int y) {
+		int cellWidth = getCellWidth();
+		int cellHeight = getCellHeight();
+		if (x < 0 || y < 0 || cellWidth == 0 || cellHeight == 0) {
+			return null;
+		}
+		int row = y / cellHeight;
+		int col = x / cellWidth;
+		if (row >= rows || col >= cols) {
+			return null;
+		}
+		return new int[] {row, col};
+	}
+
+	/**
+	 * Get the area of the canvas covered by a cell
+	 *
+	 * @param row
+	 * @param col
+	 * @return the bounds of the cell
+	 */
+	public Rectangle getCellBounds(int row, int col) {
+		int cellWidth = getCellWidth();
+		int cellHeight = getCellHeight();
+		return new Rectangle(col * cellWidth, row * cellHeight, cellWidth, cellHeight);
+	}
+
+	private int getCellWidth() {
+		return getWidth() / cols;
+	}
+
+	private int getCellHeight() {
+		return getHeight() / rows;
+	}
+
+	@Override
+	protected void paintComponent(Graphics g) {
+		int width = getWidth();
+		int height = getHeight();
+		if (width <= 0 || height <= 0) {
+			return;
+		}
+
+		if (backBuffer == null || backBuffer.getWidth() != width || backBuffer.getHeight() != height) {
+			backBuffer = Images.createCompatibleImage(width, height);
+			fullRedraw = true;
+		}
+
+		long start = System.nanoTime();
+		BoardSnapshot snapshot = game.getSnapshot();
+		Graphics2D bg = backBuffer.createGraphics();
+		if (fullRedraw) {
+			drawLawn(bg, 0, 0, width, height);
+			for (int r = 0; r < rows; r++) {
+				for (int c = 0; c < cols; c++) {
+					renderCell(bg, snapshot, r, c);
+				}
+			}
+			clearDirty();
+			fullRedraw = false;
+		} else {
+			for (int i = 0; i < dirtyCount; i++) {
+				int index = dirtyCells[i];
+				renderCell(bg, snapshot, index / cols, index % cols);
+			}
+			clearDirty();
+		}
+		bg.dispose();
+
+		g.drawImage(backBuffer, 0, 0, null);
+		EngineMetrics.REPAINT.recordSince(start);
+	}
+
+	private void clearDirty() {
+		for (int i = 0; i < dirtyCount; i++) {
+			dirty[dirtyCells[i]] = false;
+		}
+		dirtyCount = 0;
+	}
+
+	/**
+	 * Draw the lawn background for a region of the canvas
+	 */
+	private void drawLawn(Graphics2D g, int x, int y, int width, int height) {
+		Image grass = Images.getGrassTileImage();
+		if (grass == null) {
+			g.setColor(LAWN_COLOR);
+			g.fillRect(x, y, width, height);
+			return;
+		}
+		//the grass is stretched across the whole canvas like the JImagePanel background
+		Image scaled = ScaledImageCache.getScaled(grass, getWidth(), getHeight());
+		g.drawImage(scaled, x, y, x + width, y + height, x, y, x + width, y + height, null);
+	}
+
+	/**
+	 * Render a single cell into the back buffer
+	 */
+	private void renderCell(Graphics2D g, BoardSnapshot snapshot, int row, int col) {
+		Rectangle bounds = getCellBounds(row, col);
+		if (bounds.width <= 0 || bounds.height <= 0) {
+			return;
+		}
+		drawLawn(g, bounds.x, bounds.y, bounds.width, bounds.height);
+
+		BoardSnapshot.Cell cell = snapshot.getCell(row, col);
+		int size = Math.min(bounds.width, bounds.height);
+
+		if (cell.isOccupied()) {
+			int plantSize = Math.max(1, (int) (size * PLANT_SIZE));
+			g.drawImage(ScaledImageCache.getScaled(Images.getPlantImage(cell.getPlantType()), plantSize, plantSize), bounds.x + 2, bounds.y + 2, null);
+		}
+
+		Map<ZombieTypes, Integer> zombieTypeCount = cell.getZombieTypeCount();
+		if (!zombieTypeCount.isEmpty()) {
+			ZombieTypes first = zombieTypeCount.keySet().iterator().next();
+			int zombieSize = Math.max(1, (int) (size * ZOMBIE_SIZE));
+			int zx = bounds.x + bounds.width - zombieSize - 2;
+			if (realTime != null) { //walk from the right of the cell to the left until the next move
+				zx -= (int) (realTime.getStepProgress(row, col) * Math.max(0, bounds.width - zombieSize - 4));
+			}
+			int zy = bounds.y + bounds.height - zombieSize - 2;
+			g.drawImage(ScaledImageCache.getScaled(Images.getZombieImage(first), zombieSize, zombieSize), zx, zy, null);
+
+			g.setFont(COUNT_FONT);
+			g.setColor(Color.WHITE);
+			FontMetrics fm = g.getFontMetrics();
+			g.drawString("x " + zombieTypeCount.get(first), zx, zy);
+			if (zombieTypeCount.size() > 1) {
+				g.drawString(SHOW_MORE, bounds.x + 2, bounds.y + bounds.height - fm.getDescent() - 2);
+			}
+		}
+
+		if (row == hoverRow && col == hoverCol) {
+			g.setColor(HOVER_COLOR);
+			g.drawRect(bounds.x, bounds.y, bounds.width - 1, bounds.height - 1);
+		}
+	}
+
+	/**
+	 * Check if a point lies on the "Show More" label of a cell
+	 */
+	private boolean isOnShowMore(int row, int col, int x, int y) {
+		if (game.getSnapshot().getCell(row, col).getZombieTypeCount().size() <= 1) {
+			return false;
+		}
+		Rectangle bounds = getCellBounds(row, col);
+		FontMetrics fm = getFontMetrics(COUNT_FONT);
+		Rectangle label = new Rectangle(bounds.x + 2, bounds.y + bounds.height - fm.getHeight() - 2, fm.stringWidth(SHOW_MORE), fm.getHeight());
+		return label.contains(x, y);
+	}
+
+	/**
+	 * Get the GridUI handle of a cell, creating it on first use
+	 */
+	private GridUI getHandle(int row, int col) {
+		if (handles[row] == null) {
+			handles[row] = new GridUI[cols];
+		}
+		if (handles[row][col] == null) {
+			handles[row][col] = new GridUI(row, col);
+		}
+		return handles[row][col];
+	}
+
+	private void setHover(int row, int col, MouseEvent e) {
+		if (row == hoverRow && col == hoverCol) {
+			return;
+		}
+		if (hoverRow >= 0) {
+			int oldRow = hoverRow;
+			int oldCol = hoverCol;
+			hoverRow = -1;
+			hoverCol = -1;
+			updateCell(oldRow, oldCol);
+			forward(MouseEvent.MOUSE_EXITED, oldRow, oldCol, e);
+		}
+		if (row >= 0) {
+			hoverRow = row;
+			hoverCol = col;
+			updateCell(row, col);
+			forward(MouseEvent.MOUSE_ENTERED, row, col, e);
+		}
+	}
+
+	/**
+	 * Forward a mouse event to the grid listeners with the cell handle as the source
+	 */
+	private void forward(int id, int row, int col, MouseEvent e) {
+		MouseEvent cellEvent = new MouseEvent(getHandle(row, col), id, e.getWhen(), e.getModifiersEx(),
+				e.getX(), e.getY(), e.getClickCount(), e.isPopupTrigger(), e.getButton());
+		for (MouseListener listener : gridListeners) {
+			switch (id) {
+				case MouseEvent.MOUSE_CLICKED:
+					listener.mouseClicked(cellEvent);
+					break;
+				case MouseEvent.MOUSE_ENTERED:
+					listener.mouseEntered(cellEvent);
+					break;
+				case MouseEvent.MOUSE_EXITED:
+					listener.mouseExited(cellEvent);
+					break;
+				default:
+					break;
+			}
+		}
+	}
+
+	/**
+	 * Hit-tests mouse input against the board cells
+	 */
+	private class CanvasMouseHandler extends MouseAdapter {
+
+		@Override
+		public void mouseClicked(MouseEvent e) {
+			int[] cell = getCellAt(e.getX(), e.getY());
+			if (cell == null) {
+				return;
+			}
+			if (isOnShowMore(cell[0], cell[1], e.getX(), e.getY())) {
+				ZombiePanel.showFullZombieList(game.getSnapshot().getCell(cell[0], cell[1]).getZombieTypeCount());
+				return;
+			}
+			forward(MouseEvent.MOUSE_CLICKED, cell[0], cell[1], e);
+		}
+
+		@Override
+		public void mouseMoved(MouseEvent e) {
+			int[] cell = getCellAt(e.getX(), e.getY());
+			if (cell == null) {
+				setHover(-1, -1, e);
+			} else {
+				setHover(cell[0], cell[1], e);
+			}
+		}
+
+		@Override
+		public void mouseExited(MouseEvent e) {
+			setHover(-1, -1, e);
+		}
+	}
+}
@@ -1,4 +1,5 @@
 package ui;
+import engine.ChangeSet;
 import engine.Game;
 import engine.GameListener;
 import input.GameController;
@@ -6,6 +7,7 @@ import input.GameController.GameButtonListener;
 import input.MenuInteractions;
 import levels.LevelInfo;
 import levels.LevelLoader;
+import util.EngineMetrics;
 
 import java.awt.*;
 import java.awt.event.ActionListener;
@@ -31,6 +33,7 @@ public class GameUI extends JFrame implements GameListener
 	private JPanel gui;
 
 	private GridUI[][] boardTiles;
+	private BoardCanvas boardCanvas;
     private JPanel board;
     private int row;
     private int column;
@@ -47,17 +50,19 @@ public class GameUI extends JFrame implements GameListener
     private JLabel pointsAvailable;
 
     private ArrayList<JMenuItem> menuButtons;
+    private JMenuItem saveItem;
     private ArrayList<JButton> gameButtons;
 
     private Game game;
     private LevelInfo lvl;
     
     private static boolean testMode = false;
+    private static boolean canvasMode = false;
 
     public GameUI(Game game)
     {
     	this.game = game;
-    	game.addListener(this);
+    	game.addListener(this, GameUI::runOnEventThread);
     	this.lvl = game.getLevelInfo();
     	this.currentLevel = game.getLevelInfo().getName();
     	this.currentLevelNum = LevelLoader.getCurrentLevel();
@@ -70,6 +75,28 @@ public class GameUI extends JFrame implements GameListener
         initUnitSelection();
         initializeJFrame();
         initializeImages();
+        Images.addLoadListener(this::refreshImages);
+    }
+
+    /**
+     * Swaps the placeholder sprites for the real images once they have finished loading
+     */
+    private void refreshImages() {
+    	if (board instanceof JImagePanel) {
+    		((JImagePanel) board).setImage(Images.getGrassTileImage());
+    	}
+    	for (int i = 0; i < mowers.length; i++) {
+    		if (game.getSnapshot().isMowerAvailable(i)) {
+    			updateMower(i, false);
+    		}
+    	}
+    	for (Component c : cardHolder.getComponents()) {
+    		if (c instanceof Card) {
+    			JLabel labelPic = (JLabel) ((BorderLayout) ((Card) c).getLayout()).getLayoutComponent(BorderLayout.CENTER);
+    			setCardImage(labelPic, ((Card) c).getPlantType());
+    		}
+    	}
+    	refreshAllGrids();
     }
 
     /**
@@ -80,7 +107,7 @@ public class GameUI extends JFrame implements GameListener
     	for (int i = 0; i < mowers.length; i++) {
 	        Image image = Images.getLawnMowerImage();
 	        try {
-		    	image = image.getScaledInstance(mowers[i].getHeight(), mowers[i].getHeight(), Image.SCALE_DEFAULT);
+		    	image = ScaledImageCache.getScaled(image, mowers[i].getHeight(), mowers[i].getHeight());
 		    	mowers[i].setIcon(new ImageIcon(image));
 	        }
 	        catch (Exception e) {
@@ -128,8 +155,7 @@ public class GameUI extends JFrame implements GameListener
 		JMenuItem backItem = new JMenuItem("Main Menu");
 		backItem.addActionListener(MenuInteractions.getBackHandler(this));
 		menuButtons.add(backItem);
-		JMenuItem saveItem = new JMenuItem("Save");
-		saveItem.addActionListener(MenuInteractions.getSaveHandler(game));
+		saveItem = new JMenuItem("Save");
 		menuButtons.add(saveItem);
 		JMenuItem quitItem = new JMenuItem("Quit");
 		quitItem.addActionListener(MenuInteractions.getQuitHandler(this));
@@ -194,6 +220,10 @@ public class GameUI extends JFrame implements GameListener
      * @author Michael Patsula and David Wang
      */
     private final void initializeBoard() {
+    	if (canvasMode) {
+    		initializeBoardCanvas();
+    		return;
+    	}
         board = new JImagePanel(Images.getGrassTileImage(), new GridLayout(row, column + 1, 5, 0));
         board.setBorder(new LineBorder(Color.BLACK));
         gui.add(board);
@@ -202,7 +232,7 @@ public class GameUI extends JFrame implements GameListener
         {
             for (int c = 0; c < boardTiles[r].length; c++)
             {
-                boardTiles[r][c] = new GridUI(game.getBoard().getGrid(r, c));
+                boardTiles[r][c] = new GridUI(game, r, c);
             }
         }
 
@@ -224,6 +254,28 @@ public class GameUI extends JFrame implements GameListener
         }
     }
 
+    /**
+     * Initializes the PVZ game board as a single canvas with the lawn mowers in a column beside it.
+     * Used instead of a GridUI per tile when canvas mode is set.
+     */
+    private final void initializeBoardCanvas() {
+    	board = new JPanel(new BorderLayout(5, 0));
+    	board.setBorder(new LineBorder(Color.BLACK));
+    	gui.add(board);
+    	
+    	JPanel mowerColumn = new JPanel(new GridLayout(row, 1));
+    	for (int r = 0; r < row; r++) {
+    		JButton b = new JButton("Mower");
+    		b.setContentAreaFilled(false);
+    		mowers[r] = b;
+    		mowerColumn.add(mowers[r]);
+    	}
+    	board.add(mowerColumn, BorderLayout.WEST);
+    	
+    	boardCanvas = new BoardCanvas(game);
+    	board.add(boardCanvas, BorderLayout.CENTER);
+    }
+
     /**
      * Initializes the unit selection panel.
      * This gui will allow the user to select a particular unit among many to
@@ -243,18 +295,9 @@ public class GameUI extends JFrame implements GameListener
     		card.setBorder(BorderFactory.createLineBorder(Color.BLACK, 5));
     		card.setMaximumSize(new Dimension(90, 140));
 
-    		Image img = Images.getPlantImage(p);
-
 			JLabel labelPic = new JLabel();
 			labelPic.setSize(80, 80);
-			Image plantImage = null; 
-			try {
-				plantImage = img.getScaledInstance(labelPic.getWidth(), labelPic.getHeight(), Image.SCALE_SMOOTH);
-				labelPic.setIcon(new ImageIcon(plantImage));
-			}
-			catch (Exception e) {
-				e.addSuppressed(new NullPointerException());
-			}
+			setCardImage(labelPic, p);
     		card.add(labelPic, BorderLayout.CENTER);
 
     		JLabel nameLabel = new JLabel(PlantTypes.toPlant(p).toString());
@@ -273,6 +316,22 @@ public class GameUI extends JFrame implements GameListener
     
    
 
+    /**
+     * Sets the picture of a unit selection card
+     * @param labelPic - the label holding the card picture
+     * @param p - the plant type of the card
+     */
+    private void setCardImage(JLabel labelPic, PlantTypes p) {
+		Image img = Images.getPlantImage(p);
+		try {
+			Image plantImage = ScaledImageCache.getScaled(img, labelPic.getWidth(), labelPic.getHeight());
+			labelPic.setIcon(new ImageIcon(plantImage));
+		}
+		catch (Exception e) {
+			e.addSuppressed(new NullPointerException());
+		}
+    }
+
     /**
      * Once called, the specified unit card will be "highlighted".
      * ie boarder will change color
@@ -375,6 +434,10 @@ public class GameUI extends JFrame implements GameListener
      * @author Derek Shao
      */
     public void addGridListeners(MouseListener listener) {
+    	if (boardCanvas != null) {
+    		boardCanvas.addGridListener(listener);
+    		return;
+    	}
     	for (int i = 0; i < boardTiles.length; i++) {
     		for (int j = 0; j < boardTiles[i].length; j++) {
     			boardTiles[i][j].addMouseListener(listener);
@@ -405,6 +468,14 @@ public class GameUI extends JFrame implements GameListener
     	}
     }
 
+    /**
+     * Sets the listener saving the game from the menu, the controller saves when no turn is being computed
+     * @param listener
+     */
+    public void addSaveListener(ActionListener listener) {
+    	saveItem.addActionListener(listener);
+    }
+
     /**
      * Sets the lawn mower buttons as action listeners
      * @param e
@@ -422,6 +493,9 @@ public class GameUI extends JFrame implements GameListener
      * @author Derek Shao
      */
     public void addShowFullListPanelListeners(MouseListener listener) {
+    	if (boardCanvas != null) {
+    		return; //the canvas shows the full list itself
+    	}
     	for (int i = 0; i < boardTiles.length; i++) {
     		for (int j = 0; j < boardTiles[i].length; j++) {
     			boardTiles[i][j].addShowFullListListener(listener);
@@ -453,13 +527,17 @@ public class GameUI extends JFrame implements GameListener
     
     /**
      * Retrieve all board tiles from board.
-     * @return all boards tiles
+     * @return all boards tiles, null in canvas mode
      */
     public GridUI[][] getBoardTiles() {
     	return boardTiles;
     }
     
     private void refreshAllGrids() {
+    	if (boardCanvas != null) {
+    		boardCanvas.updateAll();
+    		return;
+    	}
     	for (int i = 0; i < boardTiles.length; i++) {
     		for (int j = 0; j < boardTiles[i].length; j++) {
     			boardTiles[i][j].renderPlant();
@@ -473,6 +551,10 @@ public class GameUI extends JFrame implements GameListener
 	
     @Override
 	public void updateGrid(int x, int y) {
+		if (boardCanvas != null) {
+			boardCanvas.updateCell(x, y);
+			return;
+		}
 		boardTiles[x][y].renderPlant();
 		boardTiles[x][y].renderZombies();
 		boardTiles[x][y].repaint();
@@ -481,7 +563,19 @@ public class GameUI extends JFrame implements GameListener
 
 	@Override
 	public void updateAllGrids() {
+		long start = System.nanoTime();
 		refreshAllGrids();
+		EngineMetrics.REPAINT.recordSince(start);
+	}
+	@Override
+	public void updateChangedGrids(ChangeSet changes) {
+		long start = System.nanoTime();
+		if (changes.isAllChanged()) {
+			refreshAllGrids();
+		} else {
+			changes.forEachCell(this::updateGrid);
+		}
+		EngineMetrics.REPAINT.recordSince(start);
 	}
 	@Override
 	public void updatePurse() {
@@ -558,7 +652,7 @@ public class GameUI extends JFrame implements GameListener
     	}
     	Image image = Images.getLawnMowerImage();
         try {
-	    	image = image.getScaledInstance(mowers[row].getHeight(), mowers[row].getHeight(), Image.SCALE_DEFAULT);
+	    	image = ScaledImageCache.getScaled(image, mowers[row].getHeight(), mowers[row].getHeight());
 	    	mowers[row].setIcon(new ImageIcon(image));
         }
         catch (Exception e) {
@@ -567,6 +661,32 @@ public class GameUI extends JFrame implements GameListener
     }
 
     
+    /**
+     * Show whether the game is busy computing the end of turn.
+     * The buttons that change the game are disabled while busy.
+     * @param busy - true while the turn is being computed, false otherwise
+     */
+    public void setBusy(boolean busy) {
+    	for (JButton button : gameButtons) {
+    		if (!GameButtonListener.DIG.equals(button.getActionCommand())) {
+    			button.setEnabled(!busy);
+    		}
+    	}
+    }
+    
+    /**
+     * Runs a task on the Swing thread. Runs it right away when already on the Swing thread.
+     * Game events are delivered to the UI through this.
+     * @param task - the task to run
+     */
+    public static void runOnEventThread(Runnable task) {
+    	if (SwingUtilities.isEventDispatchThread()) {
+    		task.run();
+    	} else {
+    		SwingUtilities.invokeLater(task);
+    	}
+    }
+    
     /**
      * For unit testing. Do not show UI when testing.
      * 
@@ -574,4 +694,27 @@ public class GameUI extends JFrame implements GameListener
     public static void setTestMode() {
     	testMode = true;
     }
+    
+    /**
+     * Render the board on a single canvas instead of a GridUI per tile.
+     * Applies to GameUIs created afterwards.
+     */
+    public static void setCanvasMode() {
+    	canvasMode = true;
+    }
+    
+    /**
+     * Render the board with a GridUI per tile. This is the default.
+     */
+    public static void clearCanvasMode() {
+    	canvasMode = false;
+    }
+    
+    /**
+     * Get the single canvas board view.
+     * @return the board canvas, null unless canvas mode was set when this GameUI was created
+     */
+    public BoardCanvas getBoardCanvas() {
+    	return boardCanvas;
+    }
 }
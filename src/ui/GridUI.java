@@ -10,7 +10,8 @@ import javax.swing.ImageIcon;
 import javax.swing.JLabel;
 import javax.swing.JPanel;
 
-import engine.Grid;
+import engine.BoardSnapshot;
+import engine.Game;
 
 /**
  * Custom grids to render both plant and zombies on the grid.
@@ -24,28 +25,48 @@ public class GridUI extends JPanel {
 	private JPanel plantPanel;
 	private JLabel plantLabel;
 	private ZombiePanel zombiePanel;
-	private Grid grid;
+	private Game game;
 	private int row;
 	private int col;
 	
 	private MouseListener showFullListListener;
 	
-	public GridUI(Grid grid) {
+	/**
+	 * Creates the view of a grid. The grid is drawn from the latest snapshot of the game.
+	 * 
+	 * @param game the game being shown
+	 * @param row the row of the grid
+	 * @param col the column of the grid
+	 */
+	public GridUI(Game game, int row, int col) {
 		setLayout(new GridBagLayout());
 		
 		plantPanel = new JPanel();
 		plantLabel = new JLabel();
 		plantPanel.setOpaque(false);
 		
-		this.grid = grid;
-		this.row = grid.getRow();
-		this.col = grid.getCol();
+		this.game = game;
+		this.row = row;
+		this.col = col;
 		this.setOpaque(false);
 		
 		renderPlant();
 		renderZombies();
 	}
 	
+	/**
+	 * Creates a lightweight handle for a grid that does not render anything.
+	 * Used as the event source for clicks on the BoardCanvas.
+	 * 
+	 * @param row the row of the grid
+	 * @param col the column of the grid
+	 */
+	public GridUI(int row, int col) {
+		this.row = row;
+		this.col = col;
+		this.setOpaque(false);
+	}
+	
 	/**
 	 * Render the plant panel
 	 */
@@ -59,17 +80,19 @@ public class GridUI extends JPanel {
 		c.anchor = GridBagConstraints.NORTHWEST;
 		
 		Image plantImage;
+		BoardSnapshot.Cell cell = game.getSnapshot().getCell(row, col);
 
-		if (grid.getPlant() != null) {
-			plantImage = Images.getPlantImage(grid.getPlant().getPlantType());
+		if (cell.isOccupied()) {
+			plantImage = Images.getPlantImage(cell.getPlantType());
 			
 			if (plantImage != null) {
-				plantImage = plantImage.getScaledInstance(100, 100, Image.SCALE_DEFAULT);
+				plantImage = ScaledImageCache.getScaled(plantImage, 100, 100);
 				plantPanel.setPreferredSize(new Dimension(100, 100));
 				plantLabel.setIcon(new ImageIcon(plantImage));
-			} else {
-				plantLabel.setText(grid.getPlant().toString());
 			}
+			
+			// name the plant while only a placeholder sprite is available
+			plantLabel.setText(Images.isLoaded()? "" : cell.getPlantName());
 			plantPanel.add(plantLabel);
 		} else {
 			plantPanel.remove(plantLabel);
@@ -88,9 +111,8 @@ public class GridUI extends JPanel {
 			this.remove(zombiePanel);
 			repaint();
 		}
-		grid.updateZombieTypeCount();
 		
-		zombiePanel = new ZombiePanel(this, grid.getZombieTypeCount(), showFullListListener);
+		zombiePanel = new ZombiePanel(this, game.getSnapshot().getCell(row, col).getZombieTypeCount(), showFullListListener);
 
 		add(zombiePanel);
 	}
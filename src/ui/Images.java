@@ -2,207 +2,429 @@ package ui;
 import assets.*;
 import util.Logger;
 
+import java.awt.AlphaComposite;
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.GraphicsEnvironment;
 import java.awt.Image;
+import java.awt.RenderingHints;
+import java.awt.Transparency;
 import java.awt.image.BufferedImage;
 import java.io.File;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import javax.imageio.ImageIO;
+import javax.swing.SwingUtilities;
 
 /**
  * Class to load images.
- * 
+ *
+ * Images are decoded in parallel on a small thread pool. Once every file has been decoded the
+ * sprites (plants, zombies and the lawn mower) are scaled down and packed into a single atlas
+ * in the screen's compatible image format, and lookups are served as sub-images of that atlas.
+ * Placeholder sprites are handed out until loading completes.
+ *
  * @author Derek Shao modified David Wang
  *
  */
 public class Images
 {
-	private static BufferedImage sunflowerImage = null;
-	private static BufferedImage twinSunflowerImage = null;
-	private static BufferedImage peashooterImage = null;
-	private static BufferedImage repeaterPeashooterImage = null;
-	private static BufferedImage potatoMineImage = null;
-	private static BufferedImage airMonkeyImage = null;
-	private static BufferedImage wallnutImage = null;
-	private static BufferedImage tallnutImage = null;
-	private static BufferedImage jalapenoImage = null;
-  
-	private static BufferedImage kernelpultImage = null;
-	private static BufferedImage melonpultImage = null;
-	private static BufferedImage snowshooterImage = null;
-	
-	private static BufferedImage regZombieImage = null;
-	private static BufferedImage rushZombieImage = null;
-	private static BufferedImage sprintZombieImage = null;
-	private static BufferedImage tankZombieImage = null;
-	private static BufferedImage yetiZombieImage = null;
-	private static BufferedImage expZombieImage = null;
-	private static BufferedImage jukZombieImage = null;
-	private static BufferedImage airZombieImage = null;
-	private static BufferedImage enragedZombieImage = null;
-	
-	private static BufferedImage mowerImage = null;
-	private static BufferedImage grassImage = null;
-	private static BufferedImage titleBanner = null;
-	private static BufferedImage titleSplash = null;
+	//sprites are never drawn larger than this, so there is no point keeping the full resolution decode
+	private static final int MAX_SPRITE_SIZE = 256;
+	private static final int ATLAS_WIDTH = 2048;
+	private static final int ATLAS_PADDING = 1;
+	private static final int PLACEHOLDER_SIZE = 64;
+
+	private static final String MOWER_KEY = "mower";
+
+	private static final Map<PlantTypes, String> PLANT_FILES = new EnumMap<PlantTypes, String>(PlantTypes.class);
+	private static final Map<ZombieTypes, String> ZOMBIE_FILES = new EnumMap<ZombieTypes, String>(ZombieTypes.class);
+
+	static {
+		PLANT_FILES.put(PlantTypes.SUNFLOWER, "images/Plant_Sunflower.png");
+		PLANT_FILES.put(PlantTypes.TWIN_FLOWER, "images/Twin_Flower.png");
+		PLANT_FILES.put(PlantTypes.PEASHOOTER, "images/Plant_Peashooter.png");
+		PLANT_FILES.put(PlantTypes.REPEATER_PEASHOOTER, "images/Repeater_Peashooter.png");
+		PLANT_FILES.put(PlantTypes.AIRMONKEY, "images/Air_Monkey.png");
+		PLANT_FILES.put(PlantTypes.POTATOMINE, "images/Potato_Mine.png");
+		PLANT_FILES.put(PlantTypes.WALLNUT, "images/Plant_Wallnut.png");
+		PLANT_FILES.put(PlantTypes.TALLNUT, "images/Plant_Tallnut.png");
+		PLANT_FILES.put(PlantTypes.KERNELPULT, "images/Plant_Kernelpult.png");
+		PLANT_FILES.put(PlantTypes.MELONPULT, "images/Plant_Melonpult.png");
+		PLANT_FILES.put(PlantTypes.SNOWSHOOTER, "images/Plant_Snowshooter.png");
+		PLANT_FILES.put(PlantTypes.JALAPENO, "images/Jalapeno.png");
+
+		ZOMBIE_FILES.put(ZombieTypes.REG_ZOMBIE, "images/Zombie_Regular.png");
+		ZOMBIE_FILES.put(ZombieTypes.EXP_ZOMBIE, "images/Exploding_Zombie.png");
+		ZOMBIE_FILES.put(ZombieTypes.JUK_ZOMBIE, "images/Juking_Zombie.png");
+		ZOMBIE_FILES.put(ZombieTypes.AIR_ZOMBIE, "images/Air_Zombie.png");
+		ZOMBIE_FILES.put(ZombieTypes.RUSH_ZOMBIE, "images/Zombie_Rush.png");
+		ZOMBIE_FILES.put(ZombieTypes.SPRINT_ZOMBIE, "images/Zombie_Sprinter.png");
+		ZOMBIE_FILES.put(ZombieTypes.TANK_ZOMBIE, "images/Zombie_Tank.png");
+		ZOMBIE_FILES.put(ZombieTypes.YETI_ZOMBIE, "images/Zombie_Yeti.png");
+		ZOMBIE_FILES.put(ZombieTypes.ENRAGED_ZOMBIE, "images/Enraged_Zombie.png");
+		ZOMBIE_FILES.put(ZombieTypes.FLANK_ZOMBIE, "images/Vaulting_Zombie.png");
+	}
+
+	private static final String MOWER_FILE = "images/Lawnmower.png";
+	private static final String GRASS_FILE = "images/GrassTile.jpg";
+	private static final String TITLE_BANNER_FILE = "images/title-top-background.jpg";
+	private static final String TITLE_SPLASH_FILE = "images/title-background.jpg";
+
+	//placeholders handed out until the atlas is ready
+	private static final BufferedImage plantPlaceholder = createPlaceholder(new Color(60, 140, 60, 160));
+	private static final BufferedImage zombiePlaceholder = createPlaceholder(new Color(110, 110, 110, 160));
+
+	//the lookup tables are swapped in as a whole once loading completes
+	private static volatile Map<PlantTypes, BufferedImage> plantSprites = Collections.emptyMap();
+	private static volatile Map<ZombieTypes, BufferedImage> zombieSprites = Collections.emptyMap();
+	private static volatile BufferedImage atlas = null;
+	private static volatile BufferedImage mowerImage = null;
+	private static volatile BufferedImage grassImage = null;
+	private static volatile BufferedImage titleBanner = null;
+	private static volatile BufferedImage titleSplash = null;
+
+	private static volatile boolean loaded = false;
+	private static volatile boolean loadedWithoutErrors = false;
+	private static boolean started = false;
+	private static final CountDownLatch loadingDone = new CountDownLatch(1);
+	private static final List<Runnable> loadListeners = new ArrayList<Runnable>();
 
 	private static Logger LOG = new Logger("Images");
-	
+
 	private Images() {}
 
 	/**
-	 * Pre-load and cache all images
-	 * 
-	 * @return true if images successfully loaded, false otherwise
+	 * Start loading and caching all images in the background.
+	 * Placeholder images are returned by the getters until loading completes.
+	 *
+	 * @return true if image loading was started, false otherwise
 	 */
-	public static boolean preloadImages() {
-		try {
-			sunflowerImage = ImageIO.read(new File("images/Plant_Sunflower.png"));
-			twinSunflowerImage = ImageIO.read(new File("images/Twin_Flower.png"));
-			repeaterPeashooterImage = ImageIO.read(new File("images/Repeater_Peashooter.png"));
-			peashooterImage =  ImageIO.read(new File("images/Plant_Peashooter.png"));
-			potatoMineImage = ImageIO.read(new File("images/Potato_Mine.png"));
-			airMonkeyImage = ImageIO.read(new File("images/Air_Monkey.png"));
-			regZombieImage =  ImageIO.read(new File("images/Zombie_Regular.png"));
-			expZombieImage = ImageIO.read(new File("images/Exploding_Zombie.png"));
-			jukZombieImage = ImageIO.read(new File ("images/Juking_Zombie.png"));
-			airZombieImage = ImageIO.read(new File ("images/Air_Zombie.png"));
-			wallnutImage = ImageIO.read(new File("images/Plant_Wallnut.png"));
-			tallnutImage = ImageIO.read(new File("images/Plant_Tallnut.png"));
-			kernelpultImage = ImageIO.read(new File("images/Plant_Kernelpult.png"));
-			melonpultImage = ImageIO.read(new File("images/Plant_Melonpult.png"));
-			snowshooterImage = ImageIO.read(new File("images/Plant_Snowshooter.png"));
-			jalapenoImage = ImageIO.read(new File("images/Jalapeno.png"));
-			
-			rushZombieImage =  ImageIO.read(new File("images/Zombie_Rush.png"));
-			sprintZombieImage =  ImageIO.read(new File("images/Zombie_Sprinter.png"));
-			tankZombieImage = ImageIO.read(new File("images/Zombie_Tank.png"));
-			yetiZombieImage = ImageIO.read(new File("images/Zombie_Yeti.png"));
-			enragedZombieImage = ImageIO.read(new File("images/Enraged_Zombie.png"));
-			
-			mowerImage =  ImageIO.read(new File("images/Lawnmower.png"));
-			grassImage = ImageIO.read(new File("images/GrassTile.jpg"));
-			
-			titleBanner =  ImageIO.read(new File("images/title-top-background.jpg"));
-			titleSplash = ImageIO.read(new File("images/title-background.jpg"));
+	public static synchronized boolean preloadImages() {
+		if (started) {
 			return true;
-		} catch (IOException e) {
-			e.printStackTrace();
-			LOG.error("Failed to Load Images");
+		}
+		started = true;
+
+		int poolSize = Math.max(2, Math.min(Runtime.getRuntime().availableProcessors(), 8));
+		ExecutorService pool = Executors.newFixedThreadPool(poolSize, r -> {
+			Thread t = new Thread(r, "Image Loader");
+			t.setDaemon(true);
+			return t;
+		});
+
+		Map<Object, CompletableFuture<BufferedImage>> sprites = new LinkedHashMap<Object, CompletableFuture<BufferedImage>>();
+		for (Map.Entry<PlantTypes, String> e : PLANT_FILES.entrySet()) {
+			sprites.put(e.getKey(), CompletableFuture.supplyAsync(() -> decode(e.getValue()), pool));
+		}
+		for (Map.Entry<ZombieTypes, String> e : ZOMBIE_FILES.entrySet()) {
+			sprites.put(e.getKey(), CompletableFuture.supplyAsync(() -> decode(e.getValue()), pool));
+		}
+		sprites.put(MOWER_KEY, CompletableFuture.supplyAsync(() -> decode(MOWER_FILE), pool));
+
+		CompletableFuture<BufferedImage> grass = CompletableFuture.supplyAsync(() -> toCompatible(decode(GRASS_FILE)), pool);
+		CompletableFuture<BufferedImage> banner = CompletableFuture.supplyAsync(() -> toCompatible(decode(TITLE_BANNER_FILE)), pool);
+		CompletableFuture<BufferedImage> splash = CompletableFuture.supplyAsync(() -> toCompatible(decode(TITLE_SPLASH_FILE)), pool);
+
+		List<CompletableFuture<BufferedImage>> all = new ArrayList<CompletableFuture<BufferedImage>>(sprites.values());
+		all.add(grass);
+		all.add(banner);
+		all.add(splash);
+
+		CompletableFuture.allOf(all.toArray(new CompletableFuture<?>[0])).thenRunAsync(() -> {
+			Map<Object, BufferedImage> decoded = new LinkedHashMap<Object, BufferedImage>();
+			for (Map.Entry<Object, CompletableFuture<BufferedImage>> e : sprites.entrySet()) {
+				decoded.put(e.getKey(), e.getValue().join());
+			}
+			grassImage = grass.join();
+			titleBanner = banner.join();
+			titleSplash = splash.join();
+
+			packAtlas(decoded);
+
+			loadedWithoutErrors = !decoded.containsValue(null) && grassImage != null && titleBanner != null && titleSplash != null;
+		}, pool).whenComplete((done, failure) -> {
+			//loading is over even if it failed, so nothing waits for it forever and the placeholders stay in use
+			if (failure != null) {
+				LOG.error("Failed to load images: {}", failure);
+			}
+			loaded = true;
+			LOG.debug("Finished loading images");
+			finishLoading();
+			pool.shutdown();
+		});
+
+		return true;
+	}
+
+	/**
+	 * Block until image loading has completed.
+	 *
+	 * @return true if every image was loaded, false if any image failed to load
+	 */
+	public static boolean awaitImages() {
+		try {
+			loadingDone.await();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
 			return false;
 		}
+		return loadedWithoutErrors;
+	}
+
+	/**
+	 * Checks if image loading has completed.
+	 *
+	 * @return true if the real images are available, false if placeholders are being handed out
+	 */
+	public static boolean isLoaded() {
+		return loaded;
+	}
+
+	/**
+	 * Register a callback to be run on the Swing event thread once loading has completed.
+	 * If loading has already completed the callback is run as soon as the event thread gets to it.
+	 *
+	 * @param listener the callback
+	 */
+	public static void addLoadListener(Runnable listener) {
+		synchronized (loadListeners) {
+			if (!loaded) {
+				loadListeners.add(listener);
+				return;
+			}
+		}
+		SwingUtilities.invokeLater(listener);
+	}
+
+	/**
+	 * Notify all load listeners on the event thread
+	 */
+	private static void finishLoading() {
+		List<Runnable> listeners;
+		synchronized (loadListeners) {
+			listeners = new ArrayList<Runnable>(loadListeners);
+			loadListeners.clear();
+		}
+		loadingDone.countDown();
+
+		for (Runnable listener : listeners) {
+			SwingUtilities.invokeLater(listener);
+		}
+	}
+
+	/**
+	 * Decode a single image file
+	 *
+	 * @param path the file to decode
+	 * @return the decoded image, null if the image could not be read
+	 */
+	private static BufferedImage decode(String path) {
+		try {
+			return ImageIO.read(new File(path));
+		} catch (IOException e) {
+			LOG.error("Failed to Load Image {}", path);
+			return null;
+		}
+	}
+
+	/**
+	 * Pack the decoded sprites into a single atlas using shelf packing.
+	 * Each sprite is scaled down to fit within MAX_SPRITE_SIZE.
+	 *
+	 * @param decoded the decoded sprites keyed by their plant/zombie type
+	 */
+	private static void packAtlas(Map<Object, BufferedImage> decoded) {
+		List<Object> keys = new ArrayList<Object>();
+		for (Map.Entry<Object, BufferedImage> e : decoded.entrySet()) {
+			if (e.getValue() != null) {
+				keys.add(e.getKey());
+			}
+		}
+
+		//size every sprite and place the tallest first so shelves are filled evenly
+		Map<Object, int[]> sizes = new LinkedHashMap<Object, int[]>();
+		for (Object key : keys) {
+			BufferedImage src = decoded.get(key);
+			double scale = Math.min(1.0, (double) MAX_SPRITE_SIZE / Math.max(src.getWidth(), src.getHeight()));
+			sizes.put(key, new int[] {Math.max(1, (int) Math.round(src.getWidth() * scale)), Math.max(1, (int) Math.round(src.getHeight() * scale))});
+		}
+		keys.sort((a, b) -> sizes.get(b)[1] - sizes.get(a)[1]);
+
+		Map<Object, int[]> slots = new LinkedHashMap<Object, int[]>();
+		int x = 0;
+		int y = 0;
+		int shelfHeight = 0;
+		for (Object key : keys) {
+			int[] size = sizes.get(key);
+			if (x + size[0] > ATLAS_WIDTH) {
+				x = 0;
+				y += shelfHeight + ATLAS_PADDING;
+				shelfHeight = 0;
+			}
+			slots.put(key, new int[] {x, y, size[0], size[1]});
+			x += size[0] + ATLAS_PADDING;
+			shelfHeight = Math.max(shelfHeight, size[1]);
+		}
+
+		BufferedImage packed = createCompatibleImage(ATLAS_WIDTH, Math.max(1, y + shelfHeight));
+		Graphics2D g = packed.createGraphics();
+		g.setComposite(AlphaComposite.Src);
+		for (Object key : keys) {
+			int[] slot = slots.get(key);
+			g.drawImage(ScaledImageCache.scale(decoded.get(key), slot[2], slot[3]), slot[0], slot[1], null);
+		}
+		g.dispose();
+
+		Map<PlantTypes, BufferedImage> plants = new EnumMap<PlantTypes, BufferedImage>(PlantTypes.class);
+		Map<ZombieTypes, BufferedImage> zombies = new EnumMap<ZombieTypes, BufferedImage>(ZombieTypes.class);
+		for (Object key : keys) {
+			int[] slot = slots.get(key);
+			BufferedImage sprite = packed.getSubimage(slot[0], slot[1], slot[2], slot[3]);
+			if (key instanceof PlantTypes) {
+				plants.put((PlantTypes) key, sprite);
+			} else if (key instanceof ZombieTypes) {
+				zombies.put((ZombieTypes) key, sprite);
+			} else if (MOWER_KEY.equals(key)) {
+				mowerImage = sprite;
+			}
+		}
+
+		atlas = packed;
+		plantSprites = plants;
+		zombieSprites = zombies;
+		LOG.debug("Packed {} sprites into a {}x{} atlas", keys.size(), packed.getWidth(), packed.getHeight());
+	}
+
+	/**
+	 * Copy an image into the screen's compatible format
+	 *
+	 * @param src the image to copy
+	 * @return the compatible copy, null if src is null
+	 */
+	private static BufferedImage toCompatible(BufferedImage src) {
+		if (src == null) {
+			return null;
+		}
+		BufferedImage copy = createCompatibleImage(src.getWidth(), src.getHeight());
+		Graphics2D g = copy.createGraphics();
+		g.drawImage(src, 0, 0, null);
+		g.dispose();
+		return copy;
+	}
+
+	/**
+	 * Create a translucent image in the format preferred by the default screen
+	 *
+	 * @param width
+	 * @param height
+	 * @return a blank image
+	 */
+	static BufferedImage createCompatibleImage(int width, int height) {
+		if (!GraphicsEnvironment.isHeadless()) {
+			GraphicsConfiguration gc = GraphicsEnvironment.getLocalGraphicsEnvironment().getDefaultScreenDevice().getDefaultConfiguration();
+			return gc.createCompatibleImage(width, height, Transparency.TRANSLUCENT);
+		}
+		return new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB_PRE);
+	}
+
+	/**
+	 * Draw a simple placeholder sprite
+	 *
+	 * @param color the fill color
+	 * @return the placeholder
+	 */
+	private static BufferedImage createPlaceholder(Color color) {
+		BufferedImage image = new BufferedImage(PLACEHOLDER_SIZE, PLACEHOLDER_SIZE, BufferedImage.TYPE_INT_ARGB);
+		Graphics2D g = image.createGraphics();
+		g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+		g.setColor(color);
+		g.fillRoundRect(4, 4, PLACEHOLDER_SIZE - 8, PLACEHOLDER_SIZE - 8, 16, 16);
+		g.setColor(Color.WHITE);
+		g.setFont(new Font(Font.MONOSPACED, Font.BOLD, 24));
+		g.drawString("?", PLACEHOLDER_SIZE / 2 - 7, PLACEHOLDER_SIZE / 2 + 8);
+		g.dispose();
+		return image;
 	}
 
 	/**
 	 * Get the image for a specified plant type
-	 * 
+	 *
 	 * @param plant type
-	 * @return plant image
+	 * @return plant image, a placeholder if images are still loading
 	 */
 	public static Image getPlantImage(PlantTypes plant)
 	{
-		switch(plant) {
-		case SUNFLOWER:
-			return sunflowerImage;
-		case TWIN_FLOWER:
-			return twinSunflowerImage;
-		case PEASHOOTER:
-			return peashooterImage;
-		case REPEATER_PEASHOOTER:
-			return repeaterPeashooterImage;
-		case AIRMONKEY:
-			return airMonkeyImage;
-		case POTATOMINE:
-			return potatoMineImage;
-		case WALLNUT:
-			return wallnutImage;
-		case TALLNUT:
-			return tallnutImage;
-		case KERNELPULT:
-			return kernelpultImage;
-		case MELONPULT:
-			return melonpultImage;
-		case SNOWSHOOTER:
-			return snowshooterImage;
-		case JALAPENO:
-			return jalapenoImage;
-		default:
-			LOG.error("Invalid Plant type");
-		}
-
-		return null;
+		BufferedImage sprite = plantSprites.get(plant);
+		return sprite != null ? sprite : plantPlaceholder;
 	}
 
 	/**
 	 * Get the image for a specified zombie type
-	 * 
+	 *
 	 * @param zombie
-	 * @return zombie image
+	 * @return zombie image, a placeholder if images are still loading
 	 */
 	public static Image getZombieImage(ZombieTypes zombie) {
-		switch(zombie) {
-		case REG_ZOMBIE:
-			return regZombieImage;
-		case EXP_ZOMBIE:
-			return expZombieImage;
-		case JUK_ZOMBIE:
-			return jukZombieImage;
-		case AIR_ZOMBIE:
-			return airZombieImage;
-		case RUSH_ZOMBIE:
-			return rushZombieImage;
-		case SPRINT_ZOMBIE:
-			return sprintZombieImage;
-		case TANK_ZOMBIE:
-			return tankZombieImage;
-		case YETI_ZOMBIE:
-			return yetiZombieImage;
-		case ENRAGED_ZOMBIE:
-			return enragedZombieImage;
-		default:
-			LOG.error("Invalid zombie type");
-		}
-
-		return null;
+		BufferedImage sprite = zombieSprites.get(zombie);
+		return sprite != null ? sprite : zombiePlaceholder;
 	}
 
 	/**
 	 * Get the lawn mower image
-	 * 
-	 * @return lawn mower image
+	 *
+	 * @return lawn mower image, a placeholder if images are still loading
 	 */
 	public static Image getLawnMowerImage() {
-		return mowerImage;
+		BufferedImage mower = mowerImage;
+		return mower != null ? mower : zombiePlaceholder;
 	}
 
 	/**
 	 * Get the grass tile image
-	 * 
-	 * @return grass tile image
+	 *
+	 * @return grass tile image, null if images are still loading
 	 */
 	public static Image getGrassTileImage() {
 		return grassImage;
 	}
-	
+
 	/**
 	 * Get the title banner image.
-	 * 
-	 * @return title banner image
+	 *
+	 * @return title banner image, null if images are still loading
 	 */
 	public static Image getTitleBannerImage() {
 		return titleBanner;
 	}
-	
+
 	/**
 	 * Get the title splash image.
-	 * 
-	 * @return title splash image
+	 *
+	 * @return title splash image, null if images are still loading
 	 */
 	public static Image getTitleSplashImage() {
 		return titleSplash;
 	}
-	
-	
-}
-
 
+	/**
+	 * Get the sprite atlas all plant, zombie and mower sprites are served from.
+	 *
+	 * @return the atlas, null if images are still loading
+	 */
+	public static Image getAtlas() {
+		return atlas;
+	}
+}
@@ -25,7 +25,7 @@ public class JImagePanel extends javax.swing.JPanel {
 	@Override
 	protected void paintComponent(Graphics g) {
 		super.paintComponent(g);
-		if (bgImage != null ) g.drawImage(bgImage.getScaledInstance(this.getWidth(), this.getHeight(), Image.SCALE_DEFAULT), 0, 0, null); //have to add this to add image support
+		if (bgImage != null && getWidth() > 0 && getHeight() > 0) g.drawImage(ScaledImageCache.getScaled(bgImage, this.getWidth(), this.getHeight()), 0, 0, null); //have to add this to add image support
 	}
 
 	/**
@@ -34,6 +34,6 @@ public class JImagePanel extends javax.swing.JPanel {
 	 */
 	public void setImage(Image bgImage) {
 		this.bgImage = bgImage;
-		this.update(this.getGraphics());
+		repaint();
 	}
 }
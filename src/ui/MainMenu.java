@@ -6,7 +6,6 @@ import java.awt.Container;
 import java.awt.Font;
 import java.awt.GraphicsDevice;
 import java.awt.GraphicsEnvironment;
-import java.awt.Image;
 import javax.swing.BoxLayout;
 import javax.swing.ImageIcon;
 import javax.swing.JButton;
@@ -112,15 +111,22 @@ public class MainMenu extends JFrame {
 		btnPane.add(quitBtn);
 		contents.add(btnPane, BorderLayout.SOUTH);
 		
-		try { //insert a background image
-			JLabel picLabel = new JLabel(new ImageIcon(Images.getTitleSplashImage().getScaledInstance(this.getWidth(), this.getHeight(), Image.SCALE_DEFAULT)));
-			contents.add(picLabel, BorderLayout.CENTER);
-		} catch (NullPointerException e) { //couldn't find image
-			e.printStackTrace();
-			contents.setBackground(Color.WHITE);
-			btnPane.setBackground(Color.WHITE);
-			titlePane.setBackground(Color.WHITE);
-		}
+		JLabel picLabel = new JLabel();
+		contents.add(picLabel, BorderLayout.CENTER);
+		contents.setBackground(Color.WHITE);
+		btnPane.setBackground(Color.WHITE);
+		titlePane.setBackground(Color.WHITE);
+		
+		//images are loaded in the background, fill them in once they are available
+		final JPanel title = titlePane;
+		final JPanel buttons = btnPane;
+		Images.addLoadListener(() -> {
+			if (title instanceof JImagePanel) ((JImagePanel) title).setImage(Images.getTitleBannerImage());
+			if (buttons instanceof JImagePanel) ((JImagePanel) buttons).setImage(Images.getTitleBannerImage());
+			if (Images.getTitleSplashImage() != null) { //insert a background image
+				picLabel.setIcon(new ImageIcon(ScaledImageCache.getScaled(Images.getTitleSplashImage(), this.getWidth(), this.getHeight())));
+			}
+		});
 		
 		this.setVisible(true); //Show this monstrosity
 	}
@@ -0,0 +1,265 @@
+package ui;
+
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.GraphicsEnvironment;
+import java.awt.Image;
+import java.awt.RenderingHints;
+import java.awt.image.BaseMultiResolutionImage;
+import java.awt.image.BufferedImage;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import util.Logger;
+
+/**
+ * Cache of pre-scaled images in the screen's compatible format, keyed by (image, width, height, HiDPI scale).
+ * Replaces repeated calls to Image.getScaledInstance so the same sprite is only ever scaled once per size.
+ * Least recently used entries are evicted once the cache grows past its memory cap.
+ */
+public class ScaledImageCache {
+	private static Logger LOG = new Logger("ScaledImageCache");
+
+	//default memory cap for all cached images
+	private static final long DEFAULT_CAPACITY_BYTES = 32L * 1024 * 1024;
+	private static final int BYTES_PER_PIXEL = 4;
+
+	private static final LinkedHashMap<Key, Entry> cache = new LinkedHashMap<Key, Entry>(64, 0.75f, true);
+	//reused for lookups so a cache hit does not allocate
+	private static final Key probe = new Key();
+
+	private static long capacityBytes = DEFAULT_CAPACITY_BYTES;
+	private static long usedBytes = 0;
+
+	private static long hits = 0;
+	private static long misses = 0;
+	private static long evictions = 0;
+
+	private ScaledImageCache() {}
+
+	/**
+	 * Get a scaled copy of an image. The copy is created on the first request and cached afterwards.
+	 *
+	 * @param src the image to scale
+	 * @param width the width to draw the image at
+	 * @param height the height to draw the image at
+	 * @return the scaled image
+	 * @throws IllegalArgumentException if width or height is not positive
+	 */
+	public static Image getScaled(Image src, int width, int height) {
+		if (width <= 0 || height <= 0) {
+			throw new IllegalArgumentException("Width (" + width + ") and height (" + height + ") must be positive");
+		}
+		double scale = getDisplayScale();
+
+		synchronized (cache) {
+			probe.set(src, width, height, scale);
+			Entry hit = cache.get(probe);
+			if (hit != null) {
+				hits++;
+				return hit.image;
+			}
+			misses++;
+		}
+
+		Entry entry = createEntry(src, width, height, scale);
+
+		synchronized (cache) {
+			Key key = new Key();
+			key.set(src, width, height, scale);
+			Entry previous = cache.put(key, entry);
+			if (previous != null) {
+				usedBytes -= previous.bytes;
+			}
+			usedBytes += entry.bytes;
+			evict();
+		}
+		return entry.image;
+	}
+
+	/**
+	 * Scale an image to the logical size and, on HiDPI screens, to the physical size as well
+	 */
+	private static Entry createEntry(Image src, int width, int height, double scale) {
+		BufferedImage base = scale(toBufferedImage(src), width, height);
+		if (scale == 1.0) {
+			return new Entry(base, (long) width * height * BYTES_PER_PIXEL);
+		}
+
+		int physicalWidth = (int) Math.ceil(width * scale);
+		int physicalHeight = (int) Math.ceil(height * scale);
+		BufferedImage hiDpi = scale(toBufferedImage(src), physicalWidth, physicalHeight);
+		long bytes = ((long) width * height + (long) physicalWidth * physicalHeight) * BYTES_PER_PIXEL;
+		return new Entry(new BaseMultiResolutionImage(base, hiDpi), bytes);
+	}
+
+	/**
+	 * Evict least recently used entries until the cache is within its memory cap
+	 */
+	private static void evict() {
+		Iterator<Map.Entry<Key, Entry>> it = cache.entrySet().iterator();
+		while (usedBytes > capacityBytes && cache.size() > 1 && it.hasNext()) {
+			usedBytes -= it.next().getValue().bytes;
+			it.remove();
+			evictions++;
+		}
+	}
+
+	/**
+	 * Scale an image into a new compatible image. Large reductions are done in halving steps to keep the result smooth.
+	 *
+	 * @param src the image to scale
+	 * @param width the target width
+	 * @param height the target height
+	 * @return the scaled image
+	 */
+	static BufferedImage scale(BufferedImage src, int width, int height) {
+		BufferedImage current = src;
+		int w = src.getWidth();
+		int h = src.getHeight();
+
+		do {
+			w = w / 2 > width ? w / 2 : width;
+			h = h / 2 > height ? h / 2 : height;
+
+			BufferedImage step = Images.createCompatibleImage(w, h);
+			Graphics2D g = step.createGraphics();
+			g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+			g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+			g.drawImage(current, 0, 0, w, h, null);
+			g.dispose();
+			current = step;
+		} while (w != width || h != height);
+
+		return current;
+	}
+
+	private static BufferedImage toBufferedImage(Image src) {
+		if (src instanceof BufferedImage) {
+			return (BufferedImage) src;
+		}
+		BufferedImage copy = new BufferedImage(Math.max(1, src.getWidth(null)), Math.max(1, src.getHeight(null)), BufferedImage.TYPE_INT_ARGB);
+		Graphics2D g = copy.createGraphics();
+		g.drawImage(src, 0, 0, null);
+		g.dispose();
+		return copy;
+	}
+
+	/**
+	 * Get the HiDPI scale of the default screen
+	 *
+	 * @return the display scale, 1.0 when headless
+	 */
+	private static double getDisplayScale() {
+		if (GraphicsEnvironment.isHeadless()) {
+			return 1.0;
+		}
+		GraphicsConfiguration gc = GraphicsEnvironment.getLocalGraphicsEnvironment().getDefaultScreenDevice().getDefaultConfiguration();
+		return gc.getDefaultTransform().getScaleX();
+	}
+
+	/**
+	 * Set the memory cap of the cache. Entries are evicted immediately if the cache is over the new cap.
+	 *
+	 * @param bytes the maximum number of bytes held by cached images
+	 */
+	public static void setCapacity(long bytes) {
+		synchronized (cache) {
+			capacityBytes = bytes;
+			evict();
+		}
+		LOG.debug("Scaled image cache capacity set to {} bytes", bytes);
+	}
+
+	/**
+	 * Remove every cached image
+	 */
+	public static void clear() {
+		synchronized (cache) {
+			cache.clear();
+			usedBytes = 0;
+		}
+	}
+
+	/**
+	 * @return the number of lookups served from the cache
+	 */
+	public static long getHits() {
+		synchronized (cache) {
+			return hits;
+		}
+	}
+
+	/**
+	 * @return the number of lookups that had to scale an image
+	 */
+	public static long getMisses() {
+		synchronized (cache) {
+			return misses;
+		}
+	}
+
+	/**
+	 * @return the number of entries evicted to stay within the memory cap
+	 */
+	public static long getEvictions() {
+		synchronized (cache) {
+			return evictions;
+		}
+	}
+
+	/**
+	 * @return the number of bytes currently held by cached images
+	 */
+	public static long getUsedBytes() {
+		synchronized (cache) {
+			return usedBytes;
+		}
+	}
+
+	/**
+	 * Cache key. Source images are compared by identity.
+	 */
+	private static final class Key {
+		private Image src;
+		private int width;
+		private int height;
+		private double scale;
+
+		void set(Image src, int width, int height, double scale) {
+			this.src = src;
+			this.width = width;
+			this.height = height;
+			this.scale = scale;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (!(o instanceof Key)) {
+				return false;
+			}
+			Key other = (Key) o;
+			return src == other.src && width == other.width && height == other.height && scale == other.scale;
+		}
+
+		@Override
+		public int hashCode() {
+			int result = System.identityHashCode(src);
+			result = 31 * result + width;
+			result = 31 * result + height;
+			result = 31 * result + Double.hashCode(scale);
+			return result;
+		}
+	}
+
+	private static final class Entry {
+		private final Image image;
+		private final long bytes;
+
+		Entry(Image image, long bytes) {
+			this.image = image;
+			this.bytes = bytes;
+		}
+	}
+}
@@ -66,9 +66,8 @@ public class ZombiePanel extends JPanel {
 	private void addZombieType(ZombieTypes zombieType, Component parent, int count, int mapSize) {
 		Image zombieImage = Images.getZombieImage(zombieType);
 		try {
-			zombieImage = zombieImage.getScaledInstance(parent.getHeight()/(mapSize + 1) == 0? 50: parent.getHeight()/(mapSize + 1), //try to set the dimensions to relative to the parent
-													parent.getHeight()/mapSize == 0? 50: parent.getHeight()/mapSize,
-													Image.SCALE_DEFAULT);
+			zombieImage = ScaledImageCache.getScaled(zombieImage, parent.getHeight()/(mapSize + 1) == 0? 50: parent.getHeight()/(mapSize + 1), //try to set the dimensions to relative to the parent
+													parent.getHeight()/mapSize == 0? 50: parent.getHeight()/mapSize);
 		}
 		catch (Exception e) {
 			e.addSuppressed(new NullPointerException());
@@ -93,6 +92,16 @@ public class ZombiePanel extends JPanel {
 	
 	public void showFullZombieList() {
 		
+		showFullZombieList(zombieTypeCount);
+	}
+	
+	/**
+	 * Show a dialog listing every zombie type and its count
+	 * 
+	 * @param zombieTypeCount the zombie types and their count
+	 */
+	public static void showFullZombieList(Map<ZombieTypes, Integer> zombieTypeCount) {
+		
 		JPanel fullZombieList = new JPanel();
 		fullZombieList.setLayout(new GridLayout(zombieTypeCount.size(), 3));
 		
@@ -102,8 +111,7 @@ public class ZombiePanel extends JPanel {
 			zombieName.setFont(new Font(Font.MONOSPACED, Font.PLAIN, 15));
 			
 			Image zombieImage = Images.getZombieImage(zombieType);
-			zombieImage = zombieImage.getScaledInstance(200, 200,
-					Image.SCALE_DEFAULT);
+			zombieImage = ScaledImageCache.getScaled(zombieImage, 200, 200);
 			
 			JLabel zombieImageLabel = new JLabel(new ImageIcon(zombieImage));
 			JPanel zombieDisplay = new JPanel();
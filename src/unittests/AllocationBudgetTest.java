@@ -0,0 +1,239 @@
+package unittests;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import assets.Jalapeno;
+import assets.Kernelpult;
+import assets.Peashooter;
+import assets.PlantTypes;
+import assets.Regular_Zombie;
+import assets.TankZombie;
+import assets.Zombie;
+import assets.ZombieTypes;
+import engine.Board;
+import engine.Game;
+import engine.RealTimeEngine;
+import levels.LevelInfo;
+import util.EngineMetrics;
+import util.Metrics;
+
+/**
+ * Allocation budgets for the turn loop.
+ * A fixed seed game is played and the bytes allocated by each phase of a turn (from the
+ * zav_turn_phase_allocated_bytes counters) are checked against a budget, so a change that starts
+ * allocating in the hot path fails here instead of showing up as GC pauses.
+ * The budgets have about twice the headroom of what the loop allocates now.
+ */
+public class AllocationBudgetTest {
+	private static final long SEED = 3110;
+	private static final int TURNS = 10;
+
+	//bytes per turn, averaged over TURNS
+	private static final long PLAYER_TURN_BUDGET = 512;
+	private static final long ZOMBIE_TURN_BUDGET = 1536;
+	private static final long SPAWN_BUDGET = 1536;
+	//includes the copy of the board kept for undo
+	private static final long END_OF_TURN_BUDGET = 32 * 1024;
+
+	//bytes per call
+	private static final long ZOMBIE_MOVE_BUDGET = 16;
+	private static final long KERNELPULT_SHOT_BUDGET = 48;
+	private static final long TARGET_QUERY_BUDGET = 16;
+	private static final long PROJECTILE_BUDGET = 16;
+	//bytes per tick of the real time engine, averaged over the ticks of REAL_TIME_TURNS
+	private static final long REAL_TIME_TICK_BUDGET = 64;
+	private static final int REAL_TIME_TURNS = 10;
+
+	private static final PlantTypes[][] LAYOUT = {
+			{PlantTypes.PEASHOOTER, PlantTypes.KERNELPULT},
+			{PlantTypes.REPEATER_PEASHOOTER, PlantTypes.SNOWSHOOTER},
+			{PlantTypes.PEASHOOTER, PlantTypes.AIRMONKEY},
+			{PlantTypes.KERNELPULT, PlantTypes.SUNFLOWER},
+			{PlantTypes.WALLNUT, PlantTypes.PEASHOOTER}};
+
+	@BeforeEach
+	public void requireAllocationMeasurement() {
+		Assumptions.assumeTrue(Metrics.isAllocationMeasured(), "The JVM does not measure thread allocation");
+	}
+
+	/**
+	 * A game with the plants of LAYOUT placed and a mix of zombies to spawn
+	 */
+	private static Game createGame(long seed) {
+		HashMap<ZombieTypes, Integer> zombies = new HashMap<>();
+		zombies.put(ZombieTypes.REG_ZOMBIE, 20);
+		zombies.put(ZombieTypes.JUK_ZOMBIE, 5);
+		zombies.put(ZombieTypes.AIR_ZOMBIE, 5);
+		HashSet<PlantTypes> plants = new HashSet<>(Arrays.asList(PlantTypes.values()));
+
+		Game game = new Game(new LevelInfo("Budget", 8, LAYOUT.length, 25, 10000, zombies, plants), seed);
+		for (int row = 0; row < LAYOUT.length; row++) {
+			for (int col = 0; col < LAYOUT[row].length; col++) {
+				game.placePlant(LAYOUT[row][col], row, col);
+			}
+		}
+		return game;
+	}
+
+	private static void playTurns(Game game, int turns) {
+		for (int i = 0; i < turns; i++) {
+			game.doEndOfTurn();
+		}
+	}
+
+	private static void assertWithinBudget(String what, long budget, long allocated) {
+		assertTrue(allocated <= budget, what + " allocated " + allocated + " bytes, the budget is " + budget);
+	}
+
+	@Test
+	public void testTurnPhaseBudgets() {
+		playTurns(createGame(SEED), TURNS); //warm up, loads the classes used by a turn
+		Game game = createGame(SEED);
+
+		long player = EngineMetrics.PLAYER_TURN_ALLOCATED.get();
+		long zombie = EngineMetrics.ZOMBIE_TURN_ALLOCATED.get();
+		long spawn = EngineMetrics.SPAWN_ALLOCATED.get();
+		long endOfTurn = EngineMetrics.END_OF_TURN_ALLOCATED.get();
+		playTurns(game, TURNS);
+
+		assertWithinBudget("The player turn", PLAYER_TURN_BUDGET, (EngineMetrics.PLAYER_TURN_ALLOCATED.get() - player) / TURNS);
+		assertWithinBudget("The zombie turn", ZOMBIE_TURN_BUDGET, (EngineMetrics.ZOMBIE_TURN_ALLOCATED.get() - zombie) / TURNS);
+		assertWithinBudget("Spawning", SPAWN_BUDGET, (EngineMetrics.SPAWN_ALLOCATED.get() - spawn) / TURNS);
+		assertWithinBudget("The end of turn", END_OF_TURN_BUDGET, (EngineMetrics.END_OF_TURN_ALLOCATED.get() - endOfTurn) / TURNS);
+	}
+
+	@Test
+	public void testZombieMoveBudget() {
+		Board board = new Board(1, 1000);
+		Zombie zombie = new Regular_Zombie();
+		zombie.setListener(board);
+		board.placeZombie(zombie, 0, 999);
+		for (int i = 0; i < 100; i++) {
+			board.onZombieMove(zombie);
+		}
+
+		int moves = 500;
+		long allocated = Metrics.allocatedBytes();
+		for (int i = 0; i < moves; i++) {
+			board.onZombieMove(zombie);
+		}
+		assertWithinBudget("A zombie move", ZOMBIE_MOVE_BUDGET, (Metrics.allocatedBytes() - allocated) / moves);
+	}
+
+	@Test
+	public void testRealTimeTickBudget() {
+		HashSet<PlantTypes> plants = new HashSet<>(Arrays.asList(PlantTypes.values()));
+		Game game = new Game(new LevelInfo("Real Time", 200, LAYOUT.length, 25, 10000, new HashMap<ZombieTypes, Integer>(), plants), SEED);
+		for (int row = 0; row < LAYOUT.length; row++) {
+			for (int col = 0; col < LAYOUT[row].length; col++) {
+				game.placePlant(LAYOUT[row][col], row, col);
+			}
+			for (int col = 100; col < 200; col += 2) { //a lot of zombies walking towards the plants
+				Zombie zombie = new TankZombie();
+				zombie.setListener(game.getBoard());
+				game.getBoard().placeZombie(zombie, row, col);
+			}
+		}
+		RealTimeEngine engine = new RealTimeEngine(game, RealTimeEngine.DEFAULT_TICK_RATE, RealTimeEngine.DEFAULT_TICKS_PER_TURN);
+		int ticks = REAL_TIME_TURNS * engine.getTicksPerTurn();
+		for (int i = 0; i < ticks; i++) { //warm up
+			engine.tick();
+		}
+
+		long allocated = EngineMetrics.TICK_ALLOCATED.get();
+		for (int i = 0; i < ticks; i++) {
+			engine.tick();
+		}
+		assertEquals(Game.GameState.PLAYING, game.getState());
+		assertWithinBudget("A real time tick", REAL_TIME_TICK_BUDGET, (EngineMetrics.TICK_ALLOCATED.get() - allocated) / ticks);
+	}
+
+	@Test
+	public void testKernelpultShotBudget() {
+		Board board = new Board(1, 10);
+		Kernelpult kernelpult = new Kernelpult();
+		board.placePlant(kernelpult, 0, 0);
+		Zombie zombie = new TankZombie();
+		zombie.setListener(board);
+		board.placeZombie(zombie, 0, 5);
+		zombie.setHp(Integer.MAX_VALUE);
+		for (int i = 0; i < 100; i++) {
+			kernelpult.attack(board);
+		}
+
+		int shots = 1000;
+		long allocated = Metrics.allocatedBytes();
+		for (int i = 0; i < shots; i++) {
+			kernelpult.attack(board);
+		}
+		assertWithinBudget("A kernelpult shot", KERNELPULT_SHOT_BUDGET, (Metrics.allocatedBytes() - allocated) / shots);
+	}
+
+	@Test
+	public void testProjectileBudget() {
+		Board board = new Board(1, 20);
+		board.setProjectiles(true);
+		Peashooter peashooter = new Peashooter();
+		board.placePlant(peashooter, 0, 0);
+		Zombie zombie = new TankZombie();
+		zombie.setListener(board);
+		board.placeZombie(zombie, 0, 15);
+		zombie.setHp(Integer.MAX_VALUE);
+		for (int i = 0; i < 100; i++) {
+			peashooter.attack(board);
+			board.advanceProjectiles(1);
+		}
+
+		int shots = 1000;
+		long allocated = Metrics.allocatedBytes();
+		for (int i = 0; i < shots; i++) { //a few projectiles are flying at any time
+			peashooter.attack(board);
+			board.advanceProjectiles(1);
+		}
+		assertWithinBudget("A projectile", PROJECTILE_BUDGET, (Metrics.allocatedBytes() - allocated) / shots);
+	}
+
+	@Test
+	public void testTargetQueryBudget() {
+		Board board = new Board(1, 20);
+		for (int col = 5; col < 20; col++) {
+			Zombie zombie = new TankZombie();
+			zombie.setListener(board);
+			board.placeZombie(zombie, 0, col);
+		}
+		Jalapeno visitor = new Jalapeno(); //not on the board, only used to visit
+		visitor.setPower(0);
+		for (int i = 0; i < 100; i++) {
+			board.forEachRowTarget(0, 0, visitor);
+			board.forEachGridTarget(0, 0, visitor);
+		}
+
+		int queries = 1000;
+		long allocated = Metrics.allocatedBytes();
+		for (int i = 0; i < queries; i++) {
+			board.forEachRowTarget(0, 0, visitor);
+			board.forEachGridTarget(0, 0, visitor);
+		}
+		assertWithinBudget("A target query", TARGET_QUERY_BUDGET, (Metrics.allocatedBytes() - allocated) / (2 * queries));
+	}
+
+	@Test
+	public void testSameSeedSameGame() {
+		Game first = createGame(SEED);
+		Game second = createGame(SEED);
+		playTurns(first, TURNS);
+		playTurns(second, TURNS);
+
+		assertEquals(first.getBoard().displayBoard(), second.getBoard().displayBoard());
+		assertEquals(first.getPurse().getPoints(), second.getPurse().getPoints());
+	}
+}
@@ -10,6 +10,8 @@ import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Random;
 import org.junit.jupiter.api.Test;
 
 /**
@@ -200,6 +202,278 @@ public class BoardTest {
 		}
 	}
 	
+	/**
+	 * tests that forEachRowTarget visits the zombies getRowTargets lists, and that the visitor can remove them
+	 */
+	@Test
+	public void testForEachRowTarget() {
+		Board b = new Board(1, 8);
+		Regular_Zombie z1 = new Regular_Zombie();
+		Regular_Zombie z2 = new Regular_Zombie();
+		Air_Zombie z3 = new Air_Zombie();
+		b.placeZombie(z1, 0, 3);
+		b.placeZombie(z2, 0, 6);
+		b.placeZombie(z3, 0, 6);
+		
+		ArrayList<Zombie> visited = new ArrayList<Zombie>();
+		assertEquals("All zombies in the row are visited", 3, b.forEachRowTarget(0, 0, (board, zombie) -> visited.add(zombie)));
+		assertEquals(b.getRowTargets(0, 0), visited);
+		
+		visited.clear();
+		assertEquals("Air zombies are not grid targets", 1, b.forEachGridTarget(0, 4, (board, zombie) -> visited.add(zombie)));
+		assertEquals(z2, visited.get(0));
+		
+		Air_Zombie z4 = new Air_Zombie();
+		b.placeZombie(z4, 0, 2);
+		assertEquals("A grid of air zombies is passed over", Arrays.asList(z1), b.getGridTargets(0, 0));
+		
+		b.forEachRowTarget(0, 0, (board, zombie) -> board.removeZombie(zombie.getRow(), zombie.getCol()));
+		assertEquals("Zombies can be removed while visiting", 0, b.getNumberOfZombies());
+	}
+	
+	/**
+	 * tests that the area counts follow the zombies as they are placed, move, take damage and are removed
+	 */
+	@Test
+	public void testCountZombiesInArea() {
+		Board b = new Board(6, 40);
+		Random random = new Random(47);
+		ArrayList<Zombie> zombies = new ArrayList<Zombie>();
+		for (int i = 0; i < 60; i++) {
+			Zombie z = new Regular_Zombie();
+			z.setListener(b);
+			b.placeZombie(z, random.nextInt(6), random.nextInt(40));
+			zombies.add(z);
+		}
+		assertEquals(60, b.countZombies(0, 0, 5, 39));
+		
+		for (int turn = 0; turn < 20; turn++) {
+			for (Zombie z : zombies) {
+				if (b.getAllZombies(z.getRow(), z.getCol()).contains(z)) {
+					z.move();
+					z.takeDamage(random.nextInt(30));
+				}
+			}
+			b.removeZombie(random.nextInt(6), random.nextInt(40));
+			
+			int x1 = random.nextInt(6);
+			int y1 = random.nextInt(40);
+			int x2 = x1 + random.nextInt(3);
+			int y2 = y1 + random.nextInt(15);
+			int count = 0;
+			long hp = 0;
+			for (int x = x1; x <= Math.min(x2, 5); x++) {
+				for (int y = y1; y <= Math.min(y2, 39); y++) {
+					for (Zombie z : b.getAllZombies(x, y)) {
+						count++;
+						hp += Math.max(z.getHP(), 0);
+					}
+				}
+			}
+			assertEquals("Turn " + turn, count, b.countZombies(x1, y1, x2, y2));
+			assertEquals("Turn " + turn, hp, b.getZombieHP(x1, y1, x2, y2));
+			assertEquals("Turn " + turn, count, b.forEachZombieInArea(x1, y1, x2, y2, (board, zombie) -> {}));
+		}
+	}
+	
+	/**
+	 * tests that forEachZombieInRadius visits the zombies of the square around a grid, in row and column order
+	 */
+	@Test
+	public void testForEachZombieInRadius() {
+		Board b = new Board(5, 500);
+		Regular_Zombie inside1 = new Regular_Zombie();
+		Air_Zombie inside2 = new Air_Zombie();
+		Regular_Zombie inside3 = new Regular_Zombie();
+		b.placeZombie(inside3, 3, 249);
+		b.placeZombie(inside1, 1, 251);
+		b.placeZombie(inside2, 2, 250);
+		b.placeZombie(new Regular_Zombie(), 0, 250);
+		b.placeZombie(new Regular_Zombie(), 2, 252);
+		b.placeZombie(new Regular_Zombie(), 2, 499);
+		
+		ArrayList<Zombie> visited = new ArrayList<Zombie>();
+		assertEquals(3, b.forEachZombieInRadius(2, 250, 1, (board, zombie) -> visited.add(zombie)));
+		assertEquals(Arrays.asList(inside1, inside2, inside3), visited);
+		
+		long scanned = b.getCellsScanned();
+		b.forEachZombieInRadius(2, 250, 1, (board, zombie) -> board.removeZombie(zombie.getRow(), zombie.getCol()));
+		assertEquals("Only the grids with zombies are looked at", scanned + 3, b.getCellsScanned());
+		assertEquals("Zombies can be removed while visiting", 0, b.countZombies(1, 249, 3, 251));
+		assertEquals(0, b.forEachZombieInRadius(0, 0, 1, (board, zombie) -> visited.add(zombie)));
+		assertEquals(1, b.countZombies(-5, 0, 0, 1000));
+	}
+	
+	/**
+	 * tests that the ranked targets found from the heaps match a search of the lane as zombies move, change and die
+	 */
+	@Test
+	public void testRankedTargets() {
+		Board b = new Board(4, 30);
+		Random random = new Random(49);
+		ArrayList<Zombie> zombies = new ArrayList<Zombie>();
+		for (int i = 0; i < 80; i++) {
+			Zombie z = i % 5 == 0? new Air_Zombie() : i % 7 == 0? new Juking_Zombie() : new Regular_Zombie();
+			z.setListener(b);
+			z.setHp(1 + random.nextInt(20));
+			b.placeZombie(z, random.nextInt(4), random.nextInt(30));
+			zombies.add(z);
+		}
+		TargetPolicy[] ranked = {TargetPolicy.LOWEST_HP, TargetPolicy.HIGHEST_HP, TargetPolicy.FASTEST};
+		
+		for (int turn = 0; turn < 25; turn++) {
+			for (int x = 0; x < 4; x++) {
+				for (TargetPolicy policy : ranked) {
+					for (boolean air : new boolean[] {false, true}) {
+						int y = random.nextInt(10);
+						Zombie expected = null;
+						for (Zombie z : b.getZombiesInGame()) {
+							if (z.getRow() == x && z.getCol() >= y && (z instanceof Air_Zombie) == air 
+									&& (expected == null || isBetter(policy, z, expected))) {
+								expected = z;
+							}
+						}
+						Zombie found = b.getTarget(x, y, policy, air);
+						assertEquals("Turn " + turn + " " + policy, expected == null, found == null);
+						if (expected != null) {
+							assertEquals("Turn " + turn + " " + policy, 0, compare(policy, expected, found));
+						}
+					}
+				}
+			}
+			for (Zombie z : zombies) {
+				if (b.getAllZombies(z.getRow(), z.getCol()).contains(z)) {
+					z.move();
+					z.takeDamage(random.nextInt(3));
+					if (random.nextInt(6) == 0) {
+						z.setSpeed(1 + random.nextInt(3));
+					}
+					if (!z.isAlive()) {
+						b.removeZombie(z);
+					}
+				}
+			}
+		}
+	}
+	
+	private static int compare(TargetPolicy policy, Zombie a, Zombie b) {
+		int order;
+		if (policy == TargetPolicy.LOWEST_HP) {
+			order = Integer.compare(a.getHP(), b.getHP());
+		} else if (policy == TargetPolicy.HIGHEST_HP) {
+			order = Integer.compare(b.getHP(), a.getHP());
+		} else {
+			order = Integer.compare(b.getSpeed(), a.getSpeed());
+		}
+		return order != 0? order : Integer.compare(a.getCol(), b.getCol());
+	}
+	
+	private static boolean isBetter(TargetPolicy policy, Zombie a, Zombie b) {
+		return compare(policy, a, b) < 0;
+	}
+	
+	/**
+	 * tests that a flanking zombie steps around the row with plants into the free row next to it
+	 */
+	@Test
+	public void testFlankingZombie() {
+		Board b = new Board(3, 10);
+		b.placePlant(new Peashooter(), 1, 0);
+		b.placePlant(new Wallnut(), 1, 4);
+		b.placePlant(new Peashooter(), 0, 2);
+		Flanking_Zombie z = new Flanking_Zombie();
+		z.setListener(b);
+		b.placeZombie(z, 1, 9);
+		assertEquals("The field is made for the first flanking zombie", 30, b.updateFlowField());
+		assertTrue(b.getFlowCost(2, 8) < b.getFlowCost(1, 8));
+		assertTrue(b.getFlowCost(2, 8) < b.getFlowCost(0, 8));
+		
+		z.move();
+		assertEquals(2, z.getRow());
+		assertEquals(8, z.getCol());
+		while (z.getCol() > 0) {
+			assertTrue(z.move());
+			assertEquals("Stays in the free row", 2, z.getRow());
+		}
+	}
+	
+	/**
+	 * tests that the flow field worked out from the plants that changed matches a field worked out from scratch
+	 */
+	@Test
+	public void testFlowFieldUpdate() {
+		Board b = new Board(8, 60);
+		Flanking_Zombie z = new Flanking_Zombie();
+		z.setListener(b);
+		b.placeZombie(z, 4, 59);
+		b.updateFlowField();
+		
+		Random random = new Random(48);
+		PlantTypes[] types = {PlantTypes.PEASHOOTER, PlantTypes.WALLNUT, PlantTypes.TALLNUT, PlantTypes.SUNFLOWER};
+		for (int turn = 0; turn < 30; turn++) {
+			for (int i = 0; i < 3; i++) {
+				int x = random.nextInt(8);
+				int y = random.nextInt(60);
+				if (b.getPlant(x, y) != null) {
+					b.removePlant(x, y);
+				} else {
+					b.placePlant(PlantTypes.toPlant(types[random.nextInt(types.length)]), x, y);
+				}
+			}
+			b.updateFlowField();
+			
+			Board fresh = new Board(b);
+			assertEquals(8 * 60, fresh.updateFlowField());
+			for (int x = 0; x < 8; x++) {
+				for (int y = 0; y < 60; y++) {
+					assertEquals("Turn " + turn + " (" + x + ", " + y + ")", fresh.getFlowCost(x, y), b.getFlowCost(x, y));
+				}
+			}
+		}
+		
+		b.placePlant(new Wallnut(), 0, 59);
+		assertEquals("Only the last column is worked out again", 8, b.updateFlowField());
+		assertEquals(0, b.updateFlowField());
+	}
+	
+	/**
+	 * tests that kinematic zombies end up where searching zombies do, also when plants change in their stretch
+	 */
+	@Test
+	public void testKinematicZombies() {
+		Board searching = new Board(1, 30);
+		Board kinematic = new Board(1, 30);
+		kinematic.setKinematicZombies(true);
+		Zombie[] zombies = {new Regular_Zombie(), new Regular_Zombie()};
+		Board[] boards = {searching, kinematic};
+		for (int i = 0; i < boards.length; i++) {
+			zombies[i].setListener(boards[i]);
+			zombies[i].setSpeed(2);
+			boards[i].placeZombie(zombies[i], 0, 29);
+			boards[i].placePlant(new Wallnut(), 0, 4);
+		}
+		
+		long scanned = 0;
+		for (int turn = 0; turn < 14; turn++) {
+			if (turn == 3) { //in the stretch found on the first move
+				searching.placePlant(new Wallnut(), 0, 20);
+				kinematic.placePlant(new Wallnut(), 0, 20);
+			} else if (turn == 6) {
+				searching.removePlant(0, 20);
+				kinematic.removePlant(0, 20);
+			}
+			assertEquals("Turn " + turn, zombies[0].move(), zombies[1].move());
+			assertEquals("Turn " + turn, zombies[0].getCol(), zombies[1].getCol());
+			if (turn == 6) { //the row was searched again after the plant was removed
+				scanned = kinematic.getCellsScanned();
+			} else if (turn > 6 && turn < 13) {
+				assertEquals("Walking the stretch does not search the row", scanned, kinematic.getCellsScanned());
+			}
+		}
+		assertEquals("Stopped by the last plant", 4, zombies[1].getCol());
+		assertEquals(searching.displayBoard(), kinematic.displayBoard());
+	}
+	
 	/**
 	 * Tests the UseLawnMower method. 
 	 * Assumes the getRowUnits is working as intended
@@ -231,6 +505,153 @@ public class BoardTest {
 		assertEquals(zomList, b.useLawnMower(0));
 	}
 	
+	/**
+	 * Tests that the change set only holds the grids that changed
+	 */
+	@Test
+	public void testChangeSet()
+	{
+		Board b = new Board(5,9);
+		b.placePlant(new Peashooter(), 1, 2);
+		Regular_Zombie z = new Regular_Zombie();
+		z.setListener(b);
+		b.placeZombie(z, 3, 8);
+		
+		ChangeSet changes = b.takeChanges();
+		assertEquals(2, changes.size());
+		assertTrue(changes.isCellChanged(1, 2));
+		assertTrue(changes.isCellChanged(3, 8));
+		assertTrue(b.getChanges().isEmpty());
+		
+		z.move();
+		changes = b.takeChanges();
+		assertEquals(2, changes.size());
+		assertTrue(changes.isCellChanged(3, 8));
+		assertTrue(changes.isCellChanged(3, 7));
+		
+		z.takeDamage(1);
+		assertTrue(b.getChanges().isCellChanged(3, 7));
+		assertEquals(1, b.getChanges().size());
+	}
+	
+	/**
+	 * Tests that setting a board only changes the grids that differ
+	 */
+	@Test
+	public void testSetBoardChangesOnlyDifferentGrids()
+	{
+		Board b = new Board(5,9);
+		b.placePlant(new Peashooter(), 1, 2);
+		b.placeZombie(new Regular_Zombie(), 3, 8);
+		Board copy = new Board(b);
+		
+		b.removePlant(1, 2);
+		b.takeChanges();
+		b.setBoard(copy);
+		
+		ChangeSet changes = b.takeChanges();
+		assertEquals(1, changes.size());
+		assertTrue(changes.isCellChanged(1, 2));
+		assertTrue(b.getPlant(1, 2) != null);
+	}
+	
+	/**
+	 * Tests that a stack of zombies splits for a single target and is hit whole by an area
+	 */
+	@Test
+	public void testZombieStacks()
+	{
+		Board b = new Board(5,9);
+		TankZombie z = new TankZombie();
+		z.setListener(b);
+		b.placeZombie(z, 2, 8);
+		assertTrue(z.canStack(ZombieTypes.TANK_ZOMBIE));
+		assertFalse(z.canStack(ZombieTypes.REG_ZOMBIE));
+		assertFalse(new Exploding_Zombie().canStack(ZombieTypes.EXP_ZOMBIE));
+		
+		b.stackZombies(z, 2);
+		assertEquals(1, b.getGrid(2, 8).getNumberOfZombies());
+		assertEquals(3, b.getGrid(2, 8).getHordeSize());
+		assertEquals(3, (int) b.getGrid(2, 8).getZombieTypeCount().get(ZombieTypes.TANK_ZOMBIE));
+		assertEquals(3, b.countZombies(0, 0, 4, 8));
+		
+		Peashooter p = new Peashooter();
+		b.placePlant(p, 2, 0);
+		int hp = z.getHP();
+		p.hit(b, z);
+		Zombie hit = b.getGrid(2, 8).getFirstZombie();
+		assertTrue(hit != z);
+		assertEquals(hp - p.getPower(), hit.getHP());
+		assertEquals(hp, z.getHP());
+		assertEquals(2, z.getStackSize());
+		assertEquals(2, b.getNumberOfZombies());
+		assertEquals(3, b.countZombies(0, 0, 4, 8));
+		assertEquals(3L * hp - p.getPower(), b.getZombieHP(0, 0, 4, 8));
+		assertFalse("A hit zombie no longer stacks", hit.canStack(ZombieTypes.TANK_ZOMBIE));
+		
+		Potato_Mine mine = new Potato_Mine();
+		b.placePlant(mine, 2, 8);
+		mine.attack(b);
+		assertEquals(0, b.getNumberOfZombies());
+		assertEquals(0, b.getGrid(2, 8).getHordeSize());
+		assertEquals(0, b.countZombies(0, 0, 4, 8));
+	}
+	
+	/**
+	 * Tests that a zombie split off a slowed and immobilized stack is slowed and immobilized for as long as the stack
+	 */
+	@Test
+	public void testSplitKeepsEffects()
+	{
+		Board b = new Board(5,9);
+		TankZombie z = new TankZombie();
+		z.setListener(b);
+		b.placeZombie(z, 2, 8);
+		b.stackZombies(z, 1);
+		z.setSpeed(3);
+		z.speedDebuff(1, 2);
+		z.immobilize();
+		
+		Zombie member = b.splitZombie(z);
+		assertTrue(member.isSlowed());
+		assertTrue(member.isImmobilized());
+		assertEquals(z.getSpeed(), member.getSpeed());
+		
+		b.advanceEffects();
+		assertFalse(member.isImmobilized());
+		assertTrue(member.isSlowed());
+		b.advanceEffects();
+		assertFalse(member.isSlowed());
+		assertEquals(member.getDefaultSpeed(), member.getSpeed());
+		assertEquals(z.getSpeed(), member.getSpeed());
+	}
+	
+	/**
+	 * Tests that setting a board back restores the stacks split since it was copied
+	 */
+	@Test
+	public void testSetBoardRestoresStacks()
+	{
+		Board b = new Board(5,9);
+		Regular_Zombie z = new Regular_Zombie();
+		z.setListener(b);
+		b.placeZombie(z, 1, 5);
+		b.stackZombies(z, 2);
+		Board copy = new Board(b);
+		
+		b.splitZombie(z).takeDamage(1);
+		z.move();
+		assertEquals(2, b.getNumberOfZombies());
+		
+		b.setBoard(copy);
+		assertEquals(1, b.getNumberOfZombies());
+		assertEquals(1, b.getGrid(1, 5).getNumberOfZombies());
+		assertEquals(0, b.getGrid(1, 4).getHordeSize());
+		assertEquals(3, b.getGrid(1, 5).getHordeSize());
+		assertEquals(3, z.getStackSize());
+		assertEquals(3, b.countZombies(1, 0, 1, 8));
+	}
+	
 	/**
 	 * Tests the getNewZomPosition method
 	 */
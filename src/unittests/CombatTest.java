@@ -1,6 +1,8 @@
 package unittests;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 import engine.*;
 import levels.LevelInfo;
 import levels.LevelLoader;
@@ -61,4 +63,182 @@ public class CombatTest {
 		assertFalse("Plant is dead", p.isAlive());
 	}
 	
+	/**
+	 * tests that a snowshooter's slow down ends after its duration
+	 */
+	@Test
+	public void testSnowshooterSlowEnds() {
+		Board b = new Board(1, 8);
+		Snowshooter s = new Snowshooter();
+		SprintZombie z = new SprintZombie();
+		z.setListener(b);
+		z.setHp(100);
+		b.placePlant(s, 0, 0);
+		b.placeZombie(z, 0, 7);
+		
+		s.attack(b);
+		assertTrue("Zombie is slowed", z.isSlowed());
+		assertEquals(z.getDefaultSpeed() - 1, z.getSpeed());
+		
+		s.attack(b); //does not slow a slowed zombie more
+		assertEquals(z.getDefaultSpeed() - 1, z.getSpeed());
+		
+		for (int turn = 0; turn < 3; turn++) {
+			b.advanceEffects();
+		}
+		assertFalse("Slow down ended", z.isSlowed());
+		assertEquals(z.getDefaultSpeed(), z.getSpeed());
+	}
+	
+	/**
+	 * tests that an immobilized zombie skips one move
+	 */
+	@Test
+	public void testImmobilize() {
+		Board b = new Board(1, 8);
+		Regular_Zombie z = new Regular_Zombie();
+		z.setListener(b);
+		b.placeZombie(z, 0, 7);
+		
+		z.immobilize();
+		assertTrue(z.move());
+		assertEquals("Zombie did not move", 7, z.getCol());
+		
+		b.advanceEffects();
+		assertTrue(z.move());
+		assertEquals("Zombie moves again", 7 - z.getSpeed(), z.getCol());
+	}
+	
+	/**
+	 * tests that a projectile flies down the row before it hits
+	 */
+	@Test
+	public void testProjectileTravels() {
+		Board b = new Board(1, 12);
+		b.setProjectiles(true);
+		Peashooter p = new Peashooter();
+		TankZombie z = new TankZombie();
+		b.placePlant(p, 0, 0);
+		b.placeZombie(z, 0, 10);
+		int hp = z.getHP();
+		
+		p.attack(b);
+		assertEquals("Projectile fired", 1, b.getProjectileCount(0));
+		assertEquals("Not hit yet", 0, b.advanceProjectiles(1)); //columns 0 to 3
+		assertEquals("Not hit yet", 0, b.advanceProjectiles(1)); //columns 4 to 7
+		assertEquals(hp, z.getHP());
+		assertEquals("Hit", 1, b.advanceProjectiles(1));
+		assertEquals(hp - p.getPower(), z.getHP());
+		assertEquals("Projectile is gone", 0, b.getProjectileCount(0));
+	}
+	
+	/**
+	 * tests that projectiles only hit zombies in the air or on the ground, the ones they were fired at
+	 */
+	@Test
+	public void testProjectileAirAndGround() {
+		Board b = new Board(1, 12);
+		b.setProjectiles(true);
+		Peashooter p = new Peashooter();
+		Air_Monkey m = new Air_Monkey();
+		Air_Zombie air = new Air_Zombie();
+		TankZombie ground = new TankZombie();
+		b.placePlant(p, 0, 0);
+		b.placePlant(m, 0, 1);
+		b.placeZombie(air, 0, 2);
+		b.placeZombie(ground, 0, 3);
+		int airHP = air.getHP();
+		int groundHP = ground.getHP();
+		
+		b.fireProjectile(p, Plant.PROJECTILE_SPEED_SHOT, false);
+		m.attack(b);
+		assertEquals(2, b.advanceProjectiles(1));
+		assertEquals("Ground shot flew under the air zombie", groundHP - p.getPower(), ground.getHP());
+		assertEquals(airHP - m.getPower(), air.getHP());
+	}
+	
+	/**
+	 * tests that projectiles that miss leave the board and their slots are reused
+	 */
+	@Test
+	public void testProjectilesLeaveBoard() {
+		Board b = new Board(1, 8);
+		b.setProjectiles(true);
+		Peashooter p = new Peashooter();
+		TankZombie z = new TankZombie();
+		b.placePlant(p, 0, 0);
+		b.placeZombie(z, 0, 6);
+		z.setHp(Integer.MAX_VALUE);
+		
+		for (int turn = 0; turn < 50; turn++) { //more than the ring holds at first
+			b.fireProjectile(p, Plant.PROJECTILE_SPEED_SHOT, true);
+			b.fireProjectile(p, Plant.PROJECTILE_SPEED_SHOT, false);
+		}
+		assertEquals(100, b.getProjectileCount(0));
+		assertEquals("Only the ground shots hit", 50, b.advanceProjectiles(1) + b.advanceProjectiles(1));
+		assertEquals("The air shots flew off the board", 0, b.getProjectileCount(0));
+		
+		p.attack(b);
+		assertEquals(1, b.advanceProjectiles(2));
+	}
+	
+	/**
+	 * tests that plants hit the zombie their targeting policy picks, and only zombies ahead of them
+	 */
+	@Test
+	public void testTargetPolicies() {
+		Board b = new Board(1, 10);
+		Zombie behind = new SprintZombie();
+		Zombie weak = new Regular_Zombie();
+		Zombie strong = new TankZombie();
+		Zombie fast = new SprintZombie();
+		Zombie air = new Air_Zombie();
+		Zombie[] zombies = {behind, weak, strong, fast, air};
+		int[] cols = {1, 6, 4, 8, 7};
+		for (int i = 0; i < zombies.length; i++) {
+			zombies[i].setListener(b);
+			zombies[i].setHp(20);
+			b.placeZombie(zombies[i], 0, cols[i]);
+		}
+		weak.setHp(5);
+		strong.setHp(50);
+		behind.setHp(1);
+		Peashooter p = new Peashooter();
+		b.placePlant(p, 0, 2);
+		
+		p.setTargetPolicy(TargetPolicy.NEAREST);
+		assertEquals(strong, b.getTarget(0, 2, p.getTargetPolicy(), false));
+		p.setTargetPolicy(TargetPolicy.LOWEST_HP);
+		assertEquals("The weakest zombie ahead of the plant", weak, b.getTarget(0, 2, p.getTargetPolicy(), false));
+		p.setTargetPolicy(TargetPolicy.HIGHEST_HP);
+		assertEquals(strong, b.getTarget(0, 2, p.getTargetPolicy(), false));
+		p.setTargetPolicy(TargetPolicy.FASTEST);
+		assertEquals(fast, b.getTarget(0, 2, p.getTargetPolicy(), false));
+		p.setTargetPolicy(TargetPolicy.AIR_FIRST);
+		assertEquals(air, b.getTarget(0, 2, p.getTargetPolicy(), false));
+		
+		//the heap follows the damage done
+		p.setTargetPolicy(TargetPolicy.HIGHEST_HP);
+		for (int i = 0; i < 10; i++) {
+			p.attack(b);
+		}
+		assertEquals(50 - 10 * p.getPower(), strong.getHP());
+		strong.takeDamage(15);
+		assertEquals(fast, b.getTarget(0, 2, TargetPolicy.HIGHEST_HP, false));
+		
+		//a zombie killed out of the middle of its grid is the one removed
+		Zombie first = new TankZombie();
+		first.setListener(b);
+		b.placeZombie(first, 0, 8);
+		b.placeZombie(weak, 0, 8);
+		b.removeZombie(0, 6);
+		p.setTargetPolicy(TargetPolicy.LOWEST_HP);
+		p.attack(b);
+		p.attack(b);
+		p.attack(b);
+		assertFalse(weak.isAlive());
+		assertFalse(b.getAllZombies(0, 8).contains(weak));
+		assertTrue(b.getAllZombies(0, 8).contains(first));
+	}
+	
 }
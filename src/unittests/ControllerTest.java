@@ -9,6 +9,7 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 import java.awt.BorderLayout;
 import java.awt.event.ActionEvent;
 import java.awt.event.MouseEvent;
+import java.util.concurrent.TimeUnit;
 
 import javax.swing.JButton;
 
@@ -59,7 +60,7 @@ public class ControllerTest {
 	}
 	
 	@Test
-	public void testGameButtonListener() {
+	public void testGameButtonListener() throws Exception {
 		GameButtonListener gameButtonListener = gameController.getGameButtonListener();
 		
 		ActionEvent digEvent = new ActionEvent(new JButton(), 1, GameButtonListener.DIG);
@@ -82,6 +83,7 @@ public class ControllerTest {
 		Purse tempPurse = new Purse(game.getPurse());
 		int previousTurn = game.getTurns();
 		gameButtonListener.actionPerformed(endTurnEvent);
+		gameController.getPendingTurn().get(5, TimeUnit.SECONDS); //the turn is computed on the engine thread
 		assertNotEquals(purse.getPoints(), tempPurse.getPoints(), "End turn event increased amount of points");
 		assertEquals(previousTurn + 1, game.getTurns(), "End turn event triggered next turn");
 	}
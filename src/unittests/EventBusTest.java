@@ -0,0 +1,79 @@
+package unittests;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Queue;
+
+import engine.EventBus;
+import engine.GameEvent;
+
+/**
+ * Unit test for the game event bus.
+ */
+public class EventBusTest {
+
+	/**
+	 * Records the events it is given
+	 */
+	private static class RecordingHandler implements EventBus.EventHandler {
+		private List<String> events = new ArrayList<String>();
+		private int overruns = 0;
+
+		@Override
+		public void onEvent(GameEvent event) {
+			events.add(event.getType() + " " + event.getRow() + "," + event.getCol());
+		}
+
+		@Override
+		public void onOverrun() {
+			overruns++;
+		}
+	}
+
+	@Test
+	public void testDirectDeliveryInOrder() {
+		EventBus bus = new EventBus(8);
+		RecordingHandler handler = new RecordingHandler();
+		bus.subscribe(handler, EventBus.DIRECT);
+
+		bus.publishGrid(1, 2);
+		bus.publishPurse();
+		bus.publishMower(3, true);
+
+		assertEquals(3, handler.events.size(), "All events delivered before publish returned");
+		assertEquals("GRID 1,2", handler.events.get(0));
+		assertEquals("PURSE -1,-1", handler.events.get(1));
+		assertEquals("MOWER 3,-1", handler.events.get(2));
+	}
+
+	@Test
+	public void testSlowConsumerOnlyHoldsUpItself() {
+		EventBus bus = new EventBus(8);
+		RecordingHandler fast = new RecordingHandler();
+		RecordingHandler slow = new RecordingHandler();
+		Queue<Runnable> slowTasks = new LinkedList<Runnable>();
+		bus.subscribe(fast, EventBus.DIRECT);
+		EventBus.Subscription slowSubscription = bus.subscribe(slow, slowTasks::add);
+
+		for (int i = 0; i < 20; i++) {
+			bus.publishGrid(i, 0);
+		}
+		assertEquals(20, fast.events.size(), "Fast consumer is not held up");
+		assertEquals(1, slowTasks.size(), "Slow consumer is scheduled once");
+		assertEquals(20, slowSubscription.getLag());
+
+		slowTasks.poll().run();
+		assertEquals(1, slow.overruns, "Slow consumer resyncs after falling a buffer behind");
+		assertEquals(0, slowSubscription.getLag());
+		assertEquals(0, fast.overruns);
+
+		bus.publishGrid(5, 5);
+		slowTasks.poll().run();
+		assertEquals("GRID 5,5", slow.events.get(slow.events.size() - 1), "Slow consumer continues after resync");
+	}
+}
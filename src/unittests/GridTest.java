@@ -1,5 +1,11 @@
 package unittests;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+
 import assets.*;
 
 import static org.junit.Assert.assertEquals;
@@ -40,5 +46,29 @@ public class GridTest {
 		assertEquals("Number of zombies = 1", 1, g.getNumberOfZombies());
 		assertEquals("Regular Zombie", z, g.removeZombie());
 	}
+	
+	/**
+	 * saves and loads a Grid object and tests that the zombie count is rebuilt
+	 */
+	@Test
+	public void testZombieCountAfterLoad() throws IOException, ClassNotFoundException {
+		Grid g = new Grid(10, 10);
+		g.addZombie(new Regular_Zombie());
+		g.addZombie(new Regular_Zombie());
+		g.addZombie(new TankZombie());
+		
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+			out.writeObject(g);
+		}
+		Grid read;
+		try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+			read = (Grid) in.readObject();
+		}
+		
+		assertEquals("Number of zombies = 3", 3, read.getNumberOfZombies());
+		assertEquals("Regular Zombies = 2", Integer.valueOf(2), read.getZombieTypeCount().get(ZombieTypes.REG_ZOMBIE));
+		assertEquals("Tank Zombies = 1", Integer.valueOf(1), read.getZombieTypeCount().get(ZombieTypes.TANK_ZOMBIE));
+	}
 
 }
@@ -0,0 +1,42 @@
+package unittests;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import util.Metrics;
+
+/**
+ * Unit test for the metrics registry.
+ */
+public class MetricsTest {
+
+	@Test
+	public void testCounterIsSharedByName() {
+		Metrics.Counter counter = Metrics.counter("test_shared", "A test counter", "kind", "a");
+		assertSame(counter, Metrics.counter("test_shared", "A test counter", "kind", "a"));
+
+		counter.increment();
+		counter.add(4);
+		assertEquals(5, counter.get());
+		assertTrue(Metrics.toOpenMetrics().contains("test_shared_total{kind=\"a\"} 5\n"));
+	}
+
+	@Test
+	public void testHistogramBuckets() {
+		Metrics.Histogram histogram = Metrics.latency("test_latency_seconds", "A test histogram");
+		histogram.record(2000000L); //2ms
+		histogram.record(3000000000L); //3s
+
+		String text = Metrics.toOpenMetrics();
+		assertEquals(2, histogram.getCount());
+		assertTrue(text.contains("# TYPE test_latency_seconds histogram\n"));
+		assertTrue(text.contains("test_latency_seconds_bucket{le=\"0.001\"} 0\n"), "Bucket below the values is empty");
+		assertTrue(text.contains("test_latency_seconds_bucket{le=\"0.005\"} 1\n"), "Buckets are cumulative");
+		assertTrue(text.contains("test_latency_seconds_bucket{le=\"+Inf\"} 2\n"));
+		assertTrue(text.contains("test_latency_seconds_sum 3.002\n"));
+		assertTrue(text.endsWith("# EOF\n"));
+	}
+}
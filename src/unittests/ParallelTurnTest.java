@@ -0,0 +1,155 @@
+package unittests;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import assets.Plant;
+import assets.PlantTypes;
+import assets.Unit;
+import assets.Zombie;
+import assets.ZombieTypes;
+import engine.Board;
+import engine.Game;
+import levels.LevelInfo;
+
+/**
+ * Tests that a turn resolved row by row on a fork/join pool ends the same way as on one thread,
+ * also with kinematic zombies and with projectiles
+ */
+public class ParallelTurnTest {
+	private static final long SEED = 4204;
+	private static final int ROWS = 40;
+
+	private ForkJoinPool pool;
+
+	@BeforeEach
+	public void createPool() {
+		pool = new ForkJoinPool(4);
+	}
+
+	@AfterEach
+	public void shutdownPool() {
+		pool.shutdownNow();
+	}
+
+	/**
+	 * A game with many rows and every zombie type to spawn
+	 * @param cols the number of columns
+	 * @param withPlants true to fill the first columns with a mix of plants
+	 */
+	private static Game createGame(int cols, boolean withPlants) {
+		HashMap<ZombieTypes, Integer> zombies = new HashMap<>();
+		for (ZombieTypes type : ZombieTypes.values()) {
+			zombies.put(type, 30);
+		}
+		HashSet<PlantTypes> plants = new HashSet<>(Arrays.asList(PlantTypes.values()));
+
+		Game game = new Game(new LevelInfo("Parallel", cols, ROWS, 25, 1000000, zombies, plants), SEED);
+		if (withPlants) {
+			PlantTypes[] types = PlantTypes.values();
+			for (int row = 0; row < ROWS; row++) {
+				game.placePlant(types[row % types.length], row, 0);
+				game.placePlant(types[(row * 5 + 3) % types.length], row, 1);
+			}
+		}
+		return game;
+	}
+
+	private static String describe(Iterable<? extends Unit> units) {
+		StringBuilder sb = new StringBuilder();
+		for (Unit unit : units) {
+			sb.append(unit).append('@').append(unit.getRow()).append(',').append(unit.getCol()).append(':').append(unit.getHP()).append(' ');
+		}
+		return sb.toString();
+	}
+
+	private static void assertSameGame(Game expected, Game actual, int turn) {
+		Board e = expected.getBoard();
+		Board a = actual.getBoard();
+		String message = "Turn " + turn;
+		assertEquals(e.displayBoard(), a.displayBoard(), message);
+		assertEquals(describe(e.getZombiesInGame()), describe(a.getZombiesInGame()), message);
+		assertEquals(describe(e.getPlantsInGame()), describe(a.getPlantsInGame()), message);
+		for (int row = 0; row < ROWS; row++) {
+			assertEquals(e.isMowerAvaliable(row), a.isMowerAvaliable(row), message);
+		}
+		assertEquals(expected.getPurse().getPoints(), actual.getPurse().getPoints(), message);
+		assertEquals(expected.getState(), actual.getState(), message);
+	}
+
+	/**
+	 * Play both games until one ends or the turns run out, checking they match after every turn
+	 */
+	private static void playAndCompare(Game sequential, Game parallel, int turns) {
+		for (int turn = 1; turn <= turns && sequential.getState() == Game.GameState.PLAYING; turn++) {
+			sequential.doEndOfTurn();
+			parallel.doEndOfTurn();
+			assertSameGame(sequential, parallel, turn);
+		}
+	}
+
+	@Test
+	public void testSameAsSequential() {
+		Game sequential = createGame(12, true);
+		Game parallel = createGame(12, true);
+		parallel.setRowPool(pool);
+
+		playAndCompare(sequential, parallel, 40);
+	}
+
+	@Test
+	public void testSameWithKinematicZombies() {
+		Game sequential = createGame(12, true);
+		Game parallel = createGame(12, true);
+		parallel.setRowPool(pool);
+		parallel.getBoard().setKinematicZombies(true);
+
+		playAndCompare(sequential, parallel, 40);
+	}
+
+	@Test
+	public void testSameWithProjectiles() {
+		Game sequential = createGame(12, true);
+		Game parallel = createGame(12, true);
+		sequential.getBoard().setProjectiles(true);
+		parallel.getBoard().setProjectiles(true);
+		parallel.setRowPool(pool);
+
+		playAndCompare(sequential, parallel, 40);
+	}
+
+	@Test
+	public void testSameLoss() {
+		Game sequential = createGame(4, false);
+		Game parallel = createGame(4, false);
+		parallel.setRowPool(pool);
+
+		playAndCompare(sequential, parallel, 100);
+		assertEquals(Game.GameState.LOST, sequential.getState());
+	}
+
+	@Test
+	public void testUndoAfterParallelTurn() {
+		Game game = createGame(12, true);
+		game.setRowPool(pool);
+		String before = game.getBoard().displayBoard();
+		game.doEndOfTurn();
+		game.undo();
+
+		assertEquals(before, game.getBoard().displayBoard());
+		for (Plant plant : game.getBoard().getPlantsInGame()) {
+			assertEquals(plant, game.getBoard().getPlant(plant.getRow(), plant.getCol()));
+		}
+		for (Zombie zombie : game.getBoard().getZombiesInGame()) {
+			assertEquals(true, game.getBoard().getGrid(zombie.getRow(), zombie.getCol()).getZombies().contains(zombie));
+		}
+	}
+}
@@ -0,0 +1,133 @@
+package unittests;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import assets.Peashooter;
+import assets.PlantTypes;
+import assets.Regular_Zombie;
+import assets.TankZombie;
+import assets.Zombie;
+import assets.ZombieTypes;
+import engine.Game;
+import engine.RealTimeEngine;
+import levels.LevelInfo;
+
+/**
+ * Tests the RealTimeEngine, running the ticks on the test thread
+ */
+public class RealTimeEngineTest {
+	private static final int TICKS_PER_TURN = 10;
+
+	/**
+	 * A game without zombies left to spawn
+	 */
+	private static Game createGame(int cols) {
+		HashSet<PlantTypes> plants = new HashSet<>(Arrays.asList(PlantTypes.values()));
+		return new Game(new LevelInfo("Real Time", cols, 1, 25, 10000, new HashMap<ZombieTypes, Integer>(), plants));
+	}
+
+	private static Zombie placeZombie(Game game, Zombie zombie, int col) {
+		zombie.setListener(game.getBoard());
+		game.getBoard().placeZombie(zombie, 0, col);
+		return zombie;
+	}
+
+	private static void tick(RealTimeEngine engine, int ticks) {
+		for (int i = 0; i < ticks; i++) {
+			engine.tick();
+		}
+	}
+
+	@Test
+	public void testZombieMovesOncePerTurn() {
+		Game game = createGame(20);
+		Zombie zombie = placeZombie(game, new Regular_Zombie(), 19);
+		RealTimeEngine engine = new RealTimeEngine(game, 60, TICKS_PER_TURN);
+
+		engine.tick();
+		int col = zombie.getCol();
+		assertEquals(19 - zombie.getSpeed(), col);
+		tick(engine, TICKS_PER_TURN - 1);
+		assertEquals(col, zombie.getCol());
+		engine.tick();
+		assertEquals(col - zombie.getSpeed(), zombie.getCol());
+		assertEquals(1, game.getTurns());
+	}
+
+	@Test
+	public void testPlantFireRate() {
+		Game game = createGame(20);
+		game.placePlant(PlantTypes.PEASHOOTER, 0, 0);
+		Zombie zombie = placeZombie(game, new TankZombie(), 19);
+		RealTimeEngine engine = new RealTimeEngine(game, 60, TICKS_PER_TURN);
+		engine.setFireRate(PlantTypes.PEASHOOTER, 2);
+
+		int hp = zombie.getHP();
+		tick(engine, 2 * TICKS_PER_TURN);
+		assertEquals(hp - 4 * new Peashooter().getPower(), zombie.getHP());
+	}
+
+	@Test
+	public void testSubmittedPlantActs() {
+		Game game = createGame(20);
+		Zombie zombie = placeZombie(game, new TankZombie(), 19);
+		RealTimeEngine engine = new RealTimeEngine(game, 60, TICKS_PER_TURN);
+		assertEquals(1, engine.getActors());
+
+		engine.submit(() -> game.placePlant(PlantTypes.PEASHOOTER, 0, 0));
+		int hp = zombie.getHP();
+		tick(engine, TICKS_PER_TURN);
+		assertEquals(2, engine.getActors());
+		assertEquals(hp - new Peashooter().getPower(), zombie.getHP());
+	}
+
+	@Test
+	public void testGameEnds() {
+		Game game = createGame(3);
+		placeZombie(game, new Regular_Zombie(), 0);
+		game.getBoard().removeMower(0);
+		RealTimeEngine engine = new RealTimeEngine(game, 60, TICKS_PER_TURN);
+
+		tick(engine, TICKS_PER_TURN);
+		assertEquals(Game.GameState.LOST, game.getState());
+	}
+
+	@Test
+	public void testStepProgress() {
+		Game game = createGame(20);
+		Zombie zombie = placeZombie(game, new Regular_Zombie(), 19);
+		RealTimeEngine engine = new RealTimeEngine(game, 60, TICKS_PER_TURN);
+
+		assertEquals(1f, engine.getStepProgress(0, 5), 0f);
+		engine.tick();
+		float stepped = engine.getStepProgress(0, zombie.getCol());
+		assertTrue(stepped >= 0 && stepped <= 1f / TICKS_PER_TURN, "Just stepped: " + stepped);
+		tick(engine, TICKS_PER_TURN / 2);
+		assertTrue(engine.getStepProgress(0, zombie.getCol()) > stepped);
+	}
+
+	@Test
+	public void testStartStop() throws InterruptedException {
+		Game game = createGame(20);
+		placeZombie(game, new TankZombie(), 19);
+		RealTimeEngine engine = new RealTimeEngine(game, 1000, TICKS_PER_TURN);
+
+		engine.start();
+		assertTrue(engine.isRunning());
+		for (int wait = 0; wait < 500 && engine.getTick() < 3 * TICKS_PER_TURN; wait++) {
+			Thread.sleep(10);
+		}
+		engine.stop();
+		assertFalse(engine.isRunning());
+		assertTrue(game.getTurns() >= 3);
+		assertEquals(Game.GameState.PLAYING, game.getState());
+	}
+}
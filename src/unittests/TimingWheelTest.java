@@ -0,0 +1,164 @@
+package unittests;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import engine.TimingWheel;
+
+/**
+ * Tests the TimingWheel
+ */
+public class TimingWheelTest {
+
+	/**
+	 * Remembers the turn it expired at
+	 */
+	private static class Recorder extends TimingWheel.Timeout {
+		private static final long serialVersionUID = 1L;
+
+		private final TimingWheel wheel;
+		private final List<Recorder> expired;
+		long expiredAt = -1;
+
+		Recorder(TimingWheel wheel, List<Recorder> expired) {
+			this.wheel = wheel;
+			this.expired = expired;
+		}
+
+		@Override
+		protected void expire() {
+			expiredAt = wheel.now();
+			expired.add(this);
+		}
+	}
+
+	@Test
+	public void testExpiresAtDeadline() {
+		TimingWheel wheel = new TimingWheel();
+		List<Recorder> expired = new ArrayList<>();
+		Random random = new Random(44);
+		Recorder[] timeouts = new Recorder[200000];
+		for (int i = 0; i < timeouts.length; i++) {
+			timeouts[i] = new Recorder(wheel, expired);
+			//mostly short effects, some past the top of each level
+			int turns = 1 + (i % 10 == 0? random.nextInt(300000) : random.nextInt(100));
+			wheel.schedule(timeouts[i], turns);
+		}
+		assertEquals(timeouts.length, wheel.size());
+
+		while (wheel.size() > 0) {
+			wheel.advance();
+		}
+		assertEquals(timeouts.length, expired.size());
+		for (Recorder timeout : timeouts) {
+			assertEquals(timeout.getDeadline(), timeout.expiredAt);
+			assertFalse(timeout.isScheduled());
+		}
+	}
+
+	@Test
+	public void testSameDeadlineInScheduleOrder() {
+		TimingWheel wheel = new TimingWheel(1000);
+		List<Recorder> expired = new ArrayList<>();
+		Recorder first = new Recorder(wheel, expired);
+		Recorder second = new Recorder(wheel, expired);
+		Recorder third = new Recorder(wheel, expired);
+		wheel.schedule(first, 5000); //moves down two levels
+		for (int turn = 0; turn < 4000; turn++) {
+			wheel.advance();
+		}
+		wheel.schedule(second, 1000);
+		wheel.schedule(third, 1000);
+		for (int turn = 0; turn < 1000; turn++) {
+			wheel.advance();
+		}
+		assertEquals(3, expired.size());
+		assertEquals(first, expired.get(0));
+		assertEquals(second, expired.get(1));
+		assertEquals(third, expired.get(2));
+	}
+
+	@Test
+	public void testCancelAndReschedule() {
+		TimingWheel wheel = new TimingWheel();
+		List<Recorder> expired = new ArrayList<>();
+		Recorder cancelled = new Recorder(wheel, expired);
+		Recorder moved = new Recorder(wheel, expired);
+		Recorder kept = new Recorder(wheel, expired);
+		wheel.schedule(cancelled, 3);
+		wheel.schedule(moved, 3);
+		wheel.schedule(kept, 3);
+
+		assertTrue(wheel.cancel(cancelled));
+		assertFalse(wheel.cancel(cancelled));
+		wheel.schedule(moved, 70);
+		assertEquals(2, wheel.size());
+
+		for (int turn = 0; turn < 3; turn++) {
+			wheel.advance();
+		}
+		assertEquals(1, expired.size());
+		assertEquals(kept, expired.get(0));
+		assertTrue(moved.isScheduled());
+
+		for (int turn = 3; turn < 70; turn++) {
+			wheel.advance();
+		}
+		assertEquals(70, moved.expiredAt);
+		assertEquals(-1, cancelled.expiredAt);
+		assertEquals(0, wheel.size());
+	}
+
+	@Test
+	public void testTransfer() {
+		TimingWheel from = new TimingWheel();
+		TimingWheel to = new TimingWheel();
+		List<Recorder> expired = new ArrayList<>();
+		Recorder timeout = new Recorder(to, expired);
+		from.schedule(timeout, 2);
+		from.advance();
+		to.advance();
+
+		to.transfer(timeout);
+		assertEquals(0, from.size());
+		assertEquals(1, to.size());
+		assertEquals(0, from.advance());
+		assertEquals(1, to.advance());
+		assertEquals(2, timeout.expiredAt);
+	}
+
+	@Test
+	public void testSerialization() throws Exception {
+		TimingWheel wheel = new TimingWheel(7);
+		for (int i = 0; i < 50000; i++) { //one long slot list
+			wheel.schedule(new Recorder(wheel, new ArrayList<>()), 10);
+		}
+
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+			out.writeObject(wheel);
+		}
+		TimingWheel read;
+		try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+			read = (TimingWheel) in.readObject();
+		}
+
+		assertEquals(7, read.now());
+		assertEquals(50000, read.size());
+		for (int turn = 0; turn < 9; turn++) {
+			assertEquals(0, read.advance());
+		}
+		assertEquals(50000, read.advance());
+	}
+}
@@ -1,5 +1,9 @@
 package unittests;
 
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+
 import org.junit.jupiter.api.Test;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -10,7 +14,11 @@ import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
 
 import assets.PlantTypes;
+import assets.TankZombie;
+import assets.Zombie;
+import assets.ZombieTypes;
 import engine.Board;
+import engine.BoardSnapshot;
 import engine.Purse;
 import engine.CommandQueue;
 import engine.Game;
@@ -71,6 +79,40 @@ public class UndoRedoTest {
 		assertEquals(previousTurn, game.getTurns(), "Returned to previous turn");
 	}
 	
+	@Test
+	public void testUndoEndTurnWithProjectiles() {
+		HashSet<PlantTypes> plants = new HashSet<>(Arrays.asList(PlantTypes.values()));
+		Game wide = new Game(new LevelInfo("Projectiles", 12, 1, 25, 1000, new HashMap<ZombieTypes, Integer>(), plants));
+		Board wideBoard = wide.getBoard();
+		wideBoard.setProjectiles(true);
+		Zombie zombie = new TankZombie();
+		zombie.setListener(wideBoard);
+		wideBoard.placeZombie(zombie, 0, 11);
+		wide.placePlant(PlantTypes.PEASHOOTER, 0, 0);
+		
+		wide.doEndOfTurn();
+		assertEquals(1, wideBoard.getProjectileCount(0), "Projectile is flying");
+		wide.undo();
+		assertEquals(0, wideBoard.getProjectileCount(0), "Projectile fired in the undone turn is gone");
+		wide.redo();
+		assertEquals(1, wideBoard.getProjectileCount(0), "Projectile is flying again");
+	}
+	
+	@Test
+	public void testSnapshotFollowsUndo() {
+		game.placePlant(PlantTypes.SUNFLOWER, 1, 0);
+		BoardSnapshot before = game.getSnapshot();
+		game.placePlant(PlantTypes.SUNFLOWER, 0, 0);
+		BoardSnapshot placed = game.getSnapshot();
+		assertTrue(placed.getCell(0, 0).isOccupied(), "Snapshot shows the placed plant");
+		assertFalse(before.getCell(0, 0).isOccupied(), "Older snapshot is unchanged");
+		assertTrue(before.getCell(1, 0) == placed.getCell(1, 0), "Unchanged grids are shared between snapshots");
+		
+		game.undo();
+		assertFalse(game.getSnapshot().getCell(0, 0).isOccupied(), "Snapshot shows the undone placement");
+		assertEquals(purse.getPoints(), game.getSnapshot().getPoints(), "Snapshot shows the refund");
+	}
+	
 	@Test
 	public void testRedoDigCommand() {
 		game.placePlant(PlantTypes.SUNFLOWER, 0, 0);
@@ -9,6 +9,7 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import javax.swing.JLabel;
 import javax.swing.JPanel;
+import javax.swing.SwingUtilities;
 
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
@@ -50,6 +51,17 @@ public class ViewTest {
 		boardTiles = gameUI.getBoardTiles();
 	}
 	
+	/**
+	 * Wait for the game events sent to the Swing thread to be handled
+	 */
+	private static void flushEvents() {
+		try {
+			SwingUtilities.invokeAndWait(() -> {});
+		} catch (Exception e) {
+			throw new IllegalStateException(e);
+		}
+	}
+	
 	@Test
 	public void testPlacingPlantUpdatesView() {
 		try {
@@ -58,6 +70,7 @@ public class ViewTest {
 		catch (Exception e) {
 			e.addSuppressed(new ClassCastException());
 		}
+		flushEvents();
 		GridUI placedLocation = boardTiles[0][0];
 		assertNotNull(placedLocation.getPlantPanel());
 		JPanel plantPanel = placedLocation.getPlantPanel();
@@ -70,6 +83,7 @@ public class ViewTest {
 	public void testRemovingPlantUpdatesView() {
 		testPlacingPlantUpdatesView();
 		game.removePlant(0, 0);
+		flushEvents();
 		GridUI removedLocation = boardTiles[0][0];
 		JPanel plantPanel = removedLocation.getPlantPanel();
 		assertTrue(plantPanel.getComponents().length == 0, "Plant removed from grid");
@@ -78,6 +92,7 @@ public class ViewTest {
 	@Test
 	public void testUpdateTurnLabel() {
 		game.doEndOfTurn();
+		flushEvents();
 		JLabel turnMessage = gameUI.getTurnLabel();
 		assertEquals(turnMessage.getText(), "<html><b>Turns: </b>1</html>", "Turn label updates");
 	}
@@ -85,10 +100,12 @@ public class ViewTest {
 	@Test
 	public void testUpdatePointsLabel() {
 		game.doEndOfTurn();
+		flushEvents();
 		JLabel pointsMessage = gameUI.getPointsLabel();
 		assertEquals(pointsMessage.getText(), "<html><b>Points: </b>" + Integer.toString(purse.getPoints()) + "</html>", "Points get updated every turn");
 		
 		game.placePlant(PlantTypes.SUNFLOWER, 0, 0);
+		flushEvents();
 		pointsMessage = gameUI.getPointsLabel();
 		assertEquals(pointsMessage.getText(), "<html><b>Points: </b>" + Integer.toString(purse.getPoints()) + "</html>", "Placing a plant updates the points");
 	}
@@ -100,6 +117,7 @@ public class ViewTest {
 		gameUI.updatePurse();
 		
 		game.placePlant(PlantTypes.SUNFLOWER, 0, 0);
+		flushEvents();
 		JLabel pointsMessage = gameUI.getPointsLabel();
 		assertEquals(pointsMessage.getText(), "<html><b>Points: </b>" + Integer.toString(purse.getPoints()) + "</html>", "Unsuccessful plant placement does not display wrong points");
 	}
@@ -0,0 +1,159 @@
+package util;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+import engine.Game;
+
+/**
+ * Flight Recorder events for the phases of the game engine.
+ *
+ * Record a session with -XX:StartFlightRecording (or jcmd JFR.start) and open it in JDK Mission Control
+ * to see how long each phase took. While no recording is running the events are never committed and cost
+ * next to nothing, so they stay in place in release builds.
+ *
+ * Usage:
+ * <pre>
+ * EngineEvents.PlayerTurn event = new EngineEvents.PlayerTurn();
+ * event.begin();
+ * ...
+ * event.end(game, cellsScanned);
+ * </pre>
+ */
+public final class EngineEvents {
+	private static final String CATEGORY = "Zombies are Vegan";
+
+	private EngineEvents() {}
+
+	/**
+	 * Fields shared by the events of a turn phase
+	 */
+	@Category({CATEGORY, "Engine"})
+	@StackTrace(false)
+	public abstract static class TurnPhase extends Event {
+		@Label("Level Name")
+		String levelName;
+
+		@Label("Turn")
+		int turn;
+
+		@Label("Zombies Alive")
+		int zombiesAlive;
+
+		@Label("Cells Scanned")
+		@Description("Number of board grids searched for targets during the phase")
+		long cellsScanned;
+
+		/**
+		 * End the event and commit it with the state of the game if a recording wants it
+		 *
+		 * @param game the game the phase ran in
+		 * @param cellsScanned the number of grids searched during the phase
+		 */
+		public void end(Game game, long cellsScanned) {
+			end();
+			if (shouldCommit()) {
+				this.levelName = game.getLevelInfo().getName();
+				this.turn = game.getTurns();
+				this.zombiesAlive = game.getBoard().getNumberOfZombies();
+				this.cellsScanned = cellsScanned;
+				commit();
+			}
+		}
+	}
+
+	@Name("zombiesarevegan.PlayerTurn")
+	@Label("Player Turn")
+	@Description("All plants attack")
+	public static final class PlayerTurn extends TurnPhase {
+		@Label("Plants")
+		public int plants;
+	}
+
+	@Name("zombiesarevegan.ZombieTurn")
+	@Label("Zombie Turn")
+	@Description("All zombies move or attack, including lawn mowers and spawning")
+	public static final class ZombieTurn extends TurnPhase {
+	}
+
+	@Name("zombiesarevegan.Spawn")
+	@Label("Zombie Spawn")
+	public static final class Spawn extends TurnPhase {
+		@Label("Zombies Spawned")
+		public int zombiesSpawned;
+	}
+
+	@Name("zombiesarevegan.LawnMower")
+	@Label("Lawn Mower")
+	public static final class LawnMower extends TurnPhase {
+		@Label("Row")
+		public int row;
+
+		@Label("Zombies Killed")
+		public int zombiesKilled;
+	}
+
+	@Name("zombiesarevegan.UndoRedo")
+	@Label("Undo/Redo")
+	public static final class UndoRedo extends TurnPhase {
+		@Label("Redo")
+		@Description("True for a redo, false for an undo")
+		public boolean redo;
+
+		@Label("Command")
+		public String command;
+	}
+
+	@Name("zombiesarevegan.SaveGame")
+	@Label("Save Game")
+	@Category({CATEGORY, "I/O"})
+	@StackTrace(false)
+	public static final class SaveGame extends Event {
+		@Label("Level Name")
+		public String levelName;
+
+		@Label("Turn")
+		public int turn;
+
+		@Label("File")
+		public String file;
+
+		@Label("Size")
+		@DataAmount
+		public long bytes;
+	}
+
+	@Name("zombiesarevegan.LoadGames")
+	@Label("Load Saved Games")
+	@Category({CATEGORY, "I/O"})
+	@StackTrace(false)
+	public static final class LoadGames extends Event {
+		@Label("Games Loaded")
+		public int games;
+
+		@Label("Size")
+		@DataAmount
+		public long bytes;
+	}
+
+	@Name("zombiesarevegan.LevelParse")
+	@Label("Level Parse")
+	@Category({CATEGORY, "I/O"})
+	@StackTrace(false)
+	public static final class LevelParse extends Event {
+		@Label("File")
+		public String file;
+
+		@Label("Level Name")
+		public String levelName;
+
+		@Label("Size")
+		@DataAmount
+		public long bytes;
+	}
+}
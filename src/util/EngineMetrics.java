@@ -0,0 +1,63 @@
+package util;
+
+import java.io.File;
+
+/**
+ * The metrics kept by the game engine and UI.
+ *
+ * Record a phase with:
+ * <pre>
+ * long start = System.nanoTime();
+ * ...
+ * EngineMetrics.PLAYER_TURN.recordSince(start);
+ * </pre>
+ */
+public final class EngineMetrics {
+	public static final File EXPORT_FILE = new File("metrics/engine.prom");
+	public static final long EXPORT_PERIOD_SECONDS = 10;
+
+	private static final String TURN_PHASE = "zav_turn_phase_seconds";
+	private static final String TURN_PHASE_HELP = "Time taken by each phase of a turn";
+
+	public static final Metrics.Histogram PLAYER_TURN = Metrics.latency(TURN_PHASE, TURN_PHASE_HELP, "phase", "player");
+	public static final Metrics.Histogram ZOMBIE_TURN = Metrics.latency(TURN_PHASE, TURN_PHASE_HELP, "phase", "zombie");
+	public static final Metrics.Histogram LAWN_MOWER = Metrics.latency(TURN_PHASE, TURN_PHASE_HELP, "phase", "lawn_mower");
+	public static final Metrics.Histogram SPAWN = Metrics.latency(TURN_PHASE, TURN_PHASE_HELP, "phase", "spawn");
+	public static final Metrics.Histogram END_OF_TURN = Metrics.latency(TURN_PHASE, TURN_PHASE_HELP, "phase", "end_of_turn");
+
+	private static final String TURN_PHASE_ALLOCATED = "zav_turn_phase_allocated_bytes";
+	private static final String TURN_PHASE_ALLOCATED_HELP = "Bytes allocated by each phase of a turn";
+
+	public static final Metrics.Counter PLAYER_TURN_ALLOCATED = Metrics.counter(TURN_PHASE_ALLOCATED, TURN_PHASE_ALLOCATED_HELP, "phase", "player");
+	public static final Metrics.Counter ZOMBIE_TURN_ALLOCATED = Metrics.counter(TURN_PHASE_ALLOCATED, TURN_PHASE_ALLOCATED_HELP, "phase", "zombie");
+	public static final Metrics.Counter SPAWN_ALLOCATED = Metrics.counter(TURN_PHASE_ALLOCATED, TURN_PHASE_ALLOCATED_HELP, "phase", "spawn");
+	public static final Metrics.Counter END_OF_TURN_ALLOCATED = Metrics.counter(TURN_PHASE_ALLOCATED, TURN_PHASE_ALLOCATED_HELP, "phase", "end_of_turn");
+
+	public static final Metrics.Counter CELLS_SCANNED = Metrics.counter("zav_cells_scanned", "Board grids searched for targets");
+	public static final Metrics.Counter ZOMBIE_MOVES = Metrics.counter("zav_zombie_moves", "Zombie move attempts");
+	public static final Metrics.Counter PLANTS_CREATED = Metrics.counter("zav_units_created", "Plants and zombies created", "unit", "plant");
+	public static final Metrics.Counter ZOMBIES_CREATED = Metrics.counter("zav_units_created", "Plants and zombies created", "unit", "zombie");
+
+	public static final Metrics.Histogram TICK = Metrics.latency("zav_tick_seconds", "Time taken by a tick of the real time engine");
+	public static final Metrics.Counter TICK_OVERRUNS = Metrics.counter("zav_tick_overruns", "Ticks of the real time engine that took longer than their time step");
+	public static final Metrics.Counter TICKS_DROPPED = Metrics.counter("zav_ticks_dropped", "Ticks the real time engine skipped to catch up after falling behind");
+	public static final Metrics.Counter TICK_ALLOCATED = Metrics.counter("zav_tick_allocated_bytes", "Bytes allocated by the ticks of the real time engine");
+
+	public static final Metrics.Gauge UNDO_DEPTH = Metrics.gauge("zav_undo_depth", "Commands that can be undone");
+	public static final Metrics.Gauge REDO_DEPTH = Metrics.gauge("zav_redo_depth", "Commands that can be redone");
+
+	public static final Metrics.Histogram SAVE = Metrics.latency("zav_save_seconds", "Time taken to save a game");
+	public static final Metrics.Histogram LOAD = Metrics.latency("zav_load_seconds", "Time taken to load all saved games");
+
+	public static final Metrics.Histogram REPAINT = Metrics.latency("zav_edt_repaint_seconds", "Time the event dispatch thread spent updating or painting the board");
+
+	private EngineMetrics() {}
+
+	/**
+	 * Expose the metrics through JMX and start writing them to EXPORT_FILE
+	 */
+	public static void start() {
+		Metrics.registerMBean();
+		Metrics.startExport(EXPORT_FILE, EXPORT_PERIOD_SECONDS);
+	}
+}
@@ -4,8 +4,10 @@ import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
+import java.io.OutputStream;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -24,6 +26,9 @@ public class GameSerializer {
 
 	private GameSerializer() {}
 	
+	// the folder games are saved in
+	public static final File SAVE_FOLDER = new File("saved/");
+	
 	// have a single instance of saved games to be loaded
 	public static List<Game> savedGames = new ArrayList<Game>();
 	
@@ -35,21 +40,43 @@ public class GameSerializer {
 	}
 		
 	/**
-	 * Serialize a Game object.
+	 * Serialize a Game object into the saved games folder.
 	 * 
 	 * @param game
 	 */
 	public static boolean serialize(Game game) {
+		return serialize(game, SAVE_FOLDER);
+	}
+	
+	/**
+	 * Serialize a Game object into a folder.
+	 * 
+	 * @param game
+	 * @param folder the folder to save the game in
+	 */
+	public static boolean serialize(Game game, File folder) {
+		EngineEvents.SaveGame event = new EngineEvents.SaveGame();
+		event.begin();
+		long start = System.nanoTime();
 		try {
-			FileOutputStream fileOut = new FileOutputStream("saved/" + 
-											game.getLevelInfo().getName() + "-" + 
-											game.getTurns() + "-" + 
-											System.currentTimeMillis() + 
-											".ser");
-			ObjectOutputStream outStream = new ObjectOutputStream(fileOut);
-			outStream.writeObject(game);
-			outStream.close();
-			fileOut.close();
+			File file = new File(folder, 
+							game.getLevelInfo().getName() + "-" + 
+							game.getTurns() + "-" + 
+							System.currentTimeMillis() + 
+							".ser");
+			try (FileOutputStream fileOut = new FileOutputStream(file)) {
+				writeGame(game, fileOut);
+			}
+			
+			EngineMetrics.SAVE.recordSince(start);
+			event.end();
+			if (event.shouldCommit()) {
+				event.levelName = game.getLevelInfo().getName();
+				event.turn = game.getTurns();
+				event.file = file.getPath();
+				event.bytes = file.length();
+				event.commit();
+			}
 			
 			// store the saved game
 			savedGames.add(game);
@@ -62,30 +89,73 @@ public class GameSerializer {
 		}		
 	}
 	
+	/**
+	 * Write a Game object to a stream.
+	 * 
+	 * @param game
+	 * @param out the stream to write to, left open
+	 * @throws IOException
+	 */
+	public static void writeGame(Game game, OutputStream out) throws IOException {
+		ObjectOutputStream outStream = new ObjectOutputStream(out);
+		outStream.writeObject(game);
+		outStream.flush();
+	}
+	
+	/**
+	 * Read a Game object written by writeGame from a stream.
+	 * 
+	 * @param in the stream to read from, left open
+	 * @return the game, ready to be played
+	 * @throws IOException
+	 * @throws ClassNotFoundException
+	 */
+	public static Game readGame(InputStream in) throws IOException, ClassNotFoundException {
+		ObjectInputStream inStream = new ObjectInputStream(in);
+		Game game = (Game) inStream.readObject();
+		game.reImplementTransientFields();
+		return game;
+	}
+	
 	/**
 	 * Deserialize all saved games. 
 	 */
 	public static void deserialize() {
-		try {
-			File saveFolder = new File("saved/");	
-			saveFolder.mkdirs();
-			File[] serializedGameFiles = saveFolder.listFiles();
-			
-			for (File gameFile : serializedGameFiles) {
-				FileInputStream fileIn = new FileInputStream(gameFile);
-				ObjectInputStream in = new ObjectInputStream(fileIn);
-				Game game = (Game) in.readObject();
-				game.reImplementTransientFields();
-				savedGames.add(game);
-				in.close();
-				fileIn.close();
+		savedGames.addAll(deserialize(SAVE_FOLDER));
+	}
+	
+	/**
+	 * Deserialize all games saved in a folder.
+	 * 
+	 * @param folder the folder to load games from
+	 * @return the games loaded, without the ones that could not be read
+	 */
+	public static List<Game> deserialize(File folder) {
+		List<Game> games = new ArrayList<Game>();
+		EngineEvents.LoadGames event = new EngineEvents.LoadGames();
+		event.begin();
+		long start = System.nanoTime();
+		folder.mkdirs();
+		File[] serializedGameFiles = folder.listFiles();
+		
+		for (File gameFile : serializedGameFiles) {
+			//a file that cannot be read is skipped so the games saved after it still load
+			try (FileInputStream fileIn = new FileInputStream(gameFile)) {
+				games.add(readGame(fileIn));
+			} catch(IOException e) {
+				LOG.error("Failed to Deserialize Game " + gameFile.getName() + " - IO Exception");
+				e.printStackTrace();
+				continue;
+			} catch(ClassNotFoundException e) {
+				LOG.error("Failed to Deserialize Game " + gameFile.getName() + " - Class Not Found Exception");
+				e.printStackTrace();
+				continue;
 			}
-		} catch(IOException e) {
-			LOG.error("Failed to Deserialize Game - IO Exception");
-			e.printStackTrace();
-		} catch(ClassNotFoundException e) {
-			LOG.error("Failed to Deserialize Game - Class Not Found Exception");
-			e.printStackTrace();
+			event.games++;
+			event.bytes += gameFile.length();
 		}
+		EngineMetrics.LOAD.recordSince(start);
+		event.commit();
+		return games;
 	}
 }
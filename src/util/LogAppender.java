@@ -0,0 +1,149 @@
+package util;
+
+import java.io.PrintStream;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Writes log lines on a background thread so logging never waits on the console.
+ *
+ * Lines are queued in a bounded ring buffer. When the buffer is full new lines are dropped and counted
+ * instead of blocking the caller; the number of dropped lines is written once there is room again.
+ */
+final class LogAppender {
+	private static final int CAPACITY = 4096;
+	private static final String THREAD_NAME = "Log Writer";
+
+	private static final String[] prefixes = new String[CAPACITY];
+	private static final String[] messages = new String[CAPACITY];
+	private static final PrintStream[] streams = new PrintStream[CAPACITY];
+
+	private static final ReentrantLock lock = new ReentrantLock();
+	private static final Condition notEmpty = lock.newCondition();
+	private static final Condition empty = lock.newCondition();
+
+	//index of the next line to write and number of queued lines
+	private static int head = 0;
+	private static int count = 0;
+	private static long dropped = 0;
+	//true while the writer is printing lines it took from the buffer
+	private static boolean writing = false;
+
+	private static Thread writer;
+
+	private LogAppender() {}
+
+	/**
+	 * Queue a line to be written
+	 *
+	 * @param prefix the level and logger name
+	 * @param message the message
+	 * @param out the stream to write to
+	 */
+	static void append(String prefix, String message, PrintStream out) {
+		lock.lock();
+		try {
+			if (writer == null) {
+				start();
+			}
+			if (count == CAPACITY) {
+				dropped++;
+				return;
+			}
+			int tail = (head + count) % CAPACITY;
+			prefixes[tail] = prefix;
+			messages[tail] = message;
+			streams[tail] = out;
+			count++;
+			notEmpty.signal();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Wait until every queued line has been written
+	 */
+	static void flush() {
+		lock.lock();
+		try {
+			while (count > 0 || writing) {
+				empty.await();
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Get the number of lines dropped because the buffer was full
+	 *
+	 * @return the number of dropped lines
+	 */
+	static long getDropped() {
+		lock.lock();
+		try {
+			return dropped;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	private static void start() {
+		writer = new Thread(LogAppender::run, THREAD_NAME);
+		writer.setDaemon(true);
+		writer.start();
+		Runtime.getRuntime().addShutdownHook(new Thread(LogAppender::flush, "Log Flush"));
+	}
+
+	private static void run() {
+		String[] batchPrefixes = new String[CAPACITY];
+		String[] batchMessages = new String[CAPACITY];
+		PrintStream[] batchStreams = new PrintStream[CAPACITY];
+		long reportedDropped = 0;
+
+		while (true) {
+			int n;
+			long droppedNow;
+			lock.lock();
+			try {
+				writing = false;
+				if (count == 0) {
+					empty.signalAll();
+				}
+				while (count == 0) {
+					notEmpty.awaitUninterruptibly();
+				}
+				n = count;
+				for (int i = 0; i < n; i++) {
+					int index = (head + i) % CAPACITY;
+					batchPrefixes[i] = prefixes[index];
+					batchMessages[i] = messages[index];
+					batchStreams[i] = streams[index];
+					prefixes[index] = null;
+					messages[index] = null;
+					streams[index] = null;
+				}
+				head = (head + n) % CAPACITY;
+				count = 0;
+				droppedNow = dropped;
+				writing = true;
+			} finally {
+				lock.unlock();
+			}
+
+			for (int i = 0; i < n; i++) {
+				batchStreams[i].println(batchPrefixes[i] + batchMessages[i]);
+				batchPrefixes[i] = null;
+				batchMessages[i] = null;
+				batchStreams[i] = null;
+			}
+			if (droppedNow > reportedDropped) {
+				System.out.println("[WARN] - [Logger] : Log buffer full, dropped " + (droppedNow - reportedDropped) + " messages");
+				reportedDropped = droppedNow;
+			}
+		}
+	}
+}
@@ -1,86 +1,310 @@
 package util;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Supplier;
+
 /**
  * A Logger class that does output.
+ *
+ * Messages below the logger's level cost nothing: use the "{}" placeholder overloads or a Supplier
+ * instead of building the message with String.format or concatenation.
+ * Enabled messages are written by a background thread and each logger is rate limited,
+ * so turning debug output on does not slow down the game.
+ *
  * @author David Wang
  */
 public class Logger {
-	//is debug output enabled
-	private static boolean debug = false;
-	
+	public enum Level {
+		DEBUG,
+		INFO,
+		WARN,
+		ERROR
+	}
+
+	//the level of loggers without their own level
+	private static volatile Level rootLevel = Level.INFO;
+
+	//levels set for loggers by name, also applied to loggers created later
+	private static final Map<String, Level> levels = new ConcurrentHashMap<String, Level>();
+	private static final CopyOnWriteArrayList<Logger> loggers = new CopyOnWriteArrayList<Logger>();
+
+	//maximum messages per second written by each logger, 0 for no limit
+	private static volatile int rateLimit = 500;
+	private static final long RATE_WINDOW_NANOS = 1000000000L;
+
+	private final String name;
+	private volatile Level level;
+
 	private String debugPrefix = "[DEBUG] - ";
 	private String infoPrefix = "[INFO] - ";
 	private String warnPrefix = "[WARN] - ";
 	private String errorPrefix = "[ERROR] - ";
 	private String promptPrefix = "[PROMPT] - ";
-	
+
+	//rate limiting state, guarded by this logger
+	private long windowStart;
+	private int windowCount;
+	private int suppressed;
+
 	public Logger(String name) {
+		this.name = name;
+		this.level = levels.get(name);
 		debugPrefix += "[" + name + "] : ";
 		infoPrefix += "[" + name + "] : ";
 		warnPrefix += "[" + name + "] : ";
 		errorPrefix += "[" + name + "] : ";
 		promptPrefix += "[" + name.toUpperCase() + "] : ";
+		loggers.add(this);
 	}
-	
+
 	/**
 	 * Checks if debug output is enabled
 	 */
 	public static boolean isDebug() {
-		return debug;
+		return rootLevel == Level.DEBUG;
 	}
-	
+
 	/**
 	 * Enables debug output.
 	 */
 	public static void setDebug() {
-		debug = true;
+		rootLevel = Level.DEBUG;
 	}
 	/**
 	 * Disables debug output.
 	 */
 	public static void clearDebug() {
-		debug = false;
+		rootLevel = Level.INFO;
 	}
-	
+
+	/**
+	 * Sets the level of every logger with the given name
+	 * @param name the name of the logger
+	 * @param level the lowest level written, null to use the root level
+	 */
+	public static void setLevel(String name, Level level) {
+		if (level == null) {
+			levels.remove(name);
+		} else {
+			levels.put(name, level);
+		}
+		for (Logger logger : loggers) {
+			if (logger.name.equals(name)) {
+				logger.level = level;
+			}
+		}
+	}
+
+	/**
+	 * Sets the maximum number of messages each logger writes per second.
+	 * Extra messages are counted and reported with the next message written.
+	 * @param messagesPerSecond the limit, 0 for no limit
+	 */
+	public static void setRateLimit(int messagesPerSecond) {
+		rateLimit = messagesPerSecond;
+	}
+
+	/**
+	 * Waits until all messages logged so far have been written
+	 */
+	public static void flush() {
+		LogAppender.flush();
+	}
+
+	/**
+	 * Checks if messages of a level are written by this logger
+	 * @param level the level of the message
+	 * @return true if the message would be written, false otherwise
+	 */
+	public boolean isEnabled(Level level) {
+		Level threshold = this.level;
+		if (threshold == null) {
+			threshold = rootLevel;
+		}
+		return level.ordinal() >= threshold.ordinal();
+	}
+
+	/**
+	 * Checks if debug messages are written by this logger
+	 */
+	public boolean isDebugEnabled() {
+		return isEnabled(Level.DEBUG);
+	}
+
 	/**
 	 * Prints an Output String with a Debug Level
 	 * @param log Output String
 	 */
 	public void debug(String log) {
-		if(debug) {
-			System.out.println(debugPrefix + log);
+		if (isEnabled(Level.DEBUG)) {
+			write(debugPrefix, log);
 		}
 	}
-	
+
+	/**
+	 * Prints an Output String with a Debug Level. The message is only built if debug output is enabled.
+	 * @param log Output String supplier
+	 */
+	public void debug(Supplier<String> log) {
+		if (isEnabled(Level.DEBUG)) {
+			write(debugPrefix, log.get());
+		}
+	}
+
+	/**
+	 * Prints an Output String with a Debug Level. Each "{}" in the format is replaced by the next argument.
+	 * @param format Output String format
+	 * @param arg
+	 */
+	public void debug(String format, Object arg) {
+		if (isEnabled(Level.DEBUG)) {
+			write(debugPrefix, format(format, 1, arg, null, null, null));
+		}
+	}
+
+	public void debug(String format, Object arg1, Object arg2) {
+		if (isEnabled(Level.DEBUG)) {
+			write(debugPrefix, format(format, 2, arg1, arg2, null, null));
+		}
+	}
+
+	public void debug(String format, Object arg1, Object arg2, Object arg3) {
+		if (isEnabled(Level.DEBUG)) {
+			write(debugPrefix, format(format, 3, arg1, arg2, arg3, null));
+		}
+	}
+
+	public void debug(String format, Object arg1, Object arg2, Object arg3, Object arg4) {
+		if (isEnabled(Level.DEBUG)) {
+			write(debugPrefix, format(format, 4, arg1, arg2, arg3, arg4));
+		}
+	}
+
 	/**
 	 * Prints an Output String with a Info Level
 	 * @param log Output String
 	 */
 	public void info(String log) {
-		System.out.println(infoPrefix + log);
+		if (isEnabled(Level.INFO)) {
+			write(infoPrefix, log);
+		}
 	}
-	
+
+	public void info(String format, Object arg) {
+		if (isEnabled(Level.INFO)) {
+			write(infoPrefix, format(format, 1, arg, null, null, null));
+		}
+	}
+
+	public void info(String format, Object arg1, Object arg2) {
+		if (isEnabled(Level.INFO)) {
+			write(infoPrefix, format(format, 2, arg1, arg2, null, null));
+		}
+	}
+
 	/**
 	 * Prints an Output String with a Warning Level
 	 * @param log Output String
 	 */
 	public void warn(String log) {
-		System.out.println(warnPrefix + log);
+		if (isEnabled(Level.WARN)) {
+			write(warnPrefix, log);
+		}
+	}
+
+	public void warn(String format, Object arg) {
+		if (isEnabled(Level.WARN)) {
+			write(warnPrefix, format(format, 1, arg, null, null, null));
+		}
 	}
-	
+
+	public void warn(String format, Object arg1, Object arg2) {
+		if (isEnabled(Level.WARN)) {
+			write(warnPrefix, format(format, 2, arg1, arg2, null, null));
+		}
+	}
+
 	/**
 	 * Prints an Output String with an Error Level
 	 * @param log Output String
 	 */
 	public void error(String log) {
-		System.out.println(errorPrefix + log);
+		if (isEnabled(Level.ERROR)) {
+			write(errorPrefix, log);
+		}
+	}
+
+	public void error(String format, Object arg) {
+		if (isEnabled(Level.ERROR)) {
+			write(errorPrefix, format(format, 1, arg, null, null, null));
+		}
+	}
+
+	public void error(String format, Object arg1, Object arg2) {
+		if (isEnabled(Level.ERROR)) {
+			write(errorPrefix, format(format, 2, arg1, arg2, null, null));
+		}
 	}
-	
+
 	/**
-	 * Prints an Output String with a Prompt Level
+	 * Prints an Output String with a Prompt Level.
+	 * Prompts are written right away since the user is waiting on them.
 	 * @param log Output String
 	 */
 	public void prompt(String log) {
+		LogAppender.flush();
 		System.err.println(promptPrefix + log); //Using err makes this red and more noticable
 	}
-}
\ No newline at end of file
+
+	/**
+	 * Queue a message for the log writer unless this logger is over its rate limit
+	 */
+	private void write(String prefix, String message) {
+		int limit = rateLimit;
+		if (limit > 0) {
+			int skipped;
+			synchronized (this) {
+				long now = System.nanoTime();
+				if (now - windowStart >= RATE_WINDOW_NANOS) {
+					windowStart = now;
+					windowCount = 0;
+				}
+				if (++windowCount > limit) {
+					suppressed++;
+					return;
+				}
+				skipped = suppressed;
+				suppressed = 0;
+			}
+			if (skipped > 0) {
+				LogAppender.append(warnPrefix, "Rate limit reached, suppressed " + skipped + " messages", System.out);
+			}
+		}
+		LogAppender.append(prefix, message, System.out);
+	}
+
+	/**
+	 * Replace the "{}" placeholders in a format with the arguments
+	 */
+	private static String format(String format, int argCount, Object arg1, Object arg2, Object arg3, Object arg4) {
+		StringBuilder str = new StringBuilder(format.length() + 16 * argCount);
+		int start = 0;
+		int used = 0;
+		int index;
+		while (used < argCount && (index = format.indexOf("{}", start)) >= 0) {
+			str.append(format, start, index);
+			switch (used) {
+				case 0: str.append(arg1); break;
+				case 1: str.append(arg2); break;
+				case 2: str.append(arg3); break;
+				default: str.append(arg4); break;
+			}
+			used++;
+			start = index + 2;
+		}
+		str.append(format, start, format.length());
+		return str.toString();
+	}
+}
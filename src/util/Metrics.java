@@ -0,0 +1,502 @@
+package util;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import com.sun.management.ThreadMXBean;
+
+/**
+ * A registry of counters, gauges and histograms that are cheap enough to update all the time.
+ *
+ * Counters and histogram buckets are LongAdders so threads updating them do not contend, and histogram
+ * buckets are fixed when the histogram is created so recording a value never allocates.
+ * The registry can be read through JMX (see MetricsMXBean) and written to a file in the OpenMetrics text format.
+ */
+public final class Metrics {
+	private static Logger LOG = new Logger("Metrics");
+
+	public static final String OBJECT_NAME = "zombiesarevegan:type=Metrics";
+
+	//upper bounds of the default latency buckets in nanoseconds
+	private static final long[] LATENCY_BOUNDS = {
+		10000L, 50000L, 100000L, 500000L,
+		1000000L, 5000000L, 10000000L, 50000000L,
+		100000000L, 500000000L, 1000000000L, 5000000000L
+	};
+
+	//metric families by name, in the order they were registered
+	private static final Map<String, Family> families = new LinkedHashMap<String, Family>();
+
+	private static ScheduledExecutorService exporter;
+
+	//measures the bytes allocated by a thread, null if the JVM cannot
+	private static final ThreadMXBean threads = getThreadBean();
+
+	private Metrics() {}
+
+	private enum Type {
+		COUNTER("counter"),
+		GAUGE("gauge"),
+		HISTOGRAM("histogram");
+
+		private final String name;
+
+		Type(String name) {
+			this.name = name;
+		}
+	}
+
+	/**
+	 * All series of a metric with the same name
+	 */
+	private static final class Family {
+		private final String name;
+		private final String help;
+		private final Type type;
+		private final List<Metric> series = new ArrayList<Metric>();
+
+		private Family(String name, String help, Type type) {
+			this.name = name;
+			this.help = help;
+			this.type = type;
+		}
+	}
+
+	/**
+	 * A single series of a metric family
+	 */
+	public abstract static class Metric {
+		final String name;
+		final String labels;
+
+		private Metric(String name, String labels) {
+			this.name = name;
+			this.labels = labels;
+		}
+
+		/**
+		 * Get the name of the metric with its labels, as used in the OpenMetrics output
+		 */
+		public String getKey() {
+			return labels.isEmpty() ? name : name + "{" + labels + "}";
+		}
+	}
+
+	/**
+	 * A count that only goes up
+	 */
+	public static final class Counter extends Metric {
+		private final LongAdder value = new LongAdder();
+
+		private Counter(String name, String labels) {
+			super(name, labels);
+		}
+
+		public void increment() {
+			value.increment();
+		}
+
+		public void add(long amount) {
+			value.add(amount);
+		}
+
+		public long get() {
+			return value.sum();
+		}
+	}
+
+	/**
+	 * A value that is set to the current state
+	 */
+	public static final class Gauge extends Metric {
+		private final AtomicLong value = new AtomicLong();
+
+		private Gauge(String name, String labels) {
+			super(name, labels);
+		}
+
+		public void set(long value) {
+			this.value.set(value);
+		}
+
+		public long get() {
+			return value.get();
+		}
+	}
+
+	/**
+	 * A distribution of durations in fixed buckets
+	 */
+	public static final class Histogram extends Metric {
+		private final long[] bounds;
+		//buckets[i] counts values at most bounds[i] and above bounds[i-1], the last bucket counts the rest
+		private final LongAdder[] buckets;
+		private final LongAdder sum = new LongAdder();
+
+		private Histogram(String name, String labels, long[] bounds) {
+			super(name, labels);
+			this.bounds = bounds;
+			this.buckets = new LongAdder[bounds.length + 1];
+			for (int i = 0; i < buckets.length; i++) {
+				buckets[i] = new LongAdder();
+			}
+		}
+
+		/**
+		 * Record a duration
+		 * @param nanos the duration in nanoseconds
+		 */
+		public void record(long nanos) {
+			int i = 0;
+			while (i < bounds.length && nanos > bounds[i]) {
+				i++;
+			}
+			buckets[i].increment();
+			sum.add(nanos);
+		}
+
+		/**
+		 * Record the time since a start time
+		 * @param startNanos a value of System.nanoTime() taken at the start
+		 */
+		public void recordSince(long startNanos) {
+			record(System.nanoTime() - startNanos);
+		}
+
+		public long getCount() {
+			long count = 0;
+			for (LongAdder bucket : buckets) {
+				count += bucket.sum();
+			}
+			return count;
+		}
+
+		/**
+		 * Get the total of all recorded durations in nanoseconds
+		 */
+		public long getSum() {
+			return sum.sum();
+		}
+
+		/**
+		 * Get the mean recorded duration in milliseconds, 0 if nothing was recorded
+		 */
+		public double getMeanMillis() {
+			long count = getCount();
+			return count == 0 ? 0 : getSum() / 1e6 / count;
+		}
+	}
+
+	private static ThreadMXBean getThreadBean() {
+		java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+		if (bean instanceof ThreadMXBean && ((ThreadMXBean) bean).isThreadAllocatedMemorySupported()) {
+			ThreadMXBean threadBean = (ThreadMXBean) bean;
+			if (!threadBean.isThreadAllocatedMemoryEnabled()) {
+				threadBean.setThreadAllocatedMemoryEnabled(true);
+			}
+			return threadBean;
+		}
+		return null;
+	}
+
+	/**
+	 * Checks if the bytes allocated by a thread can be measured
+	 */
+	public static boolean isAllocationMeasured() {
+		return threads != null;
+	}
+
+	/**
+	 * Get the total number of bytes the current thread has allocated. Subtract two readings to get the
+	 * bytes allocated in between.
+	 * @return the bytes allocated so far, always 0 if allocations cannot be measured
+	 */
+	public static long allocatedBytes() {
+		return threads == null ? 0 : threads.getThreadAllocatedBytes(Thread.currentThread().getId());
+	}
+
+	/**
+	 * Get or create a counter
+	 * @param name the metric name, without the _total suffix
+	 * @param help a description of the metric
+	 * @param labels label name and value pairs
+	 * @return the counter
+	 */
+	public static Counter counter(String name, String help, String... labels) {
+		return (Counter) register(name, help, Type.COUNTER, labels, null);
+	}
+
+	/**
+	 * Get or create a gauge
+	 * @param name the metric name
+	 * @param help a description of the metric
+	 * @param labels label name and value pairs
+	 * @return the gauge
+	 */
+	public static Gauge gauge(String name, String help, String... labels) {
+		return (Gauge) register(name, help, Type.GAUGE, labels, null);
+	}
+
+	/**
+	 * Get or create a histogram of durations, exported in seconds
+	 * @param name the metric name
+	 * @param help a description of the metric
+	 * @param labels label name and value pairs
+	 * @return the histogram
+	 */
+	public static Histogram latency(String name, String help, String... labels) {
+		return (Histogram) register(name, help, Type.HISTOGRAM, labels, LATENCY_BOUNDS);
+	}
+
+	private static synchronized Metric register(String name, String help, Type type, String[] labels, long[] bounds) {
+		Family family = families.get(name);
+		if (family == null) {
+			family = new Family(name, help, type);
+			families.put(name, family);
+		} else if (family.type != type) {
+			throw new IllegalArgumentException(name + " is already registered as a " + family.type.name);
+		}
+
+		String labelText = formatLabels(labels);
+		for (Metric metric : family.series) {
+			if (metric.labels.equals(labelText)) {
+				return metric;
+			}
+		}
+
+		Metric metric;
+		switch (type) {
+			case COUNTER:
+				metric = new Counter(name, labelText);
+				break;
+			case GAUGE:
+				metric = new Gauge(name, labelText);
+				break;
+			default:
+				metric = new Histogram(name, labelText, bounds);
+				break;
+		}
+		family.series.add(metric);
+		return metric;
+	}
+
+	private static String formatLabels(String[] labels) {
+		if (labels.length % 2 != 0) {
+			throw new IllegalArgumentException("Labels must be name and value pairs");
+		}
+		StringBuilder str = new StringBuilder();
+		for (int i = 0; i < labels.length; i += 2) {
+			if (i > 0) {
+				str.append(',');
+			}
+			str.append(labels[i]).append("=\"").append(labels[i + 1].replace("\\", "\\\\").replace("\"", "\\\"")).append('"');
+		}
+		return str.toString();
+	}
+
+	/**
+	 * Get every series of a type by key
+	 */
+	static synchronized List<Metric> getMetrics(Class<? extends Metric> type) {
+		List<Metric> metrics = new ArrayList<Metric>();
+		for (Family family : families.values()) {
+			for (Metric metric : family.series) {
+				if (type.isInstance(metric)) {
+					metrics.add(metric);
+				}
+			}
+		}
+		return metrics;
+	}
+
+	/**
+	 * Write all metrics in the OpenMetrics text format
+	 * @param out the writer to write to
+	 * @throws IOException if the writer fails
+	 */
+	public static synchronized void writeOpenMetrics(Appendable out) throws IOException {
+		for (Family family : families.values()) {
+			out.append("# TYPE ").append(family.name).append(' ').append(family.type.name).append('\n');
+			out.append("# HELP ").append(family.name).append(' ').append(family.help).append('\n');
+			for (Metric metric : family.series) {
+				switch (family.type) {
+					case COUNTER:
+						writeSample(out, family.name + "_total", metric.labels, null, Long.toString(((Counter) metric).get()));
+						break;
+					case GAUGE:
+						writeSample(out, family.name, metric.labels, null, Long.toString(((Gauge) metric).get()));
+						break;
+					default:
+						writeHistogram(out, family.name, (Histogram) metric);
+						break;
+				}
+			}
+		}
+		out.append("# EOF\n");
+	}
+
+	private static void writeHistogram(Appendable out, String name, Histogram histogram) throws IOException {
+		long cumulative = 0;
+		for (int i = 0; i < histogram.bounds.length; i++) {
+			cumulative += histogram.buckets[i].sum();
+			writeSample(out, name + "_bucket", histogram.labels, "le=\"" + BigDecimal.valueOf(histogram.bounds[i], 9).stripTrailingZeros().toPlainString() + "\"", Long.toString(cumulative));
+		}
+		cumulative += histogram.buckets[histogram.bounds.length].sum();
+		writeSample(out, name + "_bucket", histogram.labels, "le=\"+Inf\"", Long.toString(cumulative));
+		writeSample(out, name + "_count", histogram.labels, null, Long.toString(cumulative));
+		writeSample(out, name + "_sum", histogram.labels, null, Double.toString(histogram.getSum() / 1e9));
+	}
+
+	private static void writeSample(Appendable out, String name, String labels, String extraLabel, String value) throws IOException {
+		out.append(name);
+		if (!labels.isEmpty() || extraLabel != null) {
+			out.append('{').append(labels);
+			if (extraLabel != null) {
+				if (!labels.isEmpty()) {
+					out.append(',');
+				}
+				out.append(extraLabel);
+			}
+			out.append('}');
+		}
+		out.append(' ').append(value).append('\n');
+	}
+
+	/**
+	 * Get all metrics in the OpenMetrics text format
+	 */
+	public static String toOpenMetrics() {
+		StringBuilder str = new StringBuilder();
+		try {
+			writeOpenMetrics(str);
+		} catch (IOException e) {
+			//a StringBuilder does not throw
+		}
+		return str.toString();
+	}
+
+	/**
+	 * Write all metrics to a file. The file is replaced in one step so readers never see half of it.
+	 * @param file the file to write
+	 * @return true if the file was written, false otherwise
+	 */
+	public static boolean export(File file) {
+		File dir = file.getAbsoluteFile().getParentFile();
+		try {
+			if (dir != null) {
+				dir.mkdirs();
+			}
+			File temp = new File(dir, file.getName() + ".tmp");
+			try (Writer out = Files.newBufferedWriter(temp.toPath(), StandardCharsets.UTF_8)) {
+				writeOpenMetrics(out);
+			}
+			Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			return true;
+		} catch (IOException e) {
+			LOG.warn("Failed to export metrics to {}: {}", file, e);
+			return false;
+		}
+	}
+
+	/**
+	 * Register the metrics with the platform MBean server under OBJECT_NAME
+	 * @return true if the MBean is registered, false otherwise
+	 */
+	public static boolean registerMBean() {
+		try {
+			MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+			ObjectName name = new ObjectName(OBJECT_NAME);
+			if (!server.isRegistered(name)) {
+				server.registerMBean(new MetricsBean(), name);
+			}
+			return true;
+		} catch (JMException e) {
+			LOG.warn("Failed to register metrics MBean: {}", e);
+			return false;
+		}
+	}
+
+	/**
+	 * Write the metrics to a file periodically and when the program exits
+	 * @param file the file to write
+	 * @param periodSeconds the seconds between writes
+	 */
+	public static synchronized void startExport(File file, long periodSeconds) {
+		if (exporter != null) {
+			return;
+		}
+		exporter = Executors.newSingleThreadScheduledExecutor(task -> {
+			Thread thread = new Thread(task, "Metrics Export");
+			thread.setDaemon(true);
+			return thread;
+		});
+		exporter.scheduleAtFixedRate(() -> export(file), periodSeconds, periodSeconds, TimeUnit.SECONDS);
+		Runtime.getRuntime().addShutdownHook(new Thread(() -> export(file), "Metrics Final Export"));
+		LOG.debug("Exporting metrics to {} every {} seconds", file, periodSeconds);
+	}
+
+	/**
+	 * The JMX view of the registry
+	 */
+	private static final class MetricsBean implements MetricsMXBean {
+		@Override
+		public Map<String, Long> getCounters() {
+			Map<String, Long> values = new LinkedHashMap<String, Long>();
+			for (Metric metric : getMetrics(Counter.class)) {
+				values.put(metric.getKey(), ((Counter) metric).get());
+			}
+			return values;
+		}
+
+		@Override
+		public Map<String, Long> getGauges() {
+			Map<String, Long> values = new LinkedHashMap<String, Long>();
+			for (Metric metric : getMetrics(Gauge.class)) {
+				values.put(metric.getKey(), ((Gauge) metric).get());
+			}
+			return values;
+		}
+
+		@Override
+		public Map<String, Long> getLatencyCounts() {
+			Map<String, Long> values = new LinkedHashMap<String, Long>();
+			for (Metric metric : getMetrics(Histogram.class)) {
+				values.put(metric.getKey(), ((Histogram) metric).getCount());
+			}
+			return values;
+		}
+
+		@Override
+		public Map<String, Double> getMeanLatencyMillis() {
+			Map<String, Double> values = new LinkedHashMap<String, Double>();
+			for (Metric metric : getMetrics(Histogram.class)) {
+				values.put(metric.getKey(), ((Histogram) metric).getMeanMillis());
+			}
+			return values;
+		}
+
+		@Override
+		public String getOpenMetrics() {
+			return toOpenMetrics();
+		}
+	}
+}
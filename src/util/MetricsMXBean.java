@@ -0,0 +1,33 @@
+package util;
+
+import java.util.Map;
+
+/**
+ * The JMX interface of the metrics registry. Keys are metric names with their labels.
+ */
+public interface MetricsMXBean {
+	/**
+	 * @return the value of every counter
+	 */
+	public Map<String, Long> getCounters();
+
+	/**
+	 * @return the value of every gauge
+	 */
+	public Map<String, Long> getGauges();
+
+	/**
+	 * @return the number of durations recorded by every histogram
+	 */
+	public Map<String, Long> getLatencyCounts();
+
+	/**
+	 * @return the mean duration in milliseconds of every histogram
+	 */
+	public Map<String, Double> getMeanLatencyMillis();
+
+	/**
+	 * @return all metrics in the OpenMetrics text format
+	 */
+	public String getOpenMetrics();
+}